@@ -0,0 +1,371 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.apache.tools.ant.BuildEvent;
+import org.apache.tools.ant.BuildListener;
+import org.apache.tools.ant.Task;
+import org.apache.tools.ant.UnknownElement;
+import org.dita.dost.ant.BuildListenerAdapter;
+import org.dita.dost.ant.ExtensibleAntInvoker;
+import org.dita.dost.util.Configuration;
+import org.dita.dost.util.Job;
+import org.dita.dost.util.Job.FileInfo;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.dita.dost.util.Constants.ANT_REFERENCE_JOB;
+import static org.dita.dost.util.URLUtils.toFile;
+import static org.dita.dost.util.URLUtils.toURI;
+
+/**
+ * Build cache for skipping up-to-date builds.
+ *
+ * <p>After a successful build, the cache records a manifest with a fingerprint of the build parameters and the
+ * installed plug-ins, content signatures of all source files in the job configuration and of files referenced by
+ * build parameters, and the files in the output directory. A later build with the same input, output directory and
+ * transtype is up to date if the fingerprint matches, no source file has changed content and all output files are
+ * still present and unmodified.</p>
+ *
+ * <p>Plug-ins are fingerprinted with the integration configuration and the path, size and last modified time of
+ * every file in the plug-in directories, so checking the cache does not read plug-in file contents. Build parameter
+ * values are resolved against the DITA-OT installation directory, the base directory of the build, and directory
+ * values are recorded with all files they contain.</p>
+ *
+ * <p>Source files are collected from the job configuration of the build while the build runs, see
+ * {@link #getListener()}. Files that are removed from the job configuration during the build, e.g. topics excluded
+ * by filtering, are recorded as source files too. The job configuration is read from the build's own store, so
+ * stores that do not write to the file system are supported. If no source files were collected, the build is not
+ * cached.</p>
+ *
+ * <p>Source files are compared by size and last modified time first, and by SHA-256 content hash only if either
+ * has changed.</p>
+ *
+ * @since 4.1
+ */
+final class BuildCache {
+
+    private static final String PREFIX_SOURCE = "source.";
+    private static final String PREFIX_OUTPUT = "output.";
+    private static final String FINGERPRINT = "fingerprint";
+    /** Build parameters that differ between runs of the same build. */
+    private static final Set<String> VOLATILE_PARAMETERS = Set.of("dita.temp.dir", "clean.temp");
+    private static final String CONF_PLUGIN_DIRS = "plugindirs";
+
+    private final File manifestFile;
+    private final File ditaDir;
+    private final File outputDir;
+    private final String fingerprint;
+    private final Map<String, String> args;
+    /** Source files collected during the build. */
+    private final Set<URI> sources = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Create build cache.
+     *
+     * @param cacheDir build cache directory
+     * @param ditaDir DITA-OT installation directory
+     * @param args build parameters
+     */
+    BuildCache(final File cacheDir, final File ditaDir, final Map<String, String> args) {
+        this.ditaDir = ditaDir.getAbsoluteFile();
+        this.args = new TreeMap<>(args);
+        VOLATILE_PARAMETERS.forEach(this.args::remove);
+        final String output = args.get("output.dir");
+        this.outputDir = output.startsWith("file:") ? toFile(toURI(output)) : new File(output);
+        final String key = Hashing.sha256()
+                .hashString(args.get("args.input") + '\n' + outputDir + '\n' + args.get("transtype"), UTF_8)
+                .toString();
+        this.manifestFile = new File(cacheDir, key + ".properties");
+        final Hasher hasher = Hashing.sha256().newHasher();
+        this.args.forEach((name, value) -> hasher.putString(name, UTF_8).putByte((byte) 0)
+                .putString(value, UTF_8).putByte((byte) 0));
+        final File plugins = new File(ditaDir, "config" + File.separator + "plugins.xml");
+        hasher.putString(plugins.exists() ? signature(plugins) : "", UTF_8);
+        final String pluginDirs = Configuration.configuration.getOrDefault(CONF_PLUGIN_DIRS, "plugins;demo");
+        for (final String pluginDir : pluginDirs.split(";")) {
+            putPluginDir(hasher, pluginDir.trim());
+        }
+        this.fingerprint = hasher.hash().toString();
+    }
+
+    /**
+     * Add path, size and last modified time of files in plug-in directory to fingerprint.
+     */
+    private void putPluginDir(final Hasher hasher, final String pluginDir) {
+        if (pluginDir.isEmpty()) {
+            return;
+        }
+        final File dir = new File(pluginDir).isAbsolute() ? new File(pluginDir) : new File(ditaDir, pluginDir);
+        if (!dir.isDirectory()) {
+            return;
+        }
+        final Path base = dir.toPath();
+        try (Stream<Path> files = Files.walk(base)) {
+            files.filter(Files::isRegularFile)
+                    .sorted()
+                    .forEach(file -> hasher.putString(base.relativize(file).toString(), UTF_8).putByte((byte) 0)
+                            .putLong(file.toFile().length())
+                            .putLong(file.toFile().lastModified()));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Test if the previous build is up to date.
+     *
+     * @return {@code true} if the build can be skipped, otherwise {@code false}
+     */
+    boolean isUpToDate() {
+        final Properties manifest = new Properties();
+        if (!manifestFile.exists()) {
+            return false;
+        }
+        try (InputStream in = new FileInputStream(manifestFile)) {
+            manifest.load(in);
+        } catch (final IOException e) {
+            return false;
+        }
+        if (!fingerprint.equals(manifest.getProperty(FINGERPRINT))) {
+            return false;
+        }
+        for (final String name : manifest.stringPropertyNames()) {
+            final String value = manifest.getProperty(name);
+            if (name.startsWith(PREFIX_SOURCE)) {
+                final File file = new File(name.substring(PREFIX_SOURCE.length()));
+                if (!isUnchanged(file, value)) {
+                    return false;
+                }
+            } else if (name.startsWith(PREFIX_OUTPUT)) {
+                final File file = new File(outputDir, name.substring(PREFIX_OUTPUT.length()));
+                if (!isUnmodified(file, value)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get build listener that collects source files from the job configuration of the build after each pipeline
+     * task and each target. Pipeline modules may remove files from the job configuration within a single target, so
+     * collecting only after targets would miss them.
+     *
+     * @return build listener to add to the build project
+     */
+    BuildListener getListener() {
+        return new BuildListenerAdapter() {
+            @Override
+            public void targetFinished(final BuildEvent event) {
+                collect(event);
+            }
+
+            @Override
+            public void taskFinished(final BuildEvent event) {
+                if (isPipeline(event.getTask())) {
+                    collect(event);
+                }
+            }
+
+            private void collect(final BuildEvent event) {
+                final Job job = event.getProject().getReference(ANT_REFERENCE_JOB);
+                if (job != null) {
+                    addSources(job);
+                }
+            }
+        };
+    }
+
+    private static boolean isPipeline(final Task task) {
+        final Object real = task instanceof final UnknownElement element ? element.getRealThing() : task;
+        return real instanceof ExtensibleAntInvoker;
+    }
+
+    /**
+     * Collect source files from job configuration.
+     *
+     * @param job job configuration
+     */
+    void addSources(final Job job) {
+        for (final FileInfo fi : job.getFileInfo()) {
+            if (fi.src != null) {
+                sources.add(fi.src);
+            }
+        }
+    }
+
+    /**
+     * Record manifest of a successful build.
+     *
+     * @param tempDir temporary directory of the build
+     * @throws IOException if writing manifest failed
+     */
+    void store(final File tempDir) throws IOException {
+        if (sources.isEmpty()) {
+            // Job configuration was not available, build cannot be validated
+            Files.deleteIfExists(manifestFile.toPath());
+            return;
+        }
+        final Set<File> sourceFiles = new TreeSet<>();
+        for (final URI source : sources) {
+            if (!"file".equals(source.getScheme())) {
+                // Remote sources cannot be validated, never cache the build
+                Files.deleteIfExists(manifestFile.toPath());
+                return;
+            }
+            final File src = toFile(source);
+            if (!src.toPath().startsWith(tempDir.toPath())) {
+                sourceFiles.add(src);
+            }
+        }
+        for (final String value : args.values()) {
+            for (final String token : value.split(File.pathSeparator)) {
+                addParameterFiles(sourceFiles, token, tempDir);
+            }
+        }
+
+        final Properties manifest = new Properties();
+        manifest.setProperty(FINGERPRINT, fingerprint);
+        for (final File source : sourceFiles) {
+            if (source.isFile()) {
+                manifest.setProperty(PREFIX_SOURCE + source.getAbsolutePath(), signature(source));
+            }
+        }
+        if (outputDir.isDirectory()) {
+            final Path base = outputDir.toPath();
+            try (Stream<Path> files = Files.walk(base)) {
+                files.filter(Files::isRegularFile).forEach(file -> manifest.setProperty(
+                        PREFIX_OUTPUT + base.relativize(file).toString().replace(File.separatorChar, '/'),
+                        file.toFile().length() + " " + file.toFile().lastModified()));
+            }
+        }
+
+        Files.createDirectories(manifestFile.getParentFile().toPath());
+        final File tmp = new File(manifestFile.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            manifest.store(out, null);
+        }
+        Files.move(tmp.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Add local files referenced by build parameter value. Directories are walked for the files they contain.
+     * Files in the output and temporary directories, and directories that contain them or the DITA-OT installation,
+     * are ignored.
+     */
+    private void addParameterFiles(final Set<File> sourceFiles, final String value, final File tempDir)
+            throws IOException {
+        final File file = toParameterFile(value);
+        if (file == null) {
+            return;
+        }
+        final Path path = file.toPath();
+        final Path output = outputDir.getAbsoluteFile().toPath().normalize();
+        final Path temp = tempDir.getAbsoluteFile().toPath().normalize();
+        if (path.startsWith(output) || path.startsWith(temp)) {
+            return;
+        }
+        if (file.isFile()) {
+            sourceFiles.add(file);
+        } else if (file.isDirectory()
+                && !output.startsWith(path) && !temp.startsWith(path) && !ditaDir.toPath().startsWith(path)) {
+            try (Stream<Path> files = Files.walk(path)) {
+                files.filter(Files::isRegularFile).forEach(f -> sourceFiles.add(f.toFile()));
+            }
+        }
+    }
+
+    /**
+     * Get local file referenced by build parameter value. Relative paths are resolved against the DITA-OT
+     * installation directory.
+     *
+     * @return absolute normalized file, {@code null} if value does not reference an existing local file or directory
+     */
+    private File toParameterFile(final String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        File file;
+        if (value.startsWith("file:")) {
+            final URI uri = toURI(value);
+            file = uri != null && uri.isAbsolute() ? toFile(uri) : null;
+        } else {
+            file = new File(value);
+        }
+        if (file == null) {
+            return null;
+        }
+        if (!file.isAbsolute()) {
+            file = new File(ditaDir, file.getPath());
+        }
+        try {
+            file = file.toPath().normalize().toFile();
+        } catch (final InvalidPathException e) {
+            return null;
+        }
+        return file.exists() ? file : null;
+    }
+
+    /**
+     * Test if output file matches size and last modified time.
+     */
+    private static boolean isUnmodified(final File file, final String signature) {
+        if (!file.isFile()) {
+            return false;
+        }
+        final String[] tokens = signature.split(" ");
+        return tokens.length == 2
+                && file.length() == Long.parseLong(tokens[0])
+                && file.lastModified() == Long.parseLong(tokens[1]);
+    }
+
+    /**
+     * Test if file matches signature.
+     */
+    private static boolean isUnchanged(final File file, final String signature) {
+        if (!file.isFile()) {
+            return false;
+        }
+        final String[] tokens = signature.split(" ");
+        if (file.length() == Long.parseLong(tokens[0]) && file.lastModified() == Long.parseLong(tokens[1])) {
+            return true;
+        }
+        try {
+            return tokens[2].equals(hash(file));
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Get file signature with size, last modified time and content hash.
+     */
+    private static String signature(final File file) {
+        try {
+            return file.length() + " " + file.lastModified() + " " + hash(file);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String hash(final File file) throws IOException {
+        return com.google.common.io.Files.asByteSource(file).hash(Hashing.sha256()).toString();
+    }
+}
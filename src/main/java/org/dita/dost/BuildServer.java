@@ -0,0 +1,251 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.util.Configuration;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Long-lived build server. The server accepts build requests over HTTP and runs them in the same JVM, so that
+ * plug-in configuration, compiled stylesheets, catalog resolver and grammar pool are shared between builds. Each
+ * build runs with its own {@link Processor}, temporary directory and logger.
+ *
+ * <p>Builds are requested with {@code POST /build}. The request body is a Java properties file with build parameters
+ * that must include {@code transtype}, {@code args.input} and {@code output.dir}. The response body is the build log
+ * and the status is {@code 200} on success, {@code 400} for invalid requests and {@code 500} for failed builds.</p>
+ *
+ * <p>Builds read and write files with the permissions of the server process, so the server only binds to loopback
+ * addresses by default. Binding to any other address requires a shared token that clients must send in an
+ * {@code Authorization: Bearer} header; requests without a matching token are rejected with status {@code 401}.</p>
+ *
+ * @since 4.1
+ */
+public final class BuildServer {
+
+    static final String PATH_BUILD = "/build";
+    private static final String PARAM_TRANSTYPE = "transtype";
+    private static final String PARAM_INPUT = "args.input";
+    private static final String PARAM_OUTPUT = "output.dir";
+
+    private final ProcessorFactory processorFactory;
+    private final byte[] token;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Create build server without authentication.
+     *
+     * @param processorFactory processor factory for builds
+     * @param address loopback socket address to bind to
+     * @param threads maximum number of concurrent builds
+     * @throws IOException if binding to address failed
+     * @throws IllegalArgumentException if address is not a loopback address
+     */
+    public BuildServer(final ProcessorFactory processorFactory, final InetSocketAddress address, final int threads)
+            throws IOException {
+        this(processorFactory, address, threads, null);
+    }
+
+    /**
+     * Create build server.
+     *
+     * @param processorFactory processor factory for builds
+     * @param address socket address to bind to
+     * @param threads maximum number of concurrent builds
+     * @param token shared token required from clients, may be {@code null} only for loopback addresses
+     * @throws IOException if binding to address failed
+     * @throws IllegalArgumentException if address is not a loopback address and token is not set
+     */
+    public BuildServer(final ProcessorFactory processorFactory, final InetSocketAddress address, final int threads,
+                       final String token) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+        }
+        if ((token == null || token.isEmpty())
+                && (address.getAddress() == null || !address.getAddress().isLoopbackAddress())) {
+            throw new IllegalArgumentException("Token is required when not listening on a loopback address: "
+                    + address.getHostString());
+        }
+        this.processorFactory = processorFactory;
+        this.token = token != null && !token.isEmpty() ? ("Bearer " + token).getBytes(UTF_8) : null;
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext(PATH_BUILD, this::handleBuild);
+    }
+
+    /**
+     * Start accepting build requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stop accepting build requests and wait for running builds to complete.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get address the server is bound to.
+     *
+     * @return server socket address
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    private void handleBuild(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!isAuthorized(exchange)) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+                send(exchange, 401, "Unauthorized");
+                return;
+            }
+            if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                send(exchange, 405, "Method not allowed");
+                return;
+            }
+            final Map<String, String> params = readParameters(exchange.getRequestBody());
+            final Processor processor;
+            try {
+                processor = createProcessor(params);
+            } catch (final IllegalArgumentException e) {
+                send(exchange, 400, e.getMessage());
+                return;
+            }
+
+            final ByteArrayOutputStream log = new ByteArrayOutputStream();
+            final ch.qos.logback.classic.Logger logger = openLogger(log);
+            int status = 200;
+            try {
+                processor.setLogger(logger).run();
+            } catch (final DITAOTException | RuntimeException e) {
+                status = 500;
+                logger.error(e.getMessage() != null ? e.getMessage() : e.toString());
+            } finally {
+                logger.detachAndStopAllAppenders();
+            }
+            send(exchange, status, log.toString(UTF_8));
+        }
+    }
+
+    private boolean isAuthorized(final HttpExchange exchange) {
+        if (token == null) {
+            return true;
+        }
+        final String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        return authorization != null && MessageDigest.isEqual(token, authorization.getBytes(UTF_8));
+    }
+
+    private Map<String, String> readParameters(final InputStream in) throws IOException {
+        final Properties props = new Properties();
+        props.load(new InputStreamReader(in, UTF_8));
+        final Map<String, String> params = new HashMap<>();
+        for (final String name : props.stringPropertyNames()) {
+            params.put(name, props.getProperty(name));
+        }
+        return params;
+    }
+
+    private Processor createProcessor(final Map<String, String> params) {
+        final String transtype = params.remove(PARAM_TRANSTYPE);
+        final String input = params.remove(PARAM_INPUT);
+        final String output = params.remove(PARAM_OUTPUT);
+        if (transtype == null) {
+            throw new IllegalArgumentException("Transtype not defined");
+        }
+        if (!Configuration.transtypes.contains(transtype)) {
+            throw new IllegalArgumentException("Transtype " + transtype + " not supported");
+        }
+        if (input == null) {
+            throw new IllegalArgumentException("Input file not defined");
+        }
+        if (output == null) {
+            throw new IllegalArgumentException("Output directory not defined");
+        }
+        final Processor processor = processorFactory.newProcessor(transtype)
+                .setInput(toUri(input))
+                .setProperties(params)
+                .createDebugLog(false);
+        if (output.startsWith("file:")) {
+            processor.setOutputDir(URI.create(output));
+        } else {
+            processor.setOutputDir(new File(output));
+        }
+        return processor;
+    }
+
+    private static URI toUri(final String value) {
+        final URI uri = URI.create(value);
+        return uri.isAbsolute() ? uri : new File(value).toURI();
+    }
+
+    private ch.qos.logback.classic.Logger openLogger(final OutputStream out) {
+        final LoggerContext loggerContext = new LoggerContext();
+
+        final OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(loggerContext);
+        appender.setImmediateFlush(true);
+
+        final PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("[%-5level] %msg%n");
+        encoder.setCharset(UTF_8);
+        encoder.start();
+
+        appender.setEncoder(encoder);
+        appender.setOutputStream(out);
+        appender.start();
+
+        final ch.qos.logback.classic.Logger logger = loggerContext.getLogger(getClass().getCanonicalName());
+        logger.addAppender(appender);
+        logger.setLevel(Level.INFO);
+        return logger;
+    }
+
+    private void send(final HttpExchange exchange, final int status, final String body) throws IOException {
+        final byte[] bytes = body.getBytes(UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
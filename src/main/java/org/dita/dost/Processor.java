@@ -17,6 +17,7 @@ import org.slf4j.Logger;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Vector;
@@ -31,6 +32,7 @@ public final class Processor {
     private Logger logger;
     private boolean cleanOnFailure = true;
     private boolean createDebugLog = true;
+    private File buildCacheDir;
 
     Processor(final File ditaDir, final String transtype, final Map<String, String> args) {
         this.ditaDir = ditaDir;
@@ -162,6 +164,21 @@ public final class Processor {
     }
 
 
+    /**
+     * Set build cache directory. When set, the build is skipped if the previous build with the same input, output
+     * directory and transtype is up to date. By default build cache is not used.
+     *
+     * @param buildCacheDir absolute build cache directory, {@code null} to disable build cache
+     * @return this Process object
+     */
+    public Processor setBuildCacheDir(final File buildCacheDir) {
+        if (buildCacheDir != null && !buildCacheDir.isAbsolute()) {
+            throw new IllegalArgumentException("Build cache directory path must be absolute: " + buildCacheDir);
+        }
+        this.buildCacheDir = buildCacheDir;
+        return this;
+    }
+
     /**
      * Set error recovery mode.
      *
@@ -185,15 +202,23 @@ public final class Processor {
         if (!args.containsKey("output.dir")) {
             throw new IllegalStateException("Output directory not set");
         }
+        final BuildCache buildCache = buildCacheDir != null ? new BuildCache(buildCacheDir, ditaDir, args) : null;
+        if (buildCache != null && buildCache.isUpToDate()) {
+            if (logger != null) {
+                logger.info("Output " + args.get("output.dir") + " is up to date, skipping build");
+            }
+            return;
+        }
         final File tempDir = getTempDir();
         args.put("dita.temp.dir", tempDir.getAbsolutePath());
         boolean cleanTemp = true;
 
         final ch.qos.logback.classic.Logger debugLogger = createDebugLog ? openDebugLogger(tempDir) : null;
 
+        final Project project = new Project();
+        Throwable failure = null;
         try {
             final File buildFile = new File(ditaDir, "build.xml");
-            final Project project = new Project();
             project.setCoreLoader(this.getClass().getClassLoader());
 
             if (logger != null) {
@@ -202,6 +227,9 @@ public final class Processor {
             if (debugLogger != null) {
                 project.addBuildListener(new LoggerListener(debugLogger));
             }
+            if (buildCache != null) {
+                project.addBuildListener(buildCache.getListener());
+            }
 
             project.fireBuildStarted();
             project.init();
@@ -216,9 +244,25 @@ public final class Processor {
             targets.addElement("dita2" + args.get("transtype"));
             project.executeTargets(targets);
         } catch (final BuildException e) {
+            failure = e;
             cleanTemp = cleanOnFailure;
             throw new DITAOTException(e);
+        } catch (final RuntimeException | Error e) {
+            failure = e;
+            cleanTemp = cleanOnFailure;
+            throw e;
         } finally {
+            // Build listeners release per-build resources, e.g. executors, so build must always be finished
+            project.fireBuildFinished(failure);
+            if (failure == null && buildCache != null) {
+                try {
+                    buildCache.store(tempDir);
+                } catch (final IOException | RuntimeException e) {
+                    if (logger != null) {
+                        logger.warn("Failed to store build cache: " + e.getMessage());
+                    }
+                }
+            }
             if (debugLogger != null) {
                 closeDebugLogger(debugLogger);
             }
@@ -266,13 +310,13 @@ public final class Processor {
         File tempDir;
         for (int i = 0; i < 10; i++) {
             tempDir = new File(baseTempDir, Long.toString(System.currentTimeMillis()));
-            if (!tempDir.exists()) {
-                try {
-                    FileUtils.forceMkdir(tempDir);
-                    return tempDir;
-                } catch (IOException e) {
-                    // Ignore
-                }
+            try {
+                FileUtils.forceMkdir(baseTempDir);
+                // Atomic creation, concurrent builds must not share a temporary directory
+                Files.createDirectory(tempDir.toPath());
+                return tempDir;
+            } catch (IOException e) {
+                // Ignore
             }
             try {
                 Thread.sleep(10);
@@ -0,0 +1,54 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.ant;
+
+import org.apache.tools.ant.BuildEvent;
+import org.apache.tools.ant.BuildListener;
+
+/**
+ * Build listener with empty event handlers.
+ *
+ * @since 4.1
+ */
+public abstract class BuildListenerAdapter implements BuildListener {
+
+    @Override
+    public void buildStarted(final BuildEvent event) {
+        // NOOP
+    }
+
+    @Override
+    public void buildFinished(final BuildEvent event) {
+        // NOOP
+    }
+
+    @Override
+    public void targetStarted(final BuildEvent event) {
+        // NOOP
+    }
+
+    @Override
+    public void targetFinished(final BuildEvent event) {
+        // NOOP
+    }
+
+    @Override
+    public void taskStarted(final BuildEvent event) {
+        // NOOP
+    }
+
+    @Override
+    public void taskFinished(final BuildEvent event) {
+        // NOOP
+    }
+
+    @Override
+    public void messageLogged(final BuildEvent event) {
+        // NOOP
+    }
+}
@@ -25,6 +25,7 @@ import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Task;
 import org.apache.tools.ant.util.FileUtils;
 import org.dita.dost.util.Job;
+import org.dita.dost.util.Job.FileInfoQuery;
 
 /**
  * Class description goes here.
@@ -137,7 +138,7 @@ public final class DITAOTCopy extends Task {
         if (includes == null && includesFile == null) {
             final Job job = getProject().getReference(ANT_REFERENCE_JOB);
             return job
-                    .getFileInfo(fi -> fi.isFlagImage)
+                    .getFileInfo(FileInfoQuery.FLAG_IMAGE)
                     .stream()
                     .map(fi -> fi.file.toString())
                     .collect(Collectors.toList());
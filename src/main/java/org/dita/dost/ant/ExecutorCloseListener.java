@@ -0,0 +1,31 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.ant;
+
+import org.apache.tools.ant.BuildEvent;
+import org.dita.dost.module.PipelineExecutor;
+
+/**
+ * Shut down pipeline executor when build finishes.
+ *
+ * @since 4.1
+ */
+final class ExecutorCloseListener extends BuildListenerAdapter {
+
+    private final PipelineExecutor executor;
+
+    ExecutorCloseListener(final PipelineExecutor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void buildFinished(final BuildEvent event) {
+        event.getProject().removeBuildListener(this);
+        executor.close();
+    }
+}
@@ -17,6 +17,7 @@ import org.dita.dost.log.DITAOTAntLogger;
 import org.dita.dost.log.MessageUtils;
 import org.dita.dost.module.AbstractPipelineModule;
 import org.dita.dost.module.ModuleFactory;
+import org.dita.dost.module.PipelineExecutor;
 import org.dita.dost.module.XmlFilterModule;
 import org.dita.dost.module.XmlFilterModule.FilterPair;
 import org.dita.dost.module.XsltModule;
@@ -26,6 +27,8 @@ import org.dita.dost.store.StreamStore;
 import org.dita.dost.util.Constants;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.Job.FileInfoQuery;
+import org.dita.dost.util.Job.FileInfoQuery.Flag;
 import org.dita.dost.util.XMLUtils;
 import org.dita.dost.writer.AbstractXMLFilter;
 
@@ -51,6 +54,11 @@ import static org.dita.dost.util.URLUtils.toFile;
  */
 public final class ExtensibleAntInvoker extends Task {
 
+    /** Module executor type for the build executor. */
+    static final String EXECUTOR_DEFAULT = "default";
+    /** Module executor type for I/O bound work on virtual threads. */
+    static final String EXECUTOR_VIRTUAL = "virtual";
+
     private DITAOTAntLogger logger;
     private final ModuleFactory factory = ModuleFactory.instance();
     /**
@@ -186,6 +194,7 @@ public final class ExtensibleAntInvoker extends Task {
                 mod.setLogger(logger);
                 mod.setJob(job);
                 mod.setXmlUtils(xmlUtils);
+                mod.setExecutor(getExecutor(m));
                 mod.execute(pipelineInput);
                 long end = System.currentTimeMillis();
                 logger.debug("{0} processing took {1} ms", mod.getClass().getSimpleName(), end - start);
@@ -283,17 +292,10 @@ public final class ExtensibleAntInvoker extends Task {
         if (filters.isEmpty()) {
             return f -> true;
         }
-        final List<Predicate<FileInfo>> res = filters.stream()
+        return filters.stream()
                 .map(FileInfoFilterElem::toFilter)
-                .collect(Collectors.toList());
-        return f -> {
-            for (final Predicate<FileInfo> filter : res) {
-                if (filter.test(f)) {
-                    return true;
-                }
-            }
-            return false;
-        };
+                .reduce(FileInfoQuery::or)
+                .get();
     }
 
     /**
@@ -364,6 +366,26 @@ public final class ExtensibleAntInvoker extends Task {
         return xmlUtils;
     }
 
+    /**
+     * Get pipeline executor for module. Uses executor from Ant project reference or the common executor by default.
+     *
+     * @param m module configuration
+     * @return pipeline executor
+     */
+    private PipelineExecutor getExecutor(final ModuleElem m) {
+        if (EXECUTOR_VIRTUAL.equals(m.executor)) {
+            PipelineExecutor executor = getProject().getReference(ANT_REFERENCE_IO_EXECUTOR);
+            if (executor == null) {
+                executor = PipelineExecutor.newIoExecutor();
+                getProject().addReference(ANT_REFERENCE_IO_EXECUTOR, executor);
+                getProject().addBuildListener(new ExecutorCloseListener(executor));
+            }
+            return executor;
+        }
+        final PipelineExecutor executor = getProject().getReference(ANT_REFERENCE_EXECUTOR);
+        return executor != null ? executor : PipelineExecutor.getCommon();
+    }
+
     private Set<File> readListFile(final List<IncludesFileElem> includes, final DITAOTAntLogger logger) {
         final Set<File> inc = new HashSet<>();
         for (final IncludesFileElem i : includes) {
@@ -412,6 +434,7 @@ public final class ExtensibleAntInvoker extends Task {
         private Project project;
         private Location location;
         protected boolean parallel;
+        protected String executor;
 
         public void setClass(final Class<? extends AbstractPipelineModule> cls) {
             this.cls = cls;
@@ -474,6 +497,20 @@ public final class ExtensibleAntInvoker extends Task {
             this.parallel = parallel;
         }
 
+        /**
+         * Set executor for parallel processing. Executor is only used when parallel processing is enabled.
+         *
+         * @param executor executor type, {@value ExtensibleAntInvoker#EXECUTOR_DEFAULT} or
+         *                 {@value ExtensibleAntInvoker#EXECUTOR_VIRTUAL}
+         */
+        public void setExecutor(final String executor) {
+            switch (executor) {
+                case EXECUTOR_DEFAULT -> this.executor = null;
+                case EXECUTOR_VIRTUAL -> this.executor = executor;
+                default -> throw new BuildException("Unsupported executor " + executor);
+            }
+        }
+
     }
 
     /**
@@ -662,12 +699,28 @@ public final class ExtensibleAntInvoker extends Task {
             this.isResourceOnly = processingRole.equals(Constants.ATTR_PROCESSING_ROLE_VALUE_RESOURCE_ONLY);
         }
 
-        public Predicate<FileInfo> toFilter() {
-            return f -> (formats.isEmpty() || formats.contains(f.format != null ? f.format : ATTR_FORMAT_VALUE_DITA)) &&
-                    (hasConref == null || f.hasConref == hasConref) &&
-                    (isInput == null || f.isInput == isInput) &&
-                    (isInputResource == null || f.isInputResource == isInputResource) &&
-                    (isResourceOnly == null || f.isResourceOnly == isResourceOnly);
+        public FileInfoQuery toFilter() {
+            FileInfoQuery res = FileInfoQuery.ALL;
+            if (!formats.isEmpty()) {
+                final Set<String> fs = new HashSet<>(formats);
+                if (formats.contains(ATTR_FORMAT_VALUE_DITA)) {
+                    fs.add(null);
+                }
+                res = res.and(FileInfoQuery.format(fs));
+            }
+            if (hasConref != null) {
+                res = res.and(FileInfoQuery.flag(Flag.HAS_CONREF, hasConref));
+            }
+            if (isInput != null) {
+                res = res.and(FileInfoQuery.flag(Flag.INPUT, isInput));
+            }
+            if (isInputResource != null) {
+                res = res.and(FileInfoQuery.flag(Flag.INPUT_RESOURCE, isInputResource));
+            }
+            if (isResourceOnly != null) {
+                res = res.and(FileInfoQuery.flag(Flag.RESOURCE_ONLY, isResourceOnly));
+            }
+            return res;
         }
     }
 
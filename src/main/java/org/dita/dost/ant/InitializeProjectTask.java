@@ -11,13 +11,16 @@ import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.Task;
 import org.dita.dost.log.DITAOTAntLogger;
+import org.dita.dost.module.PipelineExecutor;
 import org.dita.dost.store.Store;
 import org.dita.dost.store.StoreBuilder;
 import org.dita.dost.util.CatalogUtils;
 import org.dita.dost.util.XMLUtils;
 
 import java.io.File;
+import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.stream.Collectors;
 
 import static org.dita.dost.util.Constants.*;
 import static org.dita.dost.util.URLUtils.toFile;
@@ -29,7 +32,7 @@ import static org.dita.dost.util.URLUtils.toFile;
  */
 public final class InitializeProjectTask extends Task {
 
-    private static ServiceLoader<StoreBuilder> storeBuilderLoader = ServiceLoader.load(StoreBuilder.class);
+    static final String PROPERTY_PARALLEL_THREADS = "parallel-threads";
 
     private String storeType = "file";
 
@@ -49,6 +52,27 @@ public final class InitializeProjectTask extends Task {
         }
         final Store store = getStore(xmlUtils);
         getProject().addReference(ANT_REFERENCE_STORE, store);
+        if (getProject().getReference(ANT_REFERENCE_EXECUTOR) == null) {
+            final PipelineExecutor executor = new PipelineExecutor(getParallelThreads());
+            getProject().addReference(ANT_REFERENCE_EXECUTOR, executor);
+            getProject().addBuildListener(new ExecutorCloseListener(executor));
+        }
+    }
+
+    private int getParallelThreads() {
+        final String value = getProject().getProperty(PROPERTY_PARALLEL_THREADS);
+        if (value == null || value.isEmpty()) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        try {
+            final int threads = Integer.parseInt(value.trim());
+            if (threads < 1) {
+                throw new BuildException(String.format("Invalid %s value %s", PROPERTY_PARALLEL_THREADS, value));
+            }
+            return threads;
+        } catch (NumberFormatException e) {
+            throw new BuildException(String.format("Invalid %s value %s", PROPERTY_PARALLEL_THREADS, value), e);
+        }
     }
 
     private Store getStore(XMLUtils xmlUtils) {
@@ -60,9 +84,16 @@ public final class InitializeProjectTask extends Task {
         if (tempDir == null) {
             tempDir = toFile(getProject().getProperty(ANT_TEMP_DIR));
         }
-        for (StoreBuilder storeBuilder : storeBuilderLoader) {
+        final Map<String, String> properties = getProject().getProperties().entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().toString()));
+        // Store builders are stateful and ServiceLoader is not thread-safe, so concurrent builds must not share them
+        for (StoreBuilder storeBuilder : ServiceLoader.load(StoreBuilder.class)) {
             if (storeBuilder.getType().equals(storeType)) {
-                return storeBuilder.setTempDir(tempDir).setXmlUtils(xmlUtils).build();
+                store = storeBuilder.setTempDir(tempDir).setXmlUtils(xmlUtils).setProperties(properties).build();
+                if (store.getMetrics().isEnabled()) {
+                    getProject().addBuildListener(new StoreMetricsListener(store.getMetrics()));
+                }
+                return store;
             }
         }
         throw new BuildException(String.format("Unsupported store type %s", storeType));
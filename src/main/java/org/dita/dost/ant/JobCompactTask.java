@@ -0,0 +1,34 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.ant;
+
+import static org.dita.dost.ant.ExtensibleAntInvoker.getJob;
+
+import java.io.IOException;
+
+import org.apache.tools.ant.BuildException;
+import org.apache.tools.ant.Task;
+
+/**
+ * Write complete job configuration file. Used before the job configuration file is read directly,
+ * e.g. with Ant {@code xslt} task.
+ *
+ * @since 4.1
+ */
+public final class JobCompactTask extends Task {
+
+    @Override
+    public void execute() throws BuildException {
+        try {
+            getJob(getProject()).compact();
+        } catch (final IOException e) {
+            throw new BuildException("Failed to write job configuration: " + e.getMessage(), e);
+        }
+    }
+
+}
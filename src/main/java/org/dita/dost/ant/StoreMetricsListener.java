@@ -0,0 +1,56 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.ant;
+
+import org.apache.tools.ant.BuildEvent;
+import org.apache.tools.ant.Project;
+import org.dita.dost.store.StoreMetrics;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Record store metrics by Ant target and report them when build finishes.
+ *
+ * <p>Metrics are logged at verbose level. If {@value StoreMetrics#PROPERTY_METRICS_FILE} property is set, metrics
+ * are also written to the given file as JSON.</p>
+ *
+ * @since 4.1
+ */
+final class StoreMetricsListener extends BuildListenerAdapter {
+
+    private final StoreMetrics metrics;
+
+    StoreMetricsListener(final StoreMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void buildFinished(final BuildEvent event) {
+        final Project project = event.getProject();
+        project.removeBuildListener(this);
+        project.log("Store metrics:", Project.MSG_VERBOSE);
+        for (final String line : metrics.format()) {
+            project.log("  " + line, Project.MSG_VERBOSE);
+        }
+        final String metricsFile = project.getProperty(StoreMetrics.PROPERTY_METRICS_FILE);
+        if (metricsFile != null && !metricsFile.isEmpty()) {
+            final File dst = project.resolveFile(metricsFile);
+            try {
+                metrics.write(dst);
+            } catch (final IOException e) {
+                project.log("Failed to write store metrics to " + dst + ": " + e.getMessage(), Project.MSG_ERR);
+            }
+        }
+    }
+
+    @Override
+    public void targetStarted(final BuildEvent event) {
+        metrics.setStage(event.getTarget().getName());
+    }
+}
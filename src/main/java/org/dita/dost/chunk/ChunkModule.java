@@ -17,9 +17,9 @@ import org.dita.dost.module.AbstractPipelineModuleImpl;
 import org.dita.dost.module.reader.TempFileNameScheme;
 import org.dita.dost.pipeline.AbstractPipelineInput;
 import org.dita.dost.pipeline.AbstractPipelineOutput;
-import org.dita.dost.util.DitaUtils;
 import org.dita.dost.util.Job.FileInfo;
 import org.dita.dost.util.Job.FileInfo.Builder;
+import org.dita.dost.util.Job.FileInfoQuery;
 import org.dita.dost.util.URLUtils;
 import org.w3c.dom.*;
 
@@ -55,7 +55,7 @@ public class ChunkModule extends AbstractPipelineModuleImpl {
     public AbstractPipelineOutput execute(final AbstractPipelineInput input) throws DITAOTException {
         init(input);
         try {
-            final FileInfo in = job.getFileInfo(fi -> fi.isInput).iterator().next();
+            final FileInfo in = job.getFileInfo(FileInfoQuery.INPUT).iterator().next();
             final URI mapFile = job.tempDirURI.resolve(in.uri);
             logger.info("Processing {0}", mapFile);
             final Document mapDoc = getInputMap(mapFile);
@@ -95,7 +95,7 @@ public class ChunkModule extends AbstractPipelineModuleImpl {
             rewriteMap.putAll(splitRewriteMap);
             final Map<URI, URI> rewriteMapAll = Collections.unmodifiableMap(rewriteMap);
 
-            final Collection<FileInfo> topics = job.getFileInfo(DitaUtils::isDitaFormat);
+            final Collection<FileInfo> topics = job.getFileInfo(FileInfoQuery.DITA);
             (parallel ? topics.parallelStream() : topics.stream()).forEach(fi -> {
                 try {
                     final URI uri = job.tempDirURI.resolve(fi.uri);
@@ -138,7 +138,8 @@ public class ChunkModule extends AbstractPipelineModuleImpl {
     /**
      * Process all combine chunks in input map.
      */
-    private Map<URI, URI> processCombine(final URI mapFile, final Document mapDoc, final List<ChunkOperation> chunks) throws IOException {
+    private Map<URI, URI> processCombine(final URI mapFile, final Document mapDoc, final List<ChunkOperation> chunks)
+            throws IOException, DITAOTException {
         if (chunks.stream().anyMatch(c -> c.operation().equals(COMBINE))) {
             final Map<URI, URI> rewriteMap = new HashMap<>();
             final Set<URI> normalTopicRefs = getNormalTopicRefs(mapFile, mapDoc);
@@ -426,7 +427,7 @@ public class ChunkModule extends AbstractPipelineModuleImpl {
     /**
      * Generate combine chunks by merging topics and rewriting links.
      */
-    private void generateChunks(List<ChunkOperation> chunks, Map<URI, URI> rewriteMap) {
+    private void generateChunks(List<ChunkOperation> chunks, Map<URI, URI> rewriteMap) throws DITAOTException {
         //            if (job.getFileInfo(dst) == null) {
         //                final FileInfo src = chunk.src != null ? job.getFileInfo(removeFragment(chunk.src, null)) : null;
         //                final FileInfo.Builder builder = src != null ? FileInfo.builder(src) : FileInfo.builder();
@@ -437,21 +438,39 @@ public class ChunkModule extends AbstractPipelineModuleImpl {
         //                        .build();
         //                job.add(dstFi);
         //            }
-        (parallel ? chunks.stream().parallel() : chunks.stream())
-                .forEach(chunk -> {
-                    logger.info("Generate chunk {0}", removeFragment(chunk.dst()));
-                    try {
-                        //   recursively merge chunk topics
-                        final Document chunkDoc = merge(chunk);
-                        rewriteLinks(chunkDoc, chunk.src(), rewriteMap);
-                        chunkDoc.normalizeDocument();
-                        final URI dst = removeFragment(chunk.dst());
-                        logger.info("Writing {0}", dst);
-                        job.getStore().writeDocument(chunkDoc, dst);
-                    } catch (IOException e) {
-                        logger.error("Failed to generate chunk {0}", removeFragment(chunk.dst()), e);
-                    }
-                });
+        if (parallel) {
+            executor.forEach(chunks, this::getChunkSize, chunk -> generateChunk(chunk, rewriteMap));
+        } else {
+            for (ChunkOperation chunk : chunks) {
+                generateChunk(chunk, rewriteMap);
+            }
+        }
+    }
+
+    private void generateChunk(final ChunkOperation chunk, final Map<URI, URI> rewriteMap) {
+        logger.info("Generate chunk {0}", removeFragment(chunk.dst()));
+        try {
+            //   recursively merge chunk topics
+            final Document chunkDoc = merge(chunk);
+            rewriteLinks(chunkDoc, chunk.src(), rewriteMap);
+            chunkDoc.normalizeDocument();
+            final URI dst = removeFragment(chunk.dst());
+            logger.info("Writing {0}", dst);
+            job.getStore().writeDocument(chunkDoc, dst);
+        } catch (IOException e) {
+            logger.error("Failed to generate chunk {0}", removeFragment(chunk.dst()), e);
+        }
+    }
+
+    /**
+     * Get number of chunk operations in chunk subtree, used as chunk size estimate.
+     */
+    private long getChunkSize(final ChunkOperation chunk) {
+        long size = 1;
+        for (ChunkOperation child : chunk.children()) {
+            size += getChunkSize(child);
+        }
+        return size;
     }
 
     /**
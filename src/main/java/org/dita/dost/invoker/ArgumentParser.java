@@ -114,6 +114,8 @@ final class ArgumentParser {
                     return new TranstypesArguments().parse(arguments);
                 case "deliverables":
                     return new DeliverablesArguments().parse(arguments);
+                case "server":
+                    return new ServerArguments().parse(arguments);
                 case "install":
                     return new InstallArguments().parse(arguments);
                 case "uninstall":
@@ -78,6 +78,7 @@ abstract class Arguments {
     boolean justPrintDiagnostics;
     final Map<String, Object> definedProps = new HashMap<>();
     int repeat = 1;
+    int parallelDeliverables = 1;
 
     Arguments() {
         useColor = getUseColor();
@@ -144,6 +144,8 @@ public class ConversionArguments extends Arguments {
                 handleArgResource(arg, args, ARGUMENTS.get(getArgumentName(arg)));
             } else if (isLongForm(arg, "-repeat")) {
                 handleArgRepeat(arg, args);
+            } else if (isLongForm(arg, "-parallel-deliverables")) {
+                handleArgParallelDeliverables(arg, args);
             } else if (ARGUMENTS.containsKey(getArgumentName(arg))) {
                 definedProps.putAll(handleParameterArg(arg, args, ARGUMENTS.get(getArgumentName(arg))));
             } else if (getPluginArguments().containsKey(getArgumentName(arg))) {
@@ -310,6 +312,21 @@ public class ConversionArguments extends Arguments {
         repeat = Integer.parseInt(entry.getValue());
     }
 
+    private void handleArgParallelDeliverables(final String arg, final Deque<String> args) {
+        final Map.Entry<String, String> entry = parse(arg.substring(2), args);
+        if (entry.getValue() == null) {
+            throw new BuildException("You must specify number of parallel deliverables");
+        }
+        try {
+            parallelDeliverables = Integer.parseInt(entry.getValue());
+        } catch (final NumberFormatException e) {
+            throw new BuildException("Invalid number of parallel deliverables: " + entry.getValue());
+        }
+        if (parallelDeliverables < 1) {
+            throw new BuildException("Invalid number of parallel deliverables: " + entry.getValue());
+        }
+    }
+
     /**
      * Handle the --nice argument.
      */
@@ -374,6 +391,7 @@ public class ConversionArguments extends Arguments {
                 .subcommands("deliverables", locale.getString("conversion.subcommand.deliverables"))
                 .subcommands("install", locale.getString("conversion.subcommand.install"))
                 .subcommands("plugins", locale.getString("conversion.subcommand.plugins"))
+                .subcommands("server", locale.getString("conversion.subcommand.server"))
                 .subcommands("transtypes", locale.getString("conversion.subcommand.transtypes"))
                 .subcommands("uninstall", locale.getString("conversion.subcommand.uninstall"))
                 .subcommands("version", locale.getString("conversion.subcommand.version"))
@@ -388,6 +406,7 @@ public class ConversionArguments extends Arguments {
                     .options("l", "logfile", "file", locale.getString("conversion.option.logfile"))
                     .options(null, "propertyfile", "file", locale.getString("conversion.option.propertyfile"))
                     .options(null, "repeat", "num", locale.getString("conversion.option.repeat"))
+                    .options(null, "parallel-deliverables", "num", locale.getString("conversion.option.parallel-deliverables"))
                     .options("t", "temp", "dir", locale.getString("conversion.option.temp"));
             final Set<String> builtin = ARGUMENTS.values().stream().map(arg -> arg.property).collect(Collectors.toSet());
             final List<Element> params = toList(Plugins.getPluginConfiguration().getElementsByTagName("param"));
@@ -37,6 +37,8 @@ import org.apache.tools.ant.property.ResolvePropertyMap;
 import org.apache.tools.ant.util.ClasspathUtils;
 import org.apache.tools.ant.util.FileUtils;
 import org.apache.tools.ant.util.ProxySetup;
+import org.dita.dost.BuildServer;
+import org.dita.dost.ProcessorFactory;
 import org.dita.dost.log.MessageUtils;
 import org.dita.dost.platform.Plugins;
 import org.dita.dost.project.Project.Context;
@@ -46,12 +48,18 @@ import org.dita.dost.util.Configuration;
 import org.dita.dost.util.URLUtils;
 
 import java.io.*;
+import java.net.InetSocketAddress;
 import java.net.URI;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -213,8 +221,12 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
             for (int i = 0; i < this.args.repeat; i++) {
                 final long start = System.currentTimeMillis();
                 try {
-                    for (Map<String, Object> props : projectProps) {
-                        runBuild(coreLoader, props);
+                    if (this.args.parallelDeliverables > 1 && projectProps.size() > 1) {
+                        runBuilds(coreLoader, projectProps, this.args.parallelDeliverables);
+                    } else {
+                        for (Map<String, Object> props : projectProps) {
+                            runBuild(coreLoader, props, true);
+                        }
                     }
                     exitCode = 0;
                 } catch (final ExitStatusException ese) {
@@ -324,6 +336,9 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
             }
             printDeliverables(deliverablesArgs.projectFile);
             return;
+        } else if (args instanceof final ServerArguments serverArgs) {
+            runServer(serverArgs);
+            return;
         } else if (args instanceof final InstallArguments installArgs) {
             buildFile = integratorFile;
             targets.clear();
@@ -562,6 +577,35 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
         }
     }
 
+    /**
+     * Handle the server subcommand. Blocks until the JVM is shut down.
+     */
+    private void runServer(final ServerArguments serverArgs) {
+        final ProcessorFactory processorFactory = ProcessorFactory.newInstance(
+                new File(System.getProperty("dita.dir")).getAbsoluteFile());
+        processorFactory.setBaseTempDir(new File(System.getProperty("java.io.tmpdir")).getAbsoluteFile());
+        final BuildServer server;
+        try {
+            server = new BuildServer(processorFactory,
+                    new InetSocketAddress(serverArgs.host, serverArgs.port), serverArgs.threads, serverArgs.token);
+        } catch (final IOException | IllegalArgumentException e) {
+            throw new BuildException("Failed to start server: " + e.getMessage(), e);
+        }
+        final CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            stopped.countDown();
+        }));
+        server.start();
+        System.out.println(String.format(locale.getString("server.started"),
+                serverArgs.host, server.getAddress().getPort()));
+        try {
+            stopped.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * Handle the --deliverables argument
      */
@@ -648,9 +692,11 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
      *                     <code>null</code>, in which case the system classloader is
      *                     used.
      * @param definedProps Set of properties that can be used by tasks.
+     * @param redirectStreams redirect system streams to project log
      * @throws BuildException if the build fails
      */
-    private void runBuild(final ClassLoader coreLoader, Map<String, Object> definedProps) throws BuildException {
+    private void runBuild(final ClassLoader coreLoader, Map<String, Object> definedProps,
+                          final boolean redirectStreams) throws BuildException {
         final Project project = new Project();
         project.setCoreLoader(coreLoader);
 
@@ -672,9 +718,11 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
                 if (args.allowInput) {
                     project.setDefaultInputStream(System.in);
                 }
-                System.setIn(new DemuxInputStream(project));
-                System.setOut(new PrintStream(new DemuxOutputStream(project, false)));
-                System.setErr(new PrintStream(new DemuxOutputStream(project, true)));
+                if (redirectStreams) {
+                    System.setIn(new DemuxInputStream(project));
+                    System.setOut(new PrintStream(new DemuxOutputStream(project, false)));
+                    System.setErr(new PrintStream(new DemuxOutputStream(project, true)));
+                }
 
                 project.fireBuildStarted();
 
@@ -716,14 +764,15 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
 
                 ProjectHelper.configureProject(project, buildFile);
 
-                // make sure that we have a target to execute
-                if (targets.size() == 0) {
+                // make sure that we have a target to execute, builds may run concurrently so shared targets are not modified
+                final Vector<String> buildTargets = new Vector<>(targets);
+                if (buildTargets.size() == 0) {
                     if (project.getDefaultTarget() != null) {
-                        targets.addElement(project.getDefaultTarget());
+                        buildTargets.addElement(project.getDefaultTarget());
                     }
                 }
 
-                project.executeTargets(targets);
+                project.executeTargets(buildTargets);
             } finally {
                 System.setOut(savedOut);
                 System.setErr(savedErr);
@@ -749,6 +798,47 @@ public class Main extends org.apache.tools.ant.Main implements AntMain {
         }
     }
 
+    /**
+     * Run builds concurrently. System streams are process-wide and are not redirected to project logs. All builds
+     * are run to completion even if some of them fail.
+     *
+     * @param coreLoader   The classloader to use to find core classes.
+     * @param projectProps Sets of properties for each build.
+     * @param threads      Maximum number of concurrent builds.
+     * @throws BuildException if any of the builds fails, the first failure is thrown
+     */
+    private void runBuilds(final ClassLoader coreLoader, final List<Map<String, Object>> projectProps,
+                           final int threads) throws BuildException {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, projectProps.size()));
+        try {
+            final List<Future<?>> futures = projectProps.stream()
+                    .map(props -> executor.submit(() -> runBuild(coreLoader, props, false)))
+                    .collect(Collectors.toList());
+            Throwable error = null;
+            for (final Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (final ExecutionException e) {
+                    if (error == null) {
+                        error = e.getCause();
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new BuildException(e);
+                }
+            }
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            } else if (error instanceof Error) {
+                throw (Error) error;
+            } else if (error != null) {
+                throw new BuildException(error);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     /**
      * Adds the listeners specified in the command line arguments, along with
      * the default listener, to the specified project.
@@ -0,0 +1,81 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.invoker;
+
+import org.apache.tools.ant.BuildException;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+
+import static org.dita.dost.invoker.Main.locale;
+
+/**
+ * Arguments for the server subcommand.
+ *
+ * @since 4.1
+ */
+public class ServerArguments extends Arguments {
+
+    String host = "localhost";
+    int port = 8080;
+    int threads = 1;
+    String token;
+
+    @Override
+    ServerArguments parse(final String[] arguments) {
+        final Deque<String> args = new ArrayDeque<>(Arrays.asList(arguments));
+        while (!args.isEmpty()) {
+            final String arg = args.pop();
+            if (arg.equals("server") || isLongForm(arg, "-server")) {
+                // ignore
+            } else if (isLongForm(arg, "-host")) {
+                host = getValue(arg, args, "host");
+            } else if (isLongForm(arg, "-port")) {
+                port = getIntValue(arg, args, "port");
+            } else if (isLongForm(arg, "-threads")) {
+                threads = getIntValue(arg, args, "threads");
+            } else if (isLongForm(arg, "-token")) {
+                token = getValue(arg, args, "token");
+            } else {
+                parseCommonOptions(arg, args);
+            }
+        }
+        return this;
+    }
+
+    private String getValue(final String arg, final Deque<String> args, final String desc) {
+        final Map.Entry<String, String> entry = parse(arg, args);
+        if (entry.getValue() == null) {
+            throw new BuildException("Missing value for " + desc + " " + entry.getKey());
+        }
+        return entry.getValue();
+    }
+
+    private int getIntValue(final String arg, final Deque<String> args, final String desc) {
+        final String value = getValue(arg, args, desc);
+        try {
+            return Integer.parseInt(value);
+        } catch (final NumberFormatException e) {
+            throw new BuildException("Invalid value for " + desc + ": " + value);
+        }
+    }
+
+    @Override
+    void printUsage(final boolean compact) {
+        UsageBuilder.builder(compact)
+                .usage(locale.getString("server.usage"))
+                .options(null, "host", "name", locale.getString("server.option.host"))
+                .options(null, "port", "num", locale.getString("server.option.port"))
+                .options(null, "threads", "num", locale.getString("server.option.threads"))
+                .options(null, "token", "token", locale.getString("server.option.token"))
+                .print();
+    }
+}
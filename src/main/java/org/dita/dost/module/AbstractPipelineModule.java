@@ -72,4 +72,13 @@ public interface AbstractPipelineModule {
     }
 
     void setParallel(boolean parallel);
+
+    /**
+     * Set executor for parallel processing.
+     *
+     * @param executor build specific executor
+     * @since 4.1
+     */
+    default void setExecutor(PipelineExecutor executor) {
+    }
 }
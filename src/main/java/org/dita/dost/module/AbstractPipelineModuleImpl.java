@@ -18,6 +18,8 @@ import org.dita.dost.util.XMLUtils;
 import java.util.List;
 import java.util.function.Predicate;
 
+import static org.dita.dost.util.URLUtils.toFile;
+
 /**
  * Abstract class for modules.
  */
@@ -27,6 +29,7 @@ public abstract class AbstractPipelineModuleImpl implements AbstractPipelineModu
     protected Job job;
     protected XMLUtils xmlUtils;
     protected boolean parallel;
+    protected PipelineExecutor executor = PipelineExecutor.getCommon();
     Predicate<FileInfo> fileInfoFilter;
     List<XmlFilterModule.FilterPair> filters;
 
@@ -63,4 +66,19 @@ public abstract class AbstractPipelineModuleImpl implements AbstractPipelineModu
     public void setParallel(boolean parallel) {
         this.parallel = parallel;
     }
+
+    @Override
+    public void setExecutor(final PipelineExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Get size of temporary file for scheduling parallel work. Files that are not on disk have size zero.
+     *
+     * @param fi temporary file
+     * @return file size in bytes
+     */
+    long getFileSize(final FileInfo fi) {
+        return toFile(job.tempDirURI.resolve(fi.uri)).length();
+    }
 }
@@ -21,6 +21,7 @@ import org.dita.dost.util.FilterUtils.Flag;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.URLUtils;
 import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.Job.FileInfoQuery;
 import org.dita.dost.writer.ProfilingFilter;
 import org.w3c.dom.*;
 import org.xml.sax.XMLFilter;
@@ -98,7 +99,7 @@ public class BranchFilterModule extends AbstractPipelineModuleImpl {
 
     @Override
     public AbstractPipelineOutput execute(final AbstractPipelineInput input) throws DITAOTException {
-        final Collection<FileInfo> fis = job.getFileInfo(fi -> fi.isInput || fi.isInputResource);
+        final Collection<FileInfo> fis = job.getFileInfo(FileInfoQuery.INPUT.or(FileInfoQuery.INPUT_RESOURCE));
         for (FileInfo fi : fis) {
             processMap(fi.uri);
         }
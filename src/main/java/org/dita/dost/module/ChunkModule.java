@@ -17,6 +17,7 @@ import org.dita.dost.util.Configuration;
 import org.dita.dost.util.DitaClass;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.Job.FileInfoQuery;
 import org.dita.dost.writer.TopicRefWriter;
 
 import java.io.File;
@@ -68,7 +69,7 @@ final public class ChunkModule extends AbstractPipelineModuleImpl {
         }
 
         try {
-            final Job.FileInfo in = job.getFileInfo(fi -> fi.isInput).iterator().next();
+            final Job.FileInfo in = job.getFileInfo(FileInfoQuery.INPUT).iterator().next();
             final File mapFile = new File(job.tempDirURI.resolve(in.uri));
             if (transtype.equals(INDEX_TYPE_ECLIPSEHELP) && isEclipseMap(mapFile.toURI())) {
                 for (final FileInfo f : job.getFileInfo()) {
@@ -310,22 +311,26 @@ final public class ChunkModule extends AbstractPipelineModuleImpl {
             // FIXME
             final FileInfo ff = job.getOrCreateFileInfo(stripFragment(file));
             ff.format = ATTR_FORMAT_VALUE_DITA;
+            job.add(ff);
         }
         for (final URI file : ditamapList) {
             final FileInfo ff = job.getOrCreateFileInfo(file);
             ff.format = ATTR_FORMAT_VALUE_DITAMAP;
+            job.add(ff);
         }
 
         for (final URI file : chunkedDitamapSet) {
             final FileInfo f = job.getOrCreateFileInfo(file);
             f.format = ATTR_FORMAT_VALUE_DITAMAP;
             f.isResourceOnly = false;
+            job.add(f);
         }
         for (final URI file : chunkedTopicSet) {
             // FIXME
             final FileInfo f = job.getOrCreateFileInfo(stripFragment(file));
             f.format = ATTR_FORMAT_VALUE_DITA;
             f.isResourceOnly = false;
+            job.add(f);
         }
 
         try {
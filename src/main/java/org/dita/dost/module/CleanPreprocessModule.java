@@ -17,6 +17,7 @@ import org.dita.dost.exception.DITAOTException;
 import org.dita.dost.pipeline.AbstractPipelineOutput;
 import org.dita.dost.util.*;
 import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.Job.FileInfoQuery;
 import org.dita.dost.writer.AbstractXMLFilter;
 import org.dita.dost.writer.LinkFilter;
 import org.dita.dost.writer.MapCleanFilter;
@@ -154,7 +155,7 @@ public class CleanPreprocessModule extends AbstractPipelineModuleImpl {
         job.setInputDir(base);
 
         // start map
-        final FileInfo start = job.getFileInfo(f -> f.isInput).iterator().next();
+        final FileInfo start = job.getFileInfo(FileInfoQuery.INPUT).iterator().next();
         if (start != null) {
             job.setInputMap(start.uri);
         }
@@ -216,7 +217,7 @@ public class CleanPreprocessModule extends AbstractPipelineModuleImpl {
     @VisibleForTesting
     URI getBaseDir() {
         final Collection<FileInfo> fis = job.getFileInfo();
-        URI baseDir = job.getFileInfo(fi -> fi.isInput).iterator().next().result.resolve(".");
+        URI baseDir = job.getFileInfo(FileInfoQuery.INPUT).iterator().next().result.resolve(".");
         for (final FileInfo fi : fis) {
             if (fi.result != null) {
                 final URI res = fi.result.resolve(".");
@@ -15,6 +15,7 @@ import org.dita.dost.pipeline.AbstractPipelineOutput;
 import org.dita.dost.reader.CopyToReader;
 import org.dita.dost.util.Constants;
 import org.dita.dost.util.Job;
+import org.dita.dost.util.Job.FileInfoQuery;
 import org.dita.dost.util.URLUtils;
 import org.dita.dost.util.XMLUtils;
 import org.dita.dost.writer.ForceUniqueFilter;
@@ -84,7 +85,7 @@ public final class CopyToModule extends AbstractPipelineModuleImpl {
      * Process start map to read copy-to map and write unique topic references.
      */
     private void processMap() throws DITAOTException {
-        final URI in = job.tempDirURI.resolve(job.getFileInfo(fi -> fi.isInput).iterator().next().uri);
+        final URI in = job.tempDirURI.resolve(job.getFileInfo(FileInfoQuery.INPUT).iterator().next().uri);
 
         final List<XMLFilter> pipe = getProcessingPipe(in);
 
@@ -151,34 +152,43 @@ public final class CopyToModule extends AbstractPipelineModuleImpl {
      *
      * @param copyToMap target to source map of URIs relative to temporary directory
      */
-    private void performCopytoTask(final Map<FileInfo, FileInfo> copyToMap) {
-        for (final Map.Entry<FileInfo, FileInfo> entry : copyToMap.entrySet()) {
-            final URI copytoTarget = entry.getKey().uri;
-            final URI copytoSource = entry.getValue().uri;
-            final URI srcFile = job.tempDirURI.resolve(copytoSource);
-            final URI targetFile = job.tempDirURI.resolve(copytoTarget);
-
-            if (job.getStore().exists(targetFile)) {
-                logger.warn(MessageUtils.getMessage("DOTX064W", copytoTarget.getPath()).toString());
-            } else {
-                final FileInfo input = job.getFileInfo(fi -> fi.isInput).iterator().next();
-                final URI inputMapInTemp = job.tempDirURI.resolve(input.uri);
-                copyFileWithPIReplaced(srcFile, targetFile, copytoTarget, inputMapInTemp);
-                // add new file info into job
-                final FileInfo src = job.getFileInfo(copytoSource);
-                assert src != null;
-                final FileInfo dst = job.getFileInfo(copytoTarget);
-                assert dst != null;
-                final URI dstTemp = tempFileNameScheme.generateTempFileName(dst.result);
-                final FileInfo res = new FileInfo.Builder(src)
-                        .result(dst.result)
-                        .uri(dstTemp)
-                        .build();
-                job.add(res);
+    private void performCopytoTask(final Map<FileInfo, FileInfo> copyToMap) throws DITAOTException {
+        final FileInfo input = job.getFileInfo(FileInfoQuery.INPUT).iterator().next();
+        final URI inputMapInTemp = job.tempDirURI.resolve(input.uri);
+        if (parallel) {
+            executor.forEach(copyToMap.entrySet(), entry -> getFileSize(entry.getValue()),
+                    entry -> performCopytoTask(entry.getKey(), entry.getValue(), inputMapInTemp));
+        } else {
+            for (final Map.Entry<FileInfo, FileInfo> entry : copyToMap.entrySet()) {
+                performCopytoTask(entry.getKey(), entry.getValue(), inputMapInTemp);
             }
         }
     }
 
+    private void performCopytoTask(final FileInfo target, final FileInfo source, final URI inputMapInTemp) {
+        final URI copytoTarget = target.uri;
+        final URI copytoSource = source.uri;
+        final URI srcFile = job.tempDirURI.resolve(copytoSource);
+        final URI targetFile = job.tempDirURI.resolve(copytoTarget);
+
+        if (job.getStore().exists(targetFile)) {
+            logger.warn(MessageUtils.getMessage("DOTX064W", copytoTarget.getPath()).toString());
+        } else {
+            copyFileWithPIReplaced(srcFile, targetFile, copytoTarget, inputMapInTemp);
+            // add new file info into job
+            final FileInfo src = job.getFileInfo(copytoSource);
+            assert src != null;
+            final FileInfo dst = job.getFileInfo(copytoTarget);
+            assert dst != null;
+            final URI dstTemp = tempFileNameScheme.generateTempFileName(dst.result);
+            final FileInfo res = new FileInfo.Builder(src)
+                    .result(dst.result)
+                    .uri(dstTemp)
+                    .build();
+            job.add(res);
+        }
+    }
+
     /**
      * Copy files and replace workdir PI contents.
      *
@@ -179,6 +179,7 @@ public final class DebugAndFilterModule extends SourceReaderModule {
 
         if (isFormatDita(f.format)) {
             f.format = ATTR_FORMAT_VALUE_DITA;
+            job.add(f);
         }
     }
 
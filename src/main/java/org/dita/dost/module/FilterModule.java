@@ -14,9 +14,7 @@ import static org.dita.dost.util.FilterUtils.*;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
-import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
 
 import org.apache.tools.ant.util.FileUtils;
 import org.dita.dost.exception.DITAOTException;
@@ -56,11 +54,6 @@ final class FilterModule extends AbstractPipelineModuleImpl {
         }
         filterUtils.setLogger(logger);
 
-        final ProfilingFilter writer = new ProfilingFilter();
-        writer.setLogger(logger);
-        writer.setJob(job);
-        writer.setFilterUtils(filterUtils);
-
         final SubjectSchemeReader subjectSchemeReader = new SubjectSchemeReader();
         subjectSchemeReader.setLogger(logger);
         subjectSchemeReader.setJob(job);
@@ -71,34 +64,22 @@ final class FilterModule extends AbstractPipelineModuleImpl {
             throw new DITAOTException(e);
         }
 
-        for (final FileInfo f: job.getFileInfo(fileInfoFilter)) {
-            final File file = new File(job.tempDir, f.file.getPath());
-            logger.info("Processing " + file.getAbsolutePath());
-
-            subjectSchemeReader.reset();
-            final Set<URI> schemaSet = dic.get(f.uri);
-            if (schemaSet != null && !schemaSet.isEmpty()) {
-                logger.info("Loading subject schemes");
-                for (final URI schema : schemaSet) {
-                    final File scheme = new File(job.tempDirURI.resolve(schema.getPath() + SUBJECT_SCHEME_EXTENSION));
-                    if (scheme.exists()) {
-                        subjectSchemeReader.loadSubjectScheme(scheme);
-                    }
-                }
+        final Collection<FileInfo> fis = job.getFileInfo(fileInfoFilter);
+        // Refine filters once per subject scheme set before processing, subject scheme DOM is not thread-safe
+        final Map<Set<URI>, FilterUtils> filters = new HashMap<>();
+        for (final FileInfo f : fis) {
+            final Set<URI> schemaSet = dic.getOrDefault(f.uri, Collections.emptySet());
+            if (!filters.containsKey(schemaSet)) {
+                filters.put(schemaSet, refine(filterUtils, subjectSchemeReader, schemaSet));
             }
+        }
 
-            writer.setFilterUtils(filterUtils.refine(subjectSchemeReader.getSubjectSchemeMap()));
-            writer.setCurrentFile(file.toURI());
-
-            try {
-                writer.write(file.getAbsoluteFile());
-                if (!writer.hasElementOutput()) {
-                    logger.info("All content in " + file.getAbsolutePath() + " was filtered out");
-                    job.remove(f);
-                    FileUtils.delete(file);
-                }
-            } catch (final Exception e) {
-                logger.error("Failed to profile " + file.getAbsolutePath() + ": " + e.getMessage());
+        if (parallel) {
+            executor.forEach(fis, this::getFileSize, f ->
+                    processFile(f, filters.get(dic.getOrDefault(f.uri, Collections.emptySet()))));
+        } else {
+            for (final FileInfo f : fis) {
+                processFile(f, filters.get(dic.getOrDefault(f.uri, Collections.emptySet())));
             }
         }
 
@@ -111,4 +92,45 @@ final class FilterModule extends AbstractPipelineModuleImpl {
         return null;
     }
 
+    /**
+     * Refine filter with subject schemes.
+     */
+    private FilterUtils refine(final FilterUtils filterUtils, final SubjectSchemeReader subjectSchemeReader,
+                               final Set<URI> schemaSet) {
+        if (schemaSet.isEmpty()) {
+            return filterUtils;
+        }
+        logger.info("Loading subject schemes");
+        subjectSchemeReader.reset();
+        for (final URI schema : schemaSet) {
+            final File scheme = new File(job.tempDirURI.resolve(schema.getPath() + SUBJECT_SCHEME_EXTENSION));
+            if (scheme.exists()) {
+                subjectSchemeReader.loadSubjectScheme(scheme);
+            }
+        }
+        return filterUtils.refine(subjectSchemeReader.getSubjectSchemeMap());
+    }
+
+    private void processFile(final FileInfo f, final FilterUtils filterUtils) {
+        final File file = new File(job.tempDir, f.file.getPath());
+        logger.info("Processing " + file.getAbsolutePath());
+
+        final ProfilingFilter writer = new ProfilingFilter();
+        writer.setLogger(logger);
+        writer.setJob(job);
+        writer.setFilterUtils(filterUtils);
+        writer.setCurrentFile(file.toURI());
+
+        try {
+            writer.write(file.getAbsoluteFile());
+            if (!writer.hasElementOutput()) {
+                logger.info("All content in " + file.getAbsolutePath() + " was filtered out");
+                job.remove(f);
+                FileUtils.delete(file);
+            }
+        } catch (final Exception e) {
+            logger.error("Failed to profile " + file.getAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+
 }
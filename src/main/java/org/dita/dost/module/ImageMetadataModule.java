@@ -11,7 +11,9 @@ import org.dita.dost.exception.DITAOTException;
 import org.dita.dost.pipeline.AbstractPipelineInput;
 import org.dita.dost.pipeline.AbstractPipelineOutput;
 import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.Job.FileInfoQuery;
 import org.dita.dost.util.Pool;
+import org.dita.dost.writer.ImageMetadataCache;
 import org.dita.dost.writer.ImageMetadataFilter;
 import org.xml.sax.Attributes;
 
@@ -28,9 +30,14 @@ import static org.dita.dost.util.Constants.*;
 /**
  * Image metadata module.
  *
+ * <p>If {@code cache-dir} parameter is set, metadata of local image files is cached in the directory and reused
+ * between builds.</p>
  */
 final class ImageMetadataModule extends AbstractPipelineModuleImpl {
 
+    private static final String PARAM_CACHE_DIR = "cache-dir";
+    private static final String CACHE_FILE = "image-metadata.properties";
+
     /**
      * Constructor.
      */
@@ -50,36 +57,36 @@ final class ImageMetadataModule extends AbstractPipelineModuleImpl {
         if (logger == null) {
             throw new IllegalStateException("Logger not set");
         }
-        final Collection<FileInfo> images = job.getFileInfo(f -> ATTR_FORMAT_VALUE_IMAGE.equals(f.format) || ATTR_FORMAT_VALUE_HTML.equals(f.format));
+        final Collection<FileInfo> images = job.getFileInfo(FileInfoQuery.format(ATTR_FORMAT_VALUE_IMAGE, ATTR_FORMAT_VALUE_HTML));
         if (!images.isEmpty()) {
             final File outputDir = new File(input.getAttribute(ANT_INVOKER_EXT_PARAM_OUTPUTDIR));
             final Predicate<FileInfo> filter = fileInfoFilter != null
                     ? fileInfoFilter
-                    : f -> !f.isResourceOnly && ATTR_FORMAT_VALUE_DITA.equals(f.format);
+                    : FileInfoQuery.format(ATTR_FORMAT_VALUE_DITA).and(FileInfoQuery.flag(FileInfoQuery.Flag.RESOURCE_ONLY, false));
             final Map<URI, Attributes> cache = new ConcurrentHashMap<>();
+            final ImageMetadataCache metadataCache = getMetadataCache(input.getAttribute(PARAM_CACHE_DIR));
 
             if (parallel) {
                 final Pool<ImageMetadataFilter> pool = new Pool<>(() -> {
                     final ImageMetadataFilter writer = new ImageMetadataFilter(outputDir, job, cache);
                     writer.setLogger(logger);
                     writer.setJob(job);
+                    writer.setMetadataCache(metadataCache);
                     return writer;
                 });
-                job.getFileInfo(filter).stream()
-                        .parallel()
-                        .map(f -> new File(job.tempDirURI.resolve(f.uri)).getAbsoluteFile())
-                        .forEach(filename -> {
-                            final ImageMetadataFilter writer = pool.borrowObject();
-                            try {
-                                writer.write(filename);
-                            } finally {
-                                pool.returnObject(writer);
-                            }
-                        });
+                executor.forEach(job.getFileInfo(filter), this::getFileSize, f -> {
+                    final ImageMetadataFilter writer = pool.borrowObject();
+                    try {
+                        writer.write(new File(job.tempDirURI.resolve(f.uri)).getAbsoluteFile());
+                    } finally {
+                        pool.returnObject(writer);
+                    }
+                });
             } else {
                 final ImageMetadataFilter writer = new ImageMetadataFilter(outputDir, job, cache);
                 writer.setLogger(logger);
                 writer.setJob(job);
+                writer.setMetadataCache(metadataCache);
                 for (final FileInfo f : job.getFileInfo(filter)) {
                     writer.write(new File(job.tempDirURI.resolve(f.uri)).getAbsoluteFile());
                 }
@@ -87,6 +94,14 @@ final class ImageMetadataModule extends AbstractPipelineModuleImpl {
 
             storeImageFormat(cache.keySet(), outputDir);
 
+            if (metadataCache != null) {
+                try {
+                    metadataCache.store();
+                } catch (final IOException e) {
+                    logger.warn("Failed to store image metadata cache: " + e.getMessage(), e);
+                }
+            }
+
             try {
                 job.write();
             } catch (IOException e) {
@@ -97,6 +112,13 @@ final class ImageMetadataModule extends AbstractPipelineModuleImpl {
         return null;
     }
 
+    private ImageMetadataCache getMetadataCache(final String cacheDir) {
+        if (cacheDir == null) {
+            return null;
+        }
+        return new ImageMetadataCache(new File(cacheDir, CACHE_FILE));
+    }
+
     private void storeImageFormat(final Collection<URI> images, final File outputDir) {
         final URI output = outputDir.toURI();
         final URI temp = job.tempDirURI;
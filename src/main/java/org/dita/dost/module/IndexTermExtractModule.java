@@ -19,6 +19,7 @@ import org.dita.dost.reader.DitamapIndexTermReader;
 import org.dita.dost.reader.IndexTermReader;
 import org.dita.dost.util.FileUtils;
 import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.Job.FileInfoQuery;
 import org.dita.dost.util.StringUtils;
 import org.xml.sax.SAXException;
 
@@ -89,7 +90,7 @@ public class IndexTermExtractModule extends AbstractPipelineModuleImpl {
         final String encoding = input.getAttribute(ANT_INVOKER_EXT_PARAM_ENCODING);
         final String indextype = input.getAttribute(ANT_INVOKER_EXT_PARAM_INDEXTYPE);
         final String indexclass = input.getAttribute(ANT_INVOKER_EXT_PARAM_INDEXCLASS);
-        final FileInfo in = job.getFileInfo(fi -> fi.isInput).iterator().next();
+        final FileInfo in = job.getFileInfo(FileInfoQuery.INPUT).iterator().next();
         inputMap = new File(job.tempDirURI.resolve(in.uri));
         targetExt = input.getAttribute(ANT_INVOKER_EXT_PARAM_TARGETEXT);
 
@@ -130,7 +131,7 @@ public class IndexTermExtractModule extends AbstractPipelineModuleImpl {
         final DitamapIndexTermReader ditamapIndexTermReader = new DitamapIndexTermReader(indexTermCollection, true);
         ditamapIndexTermReader.setLogger(logger);
 
-        final FileInfo fileInfo = job.getFileInfo(f -> f.isInput).iterator().next();
+        final FileInfo fileInfo = job.getFileInfo(FileInfoQuery.INPUT).iterator().next();
         final URI tempInputMap = job.tempDirURI.resolve(fileInfo.uri);
         for (final URI aTopicList : topicList) {
             URI target;
@@ -24,8 +24,10 @@ import org.dita.dost.pipeline.AbstractPipelineInput;
 import org.dita.dost.pipeline.AbstractPipelineOutput;
 import org.dita.dost.reader.KeyrefReader;
 import org.dita.dost.util.Job;
+import org.dita.dost.util.Job.FileInfoQuery;
 import org.dita.dost.util.KeyDef;
 import org.dita.dost.util.KeyScope;
+import org.dita.dost.util.LayeredMap;
 import org.dita.dost.writer.ConkeyrefFilter;
 import org.dita.dost.writer.KeyrefPaser;
 import org.dita.dost.writer.TopicFragmentFilter;
@@ -35,6 +37,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -79,11 +82,12 @@ final class KeyrefModule extends AbstractPipelineModuleImpl {
     public AbstractPipelineOutput execute(final AbstractPipelineInput input)
             throws DITAOTException {
         if (fileInfoFilter == null) {
-            fileInfoFilter = f -> f.format == null || f.format.equals(ATTR_FORMAT_VALUE_DITA) || f.format.equals(ATTR_FORMAT_VALUE_DITAMAP);
+            fileInfoFilter = FileInfoQuery.format(null, ATTR_FORMAT_VALUE_DITA, ATTR_FORMAT_VALUE_DITAMAP);
         }
-        final Collection<FileInfo> fis = job.getFileInfo(fileInfoFilter).stream()
-                .filter(f -> f.hasKeyref)
-                .collect(Collectors.toSet());
+        final Predicate<FileInfo> keyrefFilter = fileInfoFilter instanceof final FileInfoQuery query
+                ? query.and(FileInfoQuery.HAS_KEYREF)
+                : fileInfoFilter.and(f -> f.hasKeyref);
+        final Collection<FileInfo> fis = new HashSet<>(job.getFileInfo(keyrefFilter));
         if (!fis.isEmpty()) {
             try {
                 final String cls = Optional
@@ -99,7 +103,7 @@ final class KeyrefModule extends AbstractPipelineModuleImpl {
             final KeyrefReader reader = new KeyrefReader();
             reader.setLogger(logger);
             reader.setXmlUtils(xmlUtils);
-            final Job.FileInfo in = job.getFileInfo(fi -> fi.isInput).iterator().next();
+            final Job.FileInfo in = job.getFileInfo(FileInfoQuery.INPUT).iterator().next();
             final URI mapFile = in.uri;
             final XdmNode doc = readMap(in);
             logger.info("Reading " + job.tempDirURI.resolve(mapFile).toString());
@@ -108,7 +112,7 @@ final class KeyrefModule extends AbstractPipelineModuleImpl {
             final KeyScope startScope = reader.getKeyDefinition();
 
             // Read resources maps
-            final Collection<FileInfo> resourceFis = job.getFileInfo(fi -> fi.isInputResource && Objects.equals(fi.format, ATTR_FORMAT_VALUE_DITAMAP));
+            final Collection<FileInfo> resourceFis = job.getFileInfo(FileInfoQuery.INPUT_RESOURCE.and(FileInfoQuery.DITAMAP));
             final KeyScope rootScope = resourceFis.stream()
                     .map(fi -> {
                         try {
@@ -127,13 +131,15 @@ final class KeyrefModule extends AbstractPipelineModuleImpl {
                     .reduce(startScope, KeyScope::merge);
             final List<ResolveTask> jobs = collectProcessingTopics(in, resourceFis, rootScope, doc);
 
-            (parallel ? jobs.stream().parallel() : jobs.stream())
-                    .filter(r -> r.out != null)
-                    .forEach(this::processFile);
-
-            (parallel ? jobs.stream().parallel() : jobs.stream())
-                    .filter(r -> r.out == null)
-                    .forEach(this::processFile);
+            final List<ResolveTask> copies = jobs.stream().filter(r -> r.out != null).collect(Collectors.toList());
+            final List<ResolveTask> originals = jobs.stream().filter(r -> r.out == null).collect(Collectors.toList());
+            if (parallel) {
+                executor.forEach(copies, r -> getFileSize(r.in), this::processFile);
+                executor.forEach(originals, r -> getFileSize(r.in), this::processFile);
+            } else {
+                copies.forEach(this::processFile);
+                originals.forEach(this::processFile);
+            }
 
             // Store job configuration updates
             for (final URI file : normalProcessingRole) {
@@ -238,15 +244,15 @@ final class KeyrefModule extends AbstractPipelineModuleImpl {
         final Map<String, KeyDef> newKeys = new HashMap<>();
         for (Map.Entry<String, KeyDef> key : scope.keyDefinition().entrySet()) {
             final KeyDef oldKey = key.getValue();
-            URI href = oldKey.href;
+            final URI href = oldKey.href;
             if (href != null && rewrites.containsKey(stripFragment(href))) {
-                href = setFragment(rewrites.get(stripFragment(href)), href.getFragment());
+                final URI newHref = setFragment(rewrites.get(stripFragment(href)), href.getFragment());
+                final KeyDef newKey = new KeyDef(oldKey.keys, newHref, oldKey.scope, oldKey.format, oldKey.source, oldKey.element);
+                newKeys.put(key.getKey(), newKey);
             }
-            final KeyDef newKey = new KeyDef(oldKey.keys, href, oldKey.scope, oldKey.format, oldKey.source, oldKey.element);
-            newKeys.put(key.getKey(), newKey);
         }
         return new KeyScope(scope.id(), scope.name(),
-                newKeys,
+                LayeredMap.of(newKeys, scope.keyDefinition()),
                 scope.childScopes().stream()
                         .map(c -> rewriteScopeTargets(c, rewrites))
                         .collect(Collectors.toList()));
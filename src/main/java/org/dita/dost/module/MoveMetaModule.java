@@ -17,6 +17,7 @@ import org.dita.dost.reader.MapMetaReader;
 import org.dita.dost.util.CatalogUtils;
 import org.dita.dost.util.DelegatingURIResolver;
 import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.Job.FileInfoQuery;
 import org.dita.dost.writer.DitaMapMetaWriter;
 import org.dita.dost.writer.DitaMetaWriter;
 import org.w3c.dom.Element;
@@ -55,7 +56,7 @@ final class MoveMetaModule extends AbstractPipelineModuleImpl {
      */
     @Override
     public AbstractPipelineOutput execute(final AbstractPipelineInput input) throws DITAOTException {
-        final Collection<FileInfo> fis = job.getFileInfo(fi -> fi.isInput);
+        final Collection<FileInfo> fis = job.getFileInfo(FileInfoQuery.INPUT);
         if (!fis.isEmpty()) {
             final Map<URI, Map<String, Element>> mapSet = getMapMetadata(fis);
             pushMetadata(mapSet);
@@ -0,0 +1,295 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.module;
+
+import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.exception.UncheckedDITAOTException;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToLongFunction;
+
+/**
+ * Executor for parallel work in pipeline modules.
+ *
+ * <p>Each build should use its own executor, so that concurrent builds in the same JVM have bounded and isolated
+ * thread pools. Work items are processed largest first, which keeps a single large file from extending the
+ * processing time at the end of a stage. When a work item fails, remaining work items are cancelled and the
+ * first failure is rethrown to the caller.</p>
+ *
+ * <p>An I/O executor, created with {@link #newIoExecutor()}, is intended for work dominated by blocking file I/O. It
+ * runs work items on virtual threads when the runtime supports them, and on a platform thread pool otherwise.</p>
+ *
+ * @since 4.1
+ */
+public final class PipelineExecutor implements AutoCloseable {
+
+    /** Maximum number of concurrent work items on virtual threads. */
+    static final int VIRTUAL_PARALLELISM = 256;
+
+    private static final PipelineExecutor COMMON = new PipelineExecutor(ForkJoinPool.commonPool(),
+            ForkJoinPool.getCommonPoolParallelism(), false);
+    /** Executor of the work item running in the current thread. */
+    private static final ThreadLocal<PipelineExecutor> current = new ThreadLocal<>();
+
+    private final ExecutorService pool;
+    private final int parallelism;
+    /** Executor owns the pool and shuts it down on close. */
+    private final boolean owned;
+
+    /**
+     * Create new executor with a dedicated thread pool.
+     *
+     * @param parallelism maximum number of threads
+     */
+    public PipelineExecutor(final int parallelism) {
+        this(new ForkJoinPool(parallelism, new WorkerThreadFactory(), null, false), parallelism, true);
+    }
+
+    private PipelineExecutor(final ExecutorService pool, final int parallelism, final boolean owned) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.pool = pool;
+        this.parallelism = parallelism;
+        this.owned = owned;
+    }
+
+    /**
+     * Get executor that uses the common fork-join pool. Used by modules that have not been configured with an
+     * executor.
+     *
+     * @return shared executor
+     */
+    public static PipelineExecutor getCommon() {
+        return COMMON;
+    }
+
+    /**
+     * Create new executor for I/O bound work. Work items are run on virtual threads if the runtime supports them,
+     * otherwise on a platform thread pool sized for blocking I/O.
+     *
+     * @return new I/O executor
+     */
+    public static PipelineExecutor newIoExecutor() {
+        final ExecutorService virtual = newVirtualThreadExecutor();
+        if (virtual != null) {
+            return new PipelineExecutor(virtual, VIRTUAL_PARALLELISM, true);
+        }
+        final int parallelism = Runtime.getRuntime().availableProcessors() * 4;
+        return new PipelineExecutor(Executors.newFixedThreadPool(parallelism, new IoThreadFactory()), parallelism, true);
+    }
+
+    /**
+     * Create virtual thread per task executor using reflection, because virtual threads are not available in all
+     * supported Java versions.
+     *
+     * @return virtual thread executor, {@code null} if not supported by runtime
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Work item action.
+     *
+     * @param <T> work item type
+     */
+    @FunctionalInterface
+    public interface Task<T> {
+        void run(T item) throws DITAOTException;
+    }
+
+    /**
+     * Process work items in parallel, largest first. Returns when all work items have been processed or the
+     * first failure has cancelled the remaining work items.
+     *
+     * @param items work items
+     * @param weight work item size estimate, e.g. file size
+     * @param task work item action
+     * @param <T> work item type
+     * @throws DITAOTException if a work item failed
+     */
+    public <T> void forEach(final Collection<T> items,
+                            final ToLongFunction<? super T> weight,
+                            final Task<? super T> task) throws DITAOTException {
+        if (items.isEmpty()) {
+            return;
+        }
+        final List<T> queue = sort(items, weight);
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Runnable worker = () -> {
+            final PipelineExecutor parent = current.get();
+            current.set(this);
+            try {
+                int i;
+                while (failure.get() == null && (i = next.getAndIncrement()) < queue.size()) {
+                    try {
+                        task.run(queue.get(i));
+                    } catch (final Throwable e) {
+                        if (!failure.compareAndSet(null, e) && failure.get() != e) {
+                            failure.get().addSuppressed(e);
+                        }
+                    }
+                }
+            } finally {
+                current.set(parent);
+            }
+        };
+        final int workers = Math.min(parallelism, queue.size());
+        if (workers == 1 || current.get() == this) {
+            // Nested use from a worker thread runs in the calling thread to avoid starving the pool
+            worker.run();
+        } else {
+            final List<Future<?>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(pool.submit(worker));
+            }
+            try {
+                for (final Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (final InterruptedException e) {
+                failure.compareAndSet(null, e);
+                Thread.currentThread().interrupt();
+            } catch (final ExecutionException e) {
+                failure.compareAndSet(null, e.getCause());
+            }
+        }
+        if (failure.get() != null) {
+            throw unwrap(failure.get());
+        }
+    }
+
+    /**
+     * Submit work item for asynchronous processing. Use {@link #get(Future)} to wait for the result.
+     *
+     * @param task work item action
+     * @param <T> result type
+     * @return pending result
+     */
+    public <T> Future<T> submit(final Callable<T> task) {
+        return pool.submit(() -> {
+            final PipelineExecutor parent = current.get();
+            current.set(this);
+            try {
+                return task.call();
+            } finally {
+                current.set(parent);
+            }
+        });
+    }
+
+    /**
+     * Wait for work item result.
+     *
+     * @param future pending result
+     * @param <T> result type
+     * @return work item result
+     * @throws DITAOTException if the work item failed
+     */
+    public static <T> T get(final Future<T> future) throws DITAOTException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw unwrap(e);
+        } catch (final ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static <T> List<T> sort(final Collection<T> items, final ToLongFunction<? super T> weight) {
+        final List<Map.Entry<T, Long>> weighted = new ArrayList<>(items.size());
+        for (final T item : items) {
+            weighted.add(new AbstractMap.SimpleImmutableEntry<>(item, weight.applyAsLong(item)));
+        }
+        // Stable sort keeps original order for items of equal weight
+        weighted.sort(Map.Entry.<T, Long>comparingByValue().reversed());
+        final List<T> res = new ArrayList<>(weighted.size());
+        for (final Map.Entry<T, Long> entry : weighted) {
+            res.add(entry.getKey());
+        }
+        return res;
+    }
+
+    /**
+     * Convert work item failure to a checked exception. Unchecked exceptions are rethrown as is.
+     */
+    private static DITAOTException unwrap(final Throwable e) {
+        if (e instanceof DITAOTException) {
+            return (DITAOTException) e;
+        } else if (e instanceof UncheckedDITAOTException) {
+            return ((UncheckedDITAOTException) e).getDITAOTException();
+        } else if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        } else if (e instanceof Error) {
+            throw (Error) e;
+        } else if (e instanceof InterruptedException) {
+            return new DITAOTException("Processing interrupted", e);
+        }
+        return new DITAOTException(e.getMessage(), e);
+    }
+
+    @Override
+    public void close() {
+        if (owned) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Platform thread factory for I/O executor that names threads and propagates the context class loader of the
+     * creating thread.
+     */
+    private static final class IoThreadFactory implements ThreadFactory {
+        private static final AtomicInteger poolCount = new AtomicInteger();
+        private final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        private final int poolNumber = poolCount.incrementAndGet();
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "dita-ot-io-" + poolNumber + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        }
+    }
+
+    /**
+     * Worker thread factory that names threads and propagates the context class loader of the creating thread.
+     */
+    private static final class WorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        private static final AtomicInteger poolCount = new AtomicInteger();
+        private final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        private final int poolNumber = poolCount.incrementAndGet();
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("dita-ot-pipeline-" + poolNumber + "-" + threadCount.incrementAndGet());
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        }
+    }
+}
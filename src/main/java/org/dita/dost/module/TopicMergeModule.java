@@ -18,9 +18,12 @@ import org.dita.dost.reader.MergeMapParser;
 import org.dita.dost.util.CatalogUtils;
 import org.dita.dost.util.DelegatingURIResolver;
 import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.Job.FileInfoQuery;
+import org.dita.dost.util.XsltCache;
 
 import javax.xml.transform.stream.StreamSource;
 import java.io.*;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
@@ -55,7 +58,7 @@ final class TopicMergeModule extends AbstractPipelineModuleImpl {
         if (logger == null) {
             throw new IllegalStateException("Logger not set");
         }
-        final FileInfo in = job.getFileInfo(fi -> fi.isInput).iterator().next();
+        final FileInfo in = job.getFileInfo(FileInfoQuery.INPUT).iterator().next();
         final File ditaInput = new File(job.tempDirURI.resolve(in.uri));
         if (!job.getStore().exists(ditaInput.toURI())) {
             logger.error(MessageUtils.getMessage("DOTJ025E").toString());
@@ -71,20 +74,6 @@ final class TopicMergeModule extends AbstractPipelineModuleImpl {
         mapParser.setJob(job);
         mapParser.setOutput(out);
 
-        final ByteArrayOutputStream midBuffer = new ByteArrayOutputStream();
-        try {
-            midBuffer.write(XML_HEAD.getBytes(StandardCharsets.UTF_8));
-            midBuffer.write(("<dita-merge " + ATTRIBUTE_NAMESPACE_PREFIX_DITAARCHVERSION + "='" + DITA_NAMESPACE + "' "
-                    + XMLNS_ATTRIBUTE + ":" + DITA_OT_NS_PREFIX + "='" + DITA_OT_NS + "'>").getBytes(StandardCharsets.UTF_8));
-            mapParser.setOutputStream(midBuffer);
-            mapParser.read(ditaInput, job.tempDir);
-            midBuffer.write("</dita-merge>".getBytes(StandardCharsets.UTF_8));
-        } catch (final UnsupportedEncodingException e) {
-            throw new RuntimeException(e);
-        } catch (final IOException e) {
-            throw new DITAOTException("Failed to merge topics: " + e.getMessage(), e);
-        }
-
         final File outputDir = out.getParentFile();
         if (!outputDir.exists()) {
             try {
@@ -95,30 +84,47 @@ final class TopicMergeModule extends AbstractPipelineModuleImpl {
                 logger.error("Failed to create directory " + outputDir.getAbsolutePath());
             }
         }
-        try (final OutputStream output = new BufferedOutputStream(job.getStore().getOutputStream(out.toURI()))) {
-            if (style != null) {
+        // Merge directly to output when there's no stylesheet, otherwise to a temporary file that's streamed to XSLT
+        final URI merged = style != null
+                ? job.tempDirURI.resolve(out.getName() + FILE_EXTENSION_TEMP)
+                : out.toURI();
+        try (OutputStream output = new BufferedOutputStream(job.getStore().getOutputStream(merged))) {
+            output.write(XML_HEAD.getBytes(StandardCharsets.UTF_8));
+            output.write(("<dita-merge " + ATTRIBUTE_NAMESPACE_PREFIX_DITAARCHVERSION + "='" + DITA_NAMESPACE + "' "
+                    + XMLNS_ATTRIBUTE + ":" + DITA_OT_NS_PREFIX + "='" + DITA_OT_NS + "'>").getBytes(StandardCharsets.UTF_8));
+            mapParser.setOutputStream(output);
+            mapParser.read(ditaInput, job.tempDir);
+            output.write("</dita-merge>".getBytes(StandardCharsets.UTF_8));
+        } catch (final IOException e) {
+            throw new DITAOTException("Failed to merge topics: " + e.getMessage(), e);
+        }
+
+        if (style != null) {
+            try (final OutputStream output = new BufferedOutputStream(job.getStore().getOutputStream(out.toURI()))) {
                 final Processor processor = xmlUtils.getProcessor();
                 final XsltCompiler xsltCompiler = processor.newXsltCompiler();
-                final XsltTransformer transformer = xsltCompiler.compile(new StreamSource(style)).load();
+                final XsltTransformer transformer = XsltCache.compile(xsltCompiler, new StreamSource(style)).load();
                 transformer.setErrorReporter(toErrorReporter(logger));
                 transformer.setURIResolver(new DelegatingURIResolver(CatalogUtils.getCatalogResolver(), job.getStore()));
                 transformer.setMessageListener(toMessageListener(logger));
 
-                final StreamSource source = new StreamSource(new ByteArrayInputStream(midBuffer.toByteArray()));
                 final Destination result = processor.newSerializer(output);
-                transformer.setSource(source);
+                transformer.setSource(job.getStore().getSource(merged));
                 transformer.setDestination(result);
                 transformer.transform();
-            } else {
-                output.write(midBuffer.toByteArray());
-                output.flush();
+            } catch (final UncheckedXPathException e) {
+                throw new DITAOTException("Failed to process merged topics", e);
+            } catch (final RuntimeException e) {
+                throw e;
+            } catch (final IOException | SaxonApiException e) {
+                throw new DITAOTException("Failed to process merged topics: " + e.getMessage(), e);
+            } finally {
+                try {
+                    job.getStore().delete(merged);
+                } catch (final IOException e) {
+                    logger.error("Failed to delete " + merged + ": " + e.getMessage(), e);
+                }
             }
-        } catch (final UncheckedXPathException e) {
-            throw new DITAOTException("Failed to process merged topics", e);
-        } catch (final RuntimeException e) {
-            throw e;
-        } catch (final IOException | SaxonApiException e) {
-            throw new DITAOTException("Failed to process merged topics: " + e.getMessage(), e);
         }
 
         return null;
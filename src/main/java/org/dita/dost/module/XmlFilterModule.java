@@ -40,7 +40,7 @@ public final class XmlFilterModule extends AbstractPipelineModuleImpl {
             throws DITAOTException {
         final Collection<FileInfo> fis = job.getFileInfo(fileInfoFilter);
         if (parallel) {
-            fis.stream().parallel().forEach(f -> {
+            executor.forEach(fis, this::getFileSize, f -> {
                 final URI file = job.tempDirURI.resolve(f.uri);
                 logger.info("Processing " + file);
                 try {
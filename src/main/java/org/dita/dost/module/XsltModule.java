@@ -20,6 +20,8 @@ import org.dita.dost.pipeline.AbstractPipelineOutput;
 import org.dita.dost.util.CatalogUtils;
 import org.dita.dost.util.DelegatingURIResolver;
 import org.dita.dost.util.Job;
+import org.dita.dost.util.Pool;
+import org.dita.dost.util.XsltCache;
 
 import javax.xml.transform.Source;
 import javax.xml.transform.URIResolver;
@@ -29,7 +31,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.Map.Entry;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static org.dita.dost.util.Constants.FILE_EXTENSION_TEMP;
 import static org.dita.dost.util.FileUtils.replaceExtension;
@@ -75,7 +77,7 @@ public final class XsltModule extends AbstractPipelineModuleImpl {
             final CatalogResolver catalogResolver = CatalogUtils.getCatalogResolver();
             catalog = catalogResolver;
         }
-        uriResolver = new DelegatingURIResolver(catalog, job.getStore());
+        uriResolver = new DelegatingURIResolver(job.getURIResolver(), catalog, job.getStore());
 
         if (fileInfoFilter != null) {
             final Collection<Job.FileInfo> res = job.getFileInfo(fileInfoFilter);
@@ -103,47 +105,52 @@ public final class XsltModule extends AbstractPipelineModuleImpl {
         xsltCompiler.setErrorReporter(toErrorReporter(logger));
         logger.info("Loading stylesheet " + style.getSystemId());
         try {
-            templates = xsltCompiler.compile(style);
+            // Ant XML catalogs are build specific and may resolve stylesheet modules differently
+            templates = catalog instanceof XMLCatalog
+                    ? xsltCompiler.compile(style)
+                    : XsltCache.compile(xsltCompiler, style);
         } catch (SaxonApiException e) {
             throw new RuntimeException("Failed to compile stylesheet '" + style.getSystemId() + "': " + e.getMessage(), e);
         }
         if (in != null) {
             transform(in, out);
         } else if (parallel) {
-            try {
-                final List<Entry<File, File>> tmps = includes.stream().parallel()
-                        .map(include -> {
-                            try {
-                                final File in = baseDir.toPath().resolve(include.toPath()).toFile();
-                                final File out = getOutput(include.getPath());
-                                if (out == null) {
-                                    return null;
-                                }
-                                final XsltTransformer transformer = getTransformer();
-                                if (in.equals(out)) {
-                                    final File tmp = new File(out.getAbsolutePath() + FILE_EXTENSION_TEMP);
-                                    transform(in, tmp, transformer);
-                                    return pair(tmp, out);
-                                } else {
-                                    transform(in, out, transformer);
-                                    return null;
-                                }
-                            } catch (DITAOTException e) {
-                                throw new UncheckedDITAOTException(e);
+            final Pool<XsltTransformer> pool = new Pool<>(() -> {
+                try {
+                    return getTransformer();
+                } catch (DITAOTException e) {
+                    throw new UncheckedDITAOTException(e);
+                }
+            });
+            final Queue<Entry<File, File>> tmps = new ConcurrentLinkedQueue<>();
+            executor.forEach(includes,
+                    include -> baseDir.toPath().resolve(include.toPath()).toFile().length(),
+                    include -> {
+                        final File in = baseDir.toPath().resolve(include.toPath()).toFile();
+                        final File out = getOutput(include.getPath());
+                        if (out == null) {
+                            return;
+                        }
+                        final XsltTransformer transformer = pool.borrowObject();
+                        try {
+                            if (in.equals(out)) {
+                                final File tmp = new File(out.getAbsolutePath() + FILE_EXTENSION_TEMP);
+                                transform(in, tmp, transformer);
+                                tmps.add(pair(tmp, out));
+                            } else {
+                                transform(in, out, transformer);
                             }
-                        })
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.toList());
-                for (Entry<File, File> entry : tmps) {
-                    try {
-                        logger.info("Move " + entry.getKey().toURI() + " to " + entry.getValue().toURI());
-                        job.getStore().move(entry.getKey().toURI(), entry.getValue().toURI());
-                    } catch (IOException e) {
-                        logger.error(String.format("Failed to move %s to %s: %s", entry.getKey().toURI(), entry.getValue().toURI(), e.getMessage()), e);
-                    }
+                        } finally {
+                            pool.returnObject(transformer);
+                        }
+                    });
+            for (Entry<File, File> entry : tmps) {
+                try {
+                    logger.info("Move " + entry.getKey().toURI() + " to " + entry.getValue().toURI());
+                    job.getStore().move(entry.getKey().toURI(), entry.getValue().toURI());
+                } catch (IOException e) {
+                    logger.error(String.format("Failed to move %s to %s: %s", entry.getKey().toURI(), entry.getValue().toURI(), e.getMessage()), e);
                 }
-            } catch (UncheckedDITAOTException e) {
-                throw e.getDITAOTException();
             }
         } else {
             for (final File include : includes) {
@@ -175,6 +182,9 @@ public final class XsltModule extends AbstractPipelineModuleImpl {
         return out;
     }
 
+    /**
+     * Create transformer with parameters that are shared by all documents.
+     */
     private XsltTransformer getTransformer() throws DITAOTException {
         try {
             XsltTransformer transformer = templates.load();
@@ -184,6 +194,10 @@ public final class XsltModule extends AbstractPipelineModuleImpl {
             transformer.setErrorReporter(toErrorReporter(logger));
             transformer.setURIResolver(uriResolver);
             transformer.setMessageListener(toMessageListener(logger));
+            for (Entry<String, String> e: params.entrySet()) {
+                logger.debug("Set parameter " + e.getKey() + " to '" + e.getValue() + "'");
+                transformer.setParameter(new QName(e.getKey()), new XdmAtomicValue(e.getValue()));
+            }
             return transformer;
         } catch (final Exception e) {
             throw new DITAOTException("Failed to create Transformer: " + e.getMessage(), e);
@@ -200,10 +214,6 @@ public final class XsltModule extends AbstractPipelineModuleImpl {
 
     private void transform(final File in, final File out, final XsltTransformer t) throws DITAOTException {
         final boolean same = in.getAbsolutePath().equals(out.getAbsolutePath());
-        for (Entry<String, String> e: params.entrySet()) {
-            logger.debug("Set parameter " + e.getKey() + " to '" + e.getValue() + "'");
-            t.setParameter(new QName(e.getKey()), new XdmAtomicValue(e.getValue()));
-        }
         if (filenameparameter != null) {
             logger.debug("Set parameter " + filenameparameter + " to '" + in.getName() + "'");
             t.setParameter(new QName(filenameparameter), new XdmAtomicValue(in.getName()));
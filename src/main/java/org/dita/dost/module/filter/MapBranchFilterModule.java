@@ -16,6 +16,7 @@ import org.dita.dost.pipeline.AbstractPipelineOutput;
 import org.dita.dost.util.FilterUtils;
 import org.dita.dost.util.FilterUtils.Flag;
 import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.Job.FileInfoQuery;
 import org.w3c.dom.*;
 
 import javax.xml.namespace.QName;
@@ -57,7 +58,7 @@ public class MapBranchFilterModule extends AbstractBranchFilterModule {
 
     @Override
     public AbstractPipelineOutput execute(final AbstractPipelineInput input) throws DITAOTException {
-        final FileInfo fi = job.getFileInfo(f -> f.isInput).iterator().next();
+        final FileInfo fi = job.getFileInfo(FileInfoQuery.INPUT).iterator().next();
         if (!ATTR_FORMAT_VALUE_DITAMAP.equals(fi.format)) {
             return null;
         }
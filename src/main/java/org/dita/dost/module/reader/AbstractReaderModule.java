@@ -14,8 +14,10 @@ import com.google.common.collect.SetMultimap;
 import org.apache.commons.io.FileUtils;
 import org.apache.xerces.xni.grammars.XMLGrammarPool;
 import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.exception.UncheckedDITAOTException;
 import org.dita.dost.log.MessageUtils;
 import org.dita.dost.module.AbstractPipelineModuleImpl;
+import org.dita.dost.module.PipelineExecutor;
 import org.dita.dost.pipeline.AbstractPipelineInput;
 import org.dita.dost.reader.*;
 import org.dita.dost.util.*;
@@ -33,6 +35,7 @@ import java.nio.file.Files;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -97,8 +100,8 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
     final Set<URI> resourceOnlySet = ConcurrentHashMap.newKeySet();
     /** Absolute basedir for processing */
     private URI baseInputDir;
+    /** List filter of the current file. */
     GenListModuleReader listFilter;
-    KeydefFilter keydefFilter;
     boolean validate = true;
     ContentHandler nullHandler;
     private TempFileNameScheme tempFileNameScheme;
@@ -120,16 +123,16 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
     String transtype;
     private File ditavalFile;
     FilterUtils filterUtils;
-    /** Absolute path to current destination file. */
-    File outputFile;
-    Map<QName, Map<String, Set<String>>> validateMap;
-    Map<QName, Map<String, String>> defaultValueMap;
+    Map<QName, Map<String, Set<String>>> validateMap = Collections.emptyMap();
+    Map<QName, Map<String, String>> defaultValueMap = Collections.emptyMap();
     /** XMLReader instance for parsing dita file */
     private XMLReader reader;
+    /** Grammar pool shared by all XML readers. */
+    private XMLGrammarPool grammarPool;
+    /** Reader context for serial processing. */
+    private ReaderContext context;
     /** Absolute path to current source file. */
     URI currentFile;
-    DitaWriterFilter ditaWriterFilter;
-    TopicFragmentFilter topicFragmentFilter;
     /** Files found during additional resource crawl. **/
     final Set<URI> additionalResourcesSet = ConcurrentHashMap.newKeySet();
 
@@ -164,31 +167,14 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
     void initFilters() {
         tempFileNameScheme.setBaseDir(job.getInputDir());
 
-        listFilter = new GenListModuleReader();
-        listFilter.setLogger(logger);
-        listFilter.setPrimaryDitamap(rootFile);
-        listFilter.setJob(job);
-        listFilter.setFormatFilter(formatFilter);
-
         if (profilingEnabled) {
             filterUtils = parseFilterFile();
         }
 
-        keydefFilter = new KeydefFilter();
-        keydefFilter.setLogger(logger);
-        keydefFilter.setCurrentFile(rootFile);
-        keydefFilter.setJob(job);
-
         nullHandler = new DefaultHandler();
 
-        ditaWriterFilter = new DitaWriterFilter();
-        ditaWriterFilter.setTempFileNameScheme(tempFileNameScheme);
-        ditaWriterFilter.setLogger(logger);
-        ditaWriterFilter.setJob(job);
-        ditaWriterFilter.setEntityResolver(reader.getEntityResolver());
-
-        topicFragmentFilter = new TopicFragmentFilter(ATTRIBUTE_NAME_CONREF, ATTRIBUTE_NAME_CONREFEND);
-
+        context = new ReaderContext(reader);
+        listFilter = context.listFilter;
     }
 
     /**
@@ -198,7 +184,20 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
      * @throws SAXException parsing exception
      */
     void initXMLReader(final boolean validate) throws SAXException {
-        reader = XMLUtils.getXMLReader();
+        if (!validate) {
+            logger.warn(MessageUtils.getMessage("DOTJ037W").toString());
+        }
+        if (gramcache) {
+            grammarPool = GrammarPoolManager.getGrammarPool();
+        }
+        reader = createXMLReader(validate);
+        if (grammarPool != null) {
+            logger.info("Using Xerces grammar pool for DTD and schema caching.");
+        }
+    }
+
+    private XMLReader createXMLReader(final boolean validate) throws SAXException {
+        final XMLReader reader = XMLUtils.getXMLReader();
         reader.setFeature(FEATURE_NAMESPACE, true);
         reader.setFeature(FEATURE_NAMESPACE_PREFIX, true);
         if (validate) {
@@ -208,14 +207,10 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
             } catch (final SAXNotRecognizedException e) {
                 // Not Xerces, ignore exception
             }
-        } else {
-            logger.warn(MessageUtils.getMessage("DOTJ037W").toString());
         }
-        if (gramcache) {
-            final XMLGrammarPool grammarPool = GrammarPoolManager.getGrammarPool();
+        if (grammarPool != null) {
             try {
                 reader.setProperty("http://apache.org/xml/properties/internal/grammar-pool", grammarPool);
-                logger.info("Using Xerces grammar pool for DTD and schema caching.");
             } catch (final NoClassDefFoundError e) {
                 logger.debug("Xerces not available, not using grammar caching");
             } catch (final SAXNotRecognizedException | SAXNotSupportedException e) {
@@ -223,6 +218,7 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
             }
         }
         reader.setEntityResolver(CatalogUtils.getCatalogResolver());
+        return reader;
     }
 
     void parseInputParameters(final AbstractPipelineInput input) {
@@ -300,17 +296,91 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
     }
 
     void processWaitList() throws DITAOTException {
+        if (parallel) {
+            processWaitListParallel();
+            return;
+        }
         for (Map.Entry<URI, Reference> entry = waitList.pollFirstEntry(); entry != null; entry = waitList.pollFirstEntry()) {
             readFile(entry.getValue(), null);
         }
     }
 
+    /**
+     * Process wait list in parallel. Files in the wait list are parsed ahead in worker threads, but parse results
+     * are processed in the same order as in serial processing, so that the result is identical to serial processing.
+     */
+    private void processWaitListParallel() throws DITAOTException {
+        final List<ReaderContext> created = Collections.synchronizedList(new ArrayList<>());
+        final Pool<ReaderContext> contexts = new Pool<>(() -> {
+            try {
+                final ReaderContext ctx = new ReaderContext(createXMLReader(validate));
+                created.add(ctx);
+                return ctx;
+            } catch (final SAXException e) {
+                throw new UncheckedDITAOTException(new DITAOTException(e));
+            }
+        });
+        final int window = executor.getParallelism() * 4;
+        final Map<URI, Future<ReaderContext>> pending = new HashMap<>();
+        try {
+            for (Map.Entry<URI, Reference> entry = waitList.firstEntry(); entry != null; entry = waitList.firstEntry()) {
+                for (final Reference ref : waitList.values()) {
+                    if (pending.size() >= window) {
+                        break;
+                    }
+                    pending.computeIfAbsent(ref.filename, f -> executor.submit(() -> {
+                        final ReaderContext ctx = contexts.borrowObject();
+                        try {
+                            parseFile(ctx, ref, null);
+                        } catch (final DITAOTException | RuntimeException | Error e) {
+                            contexts.returnObject(ctx);
+                            throw e;
+                        }
+                        return ctx;
+                    }));
+                }
+                waitList.pollFirstEntry();
+                final ReaderContext ctx = PipelineExecutor.get(pending.remove(entry.getKey()));
+                processReadResult(ctx, entry.getValue());
+                contexts.returnObject(ctx);
+            }
+        } finally {
+            for (final Future<ReaderContext> future : pending.values()) {
+                future.cancel(false);
+            }
+            for (final Future<ReaderContext> future : pending.values()) {
+                try {
+                    future.get();
+                } catch (final Exception e) {
+                    // Ignore failures in files that were not processed
+                }
+            }
+            for (final ReaderContext ctx : created) {
+                mergeListFilter(ctx.listFilter);
+            }
+            listFilter = context.listFilter;
+        }
+    }
+
+    /**
+     * Merge cross-file state collected by list filter into list filter of serial reader context.
+     */
+    private void mergeListFilter(final GenListModuleReader src) {
+        final GenListModuleReader dst = context.listFilter;
+        dst.getResourceOnlySet().addAll(src.getResourceOnlySet());
+        dst.getNormalProcessingRoleSet().addAll(src.getNormalProcessingRoleSet());
+        dst.getNonTopicrefReferenceSet().addAll(src.getNonTopicrefReferenceSet());
+        for (final Map.Entry<URI, Set<URI>> e : src.getRelationshipGrap().entrySet()) {
+            dst.getRelationshipGrap().computeIfAbsent(e.getKey(), k -> new LinkedHashSet<>()).addAll(e.getValue());
+        }
+    }
+
     /**
      * Get pipe line filters
      *
-     * @param fileToParse absolute path to current file being processed
+     * @param ctx reader context of current file being processed
      */
-    abstract List<XMLFilter> getProcessingPipe(final URI fileToParse);
+    abstract List<XMLFilter> getProcessingPipe(final ReaderContext ctx);
 
     /**
      * Read a file and process it for list information.
@@ -321,11 +391,30 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
      */
     void readFile(final Reference ref, final URI parseFile) throws DITAOTException {
         currentFile = ref.filename;
+        parseFile(context, ref, parseFile);
+        processReadResult(context, ref);
+    }
+
+    /**
+     * Parse a file and write it to temporary directory. Parsing only modifies reader context and thread-safe
+     * collections, and can be run in parallel.
+     *
+     * @param ctx reader context
+     * @param ref system path of the file to process
+     * @param parseFile file to parse, may be {@code null}
+     * @throws DITAOTException if processing failed
+     */
+    private void parseFile(final ReaderContext ctx, final Reference ref, final URI parseFile) throws DITAOTException {
+        final URI currentFile = ref.filename;
+        ctx.currentFile = currentFile;
+        ctx.parsed = false;
+        ctx.skipped = false;
         assert currentFile.isAbsolute();
         final URI src = parseFile != null ? parseFile : currentFile;
         assert src.isAbsolute();
         final URI rel = tempFileNameScheme.generateTempFileName(currentFile);
-        outputFile = new File(job.tempDirURI.resolve(rel));
+        final File outputFile = new File(job.tempDirURI.resolve(rel));
+        ctx.outputFile = outputFile;
         final File outputDir = outputFile.getParentFile();
         if (!outputDir.exists()) {
             try {
@@ -334,11 +423,10 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
                 // Ignore
             } catch (IOException e) {
                 logger.error("Failed to create output directory " + outputDir.getAbsolutePath());
+                ctx.skipped = true;
                 return;
             }
         }
-        validateMap = Collections.emptyMap();
-        defaultValueMap = Collections.emptyMap();
         logger.info("Processing " + currentFile + " to " + outputFile.toURI());
         final String[] params = { currentFile.toString() };
 
@@ -355,9 +443,9 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
         }
 
         try {
-            XMLReader parser = XMLUtils.getXmlReader(ref.format).orElse(reader);
+            XMLReader parser = XMLUtils.getXmlReader(ref.format).orElse(ctx.reader);
             XMLReader xmlSource = parser;
-            for (final XMLFilter f: getProcessingPipe(currentFile)) {
+            for (final XMLFilter f: getProcessingPipe(ctx)) {
                 f.setParent(xmlSource);
                 f.setEntityResolver(CatalogUtils.getCatalogResolver());
                 xmlSource = f;
@@ -374,13 +462,7 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
             xmlSource.setContentHandler(serializer);
             xmlSource.parse(src.toString());
 
-            if (listFilter.isValidInput()) {
-                processParseResult(currentFile);
-                categorizeCurrentFile(ref);
-            } else if (!currentFile.equals(rootFile)) {
-                logger.error(MessageUtils.getMessage("DOTJ021E", params).toString());
-                failureList.add(currentFile);
-            }
+            ctx.parsed = true;
         } catch (final RuntimeException e) {
             throw e;
         } catch (final SAXParseException sax) {
@@ -427,6 +509,32 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
                 FileUtils.deleteQuietly(outputFile);
             }
         }
+    }
+
+    /**
+     * Process parse results of a file and add referenced files to wait list.
+     *
+     * @param ctx reader context used to parse the file
+     * @param ref system path of the processed file
+     * @throws DITAOTException if processing failed
+     */
+    private void processReadResult(final ReaderContext ctx, final Reference ref) throws DITAOTException {
+        if (ctx.skipped) {
+            return;
+        }
+        currentFile = ref.filename;
+        listFilter = ctx.listFilter;
+        final String[] params = { currentFile.toString() };
+        if (ctx.parsed) {
+            if (listFilter.isValidInput()) {
+                processParseResult(currentFile);
+                categorizeCurrentFile(ref);
+            } else if (!currentFile.equals(rootFile)) {
+                logger.error(MessageUtils.getMessage("DOTJ021E", params).toString());
+                failureList.add(currentFile);
+                FileUtils.deleteQuietly(ctx.outputFile);
+            }
+        }
 
         if (!listFilter.isValidInput() && currentFile.equals(rootFile)) {
             if (validate) {
@@ -439,8 +547,8 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
         }
 
         doneList.add(currentFile);
-        listFilter.reset();
-        keydefFilter.reset();
+        ctx.listFilter.reset();
+        ctx.keydefFilter.reset();
     }
 
     /**
@@ -742,6 +850,8 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
             final FileInfo fi = job.getFileInfo(f);
             if (!fi.isResourceOnly) {
                 fi.isInputResource = true;
+                // Re-add to update file info flag index
+                job.add(fi);
             }
         }
 
@@ -925,4 +1035,47 @@ public abstract class AbstractReaderModule extends AbstractPipelineModuleImpl {
         initFilters();
     }
 
-}
\ No newline at end of file
+    /**
+     * Parser and filters for reading one file at a time. Parallel processing uses a separate context for each file
+     * being processed.
+     */
+    final class ReaderContext {
+        final XMLReader reader;
+        final GenListModuleReader listFilter;
+        final KeydefFilter keydefFilter;
+        final DitaWriterFilter ditaWriterFilter;
+        final TopicFragmentFilter topicFragmentFilter;
+        /** Absolute path to current source file. */
+        URI currentFile;
+        /** Absolute path to current destination file. */
+        File outputFile;
+        /** Current file was parsed, possibly with recoverable errors. */
+        boolean parsed;
+        /** Current file was skipped. */
+        boolean skipped;
+
+        ReaderContext(final XMLReader reader) {
+            this.reader = reader;
+
+            listFilter = new GenListModuleReader();
+            listFilter.setLogger(logger);
+            listFilter.setPrimaryDitamap(rootFile);
+            listFilter.setJob(job);
+            listFilter.setFormatFilter(formatFilter);
+
+            keydefFilter = new KeydefFilter();
+            keydefFilter.setLogger(logger);
+            keydefFilter.setCurrentFile(rootFile);
+            keydefFilter.setJob(job);
+
+            ditaWriterFilter = new DitaWriterFilter();
+            ditaWriterFilter.setTempFileNameScheme(tempFileNameScheme);
+            ditaWriterFilter.setLogger(logger);
+            ditaWriterFilter.setJob(job);
+            ditaWriterFilter.setEntityResolver(reader.getEntityResolver());
+
+            topicFragmentFilter = new TopicFragmentFilter(ATTRIBUTE_NAME_CONREF, ATTRIBUTE_NAME_CONREFEND);
+        }
+    }
+
+}
@@ -69,14 +69,15 @@ public final class MapReaderModule extends AbstractReaderModule {
     }
 
     @Override
-    List<XMLFilter> getProcessingPipe(final URI fileToParse) {
+    List<XMLFilter> getProcessingPipe(final ReaderContext ctx) {
+        final URI fileToParse = ctx.currentFile;
         assert fileToParse.isAbsolute();
         final List<XMLFilter> pipe = new ArrayList<>();
 
         if (genDebugInfo) {
             final DebugFilter debugFilter = new DebugFilter();
             debugFilter.setLogger(logger);
-            debugFilter.setCurrentFile(currentFile);
+            debugFilter.setCurrentFile(ctx.currentFile);
             pipe.add(debugFilter);
         }
 
@@ -101,18 +102,18 @@ public final class MapReaderModule extends AbstractReaderModule {
         normalizeFilter.setLogger(logger);
         pipe.add(normalizeFilter);
 
-        keydefFilter.setCurrentDir(fileToParse.resolve("."));
-        keydefFilter.setErrorHandler(new DITAOTXMLErrorHandler(fileToParse.toString(), logger));
-        pipe.add(keydefFilter);
+        ctx.keydefFilter.setCurrentDir(fileToParse.resolve("."));
+        ctx.keydefFilter.setErrorHandler(new DITAOTXMLErrorHandler(fileToParse.toString(), logger));
+        pipe.add(ctx.keydefFilter);
 
-        listFilter.setCurrentFile(fileToParse);
-        listFilter.setErrorHandler(new DITAOTXMLErrorHandler(fileToParse.toString(), logger));
-        pipe.add(listFilter);
+        ctx.listFilter.setCurrentFile(fileToParse);
+        ctx.listFilter.setErrorHandler(new DITAOTXMLErrorHandler(fileToParse.toString(), logger));
+        pipe.add(ctx.listFilter);
 
-        ditaWriterFilter.setDefaultValueMap(defaultValueMap);
-        ditaWriterFilter.setCurrentFile(currentFile);
-        ditaWriterFilter.setOutputFile(outputFile);
-        pipe.add(ditaWriterFilter);
+        ctx.ditaWriterFilter.setDefaultValueMap(defaultValueMap);
+        ctx.ditaWriterFilter.setCurrentFile(ctx.currentFile);
+        ctx.ditaWriterFilter.setOutputFile(ctx.outputFile);
+        pipe.add(ctx.ditaWriterFilter);
 
         return pipe;
     }
@@ -21,6 +21,7 @@ import org.dita.dost.reader.GenListModuleReader.Reference;
 import org.dita.dost.reader.SubjectSchemeReader;
 import org.dita.dost.util.Configuration;
 import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.Job.FileInfoQuery;
 import org.dita.dost.writer.DebugFilter;
 import org.dita.dost.writer.NormalizeFilter;
 import org.dita.dost.writer.ProfilingFilter;
@@ -152,7 +153,7 @@ public final class TopicReaderModule extends AbstractReaderModule {
     }
 
     private Document getMapDocument() throws SAXException {
-        final FileInfo fi = job.getFileInfo(f -> f.isInput).iterator().next();
+        final FileInfo fi = job.getFileInfo(FileInfoQuery.INPUT).iterator().next();
         if (fi == null) {
             return null;
         }
@@ -167,7 +168,7 @@ public final class TopicReaderModule extends AbstractReaderModule {
 
     @Override
     public void readStartFile() throws DITAOTException {
-        final FileInfo fi = job.getFileInfo(f -> f.isInput).iterator().next();
+        final FileInfo fi = job.getFileInfo(FileInfoQuery.INPUT).iterator().next();
         if (fi == null) {
             addToWaitList(new Reference(job.getInputFile()));
         } else {
@@ -231,14 +232,15 @@ public final class TopicReaderModule extends AbstractReaderModule {
     }
 
     @Override
-    List<XMLFilter> getProcessingPipe(final URI fileToParse) {
+    List<XMLFilter> getProcessingPipe(final ReaderContext ctx) {
+        final URI fileToParse = ctx.currentFile;
         assert fileToParse.isAbsolute();
         final List<XMLFilter> pipe = new ArrayList<>();
 
         if (genDebugInfo) {
             final DebugFilter debugFilter = new DebugFilter();
             debugFilter.setLogger(logger);
-            debugFilter.setCurrentFile(currentFile);
+            debugFilter.setCurrentFile(ctx.currentFile);
             pipe.add(debugFilter);
         }
 
@@ -263,16 +265,16 @@ public final class TopicReaderModule extends AbstractReaderModule {
         normalizeFilter.setLogger(logger);
         pipe.add(normalizeFilter);
 
-        pipe.add(topicFragmentFilter);
+        pipe.add(ctx.topicFragmentFilter);
 
-        listFilter.setCurrentFile(fileToParse);
-        listFilter.setErrorHandler(new DITAOTXMLErrorHandler(fileToParse.toString(), logger));
-        pipe.add(listFilter);
+        ctx.listFilter.setCurrentFile(fileToParse);
+        ctx.listFilter.setErrorHandler(new DITAOTXMLErrorHandler(fileToParse.toString(), logger));
+        pipe.add(ctx.listFilter);
 
-        ditaWriterFilter.setDefaultValueMap(defaultValueMap);
-        ditaWriterFilter.setCurrentFile(currentFile);
-        ditaWriterFilter.setOutputFile(outputFile);
-        pipe.add(ditaWriterFilter);
+        ctx.ditaWriterFilter.setDefaultValueMap(defaultValueMap);
+        ctx.ditaWriterFilter.setCurrentFile(ctx.currentFile);
+        ctx.ditaWriterFilter.setOutputFile(ctx.outputFile);
+        pipe.add(ctx.ditaWriterFilter);
 
         return pipe;
     }
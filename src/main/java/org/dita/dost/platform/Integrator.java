@@ -13,10 +13,12 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import org.dita.dost.log.DITAOTLogger;
 import org.dita.dost.log.MessageUtils;
+import org.dita.dost.util.CatalogUtils;
 import org.dita.dost.util.Configuration;
 import org.dita.dost.util.FileUtils;
 import org.dita.dost.util.StringUtils;
 import org.dita.dost.util.XMLUtils;
+import org.dita.dost.util.XsltCache;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -227,6 +229,8 @@ public final class Integrator {
 
         mergePlugins();
         integrate();
+        XsltCache.clear();
+        CatalogUtils.clear();
         logChanges(pluginList, getPluginIds(pluginsDoc));
     }
 
@@ -0,0 +1,365 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.reader;
+
+import org.dita.dost.writer.ImageMetadataFilter.Dimensions;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.stream.LongStream;
+
+/**
+ * Reader for bitmap dimension metadata. Dimensions and resolution are read from PNG, JPEG, GIF, BMP and TIFF file
+ * headers without decoding image data, usually reading only the first few kilobytes of the file.
+ *
+ * <p>Resolution is computed the same way as from the Image I/O standard metadata format.</p>
+ *
+ * @since 4.1
+ */
+public final class BitmapMetadataReader {
+
+    private static final float MM_TO_INCH = 25.4f;
+
+    private static final int TIFF_IMAGE_WIDTH = 256;
+    private static final int TIFF_IMAGE_LENGTH = 257;
+    private static final int TIFF_X_RESOLUTION = 282;
+    private static final int TIFF_Y_RESOLUTION = 283;
+    private static final int TIFF_RESOLUTION_UNIT = 296;
+    private static final int TIFF_TYPE_SHORT = 3;
+    private static final int TIFF_TYPE_LONG = 4;
+    private static final int TIFF_TYPE_RATIONAL = 5;
+    private static final int TIFF_RESOLUTION_UNIT_NONE = 1;
+    private static final int TIFF_RESOLUTION_UNIT_INCH = 2;
+
+    private BitmapMetadataReader() {
+    }
+
+    /**
+     * Read image dimensions from image header.
+     *
+     * @param in image input stream
+     * @return image dimensions, {@code null} if image format is not supported or header could not be read
+     * @throws IOException if reading image failed
+     */
+    public static Dimensions read(final InputStream in) throws IOException {
+        final Input input = new Input(new BufferedInputStream(in));
+        try {
+            final int b1 = input.read();
+            final int b2 = input.read();
+            if (b1 == 0x89 && b2 == 'P') {
+                return readPng(input);
+            } else if (b1 == 0xFF && b2 == 0xD8) {
+                return readJpeg(input);
+            } else if (b1 == 'G' && b2 == 'I') {
+                return readGif(input);
+            } else if (b1 == 'B' && b2 == 'M') {
+                return readBmp(input);
+            } else if ((b1 == 'I' && b2 == 'I') || (b1 == 'M' && b2 == 'M')) {
+                return readTiff(input, b1 == 'I');
+            }
+        } catch (final EOFException e) {
+            // Truncated header
+        }
+        return null;
+    }
+
+    private static Dimensions readPng(final Input in) throws IOException {
+        if (in.read() != 'N' || in.read() != 'G' || in.readInt(false) != 0x0D0A1A0A) {
+            return null;
+        }
+        Dimensions dimensions = null;
+        while (true) {
+            final long length = in.readUnsignedInt(false);
+            final int type = in.readInt(false);
+            switch (type) {
+                case 0x49484452: // IHDR
+                    dimensions = new Dimensions();
+                    dimensions.width = Integer.toString(in.readInt(false));
+                    dimensions.height = Integer.toString(in.readInt(false));
+                    in.skip(length - 8 + 4);
+                    break;
+                case 0x70485973: // pHYs
+                    final int pixelsPerUnitX = in.readInt(false);
+                    final int pixelsPerUnitY = in.readInt(false);
+                    final int unit = in.read();
+                    in.skip(length - 9 + 4);
+                    if (dimensions != null && unit == 1) {
+                        dimensions.horizontalDpi = toDpi(1000.0F / pixelsPerUnitX);
+                        dimensions.verticalDpi = toDpi(1000.0F / pixelsPerUnitY);
+                    }
+                    break;
+                case 0x49444154: // IDAT
+                case 0x49454E44: // IEND
+                    return dimensions;
+                default:
+                    in.skip(length + 4);
+                    break;
+            }
+        }
+    }
+
+    private static Dimensions readJpeg(final Input in) throws IOException {
+        boolean first = true;
+        String horizontalDpi = null;
+        String verticalDpi = null;
+        while (true) {
+            if (in.read() != 0xFF) {
+                return null;
+            }
+            int marker = in.read();
+            while (marker == 0xFF) {
+                marker = in.read();
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                // Standalone marker without length
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                // End of image or start of scan before frame header
+                return null;
+            }
+            final int length = in.readUnsignedShort(false);
+            if (marker == 0xE0 && first && length >= 16) {
+                final boolean jfif = in.read() == 'J' & in.read() == 'F' & in.read() == 'I' & in.read() == 'F'
+                        & in.read() == 0;
+                in.skip(2);
+                final int units = in.read();
+                final int densityX = in.readUnsignedShort(false);
+                final int densityY = in.readUnsignedShort(false);
+                in.skip(length - 14);
+                if (jfif && units != 0) {
+                    final float scale = units == 1 ? 25.4F : 10.0F;
+                    horizontalDpi = toDpi(scale / densityX);
+                    verticalDpi = toDpi(scale / densityY);
+                }
+            } else if (marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC) {
+                // Start of frame
+                in.skip(1);
+                final Dimensions dimensions = new Dimensions();
+                dimensions.height = Integer.toString(in.readUnsignedShort(false));
+                dimensions.width = Integer.toString(in.readUnsignedShort(false));
+                dimensions.horizontalDpi = horizontalDpi;
+                dimensions.verticalDpi = verticalDpi;
+                return dimensions;
+            } else {
+                in.skip(length - 2);
+            }
+            first = false;
+        }
+    }
+
+    private static Dimensions readGif(final Input in) throws IOException {
+        if (in.read() != 'F' || in.read() != '8') {
+            return null;
+        }
+        in.skip(2 + 4);
+        final int flags = in.read();
+        in.skip(2);
+        if ((flags & 0x80) != 0) {
+            in.skip(3L << ((flags & 0x07) + 1));
+        }
+        while (true) {
+            switch (in.read()) {
+                case 0x21: // Extension
+                    in.skip(1);
+                    for (int size = in.read(); size != 0; size = in.read()) {
+                        in.skip(size);
+                    }
+                    break;
+                case 0x2C: // Image descriptor
+                    in.skip(4);
+                    final Dimensions dimensions = new Dimensions();
+                    dimensions.width = Integer.toString(in.readUnsignedShort(true));
+                    dimensions.height = Integer.toString(in.readUnsignedShort(true));
+                    return dimensions;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    private static Dimensions readBmp(final Input in) throws IOException {
+        in.skip(12);
+        final long headerSize = in.readUnsignedInt(true);
+        final Dimensions dimensions = new Dimensions();
+        if (headerSize == 12) {
+            dimensions.width = Integer.toString(in.readUnsignedShort(true));
+            dimensions.height = Integer.toString(in.readUnsignedShort(true));
+        } else {
+            dimensions.width = Integer.toString(in.readInt(true));
+            dimensions.height = Integer.toString(Math.abs(in.readInt(true)));
+        }
+        // Image I/O standard metadata format has no pixel size for BMP
+        return dimensions;
+    }
+
+    private static Dimensions readTiff(final Input in, final boolean littleEndian) throws IOException {
+        if (in.readUnsignedShort(littleEndian) != 42) {
+            return null;
+        }
+        if (!in.skipTo(in.readUnsignedInt(littleEndian))) {
+            return null;
+        }
+        final int count = in.readUnsignedShort(littleEndian);
+        final Dimensions dimensions = new Dimensions();
+        long xResolution = -1;
+        long yResolution = -1;
+        int resolutionUnit = TIFF_RESOLUTION_UNIT_INCH;
+        for (int i = 0; i < count; i++) {
+            final int tag = in.readUnsignedShort(littleEndian);
+            final int type = in.readUnsignedShort(littleEndian);
+            in.skip(4);
+            final long value;
+            if (type == TIFF_TYPE_SHORT) {
+                value = in.readUnsignedShort(littleEndian);
+                in.skip(2);
+            } else {
+                value = in.readUnsignedInt(littleEndian);
+            }
+            switch (tag) {
+                case TIFF_IMAGE_WIDTH:
+                case TIFF_IMAGE_LENGTH:
+                    if (type != TIFF_TYPE_SHORT && type != TIFF_TYPE_LONG) {
+                        return null;
+                    }
+                    if (tag == TIFF_IMAGE_WIDTH) {
+                        dimensions.width = Long.toString(value);
+                    } else {
+                        dimensions.height = Long.toString(value);
+                    }
+                    break;
+                case TIFF_X_RESOLUTION:
+                case TIFF_Y_RESOLUTION:
+                    if (type != TIFF_TYPE_RATIONAL) {
+                        return null;
+                    }
+                    if (tag == TIFF_X_RESOLUTION) {
+                        xResolution = value;
+                    } else {
+                        yResolution = value;
+                    }
+                    break;
+                case TIFF_RESOLUTION_UNIT:
+                    resolutionUnit = (int) value;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (dimensions.width == null || dimensions.height == null) {
+            return null;
+        }
+        if (resolutionUnit != TIFF_RESOLUTION_UNIT_NONE) {
+            // Read resolution values in file order, they are usually stored after the directory
+            final long[] offsets = LongStream.of(xResolution, yResolution)
+                    .filter(offset -> offset != -1)
+                    .sorted()
+                    .distinct()
+                    .toArray();
+            for (final long offset : offsets) {
+                if (!in.skipTo(offset)) {
+                    // Value before directory would require seeking backwards
+                    return null;
+                }
+                final String dpi = readTiffDpi(in, littleEndian, resolutionUnit);
+                if (offset == xResolution) {
+                    dimensions.horizontalDpi = dpi;
+                }
+                if (offset == yResolution) {
+                    dimensions.verticalDpi = dpi;
+                }
+            }
+        }
+        return dimensions;
+    }
+
+    private static String readTiffDpi(final Input in, final boolean littleEndian, final int resolutionUnit)
+            throws IOException {
+        long numerator = in.readUnsignedInt(littleEndian);
+        long denominator = in.readUnsignedInt(littleEndian);
+        if (resolutionUnit == TIFF_RESOLUTION_UNIT_INCH) {
+            numerator *= 100;
+            denominator *= 254;
+        }
+        return toDpi((float) (10.0 * denominator / numerator));
+    }
+
+    /**
+     * Convert pixel size in millimeters to DPI.
+     */
+    private static String toDpi(final float pixelSize) {
+        return Integer.toString(Math.round(MM_TO_INCH / pixelSize));
+    }
+
+    /**
+     * Input stream reader with position tracking.
+     */
+    private static final class Input {
+
+        private final InputStream in;
+        private long position = 0;
+
+        Input(final InputStream in) {
+            this.in = in;
+        }
+
+        int read() throws IOException {
+            final int b = in.read();
+            if (b == -1) {
+                throw new EOFException();
+            }
+            position++;
+            return b;
+        }
+
+        int readUnsignedShort(final boolean littleEndian) throws IOException {
+            final int b1 = read();
+            final int b2 = read();
+            return littleEndian ? (b2 << 8) | b1 : (b1 << 8) | b2;
+        }
+
+        int readInt(final boolean littleEndian) throws IOException {
+            final int s1 = readUnsignedShort(littleEndian);
+            final int s2 = readUnsignedShort(littleEndian);
+            return littleEndian ? (s2 << 16) | s1 : (s1 << 16) | s2;
+        }
+
+        long readUnsignedInt(final boolean littleEndian) throws IOException {
+            return readInt(littleEndian) & 0xFFFFFFFFL;
+        }
+
+        void skip(final long n) throws IOException {
+            long remaining = n;
+            while (remaining > 0) {
+                final long skipped = in.skip(remaining);
+                if (skipped <= 0) {
+                    read();
+                    remaining--;
+                } else {
+                    remaining -= skipped;
+                    position += skipped;
+                }
+            }
+        }
+
+        /**
+         * Skip forward to absolute position.
+         *
+         * @return {@code false} if position is before current position
+         */
+        boolean skipTo(final long offset) throws IOException {
+            if (offset < position) {
+                return false;
+            }
+            skip(offset - position);
+            return true;
+        }
+    }
+}
@@ -7,18 +7,32 @@
  */
 package org.dita.dost.reader;
 
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
 import org.apache.xerces.xni.grammars.XMLGrammarPool;
-import org.dita.dost.util.XMLGrammarPoolImplUtils;
 import org.ditang.relaxng.defaults.pool.RNGDefaultsEnabledSynchronizedXMLGrammarPoolImpl;
 
+import java.io.File;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.dita.dost.util.URLUtils.toFile;
+import static org.dita.dost.util.URLUtils.toURI;
+
 /**
  * Manages creation and access to a master Xerces grammar pool.
- * The grammar pool is managed as a ThreadLocal variable so it can
- * be used across Ant task invocations.
+ * The grammar pool is shared by all threads in the JVM, so that parallel
+ * reader workers and consecutive builds compile each grammar only once.
+ * Cached grammars are discarded when the top-level grammar file has been modified.
+ *
+ * <p>Only the top-level grammar file, e.g. a DTD or XML Schema document shell, is checked. Modifications to
+ * modules, entity files or included schema documents it loads are not detected and the previously compiled
+ * grammar is used until the JVM is restarted.</p>
  */
 public final class GrammarPoolManager {
 
-    private static final ThreadLocal<XMLGrammarPool> grammarPool = new ThreadLocal<>();
+    private static volatile XMLGrammarPool grammarPool;
 
     /**
      * Get grammar pool
@@ -26,17 +40,73 @@ public final class GrammarPoolManager {
      * @return grammar pool instance
      */
     public static XMLGrammarPool getGrammarPool() {
-        XMLGrammarPool pool = grammarPool.get();
+        XMLGrammarPool pool = grammarPool;
         if (pool == null) {
-            try {
-                pool = new RNGDefaultsEnabledSynchronizedXMLGrammarPoolImpl();
-                grammarPool.set(pool);
-            } catch (final Exception e) {
-                System.out.println("Failed to create Xerces grammar pool for caching DTDs and schemas");
+            synchronized (GrammarPoolManager.class) {
+                pool = grammarPool;
+                if (pool == null) {
+                    try {
+                        pool = new SharedGrammarPool();
+                        grammarPool = pool;
+                    } catch (final Exception e) {
+                        System.out.println("Failed to create Xerces grammar pool for caching DTDs and schemas");
+                    }
+                }
             }
         }
         return pool;
     }
 
-}
+    /**
+     * Thread-safe grammar pool that discards grammars whose local top-level grammar file has been modified since
+     * the grammar was cached. Files loaded by the top-level grammar file are not tracked.
+     */
+    private static final class SharedGrammarPool extends RNGDefaultsEnabledSynchronizedXMLGrammarPoolImpl {
+
+        /** Last modified times of cached top-level grammar files by expanded system ID. */
+        private final Map<String, Long> lastModified = new ConcurrentHashMap<>();
+
+        @Override
+        public void putGrammar(final Grammar grammar) {
+            final File file = getFile(grammar.getGrammarDescription());
+            if (file != null) {
+                lastModified.put(grammar.getGrammarDescription().getExpandedSystemId(), file.lastModified());
+            }
+            super.putGrammar(grammar);
+        }
 
+        @Override
+        public Grammar retrieveGrammar(final XMLGrammarDescription desc) {
+            final Grammar grammar = super.retrieveGrammar(desc);
+            if (grammar != null) {
+                final XMLGrammarDescription cached = grammar.getGrammarDescription();
+                final File file = getFile(cached);
+                if (file != null) {
+                    final Long time = lastModified.get(cached.getExpandedSystemId());
+                    if (time == null || time != file.lastModified()) {
+                        removeGrammar(cached);
+                        return null;
+                    }
+                }
+            }
+            return grammar;
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            lastModified.clear();
+        }
+
+        private File getFile(final XMLGrammarDescription desc) {
+            if (desc == null || desc.getExpandedSystemId() == null) {
+                return null;
+            }
+            final URI uri = toURI(desc.getExpandedSystemId());
+            if (uri == null || !"file".equals(uri.getScheme())) {
+                return null;
+            }
+            return toFile(uri);
+        }
+    }
+}
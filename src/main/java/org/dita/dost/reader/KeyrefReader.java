@@ -26,6 +26,7 @@ import org.dita.dost.log.MessageUtils;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.KeyDef;
 import org.dita.dost.util.KeyScope;
+import org.dita.dost.util.LayeredMap;
 import org.dita.dost.util.XMLUtils;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -123,9 +124,7 @@ public final class KeyrefReader implements AbstractReader {
         // TODO: use KeyScope implementation that retains order
         final KeyScope keyScope = readScopes(doc);
         final KeyScope keyScopeWithChildren = cascadeChildKeys(keyScope);
-        // TODO: determine effective key definitions here
-        final KeyScope keyScopeWithParents = inheritParentKeys(keyScopeWithChildren);
-        rootScope = resolveIntermediate(keyScopeWithParents);
+        rootScope = resolveScopes(keyScopeWithChildren);
     }
 
     /**
@@ -248,77 +247,106 @@ public final class KeyrefReader implements AbstractReader {
         }
     }
 
-    /** Cascade child keys with prefixes to parent key scopes. */
+    /**
+     * Cascade child keys with prefixes to parent key scopes.
+     *
+     * <p>Child scopes are cascaded first and only their prefixed key definitions are collected. Scope's own key
+     * definitions are layered over them instead of copying, so that own key definitions take precedence.</p>
+     */
     @VisibleForTesting
     KeyScope cascadeChildKeys(final KeyScope rootScope) {
-        final Map<String, KeyDef> res = new HashMap<>(rootScope.keyDefinition());
-        cascadeChildKeys(rootScope, res, "");
-        return new KeyScope(rootScope.id(), rootScope.name(), res,
-                rootScope.childScopes().stream()
-                        .map(this::cascadeChildKeys)
-                        .collect(Collectors.toList())
-        );
-    }
-
-    private void cascadeChildKeys(final KeyScope scope, final Map<String, KeyDef> keys, final String prefix) {
-        for (final Map.Entry<String, KeyDef> e: scope.keyDefinition().entrySet()) {
-            final KeyDef oldKeyDef = e.getValue();
-            final KeyDef newKeyDef = new KeyDef(prefix + oldKeyDef.keys, oldKeyDef.href, oldKeyDef.scope, oldKeyDef.format, oldKeyDef.source, oldKeyDef.element);
-            if (!keys.containsKey(newKeyDef.keys)) {
-                keys.put(newKeyDef.keys, newKeyDef);
+        final List<KeyScope> childScopes = rootScope.childScopes().stream()
+                .map(this::cascadeChildKeys)
+                .collect(Collectors.toList());
+        final Map<String, KeyDef> childKeys = new HashMap<>();
+        for (final KeyScope child : childScopes) {
+            final String prefix = child.name() + ".";
+            for (final KeyDef oldKeyDef : child.keyDefinition().values()) {
+                final String key = prefix + oldKeyDef.keys;
+                if (!childKeys.containsKey(key)) {
+                    childKeys.put(key, new KeyDef(key, oldKeyDef.href, oldKeyDef.scope, oldKeyDef.format, oldKeyDef.source, oldKeyDef.element));
+                }
             }
         }
-        for (final KeyScope child: scope.childScopes()) {
-            cascadeChildKeys(child, keys, prefix + child.name() + ".");
-        }
+        return new KeyScope(rootScope.id(), rootScope.name(),
+                LayeredMap.of(rootScope.keyDefinition(), childKeys),
+                childScopes);
     }
 
-
     /**
-     * Inherit parent keys to child key scopes.
+     * Inherit parent keys to child key scopes and resolve intermediate key references.
+     *
+     * <p>Child key scopes layer their own key definitions under the parent key definitions instead of copying
+     * them. Key definitions inherited from the parent are resolved again in a child scope only if their key
+     * reference chain ends in a key that is missing from the parent scope but defined in the child scope.</p>
      */
-    private KeyScope inheritParentKeys(final KeyScope rootScope) {
-        return inheritParentKeys(rootScope, Collections.emptyMap());
-    }
-
-    private KeyScope inheritParentKeys(final KeyScope current, final Map<String, KeyDef> parent) {
-        if (parent.keySet().isEmpty() && current.childScopes().isEmpty()) {
-            return current;
-        } else {
-            final Map<String, KeyDef> resKeys = new HashMap<>();
-            resKeys.putAll(current.keyDefinition());
-            resKeys.putAll(parent);
-            final List<KeyScope> resChildren = new ArrayList<>();
-            for (final KeyScope child : current.childScopes()) {
-                final KeyScope resChild = inheritParentKeys(child, resKeys);
-                resChildren.add(resChild);
-            }
-            return new KeyScope(current.id(), current.name(), resKeys, resChildren);
-        }
+    private KeyScope resolveScopes(final KeyScope rootScope) {
+        return resolveScopes(rootScope, Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
     }
 
     /**
-     * Resolve intermediate key references.
+     * @param current key scope to resolve
+     * @param parentKeys effective unresolved key definitions of parent scope
+     * @param parentResolved effective resolved key definitions of parent scope
+     * @param parentDangling keys of parent scope whose key reference chain ends in an undefined key, by undefined key
      */
-    private KeyScope resolveIntermediate(final KeyScope scope) {
-        final Map<String, KeyDef> keys = new HashMap<>(scope.keyDefinition());
-        for (final Map.Entry<String, KeyDef> e : scope.keyDefinition().entrySet()) {
-            final KeyDef res = resolveIntermediate(scope, e.getValue(), Collections.singletonList(e.getValue()));
-            keys.put(e.getKey(), res);
+    private KeyScope resolveScopes(final KeyScope current,
+                                   final Map<String, KeyDef> parentKeys,
+                                   final Map<String, KeyDef> parentResolved,
+                                   final Map<String, List<String>> parentDangling) {
+        final Map<String, KeyDef> keys = LayeredMap.of(parentKeys, current.keyDefinition());
+        final Map<String, KeyDef> resolved = new HashMap<>();
+        final Map<String, List<String>> dangling = new HashMap<>();
+        final List<String> inherited = new ArrayList<>();
+        for (final Map.Entry<String, List<String>> e : parentDangling.entrySet()) {
+            if (keys.containsKey(e.getKey())) {
+                inherited.addAll(e.getValue());
+            } else {
+                dangling.put(e.getKey(), e.getValue());
+            }
         }
+        for (final Map.Entry<String, KeyDef> e : current.keyDefinition().entrySet()) {
+            if (!parentKeys.containsKey(e.getKey())) {
+                resolve(keys, e.getKey(), e.getValue(), resolved, dangling);
+            }
+        }
+        for (final String key : inherited) {
+            resolve(keys, key, keys.get(key), resolved, dangling);
+        }
+        final Map<String, KeyDef> resKeys = LayeredMap.of(resolved, parentResolved);
         final List<KeyScope> children = new ArrayList<>();
-        for (final KeyScope child : scope.childScopes()) {
-            final KeyScope resolvedChild = resolveIntermediate(child);
-            children.add(resolvedChild);
+        for (final KeyScope child : current.childScopes()) {
+            children.add(resolveScopes(child, keys, resKeys, dangling));
+        }
+        return new KeyScope(current.id(), current.name(), resKeys, children);
+    }
+
+    private void resolve(final Map<String, KeyDef> keys, final String key, final KeyDef keyDef,
+                         final Map<String, KeyDef> resolved, final Map<String, List<String>> dangling) {
+        final String[] missing = new String[1];
+        resolved.put(key, resolveIntermediate(keys, keyDef, Collections.singletonList(keyDef), missing));
+        if (missing[0] != null) {
+            final List<String> dependants = new ArrayList<>(dangling.getOrDefault(missing[0], Collections.emptyList()));
+            dependants.add(key);
+            dangling.put(missing[0], dependants);
         }
-        return new KeyScope(scope.id(), scope.name(), keys, children);
     }
 
-    private KeyDef resolveIntermediate(final KeyScope scope, final KeyDef keyDef, final List<KeyDef> circularityTracker) {
+    /**
+     * Resolve intermediate key references.
+     *
+     * @param keys effective unresolved key definitions
+     * @param keyDef key definition to resolve
+     * @param circularityTracker key definitions in current key reference chain
+     * @param missing single item array to store undefined key that ends the key reference chain
+     * @return resolved key definition
+     */
+    private KeyDef resolveIntermediate(final Map<String, KeyDef> keys, final KeyDef keyDef,
+                                       final List<KeyDef> circularityTracker, final String[] missing) {
         final XdmNode elem = keyDef.element;
         final String keyref = elem.attribute(ATTRIBUTE_NAME_KEYREF);
-        if (keyref != null && !keyref.trim().isEmpty() && scope.keyDefinition().containsKey(keyref)) {
-            KeyDef keyRefDef = scope.keyDefinition().get(keyref);
+        if (keyref != null && !keyref.trim().isEmpty() && keys.containsKey(keyref)) {
+            KeyDef keyRefDef = keys.get(keyref);
             if (circularityTracker.contains(keyRefDef)) {
                 handleCircularDefinitionException(circularityTracker);
                 return keyDef;
@@ -330,11 +358,14 @@ public final class KeyrefReader implements AbstractReader {
                 final List<KeyDef> ct = new ArrayList<>(circularityTracker.size() + 1);
                 ct.addAll(circularityTracker);
                 ct.add(keyRefDef);
-                keyRefDef = resolveIntermediate(scope, keyRefDef, ct);
+                keyRefDef = resolveIntermediate(keys, keyRefDef, ct, missing);
             }
             final XdmNode res = mergeMetadata(keyRefDef.element, elem);
             return new KeyDef(keyDef.keys, keyRefDef.href, keyRefDef.scope, keyRefDef.format, keyRefDef.source, res);
         } else {
+            if (keyref != null && !keyref.trim().isEmpty()) {
+                missing[0] = keyref;
+            }
             return keyDef;
         }
     }
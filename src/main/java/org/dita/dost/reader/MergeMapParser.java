@@ -21,11 +21,10 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.sax.SAXTransformerFactory;
 import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamResult;
-import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.OutputStream;
+import java.io.*;
 import java.net.URI;
 import java.util.Stack;
+import java.util.UUID;
 
 import static javax.xml.transform.OutputKeys.OMIT_XML_DECLARATION;
 import static org.dita.dost.util.Constants.*;
@@ -35,7 +34,9 @@ import static org.dita.dost.util.URLUtils.*;
 /**
  * MergeMapParser reads the ditamap file after preprocessing and merges
  * different files into one intermediate result. It calls MergeTopicParser
- * to process the topic file. Instances are reusable but not thread-safe.
+ * to process the topic file. Merged topics are spooled to a temporary file
+ * in the store and appended to the output after the map, so memory use does
+ * not grow with the number of topics. Instances are reusable but not thread-safe.
  */
 public final class MergeMapParser extends XMLFilterImpl {
 
@@ -50,7 +51,6 @@ public final class MergeMapParser extends XMLFilterImpl {
 
     private final Stack<String> processStack;
     private int processLevel;
-    private final ByteArrayOutputStream topicBuffer;
     private final SAXTransformerFactory stf;
     private OutputStream output;
     private DITAOTLogger logger;
@@ -64,17 +64,12 @@ public final class MergeMapParser extends XMLFilterImpl {
         processLevel = 0;
         util = new MergeUtils();
         topicParser = new MergeTopicParser(util);
-        topicBuffer = new ByteArrayOutputStream();
         try {
             final TransformerFactory tf = TransformerFactory.newInstance();
             if (!tf.getFeature(SAXTransformerFactory.FEATURE)) {
                 throw new RuntimeException("SAX transformation factory not supported");
             }
             stf = (SAXTransformerFactory) tf;
-            final TransformerHandler s = stf.newTransformerHandler();
-            s.getTransformer().setOutputProperty(OMIT_XML_DECLARATION , "yes");
-            s.setResult(new StreamResult(topicBuffer));
-            topicParser.setContentHandler(s);
         } catch (final RuntimeException e) {
             throw e;
         } catch (final Exception e) {
@@ -120,23 +115,40 @@ public final class MergeMapParser extends XMLFilterImpl {
      */
     public void read(final File filename, final File tmpDir) {
         tempdir = tmpDir != null ? tmpDir : filename.getParentFile();
+        final URI topics = job.tempDirURI.resolve("topicmerge-" + UUID.randomUUID() + ".xml");
         try {
             final TransformerHandler s = stf.newTransformerHandler();
             s.getTransformer().setOutputProperty(OMIT_XML_DECLARATION, "yes");
             s.setResult(new StreamResult(output));
             setContentHandler(s);
             dirPath = filename.getParentFile();
-            topicParser.getContentHandler().startDocument();
-            logger.info("Processing " + filename.toURI());
+            try (OutputStream topicOutput = new BufferedOutputStream(job.getStore().getOutputStream(topics))) {
+                final TransformerHandler t = stf.newTransformerHandler();
+                t.getTransformer().setOutputProperty(OMIT_XML_DECLARATION, "yes");
+                t.setResult(new StreamResult(topicOutput));
+                topicParser.setContentHandler(t);
+                t.startDocument();
+                logger.info("Processing " + filename.toURI());
 
-            job.getStore().transform(filename.toURI(), this);
+                job.getStore().transform(filename.toURI(), this);
 
-            topicParser.getContentHandler().endDocument();
-            output.write(topicBuffer.toByteArray());
+                t.endDocument();
+            }
+            try (InputStream topicInput = job.getStore().getInputStream(topics)) {
+                topicInput.transferTo(output);
+            }
         } catch (final RuntimeException e) {
             throw e;
         } catch (final Exception e) {
             logger.error(e.getMessage(), e) ;
+        } finally {
+            try {
+                if (job.getStore().exists(topics)) {
+                    job.getStore().delete(topics);
+                }
+            } catch (final IOException e) {
+                logger.error("Failed to delete " + topics + ": " + e.getMessage(), e);
+            }
         }
     }
 
@@ -9,16 +9,22 @@
 package org.dita.dost.store;
 
 import net.sf.saxon.s9api.XsltTransformer;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.commons.io.output.ProxyOutputStream;
 import org.dita.dost.exception.DITAOTException;
 import org.dita.dost.util.XMLUtils;
 import org.xml.sax.XMLFilter;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 
+import static org.dita.dost.store.StoreMetrics.Counter.BYTES_READ;
+import static org.dita.dost.store.StoreMetrics.Counter.BYTES_WRITTEN;
 import static org.dita.dost.util.Constants.FILE_EXTENSION_TEMP;
 import static org.dita.dost.util.URLUtils.setFragment;
 import static org.dita.dost.util.URLUtils.toURI;
@@ -33,16 +39,30 @@ public abstract class AbstractStore implements Store {
     protected final XMLUtils xmlUtils;
     public final File tempDir;
     public final URI tempDirUri;
+    protected final StoreMetrics metrics;
 
 //    final TransformerFactory tf;
 
     public AbstractStore(final File tempDir, final XMLUtils xmlUtils) {
+        this(tempDir, xmlUtils, new StoreMetrics());
+    }
+
+    /**
+     * Create new store.
+     *
+     * @param tempDir temporary directory
+     * @param xmlUtils XML utilities
+     * @param metrics store metrics, may be shared with other stores
+     * @since 4.1
+     */
+    AbstractStore(final File tempDir, final XMLUtils xmlUtils, final StoreMetrics metrics) {
         if (!tempDir.isAbsolute()) {
             throw new IllegalArgumentException("Temporary directory " + tempDir + " must be absolute");
         }
         this.tempDirUri = tempDir.toURI();
         this.tempDir = tempDir;
         this.xmlUtils = xmlUtils;
+        this.metrics = metrics;
 //        tf = TransformerFactory.newInstance();
     }
 
@@ -60,6 +80,11 @@ public abstract class AbstractStore implements Store {
         return tempDirUri.resolve(path).normalize();
     }
 
+    @Override
+    public StoreMetrics getMetrics() {
+        return metrics;
+    }
+
     protected boolean isTempFile(final URI f) {
         return f.toString().startsWith(tempDirUri.toString());
     }
@@ -113,6 +138,38 @@ public abstract class AbstractStore implements Store {
         }
     }
 
+    /**
+     * Count bytes read from stream into store metrics.
+     */
+    InputStream count(final InputStream in) {
+        if (!metrics.isEnabled()) {
+            return in;
+        }
+        return new ProxyInputStream(in) {
+            @Override
+            protected void afterRead(final int n) {
+                if (n > 0) {
+                    metrics.add(BYTES_READ, n);
+                }
+            }
+        };
+    }
+
+    /**
+     * Count bytes written to stream into store metrics.
+     */
+    OutputStream count(final OutputStream out) {
+        if (!metrics.isEnabled()) {
+            return out;
+        }
+        return new ProxyOutputStream(out) {
+            @Override
+            protected void afterWrite(final int n) {
+                metrics.add(BYTES_WRITTEN, n);
+            }
+        };
+    }
+
     abstract void transformURI(final URI input, final URI output, final List<XMLFilter> filters) throws DITAOTException;
 
     abstract void transformUri(final URI input, final URI output, final XsltTransformer transformer) throws DITAOTException;
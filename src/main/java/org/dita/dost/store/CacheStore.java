@@ -8,6 +8,7 @@
 
 package org.dita.dost.store;
 
+import com.google.common.util.concurrent.Striped;
 import net.sf.saxon.dom.NodeOverNodeInfo;
 import net.sf.saxon.event.PipelineConfiguration;
 import net.sf.saxon.event.Receiver;
@@ -37,65 +38,152 @@ import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamSource;
 import java.io.*;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+import static org.dita.dost.store.StoreMetrics.Counter.*;
 import static org.dita.dost.util.Constants.FILE_EXTENSION_TEMP;
 import static org.dita.dost.util.URLUtils.stripFragment;
 import static org.dita.dost.util.URLUtils.toURI;
 
 /**
  * DOM and memory based store, backed up by a disk store.
+ *
+ * <p>If a memory budget is set, least recently used entries are first compacted into an off-heap binary encoding,
+ * see {@link CompactTree}, and then spilled to the disk store when the estimated size of cached entries exceeds
+ * the budget. Compacted entries are decoded without XML parsing, and spilled entries are read back from disk
+ * through the disk store. Without a memory budget, the default, entries are never compacted and are kept in their
+ * heap representations.</p>
+ *
+ * <p>The store is thread-safe. Reads are lock-free, writes to a single file are serialized with striped locks, and
+ * alternative representations of an entry are materialized at most once.</p>
  */
 public class CacheStore extends AbstractStore implements Store {
 
+    /** Unbounded memory budget. */
+    public static final long UNBOUNDED = 0L;
+    /** Number of lock stripes for write operations. */
+    private static final int LOCK_STRIPES = 64;
+
     private final StreamStore fallback;
     private final Map<URI, Entry> cache;
+    /** Locks for write operations, keyed by absolute file URI. */
+    private final Striped<Lock> locks;
+    /** Memory budget in bytes, or {@link #UNBOUNDED}. */
+    private final long maxWeight;
+    /** Estimated size of cached entries in bytes. */
+    private final AtomicLong weight;
+    /** Temporary files spilled to disk. */
+    private final Set<URI> spilled;
+    private final ReentrantLock evictionLock;
 
     public CacheStore(final File tempDir, final XMLUtils xmlUtils) {
-        super(tempDir, xmlUtils);
-        fallback = new StreamStore(tempDir, xmlUtils);
-        this.cache = new HashMap<>();
+        this(tempDir, xmlUtils, UNBOUNDED);
+    }
+
+    /**
+     * Create new memory store with a memory budget.
+     *
+     * @param tempDir temporary directory
+     * @param xmlUtils XML utilities
+     * @param maxWeight memory budget in bytes, or {@link #UNBOUNDED}
+     * @since 4.1
+     */
+    public CacheStore(final File tempDir, final XMLUtils xmlUtils, final long maxWeight) {
+        this(tempDir, xmlUtils, maxWeight, new StoreMetrics());
+    }
+
+    CacheStore(final File tempDir, final XMLUtils xmlUtils, final long maxWeight, final StoreMetrics metrics) {
+        super(tempDir, xmlUtils, metrics);
+        fallback = new StreamStore(tempDir, xmlUtils, metrics);
+        this.cache = new ConcurrentHashMap<>();
+        this.locks = Striped.lock(LOCK_STRIPES);
+        this.maxWeight = maxWeight;
+        this.weight = new AtomicLong();
+        this.spilled = ConcurrentHashMap.newKeySet();
+        this.evictionLock = new ReentrantLock();
+    }
+
+    /**
+     * Get memory budget.
+     *
+     * @return memory budget in bytes, or {@link #UNBOUNDED}
+     */
+    long getMaxWeight() {
+        return maxWeight;
     }
 
     @Override
     public void delete(final URI file) throws IOException {
         final URI f = file.normalize();
-        if (isTempFile(f)) {
-            if (cache.containsKey(f)) {
-                remove(f);
-                return;
+        final Lock lock = locks.get(f);
+        lock.lock();
+        try {
+            if (isTempFile(f)) {
+                if (remove(f) != null) {
+                    return;
+                }
             }
+            cacheMiss(f);
+            spilled.remove(f);
+            fallback.delete(file);
+        } finally {
+            lock.unlock();
         }
-        cacheMiss(f);
-        fallback.delete(file);
     }
 
     @Override
     public void copy(final URI src, final URI dst) throws IOException {
-        if (cache.containsKey(src)) {
-            final URI s = toAbsolute(src);
-            final Entry entry = get(s);
-            final URI d = toAbsolute(dst);
-            put(d, entry);
-            return;
+        final URI s = toAbsolute(src);
+        final URI d = toAbsolute(dst);
+        final Iterable<Lock> bulk = lock(s, d);
+        try {
+            final Entry entry = cache.get(s);
+            if (entry != null) {
+                touch(entry);
+                final Entry copy = new Entry(entry.doc, entry.node, entry.bytes, entry.lastModified);
+                copy.compact = entry.compact;
+                store(d, copy);
+            } else {
+                cacheMiss(src);
+                invalidate(d);
+                fallback.copy(src, dst);
+            }
+        } finally {
+            unlock(bulk);
         }
-        cacheMiss(src);
-        fallback.copy(src, dst);
+        evict();
     }
 
     @Override
     public void move(final URI src, final URI dst) throws IOException {
         if (LOG) System.err.println("Cache move: " + src + " -> " + dst);
-        if (cache.containsKey(src)) {
-            final URI s = toAbsolute(src);
-            final URI d = toAbsolute(dst);
-            final Entry remove = remove(s);
-            final Entry wrap = rebase(remove, d);
-            put(d, wrap);
-            return;
+        final URI s = toAbsolute(src);
+        final URI d = toAbsolute(dst);
+        final Iterable<Lock> bulk = lock(s, d);
+        try {
+            final Entry entry = cache.get(s);
+            if (entry != null) {
+                // Store destination before removing source so that readers always find the file
+                store(d, rebase(entry, d));
+                if (!s.equals(d)) {
+                    remove(s);
+                }
+            } else {
+                cacheMiss(src);
+                invalidate(d);
+                fallback.move(src, dst);
+            }
+        } finally {
+            unlock(bulk);
         }
-        cacheMiss(src);
-        fallback.move(src, dst);
+        evict();
     }
 
     @Override
@@ -110,8 +198,9 @@ public class CacheStore extends AbstractStore implements Store {
     @Override
     public long getLastModified(final URI path) {
         final URI f = stripFragment(toAbsolute(path)).normalize();
-        if (cache.containsKey(f)) {
-            return cache.get(f).lastModified;
+        final Entry entry = cache.get(f);
+        if (entry != null) {
+            return entry.lastModified;
         }
         return fallback.getLastModified(f);
     }
@@ -125,8 +214,8 @@ public class CacheStore extends AbstractStore implements Store {
         final URI f = b.resolve(h).normalize();
         if (LOG) System.err.println("Cache resolve: " + f);
         if (isTempFile(f)) {
-            if (cache.containsKey(f)) {
-                final Entry entry = get(f);
+            final Entry entry = get(f);
+            if (entry != null) {
                 return toSource(entry, f);
             }
         }
@@ -139,11 +228,13 @@ public class CacheStore extends AbstractStore implements Store {
         final URI f = getUri(path).normalize();
         if (LOG) System.err.println("Cache getSource: " + f);
         if (isTempFile(f)) {
-            if (cache.containsKey(f)) {
-                final Entry entry = get(f);
+            final Entry entry = get(f);
+            if (entry != null) {
                 return toSource(entry, f);
             }
             cacheMiss(f);
+        } else {
+            metrics.increment(FALLBACK);
         }
         return fallback.getSource(f);
     }
@@ -153,28 +244,13 @@ public class CacheStore extends AbstractStore implements Store {
         final URI f = toAbsolute(path);
         if (LOG) System.err.println("getImmutableDocument:" + f);
         if (isTempFile(f)) {
-            if (cache.containsKey(f)) {
-                final Entry entry = cache.get(f);
-                if (entry.doc != null) {
-                    return entry.doc;
-                } else if (entry.node != null) {
-                    final NodeInfo nodeInfo = entry.node.getUnderlyingNode();
-                    final Document doc = (Document) NodeOverNodeInfo.wrap(nodeInfo);
-                    put(f, new Entry(doc, entry.node, null));
-                    return doc;
-                } else if (entry.bytes != null) {
-                    try (InputStream in = new ByteArrayInputStream(entry.bytes)) {
-                        final Document doc = XMLUtils.getDocumentBuilder().parse(in, f.toString());
-                        put(f, new Entry(doc, null, entry.bytes));
-                        return doc;
-                    } catch (SAXException e) {
-                        throw new IOException(e);
-                    }
-                } else {
-                    throw new IllegalArgumentException();
-                }
+            final Entry entry = get(f);
+            if (entry != null) {
+                return getImmutableDocument(f, entry);
             }
             cacheMiss(f);
+        } else {
+            metrics.increment(FALLBACK);
         }
         return fallback.getDocument(path);
     }
@@ -184,28 +260,13 @@ public class CacheStore extends AbstractStore implements Store {
         final URI f = toAbsolute(path);
         if (LOG) System.err.println("getImmutableNode:" + f);
         if (isTempFile(f)) {
-            if (cache.containsKey(f)) {
-                final Entry entry = cache.get(f);
-                if (entry.node != null) {
-                    return entry.node;
-                } else if (entry.doc != null) {
-                    final XdmNode node = xmlUtils.getProcessor().newDocumentBuilder().wrap(entry.doc);
-                    put(f, new Entry(entry.doc, node, entry.bytes));
-                    return node;
-                } else if (entry.bytes != null) {
-                    try (InputStream in = new ByteArrayInputStream(entry.bytes)) {
-                        final StreamSource source = new StreamSource(in);
-                        source.setSystemId(f.toString());
-                        final XdmNode node = xmlUtils.getProcessor().newDocumentBuilder().build(source);
-                        put(f, new Entry(entry.doc, node, entry.bytes));
-                    } catch (SaxonApiException e) {
-                        throw new IOException(e);
-                    }
-                } else {
-                    throw new IllegalArgumentException();
-                }
+            final Entry entry = get(f);
+            if (entry != null) {
+                return getImmutableNode(f, entry);
             }
             cacheMiss(f);
+        } else {
+            metrics.increment(FALLBACK);
         }
         return fallback.getImmutableNode(path);
     }
@@ -215,27 +276,30 @@ public class CacheStore extends AbstractStore implements Store {
         final URI f = toAbsolute(path);
         if (LOG) System.err.println("getDocument:" + f);
         if (isTempFile(f)) {
-            if (cache.containsKey(f)) {
-                final Entry entry = get(f);
-                if (entry.doc != null) {
-                    return (Document) entry.doc.cloneNode(true);
-                } else if (entry.node != null) {
-                    return cloneDocument(entry.node);
-                } else if (entry.bytes != null) {
-                    try (InputStream in = new ByteArrayInputStream(entry.bytes)) {
-                        final InputSource inputSource = new InputSource(in);
-                        inputSource.setSystemId(f.toString());
-                        final Document doc = XMLUtils.getDocumentBuilder().parse(inputSource);
-                        put(f, new Entry(doc, entry.node, entry.bytes));
-                        return doc;
-                    } catch (SAXException e) {
-                        throw new IOException(e);
+            final Entry entry = get(f);
+            if (entry != null) {
+                final Document doc = entry.doc;
+                final XdmNode node = entry.node;
+                final byte[] bytes = entry.bytes;
+                final ByteBuffer compact = entry.compact;
+                if (doc != null) {
+                    synchronized (entry) {
+                        return (Document) doc.cloneNode(true);
                     }
+                } else if (node != null) {
+                    return cloneDocument(node);
+                } else if (bytes != null) {
+                    // Don't save mutable doc into cache
+                    return parseDocument(f, bytes);
+                } else if (compact != null) {
+                    return cloneDocument(decode(f, compact));
                 } else {
                     throw new IllegalArgumentException();
                 }
             }
             cacheMiss(f);
+        } else {
+            metrics.increment(FALLBACK);
         }
         return fallback.getDocument(path);
     }
@@ -252,6 +316,7 @@ public class CacheStore extends AbstractStore implements Store {
             }
             put(path, new Entry(null, node, null));
         } else {
+            metrics.increment(FALLBACK);
             fallback.writeDocument(doc, path);
         }
     }
@@ -266,6 +331,7 @@ public class CacheStore extends AbstractStore implements Store {
 //            }
             put(path, new Entry(null, node, null));
         } else {
+            metrics.increment(FALLBACK);
             fallback.writeDocument(node, path);
         }
     }
@@ -291,6 +357,7 @@ public class CacheStore extends AbstractStore implements Store {
             });
             return dst;
         }
+        metrics.increment(FALLBACK);
         return fallback.getDestination(path);
     }
 
@@ -313,11 +380,13 @@ public class CacheStore extends AbstractStore implements Store {
     public void transform(final URI src, final ContentHandler dst) throws DITAOTException {
         final URI f = src.normalize();
         if (isTempFile(f)) {
-            if (cache.containsKey(f)) {
+            if (cache.get(f) != null) {
+                final long start = System.nanoTime();
                 try {
                     final Source source = getSource(src);
                     final Receiver receiver = getReceiver(dst);
                     Sender.send(source, receiver, new ParseOptions());
+                    metrics.record(TRANSFORM, TRANSFORM_TIME, start);
                 } catch (final RuntimeException e) {
                     throw e;
                 } catch (final Exception e) {
@@ -333,17 +402,20 @@ public class CacheStore extends AbstractStore implements Store {
     public void transform(final URI input, final List<XMLFilter> filters) throws DITAOTException {
         final URI src = input.normalize();
         if (isTempFile(src)) {
+            final long start = System.nanoTime();
             try {
                 final Source source = getSource(src);
                 final ContentHandler serializer = getContentHandler(src);
                 final ContentHandler pipe = getPipe(filters, serializer);
                 final Receiver receiver = getReceiver(pipe);
                 Sender.send(source, receiver, new ParseOptions());
+                metrics.record(TRANSFORM, TRANSFORM_TIME, start);
                 // getDestination will handle save to cache
             } catch (IOException | XPathException | SaxonApiException e) {
                 throw new DITAOTException("Failed to transform " + src + ": " + e.getMessage(), e);
             }
         } else {
+            metrics.increment(FALLBACK);
             fallback.transform(src, filters);
         }
     }
@@ -380,6 +452,7 @@ public class CacheStore extends AbstractStore implements Store {
         final URI dst = useTmpBuf
                 ? toURI(src + FILE_EXTENSION_TEMP).normalize()
                 : src;
+        final long start = System.nanoTime();
         try {
             final Source source = getSource(src);
             transformer.setSource(source);
@@ -387,6 +460,7 @@ public class CacheStore extends AbstractStore implements Store {
             result.setDestinationBaseURI(src);
             transformer.setDestination(result);
             transformer.transform();
+            metrics.record(TRANSFORM, TRANSFORM_TIME, start);
             if (useTmpBuf) {
                 move(dst, src);
             }
@@ -401,12 +475,14 @@ public class CacheStore extends AbstractStore implements Store {
 
     @Override
     void transformUri(final URI src, final URI dst, final XsltTransformer transformer) throws DITAOTException {
+        final long start = System.nanoTime();
         try {
             final Source source = getSource(src);
             transformer.setSource(source);
             final Destination result = getDestination(dst);
             transformer.setDestination(result);
             transformer.transform();
+            metrics.record(TRANSFORM, TRANSFORM_TIME, start);
         } catch (final UncheckedXPathException e) {
             throw new DITAOTException("Failed to transform document", e);
         } catch (final RuntimeException e) {
@@ -420,34 +496,13 @@ public class CacheStore extends AbstractStore implements Store {
     public InputStream getInputStream(final URI path) throws IOException {
         final URI f = path.normalize();
         if (isTempFile(f)) {
-            if (cache.containsKey(f)) {
-                final Entry entry = cache.get(f);
-                if (entry.bytes != null) {
-                    return new ByteArrayInputStream(entry.bytes);
-                } else if (entry.node != null) {
-                    try (ByteArrayOutputStream buf = new ByteArrayOutputStream()) {
-                        final XdmNode source = entry.node;
-                        final Serializer serializer = xmlUtils.getProcessor().newSerializer(buf);
-                        serializer.serializeNode(source);
-                        final byte[] bytes = buf.toByteArray();
-                        cache.put(f, new Entry(entry.doc, entry.node, bytes));
-                        return new ByteArrayInputStream(bytes);
-                    } catch (SaxonApiException e) {
-                        throw new IOException(e);
-                    }
-                } else if (entry.doc != null) {
-                    try (ByteArrayOutputStream buf = new ByteArrayOutputStream()) {
-                        final XdmNode source = xmlUtils.getProcessor().newDocumentBuilder().wrap(entry.doc);
-                        final Serializer serializer = xmlUtils.getProcessor().newSerializer(buf);
-                        serializer.serializeNode(source);
-                        final byte[] bytes = buf.toByteArray();
-                        cache.put(f, new Entry(entry.doc, entry.node, bytes));
-                        return new ByteArrayInputStream(bytes);
-                    } catch (SaxonApiException e) {
-                        throw new IOException(e);
-                    }
-                }
+            final Entry entry = get(f);
+            if (entry != null) {
+                return new ByteArrayInputStream(getBytes(f, entry));
             }
+            cacheMiss(f);
+        } else {
+            metrics.increment(FALLBACK);
         }
         return fallback.getInputStream(path);
     }
@@ -459,6 +514,7 @@ public class CacheStore extends AbstractStore implements Store {
         if (isTempFile(f)) {
             return new OutputStreamBuffer(f);
         }
+        metrics.increment(FALLBACK);
         return fallback.getOutputStream(f);
     }
 
@@ -498,11 +554,29 @@ public class CacheStore extends AbstractStore implements Store {
     }
 
     private void cacheMiss(final URI f) {
+        metrics.increment(MISS);
 //        System.err.println("Cache miss: " + f);
 //        throw new IllegalStateException("Cache miss: " + f);
     }
 
-    private Entry put(URI path, Entry entry) {
+    /**
+     * Store entry and enforce memory budget.
+     */
+    private void put(final URI path, final Entry entry) {
+        final Lock lock = locks.get(path);
+        lock.lock();
+        try {
+            store(path, entry);
+        } finally {
+            lock.unlock();
+        }
+        evict();
+    }
+
+    /**
+     * Store entry. Caller must hold the lock for the path.
+     */
+    private Entry store(final URI path, final Entry entry) {
         if (entry.node != null) {
             final XdmNode node = entry.node;
             assert node.getBaseURI() != null && !node.getBaseURI().toString().isEmpty();
@@ -512,11 +586,279 @@ public class CacheStore extends AbstractStore implements Store {
             final Document doc = entry.doc;
             assert doc.getBaseURI() != null && !doc.getBaseURI().isEmpty();
         }
-        return cache.put(path, entry);
+        touch(entry);
+        if (maxWeight == UNBOUNDED) {
+            return cache.put(path, entry);
+        }
+        entry.weight = CacheWeigher.weigh(entry.doc, entry.node, entry.bytes, entry.compact);
+        final Entry prev = cache.put(path, entry);
+        weight.addAndGet(entry.weight - (prev != null ? prev.weight : 0L));
+        if (spilled.remove(path)) {
+            try {
+                fallback.delete(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return prev;
+    }
+
+    /**
+     * Spill least recently used entries to disk until cache is within memory budget. Entries whose lock is held by
+     * another thread are skipped, and only one thread evicts at a time.
+     */
+    private void evict() {
+        if (maxWeight == UNBOUNDED || weight.get() <= maxWeight || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            // Evict below budget to avoid evicting on every write
+            final long target = maxWeight - maxWeight / 10;
+            final List<Candidate> candidates = new ArrayList<>(cache.size());
+            cache.forEach((path, entry) -> candidates.add(new Candidate(path, entry, entry.lastAccess)));
+            candidates.sort(Comparator.comparingLong(Candidate::lastAccess));
+            for (final Candidate candidate : candidates) {
+                if (weight.get() <= target) {
+                    break;
+                }
+                final Lock lock = locks.get(candidate.path);
+                if (!lock.tryLock()) {
+                    continue;
+                }
+                try {
+                    final Entry entry = candidate.entry;
+                    if (cache.get(candidate.path) == entry) {
+                        if (entry.node != null || entry.doc != null) {
+                            compact(candidate.path, entry);
+                        } else {
+                            // Write to disk before removing so that readers always find the file
+                            spill(candidate.path, entry);
+                            cache.remove(candidate.path);
+                            weight.addAndGet(-entry.weight);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to spill " + candidate.path + " to disk: " + e.getMessage(), e);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private record Candidate(URI path, Entry entry, long lastAccess) {}
+
+    /**
+     * Replace heap representations of entry with compact encoding. Caller must hold the lock for the entry path.
+     */
+    private void compact(final URI path, final Entry entry) {
+        if (LOG) System.err.println("Cache compact: " + path);
+        metrics.increment(COMPACT);
+        synchronized (entry) {
+            if (entry.compact == null) {
+                final XdmNode node = entry.node != null
+                        ? entry.node
+                        : xmlUtils.getProcessor().newDocumentBuilder().wrap(entry.doc);
+                entry.compact = CompactTree.encode(node);
+            }
+            // Compact representation must be published before others are cleared
+            entry.doc = null;
+            entry.node = null;
+            entry.bytes = null;
+        }
+        final long w = CacheWeigher.weigh(null, null, null, entry.compact);
+        weight.addAndGet(w - entry.weight);
+        entry.weight = w;
+    }
+
+    private void spill(final URI path, final Entry entry) throws IOException {
+        if (LOG) System.err.println("Cache spill: " + path);
+        metrics.increment(SPILL);
+        final byte[] bytes = entry.bytes;
+        final XdmNode node = entry.node;
+        final Document doc = entry.doc;
+        final ByteBuffer compact = entry.compact;
+        if (bytes != null) {
+            Files.createDirectories(Paths.get(path).getParent());
+            try (OutputStream out = fallback.getOutputStream(path)) {
+                out.write(bytes);
+            }
+        } else if (node != null) {
+            fallback.writeDocument(node, path);
+        } else if (doc != null) {
+            synchronized (entry) {
+                fallback.writeDocument(doc, path);
+            }
+        } else if (compact != null) {
+            fallback.writeDocument(decode(path, compact), path);
+        } else {
+            throw new IllegalArgumentException();
+        }
+        spilled.add(path);
+    }
+
+    /**
+     * Drop cached entry that has been replaced on disk. Caller must hold the lock for the path.
+     */
+    private void invalidate(final URI path) {
+        remove(path);
+    }
+
+    private Iterable<Lock> lock(final URI src, final URI dst) {
+        final Iterable<Lock> bulk = locks.bulkGet(Arrays.asList(src, dst));
+        bulk.forEach(Lock::lock);
+        return bulk;
+    }
+
+    private void unlock(final Iterable<Lock> bulk) {
+        bulk.forEach(Lock::unlock);
+    }
+
+    private void touch(final Entry entry) {
+        entry.lastAccess = System.nanoTime();
+    }
+
+    /**
+     * Update entry weight after a new representation has been materialized.
+     */
+    private void reweigh(final URI path, final Entry entry) {
+        if (maxWeight == UNBOUNDED) {
+            return;
+        }
+        final Lock lock = locks.get(path);
+        lock.lock();
+        try {
+            if (cache.get(path) == entry) {
+                final long w = CacheWeigher.weigh(entry.doc, entry.node, entry.bytes, entry.compact);
+                weight.addAndGet(w - entry.weight);
+                entry.weight = w;
+            }
+        } finally {
+            lock.unlock();
+        }
+        evict();
+    }
+
+    private Document getImmutableDocument(final URI f, final Entry entry) throws IOException {
+        Document doc = entry.doc;
+        if (doc == null) {
+            synchronized (entry) {
+                doc = entry.doc;
+                if (doc == null) {
+                    XdmNode node = entry.node;
+                    if (node == null && entry.compact != null) {
+                        node = decode(f, entry.compact);
+                        entry.node = node;
+                    }
+                    if (node != null) {
+                        doc = (Document) NodeOverNodeInfo.wrap(node.getUnderlyingNode());
+                    } else if (entry.bytes != null) {
+                        doc = parseDocument(f, entry.bytes);
+                    } else {
+                        throw new IllegalArgumentException();
+                    }
+                    entry.doc = doc;
+                }
+            }
+            reweigh(f, entry);
+        }
+        return doc;
+    }
+
+    private XdmNode getImmutableNode(final URI f, final Entry entry) throws IOException {
+        XdmNode node = entry.node;
+        if (node == null) {
+            synchronized (entry) {
+                node = entry.node;
+                if (node == null) {
+                    final Document doc = entry.doc;
+                    if (doc != null) {
+                        node = xmlUtils.getProcessor().newDocumentBuilder().wrap(doc);
+                    } else if (entry.compact != null) {
+                        node = decode(f, entry.compact);
+                    } else if (entry.bytes != null) {
+                        final long start = System.nanoTime();
+                        try (InputStream in = new ByteArrayInputStream(entry.bytes)) {
+                            final StreamSource source = new StreamSource(in);
+                            source.setSystemId(f.toString());
+                            node = xmlUtils.getProcessor().newDocumentBuilder().build(source);
+                            metrics.record(PARSE, PARSE_TIME, start);
+                        } catch (SaxonApiException e) {
+                            throw new IOException(e);
+                        }
+                    } else {
+                        throw new IllegalArgumentException();
+                    }
+                    entry.node = node;
+                }
+            }
+            reweigh(f, entry);
+        }
+        return node;
+    }
+
+    private byte[] getBytes(final URI f, final Entry entry) throws IOException {
+        byte[] bytes = entry.bytes;
+        if (bytes == null) {
+            synchronized (entry) {
+                bytes = entry.bytes;
+                if (bytes == null) {
+                    final XdmNode source;
+                    if (entry.node != null) {
+                        source = entry.node;
+                    } else if (entry.doc != null) {
+                        source = xmlUtils.getProcessor().newDocumentBuilder().wrap(entry.doc);
+                    } else {
+                        source = decode(f, entry.compact);
+                    }
+                    final long start = System.nanoTime();
+                    try (ByteArrayOutputStream buf = new ByteArrayOutputStream()) {
+                        final Serializer serializer = xmlUtils.getProcessor().newSerializer(buf);
+                        serializer.serializeNode(source);
+                        bytes = buf.toByteArray();
+                        metrics.record(SERIALIZE, SERIALIZE_TIME, start);
+                    } catch (SaxonApiException e) {
+                        throw new IOException(e);
+                    }
+                    entry.bytes = bytes;
+                }
+            }
+            reweigh(f, entry);
+        }
+        return bytes;
+    }
+
+    private XdmNode decode(final URI f, final ByteBuffer compact) throws IOException {
+        final long start = System.nanoTime();
+        try {
+            final XdmNode node = CompactTree.decode(compact, xmlUtils.getProcessor().getUnderlyingConfiguration(), f);
+            metrics.record(PARSE, PARSE_TIME, start);
+            return node;
+        } catch (XPathException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private Document parseDocument(final URI f, final byte[] bytes) throws IOException {
+        final long start = System.nanoTime();
+        try (InputStream in = new ByteArrayInputStream(bytes)) {
+            final InputSource inputSource = new InputSource(in);
+            inputSource.setSystemId(f.toString());
+            final Document doc = XMLUtils.getDocumentBuilder().parse(inputSource);
+            metrics.record(PARSE, PARSE_TIME, start);
+            return doc;
+        } catch (SAXException e) {
+            throw new IOException(e);
+        }
     }
 
     private Entry get(URI s) {
         final Entry entry = cache.get(s);
+        if (entry == null) {
+            return null;
+        }
         if (entry.node != null) {
             final XdmNode node = entry.node;
             assert node.getBaseURI() != null && !node.getBaseURI().toString().isEmpty();
@@ -525,11 +867,20 @@ public class CacheStore extends AbstractStore implements Store {
             final Document node = entry.doc;
             assert node.getBaseURI() != null && !node.getBaseURI().isEmpty();
         }
+        touch(entry);
+        metrics.increment(HIT);
         return entry;
     }
 
+    /**
+     * Remove entry. Caller must hold the lock for the path.
+     */
     private Entry remove(URI f) {
         final Entry entry = cache.remove(f);
+        if (entry == null) {
+            return null;
+        }
+        weight.addAndGet(-entry.weight);
         if (entry.node != null) {
             final XdmNode node = entry.node;
             assert node.getBaseURI() != null && !node.getBaseURI().toString().isEmpty();
@@ -567,14 +918,26 @@ public class CacheStore extends AbstractStore implements Store {
             remove.doc.setDocumentURI(d.toString());
             doc = remove.doc;
         }
-        return new Entry(doc, node, remove.bytes);
+        final Entry entry = new Entry(doc, node, remove.bytes);
+        entry.compact = remove.compact;
+        return entry;
     }
 
     private Source toSource(final Entry entry, final URI path) {
-        if (entry.doc != null) {
-            return new DOMSource(entry.doc);
-        } else if (entry.node != null) {
-            final NodeInfo underlyingNode = entry.node.getUnderlyingNode();
+        final Document doc = entry.doc;
+        XdmNode node = entry.node;
+        final byte[] bytes = entry.bytes;
+        if (doc == null && node == null && bytes == null) {
+            try {
+                node = getImmutableNode(path, entry);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (doc != null) {
+            return new DOMSource(doc);
+        } else if (node != null) {
+            final NodeInfo underlyingNode = node.getUnderlyingNode();
             if (underlyingNode.getSystemId().equals(path)) {
                 return underlyingNode;
             } else {
@@ -586,12 +949,10 @@ public class CacheStore extends AbstractStore implements Store {
 //                rebasedDocument.setSystemId(path.toString());
 //                return rebasedDocument;
             }
-        } else if (entry.bytes != null) {
-            final StreamSource source = new StreamSource(new ByteArrayInputStream(entry.bytes));
+        } else {
+            final StreamSource source = new StreamSource(new ByteArrayInputStream(bytes));
             source.setSystemId(path.toString());
             return source;
-        } else {
-            throw new IllegalArgumentException();
         }
     }
 
@@ -610,11 +971,21 @@ public class CacheStore extends AbstractStore implements Store {
         }
     }
 
+    /**
+     * Cached file. At least one representation is always set, other representations are materialized lazily
+     * while holding the entry monitor.
+     */
     private static class Entry {
-        private final Document doc;
-        private final XdmNode node;
-        private final byte[] bytes;
-        private long lastModified;
+        private volatile Document doc;
+        private volatile XdmNode node;
+        private volatile byte[] bytes;
+        /** Compact off-heap encoding, see {@link CompactTree}. */
+        private volatile ByteBuffer compact;
+        private final long lastModified;
+        /** Estimated heap usage in bytes, only computed when memory budget is set. */
+        private volatile long weight;
+        /** Last access time in nanoseconds. */
+        private volatile long lastAccess;
 
         private Entry(final Document doc, final XdmNode node, final byte[] bytes) {
             this(doc, node, bytes, System.currentTimeMillis());
@@ -11,6 +11,8 @@ package org.dita.dost.store;
 import org.dita.dost.util.XMLUtils;
 
 import java.io.File;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Memory store builder
@@ -19,8 +21,13 @@ import java.io.File;
  */
 public class CacheStoreBuilder implements StoreBuilder {
 
+    /** Property name for memory budget, e.g. {@code 512m} or {@code 50%} of maximum heap. */
+    public static final String PROPERTY_CACHE_SIZE = "store-cache-size";
+
     private File tempDir;
     private XMLUtils xmlUtils;
+    private long maxWeight = CacheStore.UNBOUNDED;
+    private StoreMetrics metrics = StoreMetrics.DISABLED;
 
     @Override
     public String getType() {
@@ -39,8 +46,53 @@ public class CacheStoreBuilder implements StoreBuilder {
         return this;
     }
 
+    @Override
+    public StoreBuilder setProperties(Map<String, String> properties) {
+        // Builder may be reused between builds, do not inherit budget from a previous build
+        maxWeight = CacheStore.UNBOUNDED;
+        metrics = StoreMetrics.forProperties(properties);
+        final String cacheSize = properties.get(PROPERTY_CACHE_SIZE);
+        if (cacheSize != null && !cacheSize.isBlank()) {
+            maxWeight = parseSize(cacheSize.trim());
+        }
+        return this;
+    }
+
     @Override
     public Store build() {
-        return new CacheStore(tempDir, xmlUtils);
+        return new CacheStore(tempDir, xmlUtils, maxWeight, metrics);
+    }
+
+    /**
+     * Parse memory size. Supported units are {@code k}, {@code m}, and {@code g}, and {@code %} of maximum heap.
+     *
+     * @param value memory size
+     * @return memory size in bytes
+     */
+    static long parseSize(final String value) {
+        final String size = value.toLowerCase(Locale.ROOT);
+        try {
+            if (size.endsWith("%")) {
+                final double percent = Double.parseDouble(size.substring(0, size.length() - 1));
+                return (long) (Runtime.getRuntime().maxMemory() * percent / 100);
+            }
+            final long unit;
+            switch (size.charAt(size.length() - 1)) {
+                case 'k':
+                    unit = 1024L;
+                    break;
+                case 'm':
+                    unit = 1024L * 1024L;
+                    break;
+                case 'g':
+                    unit = 1024L * 1024L * 1024L;
+                    break;
+                default:
+                    return Long.parseLong(size);
+            }
+            return Long.parseLong(size.substring(0, size.length() - 1)) * unit;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid store cache size " + value, e);
+        }
     }
 }
@@ -0,0 +1,132 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.store;
+
+import net.sf.saxon.dom.DocumentWrapper;
+import net.sf.saxon.dom.NodeOverNodeInfo;
+import net.sf.saxon.om.NodeInfo;
+import net.sf.saxon.om.TreeInfo;
+import net.sf.saxon.s9api.XdmNode;
+import net.sf.saxon.tree.tiny.TinyTree;
+import net.sf.saxon.tree.wrapper.RebasedDocument;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Memory usage estimates for cached documents. The estimates are rough approximations used to enforce a memory
+ * budget, not exact measurements.
+ *
+ * @since 4.1
+ */
+final class CacheWeigher {
+
+    /** Fixed overhead of a cache entry, its key and map node. */
+    static final long ENTRY_OVERHEAD = 256;
+    /** Per-node overhead of a TinyTree. */
+    private static final long TINY_NODE = 24;
+    /** Per-attribute overhead of a TinyTree, excluding value characters. */
+    private static final long TINY_ATTRIBUTE = 48;
+    /** Per-node overhead of a DOM tree, excluding character data. */
+    private static final long DOM_NODE = 96;
+
+    private CacheWeigher() {
+    }
+
+    /**
+     * Estimate memory usage of cached representations, including off-heap buffers.
+     *
+     * @param doc DOM document, may be {@code null}
+     * @param node Saxon document node, may be {@code null}
+     * @param bytes serialized document, may be {@code null}
+     * @param compact compact encoding of document, may be {@code null}
+     * @return estimated memory usage in bytes
+     */
+    static long weigh(final Document doc, final XdmNode node, final byte[] bytes, final ByteBuffer compact) {
+        long weight = ENTRY_OVERHEAD;
+        if (bytes != null) {
+            weight += bytes.length;
+        }
+        if (compact != null) {
+            weight += compact.capacity();
+        }
+        final long nodeWeight = node != null ? weigh(node.getUnderlyingNode()) : 0L;
+        // DOM documents that wrap a Saxon tree share storage with it
+        final long docWeight = doc != null && !(doc instanceof NodeOverNodeInfo) ? weigh(doc) : 0L;
+        return weight + Math.max(nodeWeight, docWeight);
+    }
+
+    private static long weigh(final NodeInfo nodeInfo) {
+        TreeInfo treeInfo = nodeInfo.getTreeInfo();
+        if (treeInfo instanceof RebasedDocument) {
+            treeInfo = ((RebasedDocument) treeInfo).getUnderlyingTree();
+        }
+        if (treeInfo instanceof TinyTree) {
+            final TinyTree tree = (TinyTree) treeInfo;
+            long weight = tree.getNumberOfNodes() * TINY_NODE
+                    + tree.getNumberOfAttributes() * TINY_ATTRIBUTE
+                    + tree.getCharacterBuffer().length() * 2L;
+            final CharSequence comments = tree.getCommentBuffer();
+            if (comments != null) {
+                weight += comments.length() * 2L;
+            }
+            final CharSequence[] values = tree.getAttributeValueArray();
+            if (values != null) {
+                for (int i = 0; i < tree.getNumberOfAttributes(); i++) {
+                    if (values[i] != null) {
+                        weight += values[i].length() * 2L;
+                    }
+                }
+            }
+            return weight;
+        } else if (treeInfo instanceof DocumentWrapper) {
+            return weigh(((DocumentWrapper) treeInfo).docNode);
+        }
+        return 0L;
+    }
+
+    private static long weigh(final Node root) {
+        long weight = 0L;
+        final Deque<Node> queue = new ArrayDeque<>();
+        queue.push(root);
+        while (!queue.isEmpty()) {
+            final Node node = queue.pop();
+            weight += DOM_NODE;
+            switch (node.getNodeType()) {
+                case Node.ELEMENT_NODE:
+                    final NamedNodeMap attrs = node.getAttributes();
+                    for (int i = 0; i < attrs.getLength(); i++) {
+                        final Attr attr = (Attr) attrs.item(i);
+                        weight += DOM_NODE + attr.getValue().length() * 2L;
+                    }
+                    break;
+                case Node.TEXT_NODE:
+                case Node.CDATA_SECTION_NODE:
+                case Node.COMMENT_NODE:
+                case Node.PROCESSING_INSTRUCTION_NODE:
+                    final String value = node.getNodeValue();
+                    if (value != null) {
+                        weight += value.length() * 2L;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+                queue.push(child);
+            }
+        }
+        return weight;
+    }
+}
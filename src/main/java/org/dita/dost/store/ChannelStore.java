@@ -0,0 +1,368 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.store;
+
+import net.sf.saxon.s9api.XdmNode;
+import org.dita.dost.util.XMLUtils;
+import org.xml.sax.InputSource;
+
+import javax.xml.transform.stream.StreamSource;
+import java.io.*;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+import static org.dita.dost.store.StoreMetrics.Counter.BYTES_READ;
+import static org.dita.dost.store.StoreMetrics.Counter.BYTES_WRITTEN;
+
+/**
+ * NIO channel based XML I/O.
+ *
+ * <p>Reads of large files are memory-mapped, small files are read into a heap buffer with a single channel read.
+ * Copies use {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} and writes are
+ * buffered through a direct buffer. Memory mapping is not used on Windows, because mapped files cannot be
+ * deleted or replaced until the mapping is garbage collected.</p>
+ *
+ * <p>A mapped buffer is used after the file channel has been closed, and truncating a mapped file crashes the JVM
+ * instead of throwing an exception. Files are therefore never rewritten in place: output streams, copies and
+ * serialized documents are written to a temporary file next to the target and renamed over it, so that readers keep
+ * the previous file contents. Code that writes files read through this store without using the store must follow the
+ * same rule.</p>
+ *
+ * @since 4.1
+ */
+public class ChannelStore extends StreamStore {
+
+    /** Minimum file size in bytes for memory mapping. */
+    static final long MAP_THRESHOLD = 64 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final boolean CAN_MAP = !System.getProperty("os.name", "").startsWith("Windows");
+
+    public ChannelStore(final File tempDir, final XMLUtils xmlUtils) {
+        super(tempDir, xmlUtils);
+    }
+
+    ChannelStore(final File tempDir, final XMLUtils xmlUtils, final StoreMetrics metrics) {
+        super(tempDir, xmlUtils, metrics);
+    }
+
+    @Override
+    InputSource getInputSource(final URI path) throws IOException {
+        if (!isFile(path)) {
+            return super.getInputSource(path);
+        }
+        final InputSource inputSource = new InputSource(read(Paths.get(path)));
+        inputSource.setSystemId(path.toString());
+        return inputSource;
+    }
+
+    @Override
+    StreamSource getStreamSource(final URI path) {
+        if (!isFile(path)) {
+            return super.getStreamSource(path);
+        }
+        try {
+            return new StreamSource(read(Paths.get(path)), path.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public InputStream getInputStream(final URI path) throws IOException {
+        final URI f = getUri(path);
+        if (isTempFile(f)) {
+            if (LOG) System.err.println("  getInputStream:" + f);
+            return count(read(Paths.get(f)));
+        } else if (isFile(path)) {
+            if (LOG) System.err.println("  getInputStream:" + path);
+            return count(read(Paths.get(path)));
+        }
+        return super.getInputStream(path);
+    }
+
+    @Override
+    public OutputStream getOutputStream(final URI path) throws IOException {
+        final URI f = getUri(path);
+        if (isTempFile(f)) {
+            if (LOG) System.err.println("  getOutputStream:" + f);
+            return count(write(Paths.get(f)));
+        } else if (isFile(path)) {
+            if (LOG) System.err.println("  getOutputStream:" + path);
+            return count(write(Paths.get(path)));
+        }
+        return super.getOutputStream(path);
+    }
+
+    @Override
+    public void writeDocument(final XdmNode node, final URI dst) throws IOException {
+        if (!isFile(dst)) {
+            super.writeDocument(node, dst);
+            return;
+        }
+        final Path d = Paths.get(dst);
+        createParentDirectories(d);
+        final Path tmp = getTempFile(d);
+        try {
+            super.writeDocument(node, tmp.toUri());
+        } catch (final IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        replace(tmp, d);
+    }
+
+    @Override
+    public void copy(final URI src, final URI dst) throws IOException {
+        if (Objects.equals(src.getScheme(), "file") && Objects.equals(dst.getScheme(), "file")) {
+            final Path s = Paths.get(getUri((src.isAbsolute() ? src : tempDirUri.resolve(src)).normalize()));
+            final Path d = Paths.get(getUri((dst.isAbsolute() ? dst : tempDirUri.resolve(dst)).normalize()));
+            if (s.equals(d)) {
+                return;
+            }
+            createParentDirectories(d);
+            final Path tmp = getTempFile(d);
+            try (FileChannel in = FileChannel.open(s, READ);
+                 FileChannel out = FileChannel.open(tmp, WRITE, CREATE_NEW)) {
+                final long size = in.size();
+                long position = 0;
+                while (position < size) {
+                    final long transferred = in.transferTo(position, size - position, out);
+                    if (transferred <= 0) {
+                        // No progress, e.g. source truncated during copy, copy rest until end of file
+                        position += copyBuffered(in, position, out);
+                        break;
+                    }
+                    position += transferred;
+                }
+                metrics.add(BYTES_READ, position);
+                metrics.add(BYTES_WRITTEN, position);
+            } catch (final IOException | RuntimeException e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+            Files.setLastModifiedTime(tmp, Files.getLastModifiedTime(s));
+            replace(tmp, d);
+        } else {
+            throw new IOException(String.format("Unable to copy non-file resource %s to %s", src, dst));
+        }
+    }
+
+    /**
+     * Copy channel contents from position until end of file through a heap buffer.
+     *
+     * @return number of bytes copied
+     */
+    private static long copyBuffered(final FileChannel in, final long position, final FileChannel out)
+            throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long count = 0;
+        while (in.read(buffer, position + count) > 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                count += out.write(buffer);
+            }
+            buffer.clear();
+        }
+        return count;
+    }
+
+    @Override
+    public void move(final URI src, final URI dst) throws IOException {
+        if (Objects.equals(src.getScheme(), "file") && Objects.equals(dst.getScheme(), "file")) {
+            final Path s = Paths.get(getUri((src.isAbsolute() ? src : tempDirUri.resolve(src)).normalize()));
+            final Path d = Paths.get(getUri((dst.isAbsolute() ? dst : tempDirUri.resolve(dst)).normalize()));
+            createParentDirectories(d);
+            Files.move(s, d, REPLACE_EXISTING);
+        } else {
+            throw new IOException(String.format("Unable to move non-file resource %s to %s", src, dst));
+        }
+    }
+
+    private boolean isFile(final URI path) {
+        return path.isAbsolute() && "file".equals(path.getScheme());
+    }
+
+    private void createParentDirectories(final Path file) throws IOException {
+        final Path dir = file.getParent();
+        if (dir != null && !Files.isDirectory(dir)) {
+            Files.createDirectories(dir);
+        }
+    }
+
+    /**
+     * Read file contents into a buffer. The channel is closed before returning, mapped buffers remain valid.
+     */
+    private InputStream read(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return Files.newInputStream(file);
+            }
+            final ByteBuffer buf;
+            if (CAN_MAP && size >= MAP_THRESHOLD) {
+                buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                buf = ByteBuffer.allocate((int) size);
+                while (buf.hasRemaining() && channel.read(buf) != -1) {
+                    // Read until buffer is full
+                }
+                buf.flip();
+            }
+            return new ByteBufferInputStream(buf);
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(file.toString());
+        }
+    }
+
+    private OutputStream write(final Path file) throws IOException {
+        createParentDirectories(file);
+        final Path tmp = getTempFile(file);
+        return new ChannelOutputStream(FileChannel.open(tmp, WRITE, CREATE_NEW), tmp, file);
+    }
+
+    /**
+     * Get unique temporary file path next to target file.
+     */
+    private static Path getTempFile(final Path file) {
+        return file.resolveSibling(String.format(".%s.%016x.tmp",
+                file.getFileName(), ThreadLocalRandom.current().nextLong()));
+    }
+
+    /**
+     * Replace target file with temporary file. Open mapped buffers of the target file keep the previous contents.
+     */
+    private static void replace(final Path tmp, final Path file) throws IOException {
+        try {
+            Files.move(tmp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (final IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buf;
+
+        private ByteBufferInputStream(final ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        @Override
+        public int read() {
+            return buf.hasRemaining() ? buf.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buf.hasRemaining()) {
+                return -1;
+            }
+            final int n = Math.min(len, buf.remaining());
+            buf.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) {
+            final int skip = (int) Math.max(0, Math.min(n, buf.remaining()));
+            buf.position(buf.position() + skip);
+            return skip;
+        }
+
+        @Override
+        public int available() {
+            return buf.remaining();
+        }
+    }
+
+    /**
+     * Output stream that writes to a temporary file and replaces the target file with it on close.
+     */
+    private static final class ChannelOutputStream extends OutputStream {
+        private final FileChannel channel;
+        private final Path tmp;
+        private final Path file;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private boolean closed;
+
+        private ChannelOutputStream(final FileChannel channel, final Path tmp, final Path file) {
+            this.channel = channel;
+            this.tmp = tmp;
+            this.file = file;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            if (!buf.hasRemaining()) {
+                drain();
+            }
+            buf.put((byte) b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            int offset = off;
+            int remaining = len;
+            while (remaining > 0) {
+                if (!buf.hasRemaining()) {
+                    drain();
+                }
+                final int n = Math.min(remaining, buf.remaining());
+                buf.put(b, offset, n);
+                offset += n;
+                remaining -= n;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            drain();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                try {
+                    drain();
+                } finally {
+                    channel.close();
+                }
+            } catch (final IOException | RuntimeException e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+            replace(tmp, file);
+        }
+
+        private void drain() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            buf.clear();
+        }
+    }
+}
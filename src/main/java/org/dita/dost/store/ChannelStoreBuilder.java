@@ -0,0 +1,54 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.store;
+
+import org.dita.dost.util.XMLUtils;
+
+import java.io.File;
+import java.util.Map;
+
+/**
+ * Memory-mapped file store builder
+ *
+ * @since 4.1
+ */
+public class ChannelStoreBuilder implements StoreBuilder {
+
+    private File tempDir;
+    private XMLUtils xmlUtils;
+    private StoreMetrics metrics = StoreMetrics.DISABLED;
+
+    @Override
+    public String getType() {
+        return "mmap";
+    }
+
+    @Override
+    public StoreBuilder setTempDir(File tempDir) {
+        this.tempDir = tempDir;
+        return this;
+    }
+
+    @Override
+    public StoreBuilder setXmlUtils(XMLUtils xmlUtils) {
+        this.xmlUtils = xmlUtils;
+        return this;
+    }
+
+    @Override
+    public StoreBuilder setProperties(Map<String, String> properties) {
+        metrics = StoreMetrics.forProperties(properties);
+        return this;
+    }
+
+    @Override
+    public Store build() {
+        return new ChannelStore(tempDir, xmlUtils, metrics);
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.store;
+
+import net.sf.saxon.Configuration;
+import net.sf.saxon.event.ReceiverOption;
+import net.sf.saxon.expr.parser.Loc;
+import net.sf.saxon.om.*;
+import net.sf.saxon.s9api.XdmNode;
+import net.sf.saxon.trans.XPathException;
+import net.sf.saxon.tree.tiny.TinyBuilder;
+import net.sf.saxon.type.BuiltInAtomicType;
+import net.sf.saxon.type.BuiltInListType;
+import net.sf.saxon.type.SimpleType;
+import net.sf.saxon.type.Type;
+import net.sf.saxon.type.Untyped;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compact binary encoding of XML trees.
+ *
+ * <p>The tree is encoded as a stream of node events. Names, namespace prefixes, and namespace URIs are pooled:
+ * each distinct string is written once and later occurrences refer to it by index. Namespace bindings are only
+ * written for elements whose in-scope namespaces differ from their parent. Decoding pushes the events directly
+ * into a Saxon TinyTree builder, without XML parsing.</p>
+ *
+ * <p>Encoded trees are stored in direct byte buffers outside the Java heap.</p>
+ *
+ * @since 4.1
+ */
+final class CompactTree {
+
+    private static final int VERSION = 1;
+
+    private static final byte DOCUMENT = 1;
+    private static final byte ELEMENT = 2;
+    private static final byte END_ELEMENT = 3;
+    private static final byte TEXT = 4;
+    private static final byte COMMENT = 5;
+    private static final byte PROCESSING_INSTRUCTION = 6;
+    private static final byte END_DOCUMENT = 7;
+
+    private static final int TYPE_UNTYPED = 0;
+    private static final int TYPE_ID = 1;
+    private static final int TYPE_IDREF = 2;
+    private static final int TYPE_IDREFS = 3;
+
+    private CompactTree() {
+    }
+
+    /**
+     * Encode tree into a direct byte buffer.
+     *
+     * @param node document or element node
+     * @return read-only buffer positioned at the start of the encoded tree
+     */
+    static ByteBuffer encode(final XdmNode node) {
+        final Encoder encoder = new Encoder();
+        encoder.writeVarInt(VERSION);
+        encoder.write(node.getUnderlyingNode(), NamespaceMap.emptyMap());
+        final byte[] bytes = encoder.toByteArray();
+        final ByteBuffer buf = ByteBuffer.allocateDirect(bytes.length);
+        buf.put(bytes);
+        buf.flip();
+        return buf.asReadOnlyBuffer();
+    }
+
+    /**
+     * Decode tree into a TinyTree.
+     *
+     * @param buf encoded tree
+     * @param configuration Saxon configuration
+     * @param systemId system ID of the decoded document
+     * @return decoded tree
+     * @throws XPathException if building tree fails
+     */
+    static XdmNode decode(final ByteBuffer buf, final Configuration configuration, final URI systemId)
+            throws XPathException {
+        final TinyBuilder builder = new TinyBuilder(configuration.makePipelineConfiguration());
+        builder.setSystemId(systemId.toString());
+        builder.setBaseURI(systemId.toString());
+        final Decoder decoder = new Decoder(buf.duplicate(), configuration.getNamePool());
+        final int version = decoder.readVarInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported compact tree version " + version);
+        }
+        builder.open();
+        decoder.read(builder);
+        builder.close();
+        return new XdmNode(builder.getCurrentRoot());
+    }
+
+    private static final class Encoder {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final Map<Name, Integer> names = new HashMap<>();
+
+        private void write(final NodeInfo node, final NamespaceMap parentNamespaces) {
+            switch (node.getNodeKind()) {
+                case Type.DOCUMENT:
+                    out.write(DOCUMENT);
+                    for (final NodeInfo child : node.children()) {
+                        write(child, parentNamespaces);
+                    }
+                    out.write(END_DOCUMENT);
+                    break;
+                case Type.ELEMENT:
+                    out.write(ELEMENT);
+                    writeName(node.getPrefix(), node.getURI(), node.getLocalPart());
+                    final NamespaceMap namespaces = node.getAllNamespaces();
+                    if (namespaces.equals(parentNamespaces)) {
+                        writeVarInt(0);
+                    } else {
+                        writeVarInt(namespaces.size() + 1);
+                        for (final NamespaceBinding binding : namespaces) {
+                            writeString(binding.getPrefix());
+                            writeString(binding.getURI());
+                        }
+                    }
+                    final AttributeMap attributes = node.attributes();
+                    writeVarInt(attributes.size());
+                    for (final AttributeInfo attribute : attributes) {
+                        final NodeName attributeName = attribute.getNodeName();
+                        writeName(attributeName.getPrefix(), attributeName.getURI(), attributeName.getLocalPart());
+                        writeVarInt(getTypeCode(attribute.getType()));
+                        writeVarInt(attribute.getProperties());
+                        writeText(attribute.getValue());
+                    }
+                    for (final NodeInfo child : node.children()) {
+                        write(child, namespaces);
+                    }
+                    out.write(END_ELEMENT);
+                    break;
+                case Type.TEXT:
+                case Type.WHITESPACE_TEXT:
+                    out.write(TEXT);
+                    writeText(node.getStringValue());
+                    break;
+                case Type.COMMENT:
+                    out.write(COMMENT);
+                    writeText(node.getStringValue());
+                    break;
+                case Type.PROCESSING_INSTRUCTION:
+                    out.write(PROCESSING_INSTRUCTION);
+                    writeString(node.getLocalPart());
+                    writeText(node.getStringValue());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported node kind " + node.getNodeKind());
+            }
+        }
+
+        private int getTypeCode(final SimpleType type) {
+            if (type == BuiltInAtomicType.ID) {
+                return TYPE_ID;
+            } else if (type == BuiltInAtomicType.IDREF) {
+                return TYPE_IDREF;
+            } else if (type == BuiltInListType.IDREFS) {
+                return TYPE_IDREFS;
+            }
+            return TYPE_UNTYPED;
+        }
+
+        private void writeName(final String prefix, final String uri, final String localName) {
+            final Name name = new Name(prefix, uri, localName);
+            final Integer index = names.get(name);
+            if (index != null) {
+                writeVarInt(index);
+            } else {
+                writeVarInt(names.size());
+                names.put(name, names.size());
+                writeString(prefix);
+                writeString(uri);
+                writeString(localName);
+            }
+        }
+
+        private record Name(String prefix, String uri, String localName) {}
+
+        private void writeString(final String value) {
+            final Integer index = strings.get(value);
+            if (index != null) {
+                writeVarInt(index);
+            } else {
+                writeVarInt(strings.size());
+                strings.put(value, strings.size());
+                writeText(value);
+            }
+        }
+
+        private void writeText(final CharSequence value) {
+            final byte[] bytes = value.toString().getBytes(UTF_8);
+            writeVarInt(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        private void writeVarInt(final int value) {
+            int v = value;
+            while ((v & ~0x7F) != 0) {
+                out.write((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            out.write(v);
+        }
+
+        private byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+
+    private static final class Decoder {
+        private final ByteBuffer buf;
+        private final NamePool namePool;
+        private final List<String> strings = new ArrayList<>();
+        private final List<NodeName> names = new ArrayList<>();
+        private final Deque<NamespaceMap> namespaces = new ArrayDeque<>();
+
+        private Decoder(final ByteBuffer buf, final NamePool namePool) {
+            this.buf = buf;
+            this.namePool = namePool;
+            namespaces.push(NamespaceMap.emptyMap());
+        }
+
+        private void read(final TinyBuilder builder) throws XPathException {
+            while (buf.hasRemaining()) {
+                final byte event = buf.get();
+                switch (event) {
+                    case DOCUMENT:
+                        builder.startDocument(ReceiverOption.NONE);
+                        break;
+                    case END_DOCUMENT:
+                        builder.endDocument();
+                        break;
+                    case ELEMENT:
+                        final NodeName name = readName();
+                        final int namespaceCount = readVarInt();
+                        NamespaceMap elementNamespaces = namespaces.peek();
+                        if (namespaceCount != 0) {
+                            elementNamespaces = NamespaceMap.emptyMap();
+                            for (int i = 0; i < namespaceCount - 1; i++) {
+                                elementNamespaces = elementNamespaces.put(readString(), readString());
+                            }
+                        }
+                        namespaces.push(elementNamespaces);
+                        final int attributeCount = readVarInt();
+                        final List<AttributeInfo> attributes = new ArrayList<>(attributeCount);
+                        for (int i = 0; i < attributeCount; i++) {
+                            final NodeName attributeName = readName();
+                            final SimpleType type = getType(readVarInt());
+                            final int properties = readVarInt();
+                            attributes.add(new AttributeInfo(attributeName, type, readText(), Loc.NONE, properties));
+                        }
+                        builder.startElement(name, Untyped.getInstance(), AttributeMap.fromList(attributes),
+                                elementNamespaces, Loc.NONE, ReceiverOption.NONE);
+                        break;
+                    case END_ELEMENT:
+                        namespaces.pop();
+                        builder.endElement();
+                        break;
+                    case TEXT:
+                        builder.characters(readText(), Loc.NONE, ReceiverOption.NONE);
+                        break;
+                    case COMMENT:
+                        builder.comment(readText(), Loc.NONE, ReceiverOption.NONE);
+                        break;
+                    case PROCESSING_INSTRUCTION:
+                        builder.processingInstruction(readString(), readText(), Loc.NONE, ReceiverOption.NONE);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unsupported compact tree event " + event);
+                }
+            }
+        }
+
+        private SimpleType getType(final int code) {
+            switch (code) {
+                case TYPE_ID:
+                    return BuiltInAtomicType.ID;
+                case TYPE_IDREF:
+                    return BuiltInAtomicType.IDREF;
+                case TYPE_IDREFS:
+                    return BuiltInListType.IDREFS;
+                default:
+                    return BuiltInAtomicType.UNTYPED_ATOMIC;
+            }
+        }
+
+        private NodeName readName() {
+            final int index = readVarInt();
+            if (index < names.size()) {
+                return names.get(index);
+            }
+            final String prefix = readString();
+            final String uri = readString();
+            final String localName = readString();
+            final NodeName name = uri.isEmpty()
+                    ? new NoNamespaceName(localName, namePool.allocateFingerprint("", localName))
+                    : new FingerprintedQName(prefix, uri, localName, namePool);
+            names.add(name);
+            return name;
+        }
+
+        private String readString() {
+            final int index = readVarInt();
+            if (index < strings.size()) {
+                return strings.get(index);
+            }
+            final String value = readText();
+            strings.add(value);
+            return value;
+        }
+
+        private String readText() {
+            final int length = readVarInt();
+            final byte[] bytes = new byte[length];
+            buf.get(bytes);
+            return new String(bytes, UTF_8);
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buf.get();
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
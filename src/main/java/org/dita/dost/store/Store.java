@@ -241,4 +241,14 @@ public interface Store extends URIResolver {
      * @return output stream for temporary file
      */
     OutputStream getOutputStream(URI path) throws IOException;
+
+    /**
+     * Get store operation metrics.
+     *
+     * @return store metrics, {@link StoreMetrics#DISABLED} if store does not collect metrics
+     * @since 4.1
+     */
+    default StoreMetrics getMetrics() {
+        return StoreMetrics.DISABLED;
+    }
 }
@@ -11,6 +11,7 @@ package org.dita.dost.store;
 import org.dita.dost.util.XMLUtils;
 
 import java.io.File;
+import java.util.Map;
 
 public interface StoreBuilder {
     String getType();
@@ -19,5 +20,15 @@ public interface StoreBuilder {
 
     StoreBuilder setXmlUtils(XMLUtils xmlUtils);
 
+    /**
+     * Set store configuration properties. Builders ignore properties they do not recognize.
+     *
+     * @param properties configuration properties
+     * @since 4.1
+     */
+    default StoreBuilder setProperties(Map<String, String> properties) {
+        return this;
+    }
+
     Store build();
 }
@@ -0,0 +1,267 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.store;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Store operation counters, broken down by pipeline stage.
+ *
+ * <p>Counters are recorded for the current stage. The stage is a single value shared by all threads, because
+ * pipeline stages are run sequentially and parallel work within a stage belongs to that stage. Counters are
+ * thread-safe and cheap to update.</p>
+ *
+ * @since 4.1
+ */
+public final class StoreMetrics {
+
+    public enum Counter {
+        /** Reads served from memory. */
+        HIT("hits", false),
+        /** Reads of temporary files not found in memory and read from disk. */
+        MISS("misses", false),
+        /** Reads and writes of non-temporary files delegated to disk store. */
+        FALLBACK("fallbacks", false),
+        /** Documents parsed or decoded. */
+        PARSE("parses", false),
+        PARSE_TIME("parseTime", true),
+        /** Documents serialized. */
+        SERIALIZE("serializations", false),
+        SERIALIZE_TIME("serializeTime", true),
+        /** SAX filter and XSLT transformations. */
+        TRANSFORM("transforms", false),
+        TRANSFORM_TIME("transformTime", true),
+        /** Bytes read from disk. */
+        BYTES_READ("bytesRead", false),
+        /** Bytes written to disk. */
+        BYTES_WRITTEN("bytesWritten", false),
+        /** Entries compacted into off-heap encoding. */
+        COMPACT("compactions", false),
+        /** Entries written from memory to disk. */
+        SPILL("spills", false);
+
+        /** Counter name in reports. */
+        public final String key;
+        /** Counter value is in nanoseconds. */
+        public final boolean time;
+
+        Counter(final String key, final boolean time) {
+            this.key = key;
+            this.time = time;
+        }
+    }
+
+    /** Property name for enabling metrics collection. */
+    public static final String PROPERTY_METRICS = "store-metrics";
+    /** Property name for metrics JSON file. Setting the file also enables metrics collection. */
+    public static final String PROPERTY_METRICS_FILE = "store-metrics-file";
+
+    private static final Counter[] COUNTERS = Counter.values();
+
+    /** Metrics that ignore all updates. */
+    public static final StoreMetrics DISABLED = new StoreMetrics(false);
+    /** Stage used before first stage is set. */
+    public static final String DEFAULT_STAGE = "init";
+
+    private final boolean enabled;
+    /** Counters by stage, in order of first use. */
+    private final Map<String, LongAdder[]> stages = Collections.synchronizedMap(new LinkedHashMap<>());
+    private volatile String stage;
+    private volatile LongAdder[] current;
+
+    public StoreMetrics() {
+        this(true);
+    }
+
+    private StoreMetrics(final boolean enabled) {
+        this.enabled = enabled;
+        setStage(DEFAULT_STAGE);
+    }
+
+    /**
+     * Create metrics for configuration properties.
+     *
+     * @param properties configuration properties
+     * @return new metrics if collection is enabled with {@value #PROPERTY_METRICS} or {@value #PROPERTY_METRICS_FILE},
+     *         otherwise {@link #DISABLED}
+     */
+    public static StoreMetrics forProperties(final Map<String, String> properties) {
+        final String metricsFile = properties.get(PROPERTY_METRICS_FILE);
+        if (Boolean.parseBoolean(properties.get(PROPERTY_METRICS))
+                || (metricsFile != null && !metricsFile.isEmpty())) {
+            return new StoreMetrics();
+        }
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Set current stage. Subsequent updates are recorded for the given stage.
+     *
+     * @param stage stage name, e.g. Ant target name
+     */
+    public void setStage(final String stage) {
+        Objects.requireNonNull(stage);
+        this.current = stages.computeIfAbsent(stage, s -> newCounters());
+        this.stage = stage;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    /**
+     * Get stages in order of first use.
+     *
+     * @return stage names
+     */
+    public List<String> getStages() {
+        synchronized (stages) {
+            return new ArrayList<>(stages.keySet());
+        }
+    }
+
+    public void increment(final Counter counter) {
+        if (enabled) {
+            current[counter.ordinal()].increment();
+        }
+    }
+
+    public void add(final Counter counter, final long value) {
+        if (enabled) {
+            current[counter.ordinal()].add(value);
+        }
+    }
+
+    /**
+     * Record a timed operation.
+     *
+     * @param counter operation counter
+     * @param time operation time counter
+     * @param start operation start time from {@link System#nanoTime()}
+     */
+    public void record(final Counter counter, final Counter time, final long start) {
+        if (enabled) {
+            final LongAdder[] counters = current;
+            counters[counter.ordinal()].increment();
+            counters[time.ordinal()].add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Get counter value for a stage.
+     *
+     * @param stage stage name
+     * @param counter counter
+     * @return counter value, or zero if stage has not been used
+     */
+    public long get(final String stage, final Counter counter) {
+        final LongAdder[] counters = stages.get(stage);
+        return counters != null ? counters[counter.ordinal()].sum() : 0L;
+    }
+
+    /**
+     * Get counter value summed over all stages.
+     *
+     * @param counter counter
+     * @return counter value
+     */
+    public long getTotal(final Counter counter) {
+        long sum = 0L;
+        for (final String stage : getStages()) {
+            sum += get(stage, counter);
+        }
+        return sum;
+    }
+
+    /**
+     * Format non-zero counters as human-readable lines, one line per stage and a total line.
+     *
+     * @return report lines
+     */
+    public List<String> format() {
+        final List<String> res = new ArrayList<>();
+        for (final String stage : getStages()) {
+            final String line = format(c -> get(stage, c));
+            if (!line.isEmpty()) {
+                res.add(stage + ": " + line);
+            }
+        }
+        final String total = format(this::getTotal);
+        if (!total.isEmpty()) {
+            res.add("total: " + total);
+        }
+        return res;
+    }
+
+    private String format(final ToLongFunction<Counter> value) {
+        final StringJoiner buf = new StringJoiner(", ");
+        for (final Counter counter : COUNTERS) {
+            final long v = value.applyAsLong(counter);
+            if (v != 0L) {
+                buf.add(counter.time
+                        ? counter.key + "=" + TimeUnit.NANOSECONDS.toMillis(v) + "ms"
+                        : counter.key + "=" + v);
+            }
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Write counters as JSON. Times are written in milliseconds.
+     *
+     * @param dst destination file
+     * @throws IOException if writing fails
+     */
+    public void write(final File dst) throws IOException {
+        try (JsonGenerator gen = new JsonFactory().createGenerator(dst, JsonEncoding.UTF8)) {
+            gen.useDefaultPrettyPrinter();
+            gen.writeStartObject();
+            gen.writeObjectFieldStart("stages");
+            for (final String stage : getStages()) {
+                gen.writeObjectFieldStart(stage);
+                for (final Counter counter : COUNTERS) {
+                    writeCounter(gen, counter, get(stage, counter));
+                }
+                gen.writeEndObject();
+            }
+            gen.writeEndObject();
+            gen.writeObjectFieldStart("total");
+            for (final Counter counter : COUNTERS) {
+                writeCounter(gen, counter, getTotal(counter));
+            }
+            gen.writeEndObject();
+            gen.writeEndObject();
+        }
+    }
+
+    private void writeCounter(final JsonGenerator gen, final Counter counter, final long value) throws IOException {
+        gen.writeNumberField(counter.key, counter.time ? TimeUnit.NANOSECONDS.toMillis(value) : value);
+    }
+
+    private static LongAdder[] newCounters() {
+        final LongAdder[] counters = new LongAdder[COUNTERS.length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+}
@@ -35,6 +35,7 @@ import java.util.List;
 import java.util.Objects;
 
 import static org.apache.commons.io.FileUtils.*;
+import static org.dita.dost.store.StoreMetrics.Counter.*;
 import static org.dita.dost.util.Constants.FILE_EXTENSION_TEMP;
 import static org.dita.dost.util.URLUtils.toFile;
 import static org.dita.dost.util.URLUtils.toURI;
@@ -50,6 +51,10 @@ public class StreamStore extends AbstractStore implements Store {
         super(tempDir, xmlUtils);
     }
 
+    StreamStore(final File tempDir, final XMLUtils xmlUtils, final StoreMetrics metrics) {
+        super(tempDir, xmlUtils, metrics);
+    }
+
     @Override
     public Document getImmutableDocument(final URI path) throws IOException {
 //        return (Document) NodeOverNodeInfo.wrap(getImmutableNode(path).getUnderlyingNode());
@@ -58,8 +63,12 @@ public class StreamStore extends AbstractStore implements Store {
 
     @Override
     public XdmNode getImmutableNode(final URI path) throws IOException {
+        final long start = System.nanoTime();
         try {
-            return xmlUtils.getProcessor().newDocumentBuilder().build(new StreamSource(path.toString()));
+            final XdmNode node = xmlUtils.getProcessor().newDocumentBuilder().build(getStreamSource(path));
+            metrics.record(PARSE, PARSE_TIME, start);
+            countFile(BYTES_READ, path);
+            return node;
         } catch (SaxonApiException e) {
             throw new IOException(e);
         }
@@ -68,8 +77,12 @@ public class StreamStore extends AbstractStore implements Store {
     @Override
     public Document getDocument(final URI path) throws IOException {
         if (LOG) System.err.println("  getDocument:" + path);
+        final long start = System.nanoTime();
         try {
-            return XMLUtils.getDocumentBuilder().parse(path.toString());
+            final Document doc = XMLUtils.getDocumentBuilder().parse(getInputSource(path));
+            metrics.record(PARSE, PARSE_TIME, start);
+            countFile(BYTES_READ, path);
+            return doc;
         } catch (final Exception e) {
             throw new IOException("Failed to read document: " + e.getMessage(), e);
         }
@@ -96,9 +109,12 @@ public class StreamStore extends AbstractStore implements Store {
 
     @Override
     public void writeDocument(final XdmNode node, final URI dst) throws IOException {
+        final long start = System.nanoTime();
         try {
             final Serializer serializer = getSerializer(dst);
             serializer.serializeNode(node);
+            metrics.record(SERIALIZE, SERIALIZE_TIME, start);
+            countFile(BYTES_WRITTEN, dst);
         } catch (SaxonApiException e) {
             throw new IOException(e);
         }
@@ -112,9 +128,11 @@ public class StreamStore extends AbstractStore implements Store {
 
     @Override
     public void writeDocument(final XdmNode source, final ContentHandler dst) throws IOException {
+        final long start = System.nanoTime();
         try {
             final SAXDestination destination = new SAXDestination(dst);
             xmlUtils.getProcessor().writeXdmValue(source, destination);
+            metrics.record(SERIALIZE, SERIALIZE_TIME, start);
         } catch (SaxonApiException e) {
             throw new IOException(e);
         }
@@ -127,10 +145,13 @@ public class StreamStore extends AbstractStore implements Store {
             throw new IllegalArgumentException("Only file URI scheme supported: " + input);
         }
 
+        final long start = System.nanoTime();
         try {
             final XMLReader xmlReader = XMLUtils.getXMLReader();
             xmlReader.setContentHandler(contentHandler);
-            xmlReader.parse(input.toString());
+            xmlReader.parse(getInputSource(input));
+            metrics.record(TRANSFORM, TRANSFORM_TIME, start);
+            countFile(BYTES_READ, input);
         } catch (SAXException | IOException e) {
             throw new DITAOTException(e);
         }
@@ -165,6 +186,7 @@ public class StreamStore extends AbstractStore implements Store {
 
     @Override
     void transformURI(final URI input, final URI output, final List<XMLFilter> filters) throws DITAOTException {
+        final long start = System.nanoTime();
         try {
             XMLReader reader = xmlUtils.getXMLReader();
             for (final XMLFilter filter : filters) {
@@ -179,9 +201,12 @@ public class StreamStore extends AbstractStore implements Store {
             final ContentHandler serializer = result.getContentHandler();
             reader.setContentHandler(serializer);
 
-            final InputSource inputSource = new InputSource(input.toString());
+            final InputSource inputSource = getInputSource(input);
 
             reader.parse(inputSource);
+            metrics.record(TRANSFORM, TRANSFORM_TIME, start);
+            countFile(BYTES_READ, input);
+            countFile(BYTES_WRITTEN, output);
         } catch (final RuntimeException e) {
             throw e;
         } catch (final Exception e) {
@@ -213,12 +238,16 @@ public class StreamStore extends AbstractStore implements Store {
 
     @Override
     void transformUri(final URI src, final URI dst, final XsltTransformer transformer) throws DITAOTException {
+        final long start = System.nanoTime();
         try {
             final Source source = getSource(src);
             transformer.setSource(source);
             final Destination result = getDestination(dst);
             transformer.setDestination(result);
             transformer.transform();
+            metrics.record(TRANSFORM, TRANSFORM_TIME, start);
+            countFile(BYTES_READ, src);
+            countFile(BYTES_WRITTEN, dst);
         } catch (final UncheckedXPathException e) {
             throw new DITAOTException("Failed to transform document", e);
         } catch (final RuntimeException e) {
@@ -248,15 +277,43 @@ public class StreamStore extends AbstractStore implements Store {
         if (isTempFile(f)) {
             if (exists(f)) {
                 if (LOG) System.err.println("  getSource:" + f);
-                final Source s = new StreamSource(f.toString());
-                s.setSystemId(f.toString());
-                return s;
+                return getStreamSource(f);
             } else {
                 return EmptySource.getInstance();
             }
         } else {
             if (LOG) System.err.println("  getSource:" + path);
-            return new StreamSource(path.toString());
+            return getStreamSource(path);
+        }
+    }
+
+    /**
+     * Get SAX input source for reading XML.
+     *
+     * @param path absolute file URI
+     * @return input source
+     * @throws IOException if opening file fails
+     */
+    InputSource getInputSource(final URI path) throws IOException {
+        return new InputSource(path.toString());
+    }
+
+    /**
+     * Get stream source for reading XML.
+     *
+     * @param path absolute file URI
+     * @return stream source
+     */
+    StreamSource getStreamSource(final URI path) {
+        return new StreamSource(path.toString());
+    }
+
+    /**
+     * Add size of local file to store metrics. The file size is not read when metrics are disabled.
+     */
+    void countFile(final StoreMetrics.Counter counter, final URI path) {
+        if (metrics.isEnabled() && Objects.equals(path.getScheme(), "file")) {
+            metrics.add(counter, toFile(path).length());
         }
     }
 
@@ -288,6 +345,11 @@ public class StreamStore extends AbstractStore implements Store {
             final File s = new File(getUri((src.isAbsolute() ? src : tempDirUri.resolve(src)).normalize()));
             final File d = new File(getUri((dst.isAbsolute() ? dst : tempDirUri.resolve(dst)).normalize()));
             copyFile(s, d);
+            if (metrics.isEnabled()) {
+                final long length = d.length();
+                metrics.add(BYTES_READ, length);
+                metrics.add(BYTES_WRITTEN, length);
+            }
         } else {
             throw new IOException(String.format("Unable to copy non-file resource %s to %s", src, dst));
         }
@@ -345,13 +407,13 @@ public class StreamStore extends AbstractStore implements Store {
         final URI f = getUri(path);
         if (isTempFile(f)) {
             if (LOG) System.err.println("  getInputStream:" + f);
-            return new FileInputStream(toFile(f));
+            return count(new FileInputStream(toFile(f)));
         } else if ("file".equals(path.getScheme())) {
             if (LOG) System.err.println("  getInputStream:" + path);
-            return new FileInputStream(toFile(path));
+            return count(new FileInputStream(toFile(path)));
         } else {
             if (LOG) System.err.println("  getInputStream:" + f);
-            return f.toURL().openStream();
+            return count(f.toURL().openStream());
         }
     }
 
@@ -360,10 +422,10 @@ public class StreamStore extends AbstractStore implements Store {
         final URI f = getUri(path);
         if (isTempFile(f)) {
             if (LOG) System.err.println("  getOutputStream:" + f);
-            return Files.newOutputStream(Paths.get(f));
+            return count(Files.newOutputStream(Paths.get(f)));
         } else if ("file".equals(path.getScheme())) {
             if (LOG) System.err.println("  getOutputStream:" + path);
-            return Files.newOutputStream(Paths.get(path));
+            return count(Files.newOutputStream(Paths.get(path)));
         } else {
             if (LOG) System.err.println("  getOutputStream:" + f);
             throw new UnsupportedOperationException("Unable to write to " + f);
@@ -11,6 +11,7 @@ package org.dita.dost.store;
 import org.dita.dost.util.XMLUtils;
 
 import java.io.File;
+import java.util.Map;
 
 /**
  * File store builder
@@ -21,6 +22,7 @@ public class StreamStoreBuilder implements StoreBuilder {
 
     private File tempDir;
     private XMLUtils xmlUtils;
+    private StoreMetrics metrics = StoreMetrics.DISABLED;
 
     @Override
     public String getType() {
@@ -39,8 +41,14 @@ public class StreamStoreBuilder implements StoreBuilder {
         return this;
     }
 
+    @Override
+    public StoreBuilder setProperties(Map<String, String> properties) {
+        metrics = StoreMetrics.forProperties(properties);
+        return this;
+    }
+
     @Override
     public Store build() {
-        return new StreamStore(tempDir, xmlUtils);
+        return new StreamStore(tempDir, xmlUtils, metrics);
     }
 }
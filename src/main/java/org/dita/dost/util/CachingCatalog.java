@@ -0,0 +1,93 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.xml.resolver.Catalog;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Catalog that memoizes public ID, system ID and URI lookups. Cached lookups do not acquire catalog locks, so
+ * parallel parsers resolving the same DTD modules and stylesheets do not contend on the catalog.
+ *
+ * <p>Public ID lookups are always cached. System ID and URI lookups are cached only when the catalog has a match, so
+ * that document system IDs and URIs that are not in the catalog do not fill the cache. The number of cached lookups is
+ * bounded and lookups that have not been used recently are discarded first.</p>
+ *
+ * <p>Lookups are cached for the lifetime of the catalog. Create a new catalog to pick up catalog file changes.</p>
+ *
+ * @since 4.1
+ */
+final class CachingCatalog extends Catalog {
+
+    /** Maximum number of cached lookups. */
+    static final int MAX_ENTRIES = 10_000;
+
+    private final Cache<Key, Optional<String>> cache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .build();
+
+    @Override
+    public String resolvePublic(final String publicId, final String systemId) throws IOException {
+        final Key key = new Key(Type.PUBLIC, publicId, systemId);
+        final Optional<String> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+        final String res = super.resolvePublic(publicId, systemId);
+        cache.put(key, Optional.ofNullable(res));
+        return res;
+    }
+
+    @Override
+    public String resolveSystem(final String systemId) throws IOException {
+        final Key key = new Key(Type.SYSTEM, systemId, null);
+        final Optional<String> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+        final String res = super.resolveSystem(systemId);
+        if (res != null) {
+            cache.put(key, Optional.of(res));
+        }
+        return res;
+    }
+
+    @Override
+    public String resolveURI(final String uri) throws IOException {
+        final Key key = new Key(Type.URI, uri, null);
+        final Optional<String> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+        final String res = super.resolveURI(uri);
+        if (res != null) {
+            cache.put(key, Optional.of(res));
+        }
+        return res;
+    }
+
+    /**
+     * Create subordinate catalogs without caching, lookups are cached only by the top-level catalog.
+     */
+    @Override
+    protected Catalog newCatalog() {
+        final Catalog catalog = new Catalog();
+        catalog.setCatalogManager(catalogManager);
+        copyReaders(catalog);
+        return catalog;
+    }
+
+    private enum Type { PUBLIC, SYSTEM, URI }
+
+    private record Key(Type type, String id, String systemId) {}
+}
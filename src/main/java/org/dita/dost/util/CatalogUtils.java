@@ -11,7 +11,9 @@ package org.dita.dost.util;
 import static org.dita.dost.util.Constants.*;
 
 import java.io.File;
+import java.util.Objects;
 
+import org.apache.xml.resolver.Catalog;
 import org.apache.xml.resolver.CatalogManager;
 import org.apache.xml.resolver.tools.CatalogResolver;
 
@@ -24,9 +26,11 @@ import org.apache.xml.resolver.tools.CatalogResolver;
 public final class CatalogUtils {
 
     /**apache catalogResolver.*/
-    private static CatalogResolver catalogResolver = null;
+    private static volatile CatalogResolver catalogResolver = null;
     /** Absolute directory to find catalog-dita.xml.*/
     private static File ditaDir;
+    /** Last modified time of catalog file when the catalog resolver was created. */
+    private static long catalogLastModified;
     /**
      * Instances should NOT be constructed in standard programming.
      */
@@ -35,31 +39,76 @@ public final class CatalogUtils {
     }
 
     /**
-     * Set directory to find catalog-dita.xml.
+     * Set directory to find catalog-dita.xml. The current catalog resolver and its cached lookups are kept if the
+     * directory and the catalog file have not changed.
      * @param ditaDir ditaDir
      */
     public static synchronized void setDitaDir(final File ditaDir) {
+        if (catalogResolver != null
+                && Objects.equals(ditaDir, CatalogUtils.ditaDir)
+                && getCatalogFile(ditaDir).lastModified() == catalogLastModified) {
+            return;
+        }
         catalogResolver = null;
         CatalogUtils.ditaDir = ditaDir;
     }
 
     /**
-     * Get CatalogResolver.
+     * Discard the current catalog resolver and its cached lookups, e.g. after plug-in integration.
+     */
+    public static synchronized void clear() {
+        catalogResolver = null;
+    }
+
+    /**
+     * Get CatalogResolver. Resolved public IDs, system IDs and URIs are cached by the resolver.
      * @return CatalogResolver
      */
-    public static synchronized CatalogResolver getCatalogResolver() {
-        if (catalogResolver == null) {
-            final CatalogManager manager = new CatalogManager();
-            manager.setIgnoreMissingProperties(true);
-            manager.setUseStaticCatalog(false); // We'll use a private catalog.
-            manager.setPreferPublic(true);
-            final File catalogFilePath = new File(ditaDir, Configuration.pluginResourceDirs.get("org.dita.base") + File.separator + FILE_NAME_CATALOG);
-            manager.setCatalogFiles(catalogFilePath.toURI().toASCIIString());
-            //manager.setVerbosity(10);
-            catalogResolver = new CatalogResolver(manager);
+    public static CatalogResolver getCatalogResolver() {
+        CatalogResolver resolver = catalogResolver;
+        if (resolver == null) {
+            synchronized (CatalogUtils.class) {
+                resolver = catalogResolver;
+                if (resolver == null) {
+                    final File catalogFilePath = getCatalogFile(ditaDir);
+                    final CatalogManager manager = new CachingCatalogManager();
+                    manager.setIgnoreMissingProperties(true);
+                    manager.setUseStaticCatalog(false); // We'll use a private catalog.
+                    manager.setPreferPublic(true);
+                    manager.setCatalogFiles(catalogFilePath.toURI().toASCIIString());
+                    //manager.setVerbosity(10);
+                    catalogLastModified = catalogFilePath.lastModified();
+                    resolver = new CatalogResolver(manager);
+                    catalogResolver = resolver;
+                }
+            }
         }
+        return resolver;
+    }
 
-        return catalogResolver;
+    private static File getCatalogFile(final File ditaDir) {
+        return new File(ditaDir, Configuration.pluginResourceDirs.get("org.dita.base") + File.separator + FILE_NAME_CATALOG);
     }
-}
 
+    /**
+     * Catalog manager that creates caching private catalogs.
+     *
+     * <p>Unlike {@link CatalogManager#getPrivateCatalog()}, the static catalog and the catalog class name properties
+     * are not used. The manager is only used by {@link #getCatalogResolver()}, which disables the static catalog, and
+     * the created catalog is shared through the single cached {@link CatalogResolver} instead.</p>
+     */
+    private static final class CachingCatalogManager extends CatalogManager {
+        @Override
+        public Catalog getPrivateCatalog() {
+            final Catalog catalog = new CachingCatalog();
+            catalog.setCatalogManager(this);
+            catalog.setupReaders();
+            try {
+                catalog.loadSystemCatalogs();
+            } catch (final Exception e) {
+                debug.message(1, "Failed to load catalog files", e.toString());
+            }
+            return catalog;
+        }
+    }
+}
@@ -1128,6 +1128,10 @@ public final class Constants {
     /** Project reference name for XML utils object. */
     public static final String ANT_REFERENCE_XML_UTILS = "xmlutils";
     public static final String ANT_REFERENCE_STORE = "store";
+    /** Project reference name for pipeline executor object. */
+    public static final String ANT_REFERENCE_EXECUTOR = "executor";
+    /** Project reference name for I/O pipeline executor object. */
+    public static final String ANT_REFERENCE_IO_EXECUTOR = "executor.io";
     /** Temporary directory Ant property name. */
     public static final String ANT_TEMP_DIR = "dita.temp.dir";
 
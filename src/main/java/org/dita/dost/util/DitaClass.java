@@ -10,8 +10,10 @@ package org.dita.dost.util;
 import static net.sf.saxon.s9api.streams.Predicates.hasAttribute;
 import static org.dita.dost.util.Constants.*;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
@@ -40,6 +42,13 @@ public final class DitaClass {
                                                          "([\\S[^/]]+/\\S+\\s+)*");
 
     private static final Map<String, DitaClass> cache = new ConcurrentHashMap<>();
+    /** Interned type token IDs. */
+    private static final Map<String, Integer> tokenIds = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextTokenId = new AtomicInteger();
+    /** Parsed type token IDs by class attribute value. */
+    private static final Map<String, int[]> classTokens = new ConcurrentHashMap<>();
+    /** Maximum number of cached parsed class attribute values. */
+    private static final int CLASS_TOKENS_CACHE_SIZE = 16384;
 
     /** ModuleElem/type pair for the most specialized type, with a single preceding and following space character. */
     public final String matcher;
@@ -49,6 +58,10 @@ public final class DitaClass {
     private final String stringValue;
     /** Does this class value use valid DITA class syntax */
     private boolean validDitaClass = false;
+    /** Token ID of the most specialized type. */
+    private final int tokenId;
+    /** Token IDs of types in normalized specialization hierarchy string. */
+    private final int[] typeTokens;
 
     // Constructors
 
@@ -69,6 +82,8 @@ public final class DitaClass {
         }
         stringValue = sb.toString();
         validDitaClass = VALID_DITA_CLASS.matcher(stringValue).matches();
+        tokenId = getTokenId(last);
+        typeTokens = parseTokens(stringValue);
     }
 
     /**
@@ -80,6 +95,10 @@ public final class DitaClass {
         if (cls == null) {
             return null;
         }
+        final DitaClass cached = cache.get(cls);
+        if (cached != null) {
+            return cached;
+        }
         return cache.computeIfAbsent(WHITESPACE.matcher(cls).replaceAll(" "), DitaClass::new);
     }
 
@@ -153,7 +172,7 @@ public final class DitaClass {
      * @return {@code true} if given class matches this class, otherwise {@code false}
      */
     public boolean matches(final DitaClass cls) {
-        return cls != null && cls.toString().contains(matcher);
+        return cls != null && contains(cls.typeTokens, tokenId);
     }
 
     /**
@@ -163,7 +182,18 @@ public final class DitaClass {
      * @return {@code true} if given class matches this class, otherwise {@code false}
      */
     public boolean matches(final String classString) {
-        return classString != null && classString.contains(matcher);
+        if (classString == null) {
+            return false;
+        }
+        int[] classStringTokens = classTokens.get(classString);
+        if (classStringTokens == null) {
+            if (classTokens.size() >= CLASS_TOKENS_CACHE_SIZE) {
+                return classString.contains(matcher);
+            }
+            classStringTokens = parseTokens(classString);
+            classTokens.put(classString, classStringTokens);
+        }
+        return contains(classStringTokens, tokenId);
     }
 
     /**
@@ -213,6 +243,44 @@ public final class DitaClass {
                 && matches(item.attribute(ATTRIBUTE_NAME_CLASS));
     }
 
+    /**
+     * Parse type tokens from class attribute value. Only tokens that have a space character before and after them
+     * are included, which is equivalent to testing if the value contains the {@link #matcher} of the type.
+     *
+     * @param classString class attribute value
+     * @return token IDs
+     */
+    private static int[] parseTokens(final String classString) {
+        int[] res = new int[8];
+        int count = 0;
+        int start = classString.indexOf(' ');
+        while (start != -1) {
+            final int end = classString.indexOf(' ', start + 1);
+            if (end == -1) {
+                break;
+            }
+            if (count == res.length) {
+                res = Arrays.copyOf(res, count * 2);
+            }
+            res[count++] = getTokenId(classString.substring(start + 1, end));
+            start = end;
+        }
+        return Arrays.copyOf(res, count);
+    }
+
+    private static int getTokenId(final String token) {
+        return tokenIds.computeIfAbsent(token, t -> nextTokenId.getAndIncrement());
+    }
+
+    private static boolean contains(final int[] tokens, final int tokenId) {
+        for (final int token : tokens) {
+            if (token == tokenId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Test if the current DitaClass is a valid DITA class value
      *
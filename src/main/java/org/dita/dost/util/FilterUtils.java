@@ -27,6 +27,7 @@ import javax.xml.transform.sax.SAXSource;
 import java.io.IOException;
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -54,8 +55,14 @@ public final class FilterUtils {
     private DITAOTLogger logger;
     /** Actions for filter keys. */
     private final Map<FilterKey, Action> filterMap;
+    /** Actions by attribute name and value, attribute default actions have {@code null} value. */
+    private final Map<QName, Map<String, Action>> actionTable;
+    /** Default action is exclude. */
+    private final boolean defaultExclude;
+    /** Parsed profiling attribute values. */
+    private final Map<String, Map<QName, List<String>>> groupCache = new ConcurrentHashMap<>();
     /** Set of filter keys for which an error has already been thrown. */
-    private final Set<FilterKey> notMappingRules = new HashSet<>();
+    private final Set<FilterKey> notMappingRules = ConcurrentHashMap.newKeySet();
     private boolean logMissingAction;
     private final String foregroundConflictColor;
     private final String backgroundConflictColor;
@@ -66,6 +73,8 @@ public final class FilterUtils {
                        String backgroundConflictColor) {
         this.logMissingAction = !filterMap.isEmpty();
         this.filterMap = new HashMap<>(filterMap);
+        this.actionTable = compile(this.filterMap);
+        this.defaultExclude = this.filterMap.get(DEFAULT) instanceof Exclude;
         this.foregroundConflictColor = foregroundConflictColor;
         this.backgroundConflictColor = backgroundConflictColor;
         filterAttributes = getProfileAttributes(Configuration.configuration.get("filter-attributes"));
@@ -101,6 +110,8 @@ public final class FilterUtils {
         dfm.putAll(filterMap);
         this.logMissingAction = !filterMap.isEmpty();
         this.filterMap = dfm;
+        this.actionTable = compile(dfm);
+        this.defaultExclude = dfm.get(DEFAULT) instanceof Exclude;
         this.foregroundConflictColor = foregroundConflictColor;
         this.backgroundConflictColor = backgroundConflictColor;
         filterAttributes = getProfileAttributes(Configuration.configuration.get("filter-attributes"));
@@ -125,6 +136,29 @@ public final class FilterUtils {
         return filterMap.toString();
     }
 
+    /**
+     * Compile filter map into attribute and value lookup table.
+     */
+    private static Map<QName, Map<String, Action>> compile(final Map<FilterKey, Action> filterMap) {
+        final Map<QName, Map<String, Action>> res = new HashMap<>();
+        for (final Map.Entry<FilterKey, Action> e : filterMap.entrySet()) {
+            res.computeIfAbsent(e.getKey().attribute(), k -> new HashMap<>()).put(e.getKey().value(), e.getValue());
+        }
+        return res;
+    }
+
+    /**
+     * Get action for attribute value.
+     *
+     * @param attName attribute name
+     * @param value attribute value, {@code null} for attribute default action
+     * @return action, {@code null} if not defined
+     */
+    private Action getAction(final QName attName, final String value) {
+        final Map<String, Action> actions = actionTable.get(attName);
+        return actions != null ? actions.get(value) : null;
+    }
+
     private static Set<QName> getProfileAttributes(final String conf) {
         final ImmutableSet.Builder<QName> res = ImmutableSet.<QName>builder()
                 .add(QName.valueOf(ATTRIBUTE_NAME_AUDIENCE),
@@ -249,9 +283,9 @@ public final class FilterUtils {
         final List<Flag> res = new ArrayList<>();
         for (final QName attName : propList) {
             for (final String attSubValue : attValue) {
-                Action filterAction = filterMap.get(new FilterKey(attName, attSubValue));
+                Action filterAction = getAction(attName, attSubValue);
                 if (filterAction == null) {
-                    filterAction = filterMap.get(new FilterKey(attName, null));
+                    filterAction = getAction(attName, null);
                 }
                 if (filterAction instanceof Flag) {
                     res.add((Flag) filterAction);
@@ -326,6 +360,9 @@ public final class FilterUtils {
 
     private final Pattern groupPattern = Pattern.compile("(\\w+)\\((.*?)\\)");
 
+    /** Maximum number of cached parsed attribute values. */
+    private static final int GROUP_CACHE_SIZE = 4096;
+
     /**
      * Parse groups
      *
@@ -334,7 +371,26 @@ public final class FilterUtils {
      */
     @VisibleForTesting
     Map<QName, List<String>> getGroups(final String value) {
+        final Map<QName, List<String>> cached = groupCache.get(value);
+        if (cached != null) {
+            return cached;
+        }
+        final Map<QName, List<String>> res = Collections.unmodifiableMap(parseGroups(value));
+        if (groupCache.size() < GROUP_CACHE_SIZE) {
+            groupCache.put(value, res);
+        }
+        return res;
+    }
+
+    private Map<QName, List<String>> parseGroups(final String value) {
         final Map<QName, List<String>> res = new HashMap<>();
+        if (value.indexOf('(') == -1) {
+            final String v = value.trim();
+            if (!v.isEmpty()) {
+                res.put(null, Arrays.asList(v.split("\\s+")));
+            }
+            return res;
+        }
 
         final StringBuilder buf = new StringBuilder();
         int previousEnd = 0;
@@ -400,12 +456,11 @@ public final class FilterUtils {
             boolean hasNonExcludeAction = false;
             boolean hasExcludeAction = false;
             for (final String attSubValue: attValue) {
-                final FilterKey filterKey = new FilterKey(attName, attSubValue);
-                final Action filterAction = filterMap.get(filterKey);
+                final Action filterAction = getAction(attName, attSubValue);
                 // no action will be considered as 'not exclude'
                 if (filterAction == null) {
                     // check Specified DefaultAction mapping this attribute's name
-                    final Action defaultAction = filterMap.get(new FilterKey(attName, null));
+                    final Action defaultAction = getAction(attName, null);
                     if (defaultAction != null) {
                         if (defaultAction instanceof Exclude) {
                             hasExcludeAction = true;
@@ -453,8 +508,7 @@ public final class FilterUtils {
     }
 
     private boolean isDefaultExclude() {
-        final Action defaultAction = filterMap.get(DEFAULT);
-        return defaultAction != null && defaultAction instanceof Exclude;
+        return defaultExclude;
     }
 
     /**
@@ -466,13 +520,14 @@ public final class FilterUtils {
         if (attValue == null || attValue.isEmpty()) {
             return;
         }
+        if (!logMissingAction
+                || filterMap.get(DEFAULT) != null
+                || getAction(attName, null) != null) {
+            return;
+        }
         for (final String attSubValue: attValue) {
-            final FilterKey filterKey = new FilterKey(attName, attSubValue);
-            final Action filterAction = filterMap.get(filterKey);
-            if (filterAction == null 
-                    && logMissingAction
-                    && filterMap.get(DEFAULT) == null
-                    && filterMap.get(new FilterKey(attName, null)) == null) {
+            if (getAction(attName, attSubValue) == null) {
+                final FilterKey filterKey = new FilterKey(attName, attSubValue);
                 if (!alreadyShowed(filterKey)) {
                     logger.info(MessageUtils.getMessage("DOTJ031I", filterKey.toString()).toString());
                 }
@@ -481,11 +536,7 @@ public final class FilterUtils {
     }
 
     private boolean alreadyShowed(final FilterKey notMappingKey) {
-        if (!notMappingRules.contains(notMappingKey)) {
-            notMappingRules.add(notMappingKey);
-            return false;
-        }
-        return true;
+        return !notMappingRules.add(notMappingKey);
     }
 
     /**
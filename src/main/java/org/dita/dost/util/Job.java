@@ -23,6 +23,8 @@ import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.Result;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.URIResolver;
 import javax.xml.transform.dom.DOMResult;
 import java.io.*;
 import java.lang.reflect.Field;
@@ -46,14 +48,33 @@ import static org.dita.dost.util.URLUtils.*;
  *
  * <p>Instances are thread-safe.</p>
  *
+ * <p>File info objects are indexed by flag and format. Queries with a {@link FileInfoQuery} filter are answered from
+ * the indexes instead of testing every file info object. Changes to a file info object must be stored with
+ * {@link #add(FileInfo)} to update the indexes.</p>
+ *
+ * <p>Job configuration is persisted as a job file snapshot and a change journal. {@link #write()} appends changed
+ * file info objects and properties to the journal and only rewrites the complete job file when the journal has grown
+ * larger than the snapshot. Use {@link #compact()} to write a complete job file for readers that read the job file
+ * directly.</p>
+ *
  * @since 1.5.4
  */
 public final class Job {
 
     private static final String JOB_FILE = ".job.xml";
+    private static final String JOURNAL_FILE = ".job.journal";
+    private static final int JOURNAL_MAGIC = 0x444A4F42;
+
+    private static final byte RECORD_FILE = 'F';
+    private static final byte RECORD_REMOVE_FILE = 'R';
+    private static final byte RECORD_STRING = 'P';
+    private static final byte RECORD_SET = 'S';
+    private static final byte RECORD_MAP = 'M';
+    private static final byte RECORD_REMOVE_PROPERTY = 'X';
 
     private static final String ELEMENT_JOB = "job";
     private static final String ATTRIBUTE_KEY = "key";
+    private static final String ATTRIBUTE_SNAPSHOT = "snapshot";
     private static final String ELEMENT_ENTRY = "entry";
     private static final String ELEMENT_MAP = "map";
     private static final String ELEMENT_SET = "set";
@@ -98,8 +119,8 @@ public final class Job {
     /** File name for temporary input file list file */
     public static final String USER_INPUT_FILE_LIST_FILE = "usr.input.file.list";
 
-    /** Map of serialization attributes to file info boolean fields. */
-    private static final Map<String, Field> attrToFieldMap = new HashMap<>();
+    /** Map of serialization attributes to file info boolean fields. Sorted to give a stable journal flag order. */
+    private static final Map<String, Field> attrToFieldMap = new TreeMap<>();
     static {
         try {
             attrToFieldMap.put(ATTRIBUTE_CHUNKED, FileInfo.class.getField("isChunked"));
@@ -124,9 +145,31 @@ public final class Job {
     public final File tempDir;
     public final URI tempDirURI;
     private final File jobFile;
+    private final URI journalFile;
     private final Map<URI, FileInfo> files = new ConcurrentHashMap<>();
     private long lastModified;
     private final Store store;
+    /** Snapshot identifier of job file, {@code null} if job file has not been written with a snapshot identifier. */
+    private String snapshot;
+    /** Contents of journal file that has been read or written, empty if there is no journal. */
+    private byte[] journal = new byte[0];
+    /** Last modified time of journal file when it was read or written. */
+    private long journalLastModified;
+    /** Number of records in journal file. */
+    private int journalRecords;
+    /** Persisted file info objects, used to find changed file info objects. */
+    private final Map<URI, FileInfo> persistedFiles = new HashMap<>();
+    /** Persisted properties, used to find changed properties. */
+    private final Map<String, Object> persistedProp = new HashMap<>();
+    /** File info URIs by flags that are set. */
+    private final Map<FileInfoQuery.Flag, Set<URI>> flagIndex = new EnumMap<>(FileInfoQuery.Flag.class);
+    /** File info URIs by format. Missing format is indexed with an empty string. */
+    private final Map<String, Set<URI>> formatIndex = new ConcurrentHashMap<>();
+    {
+        for (final FileInfoQuery.Flag flag : FileInfoQuery.Flag.values()) {
+            flagIndex.put(flag, ConcurrentHashMap.newKeySet());
+        }
+    }
 
     /**
      * Create new job configuration instance. Initialise by reading temporary configuration files.
@@ -145,6 +188,7 @@ public final class Job {
         final URI tmpDirUri = tempDir.toURI();
         tempDirURI = tmpDirUri.toString().endsWith("/") ? tmpDirUri : URI.create(tmpDirUri + "/");
         jobFile = new File(tempDir, JOB_FILE);
+        journalFile = new File(tempDir, JOURNAL_FILE).toURI();
         prop = new HashMap<>();
         read();
         for (Map.Entry<String, String> e : configuration.entrySet()) {
@@ -159,8 +203,10 @@ public final class Job {
         this.store = job.store;
         this.tempDirURI = tempDir.toURI();
         this.jobFile = new File(tempDir, JOB_FILE);
+        this.journalFile = new File(tempDir, JOURNAL_FILE).toURI();
         this.prop = prop;
         this.files.putAll(files.stream().collect(Collectors.toMap(fi -> fi.uri, Function.identity())));
+        reindex();
     }
 
     public Store getStore() {
@@ -172,7 +218,8 @@ public final class Job {
      * @return {@code true} if configuration file has been update after this object has been created or serialized
      */
     public boolean isStale() {
-        return getStore().getLastModified(jobFile.toURI()) > lastModified;
+        return getStore().getLastModified(jobFile.toURI()) > lastModified
+                || (snapshot != null && getStore().getLastModified(journalFile) != journalLastModified);
     }
 
     /**
@@ -185,11 +232,16 @@ public final class Job {
     private void read() throws IOException {
         lastModified = getStore().getLastModified(jobFile.toURI());
         if (getStore().exists(jobFile.toURI())) {
-            try (final InputStream in = new FileInputStream(jobFile)) {
-                getStore().transform(jobFile.toURI(), new JobHandler(prop, files));
+            final JobHandler handler = new JobHandler(prop, files);
+            try {
+                getStore().transform(jobFile.toURI(), handler);
             } catch (final DITAOTException e) {
                 throw new IOException("Failed to read job file: " + e.getMessage());
             }
+            snapshot = handler.getSnapshot();
+            readJournal();
+            reindex();
+            setPersisted();
         } else {
             // defaults
             prop.put(PROPERTY_GENERATE_COPY_OUTER, Generate.NOT_GENERATEOUTTER.toString());
@@ -207,12 +259,22 @@ public final class Job {
         private String key;
         private Set<String> set;
         private Map<String, String> map;
+        private String snapshot;
 
         public JobHandler(final Map<String, Object> prop, final Map<URI, FileInfo> files) {
             this.prop = prop;
             this.files = files;
         }
 
+        /**
+         * Get snapshot identifier of job file.
+         *
+         * @return snapshot identifier, {@code null} if not set
+         */
+        public String getSnapshot() {
+            return snapshot;
+        }
+
         @Override
         public void characters(final char[] ch, final int start, final int length) throws SAXException {
             if (buf != null) {
@@ -231,6 +293,7 @@ public final class Job {
         public void startElement(final String ns, final String localName, final String qName, final Attributes atts) throws SAXException {
             final String n = localName != null ? localName : qName;
             switch (n) {
+                case ELEMENT_JOB -> snapshot = atts.getValue(ATTRIBUTE_SNAPSHOT);
                 case ELEMENT_PROPERTY -> name = atts.getValue(ATTRIBUTE_NAME);
                 case ELEMENT_STRING -> buf = new StringBuilder();
                 case ELEMENT_SET -> set = new HashSet<>();
@@ -293,16 +356,104 @@ public final class Job {
     }
 
     /**
-     * Store job into temporary configuration files.
+     * Store job into temporary configuration files. Only file info objects and properties that have changed since
+     * the job was read or written are appended to the change journal. Complete job file is written if there is no
+     * job file snapshot, the job file has been modified by another writer, or the journal has grown larger than the
+     * snapshot.
      *
      * @throws IOException if writing configuration files failed
      */
-    public void write() throws IOException {
+    public synchronized void write() throws IOException {
+        if (snapshot == null
+                || getStore().getLastModified(jobFile.toURI()) != lastModified
+                || getStore().getLastModified(journalFile) != journalLastModified) {
+            writeSnapshot();
+            return;
+        }
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        final int records;
+        try (DataOutputStream out = new DataOutputStream(buf)) {
+            records = writeChanges(out);
+        }
+        if (records == 0) {
+            return;
+        }
+        if (journalRecords + records > files.size() + prop.size()) {
+            writeSnapshot();
+            return;
+        }
+        // Store has no append operation, rewrite the journal from its in-memory copy
+        final ByteArrayOutputStream next = new ByteArrayOutputStream(journal.length + buf.size() + 64);
+        try (DataOutputStream out = new DataOutputStream(next)) {
+            if (journal.length == 0) {
+                out.writeInt(JOURNAL_MAGIC);
+                writeString(out, snapshot);
+            } else {
+                out.write(journal);
+            }
+            out.writeInt(buf.size());
+            buf.writeTo(out);
+        }
+        try (OutputStream out = getStore().getOutputStream(journalFile)) {
+            next.writeTo(out);
+        } catch (final IOException e) {
+            throw new IOException("Failed to write job journal: " + e.getMessage(), e);
+        }
+        journal = next.toByteArray();
+        journalLastModified = getStore().getLastModified(journalFile);
+        journalRecords += records;
+        setPersisted();
+    }
+
+    /**
+     * Store job into temporary configuration files and make sure the job file contains the complete job
+     * configuration. Used before the job file is read directly, e.g. by XSLT stylesheets.
+     *
+     * @throws IOException if writing configuration files failed
+     */
+    public synchronized void compact() throws IOException {
+        if (snapshot != null
+                && journal.length == 0
+                && !getStore().exists(journalFile)
+                && getStore().getLastModified(jobFile.toURI()) == lastModified
+                && persistedFiles.equals(files)
+                && persistedProp.equals(prop)) {
+            return;
+        }
+        writeSnapshot();
+    }
+
+    /**
+     * Get URI resolver that makes sure the job file contains the complete job configuration before it is read.
+     * The resolver never resolves URIs itself and should be used in front of other resolvers.
+     *
+     * @return job file URI resolver
+     */
+    public URIResolver getURIResolver() {
+        return (href, base) -> {
+            final URI h = toURI(href);
+            final URI f = base != null && h != null && !h.isAbsolute() ? toURI(base).resolve(h) : h;
+            if (f != null && "file".equals(f.getScheme()) && jobFile.equals(toFile(f))) {
+                try {
+                    compact();
+                } catch (final IOException e) {
+                    throw new TransformerException(e);
+                }
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Write complete job file with a new snapshot identifier and remove change journal.
+     */
+    private void writeSnapshot() throws IOException {
+        final String id = UUID.randomUUID().toString();
         try (Writer outStream = new BufferedWriter(new OutputStreamWriter(getStore().getOutputStream(jobFile.toURI()), StandardCharsets.UTF_8))) {
             XMLStreamWriter out = null;
             try {
                 out = XMLOutputFactory.newInstance().createXMLStreamWriter(outStream);
-                serialize(out, prop, files.values());
+                serialize(out, prop, files.values(), id);
             } catch (final XMLStreamException e) {
                 throw new IOException("Failed to serialize job file: " + e.getMessage());
             } finally {
@@ -318,6 +469,240 @@ public final class Job {
             throw new IOException("Failed to write file: " + e.getMessage());
         }
         lastModified = getStore().getLastModified(jobFile.toURI());
+        snapshot = id;
+        getStore().delete(journalFile);
+        journal = new byte[0];
+        journalLastModified = getStore().getLastModified(journalFile);
+        journalRecords = 0;
+        setPersisted();
+    }
+
+    /**
+     * Mark current file info objects and properties as persisted.
+     */
+    private void setPersisted() {
+        persistedFiles.clear();
+        for (final FileInfo fi : files.values()) {
+            persistedFiles.put(fi.uri, FileInfo.builder(fi).build());
+        }
+        persistedProp.clear();
+        for (final Map.Entry<String, Object> e : prop.entrySet()) {
+            persistedProp.put(e.getKey(), copy(e.getValue()));
+        }
+    }
+
+    private static Object copy(final Object value) {
+        if (value instanceof final Set<?> s) {
+            return new HashSet<>(s);
+        } else if (value instanceof final Map<?, ?> m) {
+            return new HashMap<>(m);
+        }
+        return value;
+    }
+
+    /**
+     * Write journal records for changes since last read or write.
+     *
+     * @return number of written records
+     */
+    private int writeChanges(final DataOutputStream out) throws IOException {
+        int records = 0;
+        for (final FileInfo fi : files.values()) {
+            if (!fi.equals(persistedFiles.get(fi.uri))) {
+                out.writeByte(RECORD_FILE);
+                writeString(out, fi.src != null ? fi.src.toString() : null);
+                writeString(out, fi.uri.toString());
+                writeString(out, fi.result != null ? fi.result.toString() : null);
+                writeString(out, fi.format);
+                int flags = 0;
+                int bit = 1;
+                try {
+                    for (final Field field : attrToFieldMap.values()) {
+                        if (field.getBoolean(fi)) {
+                            flags |= bit;
+                        }
+                        bit <<= 1;
+                    }
+                } catch (final IllegalAccessException ex) {
+                    throw new RuntimeException(ex);
+                }
+                out.writeInt(flags);
+                records++;
+            }
+        }
+        for (final URI uri : persistedFiles.keySet()) {
+            if (!files.containsKey(uri)) {
+                out.writeByte(RECORD_REMOVE_FILE);
+                writeString(out, uri.toString());
+                records++;
+            }
+        }
+        for (final Map.Entry<String, Object> e : prop.entrySet()) {
+            final Object value = e.getValue();
+            if (value == null || value.equals(persistedProp.get(e.getKey()))) {
+                continue;
+            }
+            if (value instanceof String) {
+                out.writeByte(RECORD_STRING);
+                writeString(out, e.getKey());
+                writeString(out, value.toString());
+            } else if (value instanceof final Set<?> set) {
+                out.writeByte(RECORD_SET);
+                writeString(out, e.getKey());
+                out.writeInt(set.size());
+                for (final Object o : set) {
+                    writeString(out, o.toString());
+                }
+            } else if (value instanceof final Map<?, ?> map) {
+                out.writeByte(RECORD_MAP);
+                writeString(out, e.getKey());
+                out.writeInt(map.size());
+                for (final Map.Entry<?, ?> o : map.entrySet()) {
+                    writeString(out, o.getKey().toString());
+                    writeString(out, o.getValue().toString());
+                }
+            } else {
+                // Other value types are not read back from the job file either
+                continue;
+            }
+            records++;
+        }
+        for (final String key : persistedProp.keySet()) {
+            if (prop.get(key) == null) {
+                out.writeByte(RECORD_REMOVE_PROPERTY);
+                writeString(out, key);
+                records++;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Read change journal and apply changes on top of job file snapshot. Journal written for another snapshot is
+     * removed. An incomplete trailing change set, e.g. from an interrupted write, is ignored.
+     */
+    private void readJournal() throws IOException {
+        journal = new byte[0];
+        journalRecords = 0;
+        journalLastModified = getStore().getLastModified(journalFile);
+        if (!getStore().exists(journalFile)) {
+            return;
+        }
+        if (snapshot == null) {
+            getStore().delete(journalFile);
+            journalLastModified = getStore().getLastModified(journalFile);
+            return;
+        }
+        final byte[] bytes;
+        try (InputStream in = getStore().getInputStream(journalFile)) {
+            bytes = in.readAllBytes();
+        } catch (final IOException e) {
+            throw new IOException("Failed to read job journal: " + e.getMessage(), e);
+        }
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        int length;
+        try {
+            if (in.readInt() != JOURNAL_MAGIC || !snapshot.equals(readString(in))) {
+                getStore().delete(journalFile);
+                journalLastModified = getStore().getLastModified(journalFile);
+                return;
+            }
+            length = bytes.length - in.available();
+        } catch (final EOFException e) {
+            // Incomplete journal header
+            return;
+        }
+        while (true) {
+            final byte[] changes;
+            try {
+                changes = new byte[in.readInt()];
+                in.readFully(changes);
+            } catch (final EOFException e) {
+                break;
+            }
+            journalRecords += readChanges(new DataInputStream(new ByteArrayInputStream(changes)));
+            length += 4 + changes.length;
+        }
+        journal = Arrays.copyOf(bytes, length);
+    }
+
+    /**
+     * Apply journal change set.
+     *
+     * @return number of read records
+     */
+    private int readChanges(final DataInputStream in) throws IOException {
+        int records = 0;
+        while (in.available() > 0) {
+            final byte type = in.readByte();
+            switch (type) {
+                case RECORD_FILE -> {
+                    final URI src = toURI(readString(in));
+                    final URI uri = toURI(readString(in));
+                    final FileInfo i = new FileInfo(src, uri, toFile(uri));
+                    i.result = toURI(readString(in));
+                    if (i.result == null) {
+                        i.result = src;
+                    }
+                    i.format = readString(in);
+                    final int flags = in.readInt();
+                    int bit = 1;
+                    try {
+                        for (final Field field : attrToFieldMap.values()) {
+                            field.setBoolean(i, (flags & bit) != 0);
+                            bit <<= 1;
+                        }
+                    } catch (final IllegalAccessException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                    files.put(i.uri, i);
+                }
+                case RECORD_REMOVE_FILE -> files.remove(toURI(readString(in)));
+                case RECORD_STRING -> prop.put(readString(in), readString(in));
+                case RECORD_SET -> {
+                    final String name = readString(in);
+                    final int size = in.readInt();
+                    final Set<String> set = new HashSet<>(size);
+                    for (int j = 0; j < size; j++) {
+                        set.add(readString(in));
+                    }
+                    prop.put(name, set);
+                }
+                case RECORD_MAP -> {
+                    final String name = readString(in);
+                    final int size = in.readInt();
+                    final Map<String, String> map = new HashMap<>(size);
+                    for (int j = 0; j < size; j++) {
+                        map.put(readString(in), readString(in));
+                    }
+                    prop.put(name, map);
+                }
+                case RECORD_REMOVE_PROPERTY -> prop.remove(readString(in));
+                default -> throw new IOException("Unsupported job journal record type " + type);
+            }
+            records++;
+        }
+        return records;
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
     }
 
     public Document serialize() throws IOException {
@@ -333,8 +718,15 @@ public final class Job {
     }
 
     public void serialize(XMLStreamWriter out, Map<String, Object> props, Collection<FileInfo> fs) throws XMLStreamException {
+        serialize(out, props, fs, null);
+    }
+
+    private void serialize(XMLStreamWriter out, Map<String, Object> props, Collection<FileInfo> fs, String id) throws XMLStreamException {
         out.writeStartDocument();
         out.writeStartElement(ELEMENT_JOB);
+        if (id != null) {
+            out.writeAttribute(ATTRIBUTE_SNAPSHOT, id);
+        }
         for (final Map.Entry<String, Object> e: props.entrySet()) {
             out.writeStartElement(ELEMENT_PROPERTY);
             out.writeAttribute(ATTRIBUTE_NAME, e.getKey());
@@ -400,10 +792,17 @@ public final class Job {
     }
 
     /**
-     * Add file info. If file info with the same file already exists, it will be replaced.
+     * Add file info. If file info with the same file already exists, it will be replaced. File info objects that
+     * have been changed in place must be added again to update the indexes.
      */
     public void add(final FileInfo fileInfo) {
-        files.put(fileInfo.uri, fileInfo);
+        files.compute(fileInfo.uri, (uri, prev) -> {
+            if (prev != null) {
+                unindex(uri);
+            }
+            index(fileInfo);
+            return fileInfo;
+        });
     }
 
     /**
@@ -412,7 +811,95 @@ public final class Job {
      * @return removed file info, {@code null} if not found
      */
     public FileInfo remove(final FileInfo fileInfo) {
-        return files.remove(fileInfo.uri);
+        final FileInfo[] res = new FileInfo[1];
+        files.computeIfPresent(fileInfo.uri, (uri, prev) -> {
+            unindex(uri);
+            res[0] = prev;
+            return null;
+        });
+        return res[0];
+    }
+
+    private void index(final FileInfo fileInfo) {
+        for (final Map.Entry<FileInfoQuery.Flag, Set<URI>> e : flagIndex.entrySet()) {
+            if (e.getKey().test(fileInfo)) {
+                e.getValue().add(fileInfo.uri);
+            }
+        }
+        formatIndex.computeIfAbsent(getFormatKey(fileInfo.format), k -> ConcurrentHashMap.newKeySet()).add(fileInfo.uri);
+    }
+
+    private void unindex(final URI uri) {
+        for (final Set<URI> uris : flagIndex.values()) {
+            uris.remove(uri);
+        }
+        for (final Set<URI> uris : formatIndex.values()) {
+            uris.remove(uri);
+        }
+    }
+
+    private void reindex() {
+        for (final Set<URI> uris : flagIndex.values()) {
+            uris.clear();
+        }
+        formatIndex.clear();
+        for (final FileInfo fileInfo : files.values()) {
+            index(fileInfo);
+        }
+    }
+
+    private static String getFormatKey(final String format) {
+        return format != null ? format : "";
+    }
+
+    /**
+     * Get URIs of file info objects that may match the query.
+     *
+     * @return candidate URIs, {@code null} if query cannot be answered from indexes
+     */
+    private Collection<URI> getCandidates(final FileInfoQuery query) {
+        if (query.clauses.size() == 1) {
+            return getCandidates(query.clauses.get(0));
+        }
+        final Set<URI> res = new HashSet<>();
+        for (final FileInfoQuery.Clause clause : query.clauses) {
+            final Collection<URI> candidates = getCandidates(clause);
+            if (candidates == null) {
+                return null;
+            }
+            res.addAll(candidates);
+        }
+        return res;
+    }
+
+    private Collection<URI> getCandidates(final FileInfoQuery.Clause clause) {
+        Collection<URI> res = null;
+        for (final Map.Entry<FileInfoQuery.Flag, Boolean> e : clause.flags().entrySet()) {
+            if (e.getValue()) {
+                final Set<URI> uris = flagIndex.get(e.getKey());
+                if (res == null || uris.size() < res.size()) {
+                    res = uris;
+                }
+            }
+        }
+        if (clause.formats() != null) {
+            final List<Set<URI>> formats = clause.formats().stream()
+                    .map(format -> formatIndex.get(getFormatKey(format)))
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .collect(Collectors.toList());
+            final int size = formats.stream().mapToInt(Set::size).sum();
+            if (res == null || size < res.size()) {
+                if (formats.size() == 1) {
+                    res = formats.get(0);
+                } else {
+                    final Set<URI> uris = new HashSet<>(size);
+                    formats.forEach(uris::addAll);
+                    res = uris;
+                }
+            }
+        }
+        return res;
     }
 
     /**
@@ -458,8 +945,7 @@ public final class Job {
      */
     public URI getInputMap() {
 //       return toURI(getProperty(INPUT_DITAMAP_URI));
-        return files.values().stream()
-                .filter(fi -> fi.isInput)
+        return getFileInfo(FileInfoQuery.INPUT).stream()
                 .map(fi -> getInputDir().relativize(fi.src))
                 .findAny()
                 .orElse(null);
@@ -522,12 +1008,25 @@ public final class Job {
     }
 
     /**
-     * Get file info objects that pass the filter
+     * Get file info objects that pass the filter. {@link FileInfoQuery} filters are answered from indexes.
      *
      * @param filter filter file info object must pass
      * @return collection of file info objects that pass the filter, may be empty
      */
     public Collection<FileInfo> getFileInfo(final Predicate<FileInfo> filter) {
+        if (filter instanceof final FileInfoQuery query) {
+            final Collection<URI> candidates = getCandidates(query);
+            if (candidates != null) {
+                final List<FileInfo> res = new ArrayList<>(candidates.size());
+                for (final URI uri : candidates) {
+                    final FileInfo fi = files.get(uri);
+                    if (fi != null && query.test(fi)) {
+                        res.add(fi);
+                    }
+                }
+                return res;
+            }
+        }
         return files.values().stream()
                 .filter(filter)
                 .collect(Collectors.toList());
@@ -852,6 +1351,192 @@ public final class Job {
 
     }
 
+    /**
+     * File info filter that can be answered from job indexes. A query is a disjunction of clauses, where each clause
+     * matches a set of formats and flag values.
+     *
+     * @since 4.1
+     */
+    public static final class FileInfoQuery implements Predicate<FileInfo> {
+
+        /** Indexed file info flags. */
+        public enum Flag {
+            CHUNKED(fi -> fi.isChunked),
+            HAS_LINK(fi -> fi.hasLink),
+            INPUT(fi -> fi.isInput),
+            INPUT_RESOURCE(fi -> fi.isInputResource),
+            HAS_CONREF(fi -> fi.hasConref),
+            HAS_KEYREF(fi -> fi.hasKeyref),
+            HAS_CODEREF(fi -> fi.hasCoderef),
+            RESOURCE_ONLY(fi -> fi.isResourceOnly),
+            TARGET(fi -> fi.isTarget),
+            CONREF_PUSH(fi -> fi.isConrefPush),
+            SUBJECT_SCHEME(fi -> fi.isSubjectScheme),
+            OUT_DITA(fi -> fi.isOutDita),
+            FLAG_IMAGE(fi -> fi.isFlagImage),
+            SUBTARGET(fi -> fi.isSubtarget);
+
+            private final Predicate<FileInfo> predicate;
+
+            Flag(final Predicate<FileInfo> predicate) {
+                this.predicate = predicate;
+            }
+
+            public boolean test(final FileInfo fi) {
+                return predicate.test(fi);
+            }
+        }
+
+        /** Any file. */
+        public static final FileInfoQuery ALL = new FileInfoQuery(List.of(new Clause(null, Map.of())));
+        /** Input resource. */
+        public static final FileInfoQuery INPUT = flag(Flag.INPUT, true);
+        /** Additional input resource. */
+        public static final FileInfoQuery INPUT_RESOURCE = flag(Flag.INPUT_RESOURCE, true);
+        /** Resource only file. */
+        public static final FileInfoQuery RESOURCE_ONLY = flag(Flag.RESOURCE_ONLY, true);
+        /** File with keyrefs. */
+        public static final FileInfoQuery HAS_KEYREF = flag(Flag.HAS_KEYREF, true);
+        /** File with conrefs. */
+        public static final FileInfoQuery HAS_CONREF = flag(Flag.HAS_CONREF, true);
+        /** Flagging image. */
+        public static final FileInfoQuery FLAG_IMAGE = flag(Flag.FLAG_IMAGE, true);
+        /** DITA topic, where missing format defaults to DITA. */
+        public static final FileInfoQuery DITA = format(null, "", ATTR_FORMAT_VALUE_DITA);
+        /** DITA map. */
+        public static final FileInfoQuery DITAMAP = format(ATTR_FORMAT_VALUE_DITAMAP);
+
+        final List<Clause> clauses;
+
+        private FileInfoQuery(final List<Clause> clauses) {
+            this.clauses = clauses;
+        }
+
+        /**
+         * Create query for flag value.
+         *
+         * @param flag file info flag
+         * @param value required flag value
+         * @return new query
+         */
+        public static FileInfoQuery flag(final Flag flag, final boolean value) {
+            return new FileInfoQuery(List.of(new Clause(null, Map.of(flag, value))));
+        }
+
+        /**
+         * Create query for formats.
+         *
+         * @param formats formats to match, {@code null} matches missing format
+         * @return new query
+         */
+        public static FileInfoQuery format(final String... formats) {
+            return format(Arrays.asList(formats));
+        }
+
+        /**
+         * Create query for formats.
+         *
+         * @param formats formats to match, {@code null} matches missing format
+         * @return new query
+         */
+        public static FileInfoQuery format(final Collection<String> formats) {
+            return new FileInfoQuery(List.of(new Clause(Collections.unmodifiableSet(new HashSet<>(formats)), Map.of())));
+        }
+
+        /**
+         * Create query that matches file info objects matched by both queries.
+         *
+         * @param other other query
+         * @return new query
+         */
+        public FileInfoQuery and(final FileInfoQuery other) {
+            final List<Clause> res = new ArrayList<>();
+            for (final Clause a : clauses) {
+                for (final Clause b : other.clauses) {
+                    final Clause clause = a.and(b);
+                    if (clause != null) {
+                        res.add(clause);
+                    }
+                }
+            }
+            return new FileInfoQuery(res);
+        }
+
+        /**
+         * Create query that matches file info objects matched by either query.
+         *
+         * @param other other query
+         * @return new query
+         */
+        public FileInfoQuery or(final FileInfoQuery other) {
+            final List<Clause> res = new ArrayList<>(clauses);
+            res.addAll(other.clauses);
+            return new FileInfoQuery(res);
+        }
+
+        @Override
+        public boolean test(final FileInfo fi) {
+            for (final Clause clause : clauses) {
+                if (clause.test(fi)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Query clause.
+         *
+         * @param formats formats to match, {@code null} if any format matches
+         * @param flags required flag values
+         */
+        record Clause(Set<String> formats, Map<Flag, Boolean> flags) implements Predicate<FileInfo> {
+
+            @Override
+            public boolean test(final FileInfo fi) {
+                if (formats != null && !formats.contains(fi.format)) {
+                    return false;
+                }
+                for (final Map.Entry<Flag, Boolean> e : flags.entrySet()) {
+                    if (e.getKey().test(fi) != e.getValue()) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            /**
+             * Combine clauses.
+             *
+             * @return combined clause, {@code null} if clauses cannot both match
+             */
+            private Clause and(final Clause other) {
+                final Set<String> fs;
+                if (formats == null) {
+                    fs = other.formats;
+                } else if (other.formats == null) {
+                    fs = formats;
+                } else {
+                    final Set<String> intersection = new HashSet<>(formats);
+                    intersection.retainAll(other.formats);
+                    if (intersection.isEmpty()) {
+                        return null;
+                    }
+                    fs = Collections.unmodifiableSet(intersection);
+                }
+                final Map<Flag, Boolean> fl = new EnumMap<>(Flag.class);
+                fl.putAll(flags);
+                for (final Map.Entry<Flag, Boolean> e : other.flags.entrySet()) {
+                    final Boolean prev = fl.put(e.getKey(), e.getValue());
+                    if (prev != null && !prev.equals(e.getValue())) {
+                        return null;
+                    }
+                }
+                return new Clause(fs, fl);
+            }
+        }
+    }
+
     public enum OutterControl {
         /** Fail behavior. */
         FAIL,
@@ -985,8 +1670,7 @@ public final class Job {
 //            return toURI(prop.get(PROPERTY_INPUT_MAP_URI).toString());
 //        }
 //        return null;
-        return files.values().stream()
-                .filter(fi -> fi.isInput)
+        return getFileInfo(FileInfoQuery.INPUT).stream()
                 .map(fi -> fi.src)
                 .findAny()
                 .orElseGet(() -> Optional.ofNullable((String) prop.get(PROPERTY_INPUT_MAP_URI))
@@ -29,7 +29,7 @@ public record KeyScope(String id,
     public KeyScope(final String id, final String name, final Map<String, KeyDef> keyDefinition, final List<KeyScope> childScopes) {
         this.id = id;
         this.name = name;
-        this.keyDefinition = unmodifiableMap(keyDefinition);
+        this.keyDefinition = keyDefinition instanceof LayeredMap ? keyDefinition : unmodifiableMap(keyDefinition);
         this.childScopes = List.copyOf(childScopes);
     }
 
@@ -69,13 +69,10 @@ public record KeyScope(String id,
         if (!Objects.equals(scope1.id, scope2.id)) {
             throw new IllegalArgumentException(String.format("Scopes should have the same ID: %s != %s", scope1.id, scope2.id));
         }
-        final Map<String, KeyDef> keyDefinition = new HashMap<>();
-        scope1.keyDefinition.forEach(keyDefinition::putIfAbsent);
-        scope2.keyDefinition.forEach(keyDefinition::putIfAbsent);
         return new KeyScope(
                 scope1.id,
                 scope1.name,
-                unmodifiableMap(keyDefinition),
+                LayeredMap.of(scope1.keyDefinition, scope2.keyDefinition),
                 ImmutableList.<KeyScope>builder()
                         .addAll(scope1.childScopes)
                         .addAll(scope2.childScopes)
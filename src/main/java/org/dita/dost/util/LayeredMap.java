@@ -0,0 +1,147 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.util;
+
+import java.util.*;
+
+/**
+ * Immutable map view that layers a primary map over a secondary map. Mappings in the primary map take precedence
+ * over mappings in the secondary map. Neither map is copied, so both must not be modified after the view has been
+ * created.
+ *
+ * <p>Used to share key definitions between nested key scopes instead of copying parent definitions to every child
+ * scope. Iteration returns primary mappings first.</p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @since 4.1
+ */
+public final class LayeredMap<K, V> extends AbstractMap<K, V> {
+
+    private final Map<K, V> primary;
+    private final Map<K, V> secondary;
+    private int size = -1;
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * Create new layered map.
+     *
+     * @param primary mappings that take precedence
+     * @param secondary mappings used when key is not in primary mappings
+     */
+    public LayeredMap(final Map<K, V> primary, final Map<K, V> secondary) {
+        this.primary = Objects.requireNonNull(primary);
+        this.secondary = Objects.requireNonNull(secondary);
+    }
+
+    /**
+     * Layer primary mappings over secondary mappings, avoiding a view if either map is empty.
+     *
+     * @param primary mappings that take precedence
+     * @param secondary mappings used when key is not in primary mappings
+     * @return layered mappings
+     */
+    public static <K, V> Map<K, V> of(final Map<K, V> primary, final Map<K, V> secondary) {
+        if (primary.isEmpty()) {
+            return secondary;
+        } else if (secondary.isEmpty()) {
+            return primary;
+        }
+        return new LayeredMap<>(primary, secondary);
+    }
+
+    @Override
+    public V get(final Object key) {
+        final V value = primary.get(key);
+        if (value != null || primary.containsKey(key)) {
+            return value;
+        }
+        return secondary.get(key);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return primary.containsKey(key) || secondary.containsKey(key);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return primary.isEmpty() && secondary.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        if (size == -1) {
+            int res = primary.size();
+            for (final K key : secondary.keySet()) {
+                if (!primary.containsKey(key)) {
+                    res++;
+                }
+            }
+            size = res;
+        }
+        return size;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new LayeredIterator();
+                }
+
+                @Override
+                public int size() {
+                    return LayeredMap.this.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * Iterator over primary entries followed by secondary entries that are not shadowed by primary entries.
+     */
+    private final class LayeredIterator implements Iterator<Entry<K, V>> {
+        private final Iterator<Entry<K, V>> primaryIterator = primary.entrySet().iterator();
+        private final Iterator<Entry<K, V>> secondaryIterator = secondary.entrySet().iterator();
+        private Entry<K, V> next;
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (primaryIterator.hasNext()) {
+                next = primaryIterator.next();
+                return true;
+            }
+            while (secondaryIterator.hasNext()) {
+                final Entry<K, V> entry = secondaryIterator.next();
+                if (!primary.containsKey(entry.getKey())) {
+                    next = entry;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Entry<K, V> res = new SimpleImmutableEntry<>(next);
+            next = null;
+            return res;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.sf.saxon.Configuration;
+import net.sf.saxon.s9api.SaxonApiException;
+import net.sf.saxon.s9api.XsltCompiler;
+import net.sf.saxon.s9api.XsltExecutable;
+
+import javax.xml.transform.Source;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.URIResolver;
+import javax.xml.transform.stream.StreamSource;
+import java.io.File;
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import static org.dita.dost.util.URLUtils.toFile;
+import static org.dita.dost.util.URLUtils.toURI;
+
+/**
+ * Cache of compiled stylesheets.
+ *
+ * <p>Cached stylesheets are scoped to the Saxon configuration of the compiler and keyed by stylesheet URI and
+ * compiler settings. Each build has its own {@link XMLUtils} configuration with its own catalog resolver, extension
+ * function instances and name pool, so stylesheets are reused between pipeline invocations of the same build but
+ * never between builds. Caches of configurations that are no longer used are garbage collected with them.</p>
+ *
+ * <p>A cached stylesheet is reused only if none of its modules, i.e. the main stylesheet and all imported and
+ * included stylesheets, have been modified since compilation.</p>
+ *
+ * @since 4.1
+ */
+public final class XsltCache {
+
+    private static final Cache<Configuration, Map<Key, Entry>> caches = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    private XsltCache() {
+    }
+
+    /**
+     * Get compiled stylesheet from cache or compile it. Only stylesheets read from local files by system ID are
+     * cached, other stylesheets are always compiled.
+     *
+     * @param compiler stylesheet compiler
+     * @param style stylesheet source
+     * @return compiled stylesheet
+     * @throws SaxonApiException if compilation fails
+     */
+    public static XsltExecutable compile(final XsltCompiler compiler, final Source style) throws SaxonApiException {
+        final URI uri = getCacheableUri(style);
+        if (uri == null) {
+            return compiler.compile(style);
+        }
+        final Map<Key, Entry> cache = getCache(compiler.getProcessor().getUnderlyingConfiguration());
+        final Key key = new Key(uri, getSettings(compiler));
+        final Entry cached = cache.get(key);
+        if (cached != null && cached.isValid()) {
+            return cached.executable;
+        }
+        final URIResolver resolver = compiler.getURIResolver();
+        final RecordingURIResolver recorder = new RecordingURIResolver(resolver);
+        recorder.record(uri);
+        compiler.setURIResolver(recorder);
+        final XsltExecutable executable;
+        try {
+            executable = compiler.compile(style);
+        } finally {
+            compiler.setURIResolver(resolver);
+        }
+        cache.put(key, new Entry(executable, recorder.getModules()));
+        return executable;
+    }
+
+    /**
+     * Remove all cached stylesheets, e.g. after plug-in integration.
+     */
+    public static void clear() {
+        caches.invalidateAll();
+    }
+
+    private static Map<Key, Entry> getCache(final Configuration configuration) {
+        try {
+            return caches.get(configuration, ConcurrentHashMap::new);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static URI getCacheableUri(final Source style) {
+        if (!(style instanceof final StreamSource source)
+                || source.getInputStream() != null
+                || source.getReader() != null
+                || source.getSystemId() == null) {
+            return null;
+        }
+        final URI uri = toURI(source.getSystemId());
+        if (uri == null || !uri.isAbsolute() || !"file".equals(uri.getScheme())) {
+            return null;
+        }
+        return uri.normalize();
+    }
+
+    private static String getSettings(final XsltCompiler compiler) {
+        return compiler.getXsltLanguageVersion()
+                + ' ' + compiler.isSchemaAware()
+                + ' ' + compiler.isAssertionsEnabled()
+                + ' ' + compiler.isJustInTimeCompilation()
+                + ' ' + compiler.getDefaultCollation();
+    }
+
+    private record Key(URI uri, String settings) {}
+
+    private static final class Entry {
+        private final XsltExecutable executable;
+        /** Last modified times of stylesheet modules. */
+        private final Map<File, Long> modules;
+
+        private Entry(final XsltExecutable executable, final Map<File, Long> modules) {
+            this.executable = executable;
+            this.modules = modules;
+        }
+
+        private boolean isValid() {
+            for (final Map.Entry<File, Long> module : modules.entrySet()) {
+                if (module.getKey().lastModified() != module.getValue()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * URI resolver that records last modified times of resolved local files.
+     */
+    private static final class RecordingURIResolver implements URIResolver {
+        private final URIResolver resolver;
+        private final Map<File, Long> modules = Collections.synchronizedMap(new LinkedHashMap<>());
+
+        private RecordingURIResolver(final URIResolver resolver) {
+            this.resolver = resolver;
+        }
+
+        @Override
+        public Source resolve(final String href, final String base) throws TransformerException {
+            final Source source = resolver != null ? resolver.resolve(href, base) : null;
+            if (source != null && source.getSystemId() != null) {
+                record(toURI(source.getSystemId()));
+            } else if (base != null) {
+                record(toURI(base).resolve(toURI(href)));
+            } else {
+                record(toURI(href));
+            }
+            return source;
+        }
+
+        private void record(final URI uri) {
+            if (uri != null && uri.isAbsolute() && "file".equals(uri.getScheme())) {
+                final File file = toFile(uri);
+                modules.put(file, file.lastModified());
+            }
+        }
+
+        private Map<File, Long> getModules() {
+            return Map.copyOf(modules);
+        }
+    }
+}
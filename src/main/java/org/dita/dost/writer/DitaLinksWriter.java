@@ -10,6 +10,7 @@ package org.dita.dost.writer;
 
 import org.dita.dost.exception.DITAOTException;
 import org.dita.dost.util.Job;
+import org.dita.dost.util.Job.FileInfoQuery;
 import org.dita.dost.util.StringUtils;
 import org.w3c.dom.Attr;
 import org.w3c.dom.Element;
@@ -62,7 +63,7 @@ public final class DitaLinksWriter extends AbstractXMLFilter {
     @Override
     public void setJob(final Job job) {
         super.setJob(job);
-        final Job.FileInfo in = job.getFileInfo(fi -> fi.isInput).iterator().next();
+        final Job.FileInfo in = job.getFileInfo(FileInfoQuery.INPUT).iterator().next();
         baseURI = job.tempDir.toURI().resolve(in.uri);
     }
 
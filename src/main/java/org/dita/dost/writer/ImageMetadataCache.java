@@ -0,0 +1,142 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.writer;
+
+import org.dita.dost.writer.ImageMetadataFilter.Dimensions;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent image metadata cache shared between builds.
+ *
+ * <p>Entries are keyed by absolute image file path and are valid as long as the file size and last modified time
+ * are unchanged. Content hashes are not used, because reading the whole image to hash it costs more than reading the
+ * metadata from the image header again.</p>
+ *
+ * <p>The cache is safe for concurrent use.</p>
+ *
+ * @since 4.1
+ */
+public final class ImageMetadataCache {
+
+    private static final String NULL_VALUE = "-";
+
+    private final File cacheFile;
+    private final Map<String, String> entries = new ConcurrentHashMap<>();
+    private volatile boolean modified = false;
+
+    /**
+     * Create image metadata cache and read existing entries from cache file.
+     *
+     * @param cacheFile cache file, need not exist
+     */
+    public ImageMetadataCache(final File cacheFile) {
+        this.cacheFile = cacheFile;
+        if (cacheFile.exists()) {
+            final Properties props = new Properties();
+            try (InputStream in = new FileInputStream(cacheFile)) {
+                props.load(in);
+            } catch (final IOException | IllegalArgumentException e) {
+                // Unreadable cache is treated as empty and overwritten on store
+                return;
+            }
+            for (final String name : props.stringPropertyNames()) {
+                entries.put(name, props.getProperty(name));
+            }
+        }
+    }
+
+    /**
+     * Get cached image metadata.
+     *
+     * @param image image file
+     * @return cached dimensions, {@code null} if not cached or if image has changed
+     */
+    public Dimensions get(final File image) {
+        final String value = entries.get(image.getAbsolutePath());
+        if (value == null) {
+            return null;
+        }
+        final String[] tokens = value.split(" ");
+        try {
+            if (tokens.length != 6
+                    || image.length() != Long.parseLong(tokens[0])
+                    || image.lastModified() != Long.parseLong(tokens[1])) {
+                return null;
+            }
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+        final Dimensions dimensions = new Dimensions();
+        dimensions.width = parse(tokens[2]);
+        dimensions.height = parse(tokens[3]);
+        dimensions.horizontalDpi = parse(tokens[4]);
+        dimensions.verticalDpi = parse(tokens[5]);
+        return dimensions;
+    }
+
+    /**
+     * Add image metadata to cache.
+     *
+     * @param image image file
+     * @param dimensions image dimensions
+     */
+    public void put(final File image, final Dimensions dimensions) {
+        final String value = image.length() + " " + image.lastModified() + " "
+                + format(dimensions.width) + " " + format(dimensions.height) + " "
+                + format(dimensions.horizontalDpi) + " " + format(dimensions.verticalDpi);
+        if (!value.equals(entries.put(image.getAbsolutePath(), value))) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Write cache file if entries have been added or changed. Entries for images that no longer exist are removed.
+     * The cache file is replaced atomically, so concurrent builds that share the cache directory never read a
+     * partially written cache file.
+     *
+     * @throws IOException if writing cache file failed
+     */
+    public void store() throws IOException {
+        if (!modified) {
+            return;
+        }
+        final Properties props = new Properties();
+        for (final Map.Entry<String, String> entry : entries.entrySet()) {
+            if (new File(entry.getKey()).isFile()) {
+                props.setProperty(entry.getKey(), entry.getValue());
+            }
+        }
+        final Path dir = cacheFile.getAbsoluteFile().getParentFile().toPath();
+        Files.createDirectories(dir);
+        final Path tmp = Files.createTempFile(dir, cacheFile.getName(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                props.store(out, null);
+            }
+            Files.move(tmp, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        modified = false;
+    }
+
+    private static String format(final String value) {
+        return value != null ? value : NULL_VALUE;
+    }
+
+    private static String parse(final String value) {
+        return value.equals(NULL_VALUE) ? null : value;
+    }
+}
@@ -10,6 +10,7 @@ package org.dita.dost.writer;
 import com.google.common.collect.ImmutableList;
 import com.google.common.io.BaseEncoding;
 import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.reader.BitmapMetadataReader;
 import org.dita.dost.reader.SvgMetadataReader;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.Job.FileInfo;
@@ -34,6 +35,7 @@ import java.util.Map;
 
 import static org.dita.dost.util.Constants.*;
 import static org.dita.dost.util.URLUtils.exists;
+import static org.dita.dost.util.URLUtils.toFile;
 import static org.dita.dost.util.URLUtils.toURI;
 
 /**
@@ -58,6 +60,7 @@ public final class ImageMetadataFilter extends AbstractXMLFilter {
     private final Job job;
     private final XMLReader reader;
     private final SvgMetadataReader svgMetadataReader;
+    private ImageMetadataCache metadataCache;
 
     // Constructors ------------------------------------------------------------
 
@@ -80,6 +83,16 @@ public final class ImageMetadataFilter extends AbstractXMLFilter {
         reader.setEntityResolver(new SvgMetadataReader.EmptyEntityResolver());
     }
 
+    /**
+     * Set persistent metadata cache for local image files.
+     *
+     * @param metadataCache metadata cache, may be {@code null}
+     * @since 4.1
+     */
+    public void setMetadataCache(final ImageMetadataCache metadataCache) {
+        this.metadataCache = metadataCache;
+    }
+
     // AbstractWriter methods --------------------------------------------------
 
     @Override
@@ -174,25 +187,61 @@ public final class ImageMetadataFilter extends AbstractXMLFilter {
     }
 
     private Attributes readMetadata(final URI imgInput) {
+        final File imgFile = metadataCache != null && imgInput.getScheme().equals("file") ? toFile(imgInput) : null;
+        if (imgFile != null) {
+            final Dimensions cached = metadataCache.get(imgFile);
+            if (cached != null) {
+                logger.debug("Using cached metadata for " + imgInput);
+                return cached.getAttributes();
+            }
+        }
         logger.info("Reading " + imgInput);
         final String mimeType = getMimeType(imgInput);
-        return switch (mimeType) {
+        final Dimensions dimensions = switch (mimeType) {
             case "image/svg+xml" -> readSvgMetadata(imgInput);
             default -> readBitmapMetadata(imgInput);
         };
+        if (dimensions == null) {
+            return EMPTY_ATTR;
+        }
+        if (imgFile != null) {
+            metadataCache.put(imgFile, dimensions);
+        }
+        return dimensions.getAttributes();
     }
 
-    private Attributes readSvgMetadata(final URI imgInput) {
+    /**
+     * @return image dimensions, {@code null} if reading failed
+     */
+    private Dimensions readSvgMetadata(final URI imgInput) {
         try (final InputStream in = getInputStream(imgInput)) {
             reader.parse(new InputSource(in));
-            return svgMetadataReader.getDimensions().getAttributes();
+            return svgMetadataReader.getDimensions();
         } catch (final IOException | SAXException e) {
             logger.error("Failed to read image " + imgInput + " metadata: " + e.getMessage(), e);
         }
-        return EMPTY_ATTR;
+        return null;
+    }
+
+    /**
+     * Read bitmap metadata from image header, or with Image I/O if the header format is not supported.
+     *
+     * @return image dimensions, {@code null} if reading failed
+     */
+    private Dimensions readBitmapMetadata(final URI imgInput) {
+        try (final InputStream in = getInputStream(imgInput)) {
+            final Dimensions dimensions = BitmapMetadataReader.read(in);
+            if (dimensions != null) {
+                return dimensions;
+            }
+        } catch (final IOException e) {
+            logger.error("Failed to read image " + imgInput + " metadata: " + e.getMessage(), e);
+            return null;
+        }
+        return readImageIOMetadata(imgInput);
     }
 
-    private Attributes readBitmapMetadata(final URI imgInput) {
+    private Dimensions readImageIOMetadata(final URI imgInput) {
         try {
             InputStream in = null;
             ImageReader r = null;
@@ -203,6 +252,7 @@ public final class ImageMetadataFilter extends AbstractXMLFilter {
                 final Iterator<ImageReader> i = ImageIO.getImageReaders(iis);
                 if (!i.hasNext()) {
                     logger.info("Image " + imgInput + " format not supported");
+                    return new Dimensions();
                 } else {
                     r = i.next();
                     r.setInput(iis);
@@ -223,7 +273,7 @@ public final class ImageMetadataFilter extends AbstractXMLFilter {
                         final int dpi = Math.round(MM_TO_INCH / v);
                         dimensions.verticalDpi = Integer.toString(dpi);
                     }
-                    return dimensions.getAttributes();
+                    return dimensions;
                 }
             } finally {
                 if (r != null) {
@@ -244,7 +294,7 @@ public final class ImageMetadataFilter extends AbstractXMLFilter {
         } catch (final Exception e) {
             logger.error("Failed to read image " + imgInput + " metadata: " + e.getMessage(), e);
         }
-        return EMPTY_ATTR;
+        return null;
     }
 
     private String getMimeType(final URI imgInput) {
@@ -1,7 +1,8 @@
 package com.idiominc.ws.opentopic.fo.i18n;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 
 /*
@@ -37,14 +38,23 @@ See the accompanying LICENSE file for applicable license.
 public class Alphabet {
     private final String name;
 
-    private final Set<Character> charset = new HashSet<Character>();
+    /** Sorted and merged code point ranges as pairs of inclusive start and end code points. */
+    private final int[] ranges;
 
 
     public Alphabet(final String theName, final Character[] theChars) {
+        this(theName, Arrays.stream(theChars).mapToInt(Character::charValue).toArray());
+    }
+
+
+    /**
+     * @param theName alphabet name
+     * @param theCodePoints code points in the alphabet
+     * @since 4.1
+     */
+    public Alphabet(final String theName, final int[] theCodePoints) {
         this.name = theName;
-        for (final Character aChar : theChars) {
-            this.charset.add(aChar);
-        }
+        this.ranges = toRanges(theCodePoints);
     }
 
 
@@ -54,12 +64,68 @@ public class Alphabet {
 
 
     public boolean isContain(final char theChar) {
-        return this.charset.contains(new Character(theChar));
+        return isContain((int) theChar);
+    }
+
+
+    /**
+     * @param theCodePoint code point to test
+     * @return {@code true} if alphabet contains the code point
+     * @since 4.1
+     */
+    public boolean isContain(final int theCodePoint) {
+        int low = 0;
+        int high = ranges.length / 2 - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (theCodePoint < ranges[mid * 2]) {
+                high = mid - 1;
+            } else if (theCodePoint > ranges[mid * 2 + 1]) {
+                low = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
     }
 
 
+    /**
+     * @return characters in the Basic Multilingual Plane
+     */
     public Character[] getAllChars() {
-        final Character[] characters = (Character[]) charset.toArray(new Character[charset.size()]);
-        return characters;
+        final List<Character> characters = new ArrayList<>();
+        for (int i = 0; i < ranges.length && ranges[i] <= Character.MAX_VALUE; i += 2) {
+            final int end = Math.min(ranges[i + 1], Character.MAX_VALUE);
+            for (int c = ranges[i]; c <= end; c++) {
+                characters.add((char) c);
+            }
+        }
+        return characters.toArray(new Character[0]);
+    }
+
+
+    /**
+     * @return sorted code point ranges as pairs of inclusive start and end code points
+     */
+    int[] getRanges() {
+        return ranges;
+    }
+
+
+    private static int[] toRanges(final int[] theCodePoints) {
+        final int[] codePoints = theCodePoints.clone();
+        Arrays.sort(codePoints);
+        final int[] res = new int[codePoints.length * 2];
+        int size = 0;
+        for (final int codePoint : codePoints) {
+            if (size > 0 && codePoint <= res[size - 1] + 1) {
+                res[size - 1] = Math.max(res[size - 1], codePoint);
+            } else {
+                res[size++] = codePoint;
+                res[size++] = codePoint;
+            }
+        }
+        return Arrays.copyOf(res, size);
     }
 }
@@ -6,6 +6,7 @@ import org.w3c.dom.NodeList;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.TreeSet;
 
 import com.idiominc.ws.opentopic.fo.i18n.Alphabet;
 
@@ -43,11 +44,56 @@ public class Configuration {
     private static final String BAD_CONF_MESSAGE = "Bad configuration file format!";
 
     private final Alphabet[] alphabets;
+    /** Sorted start code points of alphabet lookup ranges. */
+    private final int[] rangeStarts;
+    /** Inclusive end code points of alphabet lookup ranges. */
+    private final int[] rangeEnds;
+    /** Alphabets of lookup ranges. */
+    private final Alphabet[] rangeAlphabets;
 
 
     public Configuration(final Document theConfigurationFile)
             throws ConfigurationException {
         this.alphabets = initAlphabets(theConfigurationFile);
+
+        // Build lookup ranges where each code point maps to the first alphabet that contains it
+        final TreeSet<Integer> bounds = new TreeSet<>();
+        for (final Alphabet alphabet : alphabets) {
+            final int[] ranges = alphabet.getRanges();
+            for (int i = 0; i < ranges.length; i += 2) {
+                bounds.add(ranges[i]);
+                bounds.add(ranges[i + 1] + 1);
+            }
+        }
+        final List<Integer> starts = new ArrayList<>();
+        final List<Integer> ends = new ArrayList<>();
+        final List<Alphabet> rangeAlphabetList = new ArrayList<>();
+        Integer start = null;
+        for (final Integer end : bounds) {
+            if (start != null) {
+                Alphabet alphabet = null;
+                for (final Alphabet a : alphabets) {
+                    if (a.isContain(start.intValue())) {
+                        alphabet = a;
+                        break;
+                    }
+                }
+                if (alphabet != null) {
+                    final int last = rangeAlphabetList.size() - 1;
+                    if (last >= 0 && rangeAlphabetList.get(last) == alphabet && ends.get(last) == start - 1) {
+                        ends.set(last, end - 1);
+                    } else {
+                        starts.add(start);
+                        ends.add(end - 1);
+                        rangeAlphabetList.add(alphabet);
+                    }
+                }
+            }
+            start = end;
+        }
+        this.rangeStarts = starts.stream().mapToInt(Integer::intValue).toArray();
+        this.rangeEnds = ends.stream().mapToInt(Integer::intValue).toArray();
+        this.rangeAlphabets = rangeAlphabetList.toArray(new Alphabet[0]);
     }
 
 
@@ -62,14 +108,30 @@ public class Configuration {
      *      or <code>null</code> if no alphabets contains given char.
      */
     public Alphabet getAlphabetForChar(final char theChar) {
-        Alphabet result = null;
-        for (final Alphabet alphabet : this.alphabets) {
-            if (alphabet.isContain(theChar)) {
-                result = alphabet;
-                break;
+        return getAlphabetForCodePoint(theChar);
+    }
+
+
+    /**
+     * Searches alphabets for a code point
+     * @return first founded alphabet that contains given code point
+     *      or <code>null</code> if no alphabets contains given code point.
+     * @since 4.1
+     */
+    public Alphabet getAlphabetForCodePoint(final int theCodePoint) {
+        int low = 0;
+        int high = rangeStarts.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (theCodePoint < rangeStarts[mid]) {
+                high = mid - 1;
+            } else if (theCodePoint > rangeEnds[mid]) {
+                low = mid + 1;
+            } else {
+                return rangeAlphabets[mid];
             }
         }
-        return result;
+        return null;
     }
 
 
@@ -99,8 +161,8 @@ public class Configuration {
                 final Node alphabetChildNode = alphabetChildNodes.item(j);
                 final String childNodeName = alphabetChildNode.getNodeName();
                 if ("character-set".equals(childNodeName)) {
-                    final Character[] chars = processCharacterSetNode(alphabetChildNode);
-                    alphabetList.add(new Alphabet(charSetName, chars));
+                    final int[] codePoints = processCharacterSetNode(alphabetChildNode);
+                    alphabetList.add(new Alphabet(charSetName, codePoints));
                 } else {
                     //                    System.out.println("Unprocessed element [" + childNodeName + "]");
                 }
@@ -110,20 +172,16 @@ public class Configuration {
     }
 
 
-    private Character[] processCharacterSetNode(final Node theNode)
+    private int[] processCharacterSetNode(final Node theNode)
             throws ConfigurationException {
-        final List<Character> characterList = new ArrayList<Character>();
+        final List<Integer> codePointList = new ArrayList<Integer>();
 
         final NodeList ranges = theNode.getChildNodes();
         for (int i = 0; i < ranges.getLength(); i++) {
             final Node node = ranges.item(i);
 
             if ("character".equals(node.getNodeName())) {
-                final char[] aChars = node.getFirstChild().getNodeValue().toCharArray();
-                if (aChars.length != 1) {
-                    throw new ConfigurationException(BAD_CONF_MESSAGE);
-                }
-                characterList.add(new Character(aChars[0]));
+                codePointList.add(getCodePoint(node));
             } else if ("character-range".equals(node.getNodeName())) {
                 Node start = null;
                 Node end = null;
@@ -143,24 +201,27 @@ public class Configuration {
                     throw new ConfigurationException(BAD_CONF_MESSAGE);
                 }
 
-                final char[] startChars = start.getFirstChild().getNodeValue().toCharArray();
-                final char[] endChars = end.getFirstChild().getNodeValue().toCharArray();
-
-                if (startChars.length != 1 || endChars.length != 1) {
-                    throw new ConfigurationException(BAD_CONF_MESSAGE);
-                }
-
-                final char startChar = startChars[0];
-                final char endChar = endChars[0];
+                final int startCodePoint = getCodePoint(start);
+                final int endCodePoint = getCodePoint(end);
 
-                for (char ch = startChar; ch <= endChar; ch++) {
-                    characterList.add(new Character(ch));
+                for (int codePoint = startCodePoint; codePoint <= endCodePoint; codePoint++) {
+                    codePointList.add(codePoint);
                 }
             } else {
                 //                System.out.println("Unprocessed element [" + node + "]");
             }
         }
 
-        return (Character[]) characterList.toArray(new Character[characterList.size()]);
+        return codePointList.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+
+    private int getCodePoint(final Node theNode)
+            throws ConfigurationException {
+        final String value = theNode.getFirstChild().getNodeValue();
+        if (value.codePointCount(0, value.length()) != 1) {
+            throw new ConfigurationException(BAD_CONF_MESSAGE);
+        }
+        return value.codePointAt(0);
     }
 }
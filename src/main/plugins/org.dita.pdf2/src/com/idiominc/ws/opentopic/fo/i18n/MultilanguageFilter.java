@@ -0,0 +1,233 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package com.idiominc.ws.opentopic.fo.i18n;
+
+import org.xml.sax.*;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+import java.io.IOException;
+
+import static com.idiominc.ws.opentopic.fo.i18n.MultilanguagePreprocessor.*;
+
+/**
+ * Streaming multilanguage preprocessor. Text is split into runs of code points in the same alphabet and runs in an
+ * alphabet are wrapped into text fragment elements. Adjacent character events are buffered until the next markup
+ * event, so text is split the same way as with {@link MultilanguagePreprocessor}, but only a single text node is
+ * kept in memory. CDATA sections are passed through without splitting, and processing instructions and comments
+ * outside the root element are dropped, as with {@link MultilanguagePreprocessor}.
+ *
+ * @since 4.1
+ */
+public final class MultilanguageFilter extends XMLFilterImpl implements LexicalHandler {
+
+    private static final String LEXICAL_HANDLER_PROPERTY = "http://xml.org/sax/properties/lexical-handler";
+
+    private final Configuration configuration;
+    private final StringBuilder buffer = new StringBuilder();
+    private LexicalHandler lexicalHandler;
+    private int depth = 0;
+    private boolean inCDATA = false;
+
+    public MultilanguageFilter(final Configuration configuration) {
+        if (null == configuration) {
+            throw new IllegalArgumentException("Configuration argument may not be null");
+        }
+        this.configuration = configuration;
+    }
+
+    // XMLReader methods
+
+    @Override
+    public void setProperty(final String name, final Object value)
+            throws SAXNotRecognizedException, SAXNotSupportedException {
+        if (LEXICAL_HANDLER_PROPERTY.equals(name)) {
+            lexicalHandler = (LexicalHandler) value;
+        } else {
+            super.setProperty(name, value);
+        }
+    }
+
+    @Override
+    public Object getProperty(final String name) throws SAXNotRecognizedException, SAXNotSupportedException {
+        if (LEXICAL_HANDLER_PROPERTY.equals(name)) {
+            return lexicalHandler;
+        }
+        return super.getProperty(name);
+    }
+
+    @Override
+    public void parse(final InputSource input) throws SAXException, IOException {
+        // Lexical events must go through the filter to keep them in order with buffered text
+        if (lexicalHandler != null && getParent() != null) {
+            getParent().setProperty(LEXICAL_HANDLER_PROPERTY, this);
+        }
+        super.parse(input);
+    }
+
+    // ContentHandler methods
+
+    @Override
+    public void startElement(final String uri, final String localName, final String qName, final Attributes atts)
+            throws SAXException {
+        flush();
+        if (depth == 0) {
+            getContentHandler().startPrefixMapping(PREFIX, NAMESPACE_URL);
+        }
+        depth++;
+        super.startElement(uri, localName, qName, atts);
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+        flush();
+        super.endElement(uri, localName, qName);
+        depth--;
+        if (depth == 0) {
+            getContentHandler().endPrefixMapping(PREFIX);
+        }
+    }
+
+    @Override
+    public void characters(final char[] ch, final int start, final int length) throws SAXException {
+        if (inCDATA) {
+            super.characters(ch, start, length);
+        } else {
+            buffer.append(ch, start, length);
+        }
+    }
+
+    @Override
+    public void ignorableWhitespace(final char[] ch, final int start, final int length) throws SAXException {
+        flush();
+        super.ignorableWhitespace(ch, start, length);
+    }
+
+    @Override
+    public void processingInstruction(final String target, final String data) throws SAXException {
+        flush();
+        // Nodes outside the root element are dropped
+        if (depth > 0) {
+            super.processingInstruction(target, data);
+        }
+    }
+
+    @Override
+    public void skippedEntity(final String name) throws SAXException {
+        flush();
+        super.skippedEntity(name);
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        flush();
+        super.endDocument();
+    }
+
+    // LexicalHandler methods
+
+    @Override
+    public void startDTD(final String name, final String publicId, final String systemId) throws SAXException {
+        if (lexicalHandler != null) {
+            lexicalHandler.startDTD(name, publicId, systemId);
+        }
+    }
+
+    @Override
+    public void endDTD() throws SAXException {
+        if (lexicalHandler != null) {
+            lexicalHandler.endDTD();
+        }
+    }
+
+    @Override
+    public void startEntity(final String name) throws SAXException {
+        if (lexicalHandler != null) {
+            lexicalHandler.startEntity(name);
+        }
+    }
+
+    @Override
+    public void endEntity(final String name) throws SAXException {
+        if (lexicalHandler != null) {
+            lexicalHandler.endEntity(name);
+        }
+    }
+
+    @Override
+    public void startCDATA() throws SAXException {
+        flush();
+        inCDATA = true;
+        if (lexicalHandler != null) {
+            lexicalHandler.startCDATA();
+        }
+    }
+
+    @Override
+    public void endCDATA() throws SAXException {
+        inCDATA = false;
+        if (lexicalHandler != null) {
+            lexicalHandler.endCDATA();
+        }
+    }
+
+    @Override
+    public void comment(final char[] ch, final int start, final int length) throws SAXException {
+        flush();
+        // Nodes outside the root element are dropped
+        if (depth > 0 && lexicalHandler != null) {
+            lexicalHandler.comment(ch, start, length);
+        }
+    }
+
+    // Private methods
+
+    /**
+     * Split buffered text into alphabet runs.
+     */
+    private void flush() throws SAXException {
+        if (buffer.length() == 0) {
+            return;
+        }
+        final char[] ch = new char[buffer.length()];
+        buffer.getChars(0, ch.length, ch, 0);
+        buffer.setLength(0);
+
+        int start = 0;
+        Alphabet current = null;
+        for (int i = 0; i < ch.length; ) {
+            final int codePoint = Character.codePointAt(ch, i);
+            final Alphabet alphabet = configuration.getAlphabetForCodePoint(codePoint);
+            if (alphabet != current) {
+                writeRun(current, ch, start, i);
+                current = alphabet;
+                start = i;
+            }
+            i += Character.charCount(codePoint);
+        }
+        writeRun(current, ch, start, ch.length);
+    }
+
+    private void writeRun(final Alphabet alphabet, final char[] ch, final int start, final int end)
+            throws SAXException {
+        if (start == end) {
+            return;
+        }
+        if (alphabet == null) {
+            super.characters(ch, start, end - start);
+        } else {
+            final AttributesImpl atts = new AttributesImpl();
+            atts.addAttribute("", CHAR_SET, CHAR_SET, "CDATA", alphabet.getName());
+            final String qName = PREFIX + ":" + TEXT_FRAGMENT;
+            super.startElement(NAMESPACE_URL, TEXT_FRAGMENT, qName, atts);
+            super.characters(ch, start, end - start);
+            super.endElement(NAMESPACE_URL, TEXT_FRAGMENT, qName);
+        }
+    }
+}
@@ -40,10 +40,10 @@ This file is part of the DITA Open Toolkit project.
 See the accompanying LICENSE file for applicable license.
  */
 public class MultilanguagePreprocessor {
-    private static final String NAMESPACE_URL = "http://www.idiominc.com/opentopic/i18n";
-    private static final String PREFIX = "opentopic-i18n";
-    private static final String TEXT_FRAGMENT = "text-fragment";
-    private static final String CHAR_SET = "char-set";
+    static final String NAMESPACE_URL = "http://www.idiominc.com/opentopic/i18n";
+    static final String PREFIX = "opentopic-i18n";
+    static final String TEXT_FRAGMENT = "text-fragment";
+    static final String CHAR_SET = "char-set";
 
     private final Configuration configuration;
 
@@ -103,10 +103,8 @@ public class MultilanguagePreprocessor {
 
              Alphabet currentAlphabet = null;
 
-             final char[] chars = nodeValue.toCharArray();
-             for (int i = 0; i < chars.length; i++) {
-                 final char aChar = chars[i];
-                 final Alphabet alphabetForChar = configuration.getAlphabetForChar(aChar);
+             for (int i = 0; i < nodeValue.length(); i += Character.charCount(nodeValue.codePointAt(i))) {
+                 final Alphabet alphabetForChar = configuration.getAlphabetForCodePoint(nodeValue.codePointAt(i));
                  if (null != alphabetForChar && alphabetForChar.equals(currentAlphabet)) {
                      continue;
                  } else if (null == alphabetForChar && null == currentAlphabet) {
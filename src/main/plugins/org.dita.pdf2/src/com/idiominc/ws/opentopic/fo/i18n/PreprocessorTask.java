@@ -12,12 +12,15 @@ import org.dita.dost.util.DelegatingURIResolver;
 import org.dita.dost.util.Job;
 import org.dita.dost.util.XMLUtils;
 import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.transform.URIResolver;
-import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXSource;
 import java.io.File;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.Collections;
 
 import static org.dita.dost.util.Constants.ANT_REFERENCE_JOB;
 import static org.dita.dost.util.Constants.ANT_REFERENCE_XML_UTILS;
@@ -72,10 +75,8 @@ public class PreprocessorTask extends Task {
              final DocumentBuilder documentBuilder = XMLUtils.getDocumentBuilder();
              documentBuilder.setEntityResolver(xmlcatalog);
 
-             final Document doc = job.getStore().getDocument(input);
              final Document conf = documentBuilder.parse(config);
-             final MultilanguagePreprocessor preprocessor = new MultilanguagePreprocessor(new Configuration(conf));
-             final Document document = preprocessor.process(doc);
+             final MultilanguageFilter filter = new MultilanguageFilter(new Configuration(conf));
 
              if (style != null) {
                  log("Loading stylesheet " + style, Project.MSG_INFO);
@@ -86,11 +87,17 @@ public class PreprocessorTask extends Task {
                  final XsltExecutable compile = xsltCompiler.compile(job.getStore().getSource(style));
                  final XsltTransformer t = compile.load();
                  t.setURIResolver(resolver);
-                 t.setSource(new DOMSource(document));
-                 t.setDestination(job.getStore().getDestination(output));
-                 t.transform();
+                 filter.setParent(XMLUtils.getXMLReader());
+                 filter.setEntityResolver(xmlcatalog != null ? xmlcatalog : CatalogUtils.getCatalogResolver());
+                 try (InputStream in = job.getStore().getInputStream(input)) {
+                     final InputSource inputSource = new InputSource(in);
+                     inputSource.setSystemId(input.toString());
+                     t.setSource(new SAXSource(filter, inputSource));
+                     t.setDestination(job.getStore().getDestination(output));
+                     t.transform();
+                 }
              } else {
-                 job.getStore().writeDocument(document, output);
+                 job.getStore().transform(input, output, Collections.singletonList(filter));
              }
          } catch (final RuntimeException e) {
              throw e;
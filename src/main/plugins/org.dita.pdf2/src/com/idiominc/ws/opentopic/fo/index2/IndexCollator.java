@@ -1,5 +1,6 @@
 package com.idiominc.ws.opentopic.fo.index2;
 
+import java.util.Arrays;
 import java.util.Locale;
 
 /*
@@ -61,4 +62,32 @@ public class IndexCollator {
 
     }
 
+    /**
+     * Get collation key for a string. Keys compared with {@link #compareKeys(byte[], byte[])} are in the same order as
+     * strings compared with {@link #compare(Object, Object)}, so strings that are compared repeatedly only need to be
+     * collated once.
+     *
+     * @param value string to get key for
+     * @return collation key bytes
+     */
+    public byte[] getCollationKey(final String value) {
+        if (icuCollator) {
+            return this.icu4jCollator.getCollationKey(value).toByteArray();
+        } else {
+            return this.defaultCollator.getCollationKey(value).toByteArray();
+        }
+    }
+
+    /**
+     * Compare collation keys.
+     *
+     * @param k1 first collation key
+     * @param k2 second collation key
+     * @return negative integer, zero, or a positive integer as the first key is less than, equal to, or greater than
+     *         the second key
+     */
+    public static int compareKeys(final byte[] k1, final byte[] k2) {
+        return Arrays.compareUnsigned(k1, k2);
+    }
+
 }
@@ -1,15 +1,21 @@
 package com.idiominc.ws.opentopic.fo.index2;
 
 import com.ibm.icu.text.Collator;
+import com.idiominc.ws.opentopic.fo.index2.configuration.CharRange;
 import com.idiominc.ws.opentopic.fo.index2.configuration.ConfigEntry;
 import com.idiominc.ws.opentopic.fo.index2.configuration.IndexConfiguration;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
 
 import org.dita.dost.log.DITAOTLogger;
 import org.dita.dost.log.MessageUtils;
@@ -105,6 +111,7 @@ public final class IndexGroupProcessor {
         }
          */
 
+        final SortedEntries sortedEntries = new SortedEntries(indexMap, collator);
         for (int i = 0; i < IndexGroups.length; i++) {
             final MyIndexGroup group = IndexGroups[i];
             final ConfigEntry configEntry = group.getConfigEntry();
@@ -113,16 +120,7 @@ public final class IndexGroupProcessor {
 
             if (groupMembers.length > 0) {
                 //Find entries by comaping first letter with a chars in current config entry
-                for (final String key : new ArrayList<String>(indexMap.keySet())) {
-                    if (key.length() > 0) {
-                        final String value = getValue((IndexEntry) indexMap.get(key));
-                        //                        final char c = value.charAt(0);
-                        if (configEntry.isInRange(value,collator)) {
-                            final IndexEntry entry = (IndexEntry) indexMap.remove(key);
-                            group.addEntry(entry);
-                        }
-                    }
-                }
+                sortedEntries.assignInRange(i, configEntry);
             } else {
                 //Get index entries by range specified by two keys
                 final String key1 = configEntry.getKey();
@@ -131,18 +129,24 @@ public final class IndexGroupProcessor {
                     final ConfigEntry nextEntry = entries[i + 1];
                     key2 = nextEntry.getKey();
                 }
-                final String[] indexMapKeys = getIndexKeysOfIndexesInRange(key1, key2, collator, indexMap);
-
-                for (final String mapKey : indexMapKeys) {
-                    final IndexEntry entry = (IndexEntry) indexMap.remove(mapKey);
-                    group.addEntry(entry);
-                }
+                sortedEntries.assignBetween(i, key1, key2);
             }
-            /*
-            if (group.getEntries().length > 0) {
-                result.add(group);
+        }
+        //Add entries to groups in group order and map order
+        final List<List<String>> groupKeys = new ArrayList<>();
+        for (int i = 0; i < IndexGroups.length; i++) {
+            groupKeys.add(new ArrayList<>());
+        }
+        for (int e = 0; e < sortedEntries.size(); e++) {
+            final int i = sortedEntries.getGroup(e);
+            if (i != -1) {
+                groupKeys.get(i).add(sortedEntries.getKey(e));
+            }
+        }
+        for (int i = 0; i < IndexGroups.length; i++) {
+            for (final String key : groupKeys.get(i)) {
+                IndexGroups[i].addEntry(indexMap.remove(key));
             }
-             */
         }
 
         //If some terms remain uncategorized, and a recognized special character
@@ -199,26 +203,6 @@ public final class IndexGroupProcessor {
     }
 
 
-    private static String[] getIndexKeysOfIndexesInRange(final String theKey1, final String theKey2, final IndexCollator theCollator, final HashMap<String, IndexEntry> theIndexEntryMap) {
-        final ArrayList<String> res = new ArrayList<String>();
-        for (final Map.Entry<String, IndexEntry> e : theIndexEntryMap.entrySet()) {
-            final int res1 = theCollator.compare(theKey1, getValue(e.getValue()));
-            if (res1 <= 0) {
-                if (theKey2 == null) {
-                    //the right range is not specified
-                    res.add(e.getKey());
-                    continue;
-                }
-                final int res2 = theCollator.compare(theKey2, e.getKey());
-                if (res2 > 0) {
-                    res.add(e.getKey());
-                }
-            }
-        }
-        return (String[]) res.toArray(new String[res.size()]);
-    }
-
-
     private static boolean doesStart(final String sourceString, final String[] compStrings) {
         for (final String compString : compStrings) {
             if (sourceString.startsWith(compString)) {
@@ -287,6 +271,157 @@ public final class IndexGroupProcessor {
     }
 
 
+    /**
+     * Index entries sorted for group assignment. Collation keys are computed once per entry and entries in range of
+     * a group are found with binary search, instead of collating every entry against every group.
+     */
+    private static final class SortedEntries {
+
+        private final IndexCollator collator;
+        private final String[] keys;
+        private final String[] values;
+        private final byte[][] valueKeys;
+        /** Key collation keys, only for entries with a sort value. */
+        private final byte[][] keyKeys;
+        /** Assigned group index for each entry, {@code -1} if not assigned */
+        private final int[] groups;
+        /** Entries sorted by value */
+        private final int[] byValue;
+        /** Entries without a sort value sorted by value collation key */
+        private final int[] plain;
+        /** Entries with a sort value sorted by value collation key */
+        private final int[] sortAs;
+
+        SortedEntries(final Map<String, IndexEntry> indexMap, final IndexCollator collator) {
+            this.collator = collator;
+            final int size = indexMap.size();
+            keys = new String[size];
+            values = new String[size];
+            valueKeys = new byte[size][];
+            keyKeys = new byte[size][];
+            groups = new int[size];
+            Arrays.fill(groups, -1);
+            int e = 0;
+            for (final Map.Entry<String, IndexEntry> entry : indexMap.entrySet()) {
+                keys[e] = entry.getKey();
+                values[e] = getValue(entry.getValue());
+                valueKeys[e] = collator.getCollationKey(values[e]);
+                if (!values[e].equals(keys[e])) {
+                    keyKeys[e] = collator.getCollationKey(keys[e]);
+                }
+                e++;
+            }
+            final Comparator<Integer> byCollationKey = (e1, e2) -> IndexCollator.compareKeys(valueKeys[e1], valueKeys[e2]);
+            byValue = IntStream.range(0, size).boxed()
+                    .sorted(Comparator.comparing(i -> values[i]))
+                    .mapToInt(Integer::intValue).toArray();
+            plain = IntStream.range(0, size).filter(i -> keyKeys[i] == null).boxed()
+                    .sorted(byCollationKey)
+                    .mapToInt(Integer::intValue).toArray();
+            sortAs = IntStream.range(0, size).filter(i -> keyKeys[i] != null).boxed()
+                    .sorted(byCollationKey)
+                    .mapToInt(Integer::intValue).toArray();
+        }
+
+        int size() {
+            return keys.length;
+        }
+
+        String getKey(final int entry) {
+            return keys[entry];
+        }
+
+        int getGroup(final int entry) {
+            return groups[entry];
+        }
+
+        /**
+         * Assign unassigned entries that are in range of a group with group members.
+         */
+        void assignInRange(final int group, final ConfigEntry configEntry) {
+            final CharRange[] ranges = configEntry.getRanges();
+            if (ranges == null) {
+                for (int e = 0; e < keys.length; e++) {
+                    if (groups[e] == -1 && keys[e].length() > 0 && configEntry.isInRange(values[e], collator)) {
+                        groups[e] = group;
+                    }
+                }
+                return;
+            }
+            for (final String member : configEntry.getGroupMembers()) {
+                // values that start with the member
+                for (int i = search(byValue, e -> values[e].compareTo(member) < 0);
+                     i < byValue.length && values[byValue[i]].startsWith(member); i++) {
+                    assignMember(byValue[i], group);
+                }
+                // values the member starts with
+                for (int length = 1; length <= member.length(); length++) {
+                    final String prefix = member.substring(0, length);
+                    for (int i = search(byValue, e -> values[e].compareTo(prefix) < 0);
+                         i < byValue.length && values[byValue[i]].equals(prefix); i++) {
+                        assignMember(byValue[i], group);
+                    }
+                }
+            }
+            for (final CharRange range : ranges) {
+                final byte[] start = collator.getCollationKey(range.getStart());
+                final byte[] end = collator.getCollationKey(range.getEnd());
+                for (final int[] order : new int[][] {plain, sortAs}) {
+                    for (int i = search(order, e -> IndexCollator.compareKeys(valueKeys[e], start) <= 0);
+                         i < order.length && IndexCollator.compareKeys(valueKeys[order[i]], end) < 0; i++) {
+                        assignMember(order[i], group);
+                    }
+                }
+            }
+        }
+
+        private void assignMember(final int entry, final int group) {
+            if (groups[entry] == -1 && keys[entry].length() > 0 && values[entry].length() > 0) {
+                groups[entry] = group;
+            }
+        }
+
+        /**
+         * Assign unassigned entries whose value is not before the first key and whose key is before the second key.
+         */
+        void assignBetween(final int group, final String key1, final String key2) {
+            final byte[] lower = collator.getCollationKey(key1);
+            final byte[] upper = key2 != null ? collator.getCollationKey(key2) : null;
+            final int plainEnd = upper != null
+                    ? search(plain, e -> IndexCollator.compareKeys(valueKeys[e], upper) < 0)
+                    : plain.length;
+            for (int i = search(plain, e -> IndexCollator.compareKeys(valueKeys[e], lower) < 0); i < plainEnd; i++) {
+                if (groups[plain[i]] == -1) {
+                    groups[plain[i]] = group;
+                }
+            }
+            // sort value and key may collate in different order, test key of every entry after the first key
+            for (int i = search(sortAs, e -> IndexCollator.compareKeys(valueKeys[e], lower) < 0); i < sortAs.length; i++) {
+                final int e = sortAs[i];
+                if (groups[e] == -1 && (upper == null || IndexCollator.compareKeys(keyKeys[e], upper) < 0)) {
+                    groups[e] = group;
+                }
+            }
+        }
+
+        /**
+         * Find first position in sorted entries for which the predicate is false.
+         */
+        private static int search(final int[] order, final IntPredicate before) {
+            int low = 0;
+            int high = order.length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (before.test(order[mid])) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
     private static class MyIndexGroup
     implements IndexGroup {
         private final String label;
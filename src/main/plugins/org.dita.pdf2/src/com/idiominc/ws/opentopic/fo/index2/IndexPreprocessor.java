@@ -8,9 +8,22 @@ import com.idiominc.ws.opentopic.fo.index2.util.IndexStringProcessor;
 import com.idiominc.ws.opentopic.fo.index2.util.IndexDitaProcessor;
 import org.w3c.dom.*;
 
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.XMLFilterImpl;
+
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.sax.TransformerHandler;
+import java.io.IOException;
 import java.util.*;
 
 import org.dita.dost.log.DITAOTLogger;
@@ -122,12 +135,36 @@ public final class IndexPreprocessor {
     }
 
     public void createAndAddIndexGroups(final IndexEntry[] theIndexEntries, final IndexConfiguration theConfiguration, final Document theDocument, final Locale theLocale) {
+        final Element rootElement = theDocument.getDocumentElement();
+        rootElement.appendChild(createIndexGroups(theIndexEntries, theConfiguration, theDocument, theLocale));
+    }
+
+    /**
+     * Process index terms in a single streaming pass. Index term elements are buffered and rewritten one at a time
+     * and index groups are appended to the end of the root element, so only index terms are kept in memory.
+     *
+     * @param reader XML reader to parse input with
+     * @param input input document
+     * @param output output content handler; if a {@link TransformerHandler}, document type declaration is copied
+     * @param configuration index configuration
+     * @param locale index locale
+     * @throws SAXException if parsing or writing failed
+     * @throws IOException if reading input failed
+     */
+    public void process(final XMLReader reader, final InputSource input, final ContentHandler output,
+                        final IndexConfiguration configuration, final Locale locale)
+            throws SAXException, IOException {
+        final IndexFilter filter = new IndexFilter(output, configuration, locale);
+        filter.setParent(reader);
+        reader.setProperty("http://xml.org/sax/properties/lexical-handler", filter);
+        filter.parse(input);
+    }
+
+    private Element createIndexGroups(final IndexEntry[] theIndexEntries, final IndexConfiguration theConfiguration, final Document theDocument, final Locale theLocale) {
         final IndexComparator indexEntryComparator = new IndexComparator(theLocale);
 
         final IndexGroup[] indexGroups = indexGroupProcessor.process(theIndexEntries, theConfiguration, theLocale);
 
-        final Element rootElement = theDocument.getDocumentElement();
-
         final Element indexGroupsElement = theDocument.createElementNS(namespace_url, "index.groups");
         indexGroupsElement.setPrefix(prefix);
 
@@ -149,7 +186,7 @@ public final class IndexPreprocessor {
             indexGroupsElement.appendChild(groupElement);
         }
 
-        rootElement.appendChild(indexGroupsElement);
+        return indexGroupsElement;
     }
 
 
@@ -256,11 +293,23 @@ public final class IndexPreprocessor {
                 || INDEXING_D_INDEX_SEE_ALSO.matches(node);
     }
     
+    private boolean checkElementName(final Attributes atts) {
+        return TOPIC_INDEXTERM.matches(atts)
+                || INDEXING_D_INDEX_SORT_AS.matches(atts)
+                || INDEXING_D_INDEX_SEE.matches(atts)
+                || INDEXING_D_INDEX_SEE_ALSO.matches(atts);
+    }
+
     private boolean checkDraftNode(final Node node) {
         return TOPIC_DRAFT_COMMENT.matches(node)
                 || TOPIC_REQUIRED_CLEANUP.matches(node);
     }
 
+    private boolean checkDraftNode(final Attributes atts) {
+        return TOPIC_DRAFT_COMMENT.matches(atts)
+                || TOPIC_REQUIRED_CLEANUP.matches(atts);
+    }
+
     /**
      * Processes index string and creates nodes with "prefix" in given "namespace_url" from the parsed index entry text.
      *
@@ -394,4 +443,269 @@ public final class IndexPreprocessor {
         indexEntryNode.setPrefix(this.prefix);
         return indexEntryNode;
     }
+
+    /**
+     * Streaming index term filter. Index term elements are built into small DOM fragments, processed with the same
+     * rules as the DOM implementation and written back as SAX events.
+     */
+    private final class IndexFilter extends XMLFilterImpl implements LexicalHandler {
+
+        private final ContentHandler output;
+        private final LexicalHandler lexicalOutput;
+        private final IndexConfiguration configuration;
+        private final Locale locale;
+        private final Document document = XMLUtils.getDocumentBuilder().newDocument();
+        private final List<IndexEntry> indexes = new ArrayList<>();
+        private final Deque<Boolean> draftStack = new ArrayDeque<>();
+        private int depth = 0;
+        private int draftDepth = 0;
+        private boolean documentStarted = false;
+        /** Index term element being buffered, {@code null} when not inside an index term. */
+        private Element buffer;
+        private Node current;
+        private int bufferDepth;
+
+        private IndexFilter(final ContentHandler output, final IndexConfiguration configuration, final Locale locale) {
+            this.output = output;
+            this.lexicalOutput = output instanceof LexicalHandler ? (LexicalHandler) output : null;
+            this.configuration = configuration;
+            this.locale = locale;
+            setContentHandler(output);
+        }
+
+        @Override
+        public void startDocument() {
+            // Deferred until document type declaration has been read
+        }
+
+        @Override
+        public void startElement(final String uri, final String localName, final String qName, final Attributes atts)
+                throws SAXException {
+            if (buffer != null) {
+                final Element element = createBufferElement(uri, qName, atts);
+                current.appendChild(element);
+                current = element;
+                bufferDepth++;
+                return;
+            }
+            startOutput();
+            if (depth == 0) {
+                output.startPrefixMapping(prefix, namespace_url);
+            }
+            depth++;
+            if (checkElementName(atts) && draftDepth == 0) {
+                buffer = createBufferElement(uri, qName, atts);
+                current = buffer;
+                bufferDepth = 1;
+                return;
+            }
+            final boolean draft = !includeDraft && checkDraftNode(atts);
+            draftStack.push(draft);
+            if (draft) {
+                draftDepth++;
+            }
+            output.startElement(uri, localName, qName, atts);
+        }
+
+        @Override
+        public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+            if (buffer != null) {
+                bufferDepth--;
+                if (bufferDepth > 0) {
+                    current = current.getParentNode();
+                    return;
+                }
+                final Node[] nodes = processIndexNode(buffer, document, indexes::add);
+                buffer = null;
+                current = null;
+                depth--;
+                for (final Node node : nodes) {
+                    write(node);
+                }
+                return;
+            }
+            if (draftStack.pop()) {
+                draftDepth--;
+            }
+            depth--;
+            if (depth == 0) {
+                final IndexEntry[] entries = indexes.toArray(new IndexEntry[0]);
+                write(createIndexGroups(entries, configuration, document, locale));
+            }
+            output.endElement(uri, localName, qName);
+            if (depth == 0) {
+                output.endPrefixMapping(prefix);
+            }
+        }
+
+        @Override
+        public void characters(final char[] ch, final int start, final int length) throws SAXException {
+            if (buffer != null) {
+                current.appendChild(document.createTextNode(new String(ch, start, length)));
+            } else {
+                output.characters(ch, start, length);
+            }
+        }
+
+        @Override
+        public void ignorableWhitespace(final char[] ch, final int start, final int length) throws SAXException {
+            characters(ch, start, length);
+        }
+
+        @Override
+        public void processingInstruction(final String target, final String data) throws SAXException {
+            if (buffer != null) {
+                current.appendChild(document.createProcessingInstruction(target, data));
+            } else if (depth > 0) {
+                // Nodes outside the root element are dropped
+                output.processingInstruction(target, data);
+            }
+        }
+
+        @Override
+        public void startPrefixMapping(final String prefix, final String uri) throws SAXException {
+            if (buffer == null) {
+                startOutput();
+                output.startPrefixMapping(prefix, uri);
+            }
+        }
+
+        @Override
+        public void endPrefixMapping(final String prefix) throws SAXException {
+            if (buffer == null) {
+                output.endPrefixMapping(prefix);
+            }
+        }
+
+        @Override
+        public void comment(final char[] ch, final int start, final int length) throws SAXException {
+            if (buffer != null) {
+                current.appendChild(document.createComment(new String(ch, start, length)));
+            } else if (depth > 0 && lexicalOutput != null) {
+                lexicalOutput.comment(ch, start, length);
+            }
+        }
+
+        @Override
+        public void startDTD(final String name, final String publicId, final String systemId) {
+            if (output instanceof TransformerHandler) {
+                final Transformer transformer = ((TransformerHandler) output).getTransformer();
+                if (publicId != null) {
+                    transformer.setOutputProperty(OutputKeys.DOCTYPE_PUBLIC, publicId);
+                }
+                if (systemId != null) {
+                    transformer.setOutputProperty(OutputKeys.DOCTYPE_SYSTEM, systemId);
+                }
+            }
+        }
+
+        @Override
+        public void endDTD() {
+            // NOOP
+        }
+
+        @Override
+        public void startEntity(final String name) {
+            // NOOP
+        }
+
+        @Override
+        public void endEntity(final String name) {
+            // NOOP
+        }
+
+        @Override
+        public void startCDATA() {
+            // NOOP
+        }
+
+        @Override
+        public void endCDATA() {
+            // NOOP
+        }
+
+        /**
+         * Start output document after document type declaration has been read.
+         */
+        private void startOutput() throws SAXException {
+            if (!documentStarted) {
+                documentStarted = true;
+                output.startDocument();
+            }
+        }
+
+        private Element createBufferElement(final String uri, final String qName, final Attributes atts) {
+            final Element element = document.createElementNS(uri.isEmpty() ? null : uri, qName);
+            for (int i = 0; i < atts.getLength(); i++) {
+                final String attUri = atts.getURI(i);
+                element.setAttributeNS(attUri.isEmpty() ? null : attUri, atts.getQName(i), atts.getValue(i));
+            }
+            return element;
+        }
+
+        /**
+         * Write DOM node as SAX events.
+         */
+        private void write(final Node node) throws SAXException {
+            switch (node.getNodeType()) {
+                case Node.ELEMENT_NODE:
+                    final List<String> prefixes = new ArrayList<>();
+                    declare(node, prefixes);
+                    final NamedNodeMap attrs = node.getAttributes();
+                    final AttributesImpl atts = new AttributesImpl();
+                    for (int i = 0; i < attrs.getLength(); i++) {
+                        final Node attr = attrs.item(i);
+                        final String name = attr.getNodeName();
+                        if (name.equals(XMLNS_ATTRIBUTE) || name.startsWith(XMLNS_ATTRIBUTE + ":")) {
+                            continue;
+                        }
+                        declare(attr, prefixes);
+                        atts.addAttribute(getUri(attr), getLocalName(attr), name, "CDATA", attr.getNodeValue());
+                    }
+                    output.startElement(getUri(node), getLocalName(node), node.getNodeName(), atts);
+                    for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+                        write(child);
+                    }
+                    output.endElement(getUri(node), getLocalName(node), node.getNodeName());
+                    for (final String p : prefixes) {
+                        output.endPrefixMapping(p);
+                    }
+                    break;
+                case Node.TEXT_NODE:
+                case Node.CDATA_SECTION_NODE:
+                    final char[] text = node.getNodeValue().toCharArray();
+                    output.characters(text, 0, text.length);
+                    break;
+                case Node.COMMENT_NODE:
+                    if (lexicalOutput != null) {
+                        final char[] comment = node.getNodeValue().toCharArray();
+                        lexicalOutput.comment(comment, 0, comment.length);
+                    }
+                    break;
+                case Node.PROCESSING_INSTRUCTION_NODE:
+                    output.processingInstruction(node.getNodeName(), node.getNodeValue());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void declare(final Node node, final List<String> prefixes) throws SAXException {
+            final String uri = node.getNamespaceURI();
+            if (uri == null || uri.equals(XML_NS_URI)) {
+                return;
+            }
+            final String p = node.getPrefix() != null ? node.getPrefix() : "";
+            output.startPrefixMapping(p, uri);
+            prefixes.add(p);
+        }
+
+        private String getUri(final Node node) {
+            return node.getNamespaceURI() != null ? node.getNamespaceURI() : "";
+        }
+
+        private String getLocalName(final Node node) {
+            return node.getLocalName() != null ? node.getLocalName() : node.getNodeName();
+        }
+    }
 }
@@ -58,4 +58,12 @@ public interface ConfigEntry {
 
      boolean isInRange(String value, IndexCollator collator);
 
+     /**
+      * @return character ranges of this group, or {@code null} if {@link #isInRange(String, IndexCollator)} does not
+      *         only test group member prefixes and character ranges
+      */
+     default CharRange[] getRanges() {
+         return null;
+     }
+
  }
@@ -76,6 +76,11 @@ class ConfigEntryImpl implements ConfigEntry {
          return this.members;
      }
 
+     @Override
+     public CharRange[] getRanges() {
+         return this.ranges;
+     }
+
      public boolean isInRange(final String value, final IndexCollator collator) {
          if (value.length() > 0) {
              for (final String member : members) {
@@ -0,0 +1,223 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost;
+
+import org.apache.tools.ant.BuildEvent;
+import org.apache.tools.ant.Project;
+import org.apache.tools.ant.Target;
+import org.dita.dost.store.CacheStore;
+import org.dita.dost.util.Job;
+import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.XMLUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertFalse;
+import static org.dita.dost.util.Constants.ANT_REFERENCE_JOB;
+import static org.junit.Assert.assertTrue;
+
+public class BuildCacheTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File ditaDir;
+    private File cacheDir;
+    private File tempDir;
+    private File outputDir;
+    private File src;
+    private File ditaval;
+    private Map<String, String> args;
+    private Job job;
+
+    @Before
+    public void setUp() throws IOException {
+        ditaDir = temporaryFolder.newFolder("dita-ot");
+        cacheDir = temporaryFolder.newFolder("cache");
+        tempDir = temporaryFolder.newFolder("temp");
+        outputDir = temporaryFolder.newFolder("out");
+        final File srcDir = temporaryFolder.newFolder("src");
+        src = new File(srcDir, "topic.dita");
+        Files.write(src.toPath(), "<topic/>".getBytes(UTF_8));
+        ditaval = new File(srcDir, "filter.ditaval");
+        Files.write(ditaval.toPath(), "<val/>".getBytes(UTF_8));
+        Files.write(new File(outputDir, "topic.html").toPath(), "<html/>".getBytes(UTF_8));
+
+        // Job configuration is never written to the file system by a memory store
+        job = new Job(tempDir, new CacheStore(tempDir, new XMLUtils()));
+        job.add(new FileInfo.Builder()
+                .uri(URI.create("topic.dita"))
+                .src(src.toURI())
+                .result(src.toURI())
+                .format("dita")
+                .build());
+
+        args = new HashMap<>();
+        args.put("args.input", src.toURI().toString());
+        args.put("output.dir", outputDir.getAbsolutePath());
+        args.put("transtype", "html5");
+        args.put("args.filter", ditaval.getAbsolutePath());
+        args.put("dita.temp.dir", tempDir.getAbsolutePath());
+    }
+
+    @Test
+    public void isUpToDate() throws IOException {
+        store();
+
+        args.put("dita.temp.dir", temporaryFolder.newFolder().getAbsolutePath());
+        assertTrue(new BuildCache(cacheDir, ditaDir, args).isUpToDate());
+    }
+
+    @Test
+    public void isUpToDate_noManifest() {
+        assertFalse(new BuildCache(cacheDir, ditaDir, args).isUpToDate());
+    }
+
+    @Test
+    public void isUpToDate_sourceChanged() throws IOException {
+        store();
+
+        Files.write(src.toPath(), "<topic id='changed'/>".getBytes(UTF_8));
+
+        assertFalse(new BuildCache(cacheDir, ditaDir, args).isUpToDate());
+    }
+
+    @Test
+    public void isUpToDate_sourceTouched() throws IOException {
+        store();
+
+        assertTrue(src.setLastModified(src.lastModified() + 2000));
+
+        assertTrue(new BuildCache(cacheDir, ditaDir, args).isUpToDate());
+    }
+
+    @Test
+    public void isUpToDate_parameterFileChanged() throws IOException {
+        store();
+
+        Files.write(ditaval.toPath(), "<val><prop action='exclude'/></val>".getBytes(UTF_8));
+
+        assertFalse(new BuildCache(cacheDir, ditaDir, args).isUpToDate());
+    }
+
+    @Test
+    public void isUpToDate_relativeParameterFileChanged() throws IOException {
+        final File header = new File(ditaDir, "header.xml");
+        Files.write(header.toPath(), "<div/>".getBytes(UTF_8));
+        args.put("args.hdr", "header.xml");
+        store();
+
+        Files.write(header.toPath(), "<div>Changed</div>".getBytes(UTF_8));
+
+        assertFalse(new BuildCache(cacheDir, ditaDir, args).isUpToDate());
+    }
+
+    @Test
+    public void isUpToDate_parameterDirectoryChanged() throws IOException {
+        final File customizationDir = temporaryFolder.newFolder("customization");
+        final File vars = new File(customizationDir, "common" + File.separator + "vars" + File.separator + "en.xml");
+        Files.createDirectories(vars.getParentFile().toPath());
+        Files.write(vars.toPath(), "<vars/>".getBytes(UTF_8));
+        args.put("customization.dir", customizationDir.getAbsolutePath());
+        store();
+
+        Files.write(vars.toPath(), "<vars><variable/></vars>".getBytes(UTF_8));
+
+        assertFalse(new BuildCache(cacheDir, ditaDir, args).isUpToDate());
+    }
+
+    @Test
+    public void isUpToDate_pluginChanged() throws IOException {
+        final File xsl = new File(ditaDir, "plugins" + File.separator + "com.example" + File.separator + "topic.xsl");
+        Files.createDirectories(xsl.getParentFile().toPath());
+        Files.write(xsl.toPath(), "<xsl:stylesheet/>".getBytes(UTF_8));
+        store();
+
+        Files.write(xsl.toPath(), "<xsl:stylesheet version='3.0'/>".getBytes(UTF_8));
+
+        assertFalse(new BuildCache(cacheDir, ditaDir, args).isUpToDate());
+    }
+
+    @Test
+    public void isUpToDate_parameterChanged() throws IOException {
+        store();
+
+        args.put("args.draft", "yes");
+
+        assertFalse(new BuildCache(cacheDir, ditaDir, args).isUpToDate());
+    }
+
+    @Test
+    public void isUpToDate_outputRemoved() throws IOException {
+        store();
+
+        Files.delete(new File(outputDir, "topic.html").toPath());
+
+        assertFalse(new BuildCache(cacheDir, ditaDir, args).isUpToDate());
+    }
+
+    @Test
+    public void isUpToDate_outputModified() throws IOException {
+        store();
+
+        final File output = new File(outputDir, "topic.html");
+        Files.write(output.toPath(), "<HTML/>".getBytes(UTF_8));
+        assertTrue(output.setLastModified(output.lastModified() + 2000));
+
+        assertFalse(new BuildCache(cacheDir, ditaDir, args).isUpToDate());
+    }
+
+    @Test
+    public void isUpToDate_noJob() throws IOException {
+        new BuildCache(cacheDir, ditaDir, args).store(tempDir);
+
+        assertFalse(new BuildCache(cacheDir, ditaDir, args).isUpToDate());
+    }
+
+    @Test
+    public void isUpToDate_removedSourceChanged() throws IOException {
+        final File filtered = new File(src.getParentFile(), "filtered.dita");
+        Files.write(filtered.toPath(), "<topic/>".getBytes(UTF_8));
+        final FileInfo fi = new FileInfo.Builder()
+                .uri(URI.create("filtered.dita"))
+                .src(filtered.toURI())
+                .result(filtered.toURI())
+                .format("dita")
+                .build();
+        job.add(fi);
+        final BuildCache buildCache = new BuildCache(cacheDir, ditaDir, args);
+        final Project project = new Project();
+        project.addReference(ANT_REFERENCE_JOB, job);
+        final Target target = new Target();
+        target.setProject(project);
+        buildCache.getListener().targetFinished(new BuildEvent(target));
+        job.remove(fi);
+        buildCache.getListener().targetFinished(new BuildEvent(target));
+        buildCache.store(tempDir);
+
+        Files.write(filtered.toPath(), "<topic id='changed'/>".getBytes(UTF_8));
+
+        assertFalse(new BuildCache(cacheDir, ditaDir, args).isUpToDate());
+    }
+
+    private void store() throws IOException {
+        final BuildCache buildCache = new BuildCache(cacheDir, ditaDir, args);
+        buildCache.addSources(job);
+        buildCache.store(tempDir);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+public class BuildServerTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ProcessorFactory processorFactory;
+    private BuildServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        String ditaDir = System.getProperty("dita.dir");
+        if (ditaDir == null) {
+            ditaDir = new File("src" + File.separator + "main").getAbsolutePath();
+        }
+        processorFactory = ProcessorFactory.newInstance(new File(ditaDir));
+        processorFactory.setBaseTempDir(temporaryFolder.newFolder());
+        server = new BuildServer(processorFactory, new InetSocketAddress("localhost", 0), 1);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void create_anyLocalAddressWithoutToken() throws IOException {
+        new BuildServer(processorFactory, new InetSocketAddress("0.0.0.0", 0), 1);
+    }
+
+    @Test
+    public void build_withToken() throws IOException {
+        server.stop();
+        server = new BuildServer(processorFactory, new InetSocketAddress("localhost", 0), 1, "secret");
+        server.start();
+
+        assertEquals(401, post("transtype=html5\noutput.dir=/tmp/out\n").getResponseCode());
+
+        final HttpURLConnection wrong = open();
+        wrong.setRequestProperty("Authorization", "Bearer wrong");
+        assertEquals(401, wrong.getResponseCode());
+
+        final HttpURLConnection conn = open();
+        conn.setRequestProperty("Authorization", "Bearer secret");
+        conn.setRequestMethod("GET");
+        assertEquals(405, conn.getResponseCode());
+    }
+
+    @Test
+    public void build_methodNotAllowed() throws IOException {
+        final HttpURLConnection conn = open();
+        conn.setRequestMethod("GET");
+
+        assertEquals(405, conn.getResponseCode());
+    }
+
+    @Test
+    public void build_transtypeNotDefined() throws IOException {
+        final HttpURLConnection conn = post("args.input=/tmp/root.ditamap\noutput.dir=/tmp/out\n");
+
+        assertEquals(400, conn.getResponseCode());
+        assertEquals("Transtype not defined", read(conn.getErrorStream()));
+    }
+
+    @Test
+    public void build_unsupportedTranstype() throws IOException {
+        final HttpURLConnection conn = post("transtype=xxx\nargs.input=/tmp/root.ditamap\noutput.dir=/tmp/out\n");
+
+        assertEquals(400, conn.getResponseCode());
+        assertEquals("Transtype xxx not supported", read(conn.getErrorStream()));
+    }
+
+    @Test
+    public void build_inputNotDefined() throws IOException {
+        final HttpURLConnection conn = post("transtype=html5\noutput.dir=/tmp/out\n");
+
+        assertEquals(400, conn.getResponseCode());
+        assertEquals("Input file not defined", read(conn.getErrorStream()));
+    }
+
+    private HttpURLConnection open() throws IOException {
+        final URL url = new URL("http", "localhost", server.getAddress().getPort(), BuildServer.PATH_BUILD);
+        return (HttpURLConnection) url.openConnection();
+    }
+
+    private HttpURLConnection post(final String body) throws IOException {
+        final HttpURLConnection conn = open();
+        conn.setRequestMethod("POST");
+        conn.setDoOutput(true);
+        try (OutputStream out = conn.getOutputStream()) {
+            out.write(body.getBytes(UTF_8));
+        }
+        return conn;
+    }
+
+    private String read(final InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), UTF_8);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.ant;
+
+import org.apache.tools.ant.Project;
+import org.dita.dost.store.AbstractStore;
+import org.dita.dost.store.CacheStoreBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.dita.dost.util.Constants.ANT_REFERENCE_STORE;
+import static org.dita.dost.util.Constants.ANT_TEMP_DIR;
+import static org.junit.Assert.assertEquals;
+
+public class InitializeProjectTaskTest {
+
+    private static final int ROUNDS = 200;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void execute_concurrentBuilds() throws Exception {
+        final File tempDir1 = folder.newFolder();
+        final File tempDir2 = folder.newFolder();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final CyclicBarrier barrier = new CyclicBarrier(2);
+            final List<Future<?>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> initialize(tempDir1, "2k", barrier)));
+            futures.add(executor.submit(() -> initialize(tempDir2, "", barrier)));
+            for (final Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Void initialize(final File tempDir, final String cacheSize, final CyclicBarrier barrier)
+            throws InterruptedException, BrokenBarrierException, IOException {
+        for (int i = 0; i < ROUNDS; i++) {
+            final Project project = new Project();
+            project.setUserProperty("dita.dir", new File("src" + File.separator + "main").getAbsolutePath());
+            project.setUserProperty(ANT_TEMP_DIR, tempDir.getAbsolutePath());
+            project.setUserProperty(CacheStoreBuilder.PROPERTY_CACHE_SIZE, cacheSize);
+            project.setUserProperty(InitializeProjectTask.PROPERTY_PARALLEL_THREADS, "1");
+            final InitializeProjectTask task = new InitializeProjectTask();
+            task.setProject(project);
+            task.setStoreType("memory");
+            barrier.await();
+            task.execute();
+
+            final AbstractStore store = project.getReference(ANT_REFERENCE_STORE);
+            assertEquals(tempDir, store.tempDir);
+            project.fireBuildFinished(null);
+        }
+        return null;
+    }
+}
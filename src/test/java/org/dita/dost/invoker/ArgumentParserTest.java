@@ -15,6 +15,7 @@ import java.io.File;
 import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class ArgumentParserTest {
 
@@ -164,5 +165,31 @@ public class ArgumentParserTest {
         assertEquals(new File("project.json").getAbsoluteFile(), act.projectFile);
     }
 
+    @Test
+    public void serverSubcommand() {
+        final ServerArguments act = (ServerArguments) parser.processArgs(new String[]{
+                "server"
+        });
+        assertEquals("localhost", act.host);
+        assertEquals(8080, act.port);
+        assertEquals(1, act.threads);
+        assertNull(act.token);
+    }
+
+    @Test
+    public void serverSubcommand_withOptions() {
+        final ServerArguments act = (ServerArguments) parser.processArgs(new String[]{
+                "server",
+                "--host=0.0.0.0",
+                "--port", "9000",
+                "--threads=4",
+                "--token=secret"
+        });
+        assertEquals("0.0.0.0", act.host);
+        assertEquals(9000, act.port);
+        assertEquals(4, act.threads);
+        assertEquals("secret", act.token);
+    }
+
 
 }
\ No newline at end of file
@@ -8,6 +8,7 @@
 
 package org.dita.dost.invoker;
 
+import org.apache.tools.ant.BuildException;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -86,4 +87,23 @@ public class ConversionArgumentsTest {
                         + new File("bar.ditaval").getAbsolutePath(),
                 arguments.definedProps.get("args.filter"));
     }
+
+    @Test
+    public void parallelDeliverables() {
+        arguments.parse(new String[]{"--parallel-deliverables=4"});
+
+        assertEquals(4, arguments.parallelDeliverables);
+    }
+
+    @Test
+    public void parallelDeliverables_default() {
+        arguments.parse(new String[]{"-i", "foo.dita"});
+
+        assertEquals(1, arguments.parallelDeliverables);
+    }
+
+    @Test(expected = BuildException.class)
+    public void parallelDeliverables_invalid() {
+        arguments.parse(new String[]{"--parallel-deliverables=0"});
+    }
 }
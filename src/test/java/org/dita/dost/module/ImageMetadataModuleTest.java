@@ -32,6 +32,7 @@ import static org.apache.commons.io.FileUtils.copyFile;
 import static org.dita.dost.TestUtils.assertXMLEqual;
 import static org.dita.dost.util.Constants.ANT_INVOKER_EXT_PARAM_OUTPUTDIR;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class ImageMetadataModuleTest {
 
@@ -78,6 +79,43 @@ public class ImageMetadataModuleTest {
         assertEquals("image", job.getFileInfo(create("img.xxx")).format);
     }
 
+    @Test
+    public void testWrite_cache() throws DITAOTException, SAXException, IOException {
+        final File dir = new File(tempDir, "cache");
+        final File cacheDir = new File(dir, "image-metadata");
+        for (int i = 0; i < 2; i++) {
+            final File f = new File(dir, "test.dita");
+            copyFile(new File(srcDir, "test.dita"), f);
+
+            final Job job = new Job(dir, new StreamStore(dir, new XMLUtils()));
+            job.setProperty("uplevels", "");
+            job.setInputDir(srcDir.toURI());
+            job.addAll(asList("img.xxx", "img.png", "img.gif", "img.jpg").stream()
+                    .map(p -> new Builder()
+                            .uri(create(p)).src(new File(srcDir, p).toURI()).format("html")
+                            .build())
+                    .collect(Collectors.toList()));
+            job.add(new Builder()
+                    .uri(create("test.dita")).format("dita")
+                    .build());
+
+            final ImageMetadataModule filter = new ImageMetadataModule();
+            filter.setLogger(new TestUtils.TestLogger());
+            filter.setJob(job);
+
+            final AbstractPipelineInput input = new PipelineHashIO();
+            input.setAttribute(ANT_INVOKER_EXT_PARAM_OUTPUTDIR, new File(dir, "out").getAbsolutePath());
+            input.setAttribute("cache-dir", cacheDir.getAbsolutePath());
+            filter.execute(input);
+
+            assertTrue(new File(cacheDir, "image-metadata.properties").exists());
+            assertXMLEqual(new InputSource(new File(expDir, "test.dita").toURI().toString()),
+                    new InputSource(f.toURI().toString()));
+            assertEquals("image", job.getFileInfo(create("img.png")).format);
+            assertEquals("image", job.getFileInfo(create("img.xxx")).format);
+        }
+    }
+
     @AfterClass
     public static void teardown() throws IOException {
         TestUtils.forceDelete(tempDir);
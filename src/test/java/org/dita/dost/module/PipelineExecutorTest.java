@@ -0,0 +1,130 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.module;
+
+import org.dita.dost.exception.DITAOTException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class PipelineExecutorTest {
+
+    private PipelineExecutor executor;
+
+    @Before
+    public void setUp() {
+        executor = new PipelineExecutor(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    public void forEach_largestFirst() throws DITAOTException {
+        try (PipelineExecutor serial = new PipelineExecutor(1)) {
+            final List<String> act = new ArrayList<>();
+            serial.forEach(Arrays.asList("a", "bbb", "cc", "d", "eee"), String::length, act::add);
+
+            assertEquals(Arrays.asList("bbb", "eee", "cc", "a", "d"), act);
+        }
+    }
+
+    @Test
+    public void forEach_all() throws DITAOTException {
+        final List<Integer> items = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+        final Set<Integer> act = Collections.synchronizedSet(new HashSet<>());
+
+        executor.forEach(items, i -> i, act::add);
+
+        assertEquals(new HashSet<>(items), act);
+    }
+
+    @Test
+    public void forEach_failure() {
+        try {
+            executor.forEach(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8), i -> i, i -> {
+                if (i == 3) {
+                    throw new DITAOTException("Failed " + i);
+                }
+            });
+            fail();
+        } catch (final DITAOTException e) {
+            assertEquals("Failed 3", e.getMessage());
+        }
+    }
+
+    @Test
+    public void forEach_failureCancelsRemaining() {
+        final AtomicInteger count = new AtomicInteger();
+        try (PipelineExecutor serial = new PipelineExecutor(1)) {
+            serial.forEach(IntStream.range(0, 100).boxed().collect(Collectors.toList()), i -> 0L, i -> {
+                count.incrementAndGet();
+                if (i == 10) {
+                    throw new DITAOTException("Failed " + i);
+                }
+            });
+            fail();
+        } catch (final DITAOTException e) {
+            assertEquals("Failed 10", e.getMessage());
+        }
+        assertEquals(11, count.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void forEach_runtimeFailure() throws DITAOTException {
+        executor.forEach(Arrays.asList(1, 2, 3), i -> i, i -> {
+            throw new IllegalStateException();
+        });
+    }
+
+    @Test
+    public void forEach_nested() throws DITAOTException {
+        final AtomicInteger count = new AtomicInteger();
+
+        executor.forEach(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8), i -> i, i ->
+                executor.forEach(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8), j -> j, j -> count.incrementAndGet()));
+
+        assertEquals(64, count.get());
+    }
+
+    @Test
+    public void ioExecutor() throws DITAOTException {
+        final List<Integer> items = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        final Set<Integer> act = Collections.synchronizedSet(new HashSet<>());
+
+        try (PipelineExecutor io = PipelineExecutor.newIoExecutor()) {
+            io.forEach(items, i -> i, i -> {
+                act.add(i);
+                io.forEach(Arrays.asList(1, 2), j -> j, j -> {});
+            });
+        }
+
+        assertEquals(new HashSet<>(items), act);
+    }
+
+    @Test
+    public void forEach_threadName() throws DITAOTException {
+        final Set<String> names = Collections.synchronizedSet(new HashSet<>());
+
+        executor.forEach(Arrays.asList(1, 2, 3, 4), i -> i, i -> names.add(Thread.currentThread().getName()));
+
+        for (final String name : names) {
+            assertTrue(name, name.startsWith("dita-ot-pipeline-"));
+        }
+    }
+}
@@ -17,6 +17,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import org.dita.dost.TestUtils;
 import org.dita.dost.exception.DITAOTException;
@@ -105,6 +107,26 @@ public class TestTopicMergeModule {
                        new InputSource(tobecomparefile.toURI().toString()));
     }
 
+    @Test
+    public void testtopicmergemodule_style() throws DITAOTException, IOException, SAXException
+    {
+        final File style = new File(tempDir, "identity.xsl");
+        Files.write(style.toPath(), ("<xsl:stylesheet xmlns:xsl='http://www.w3.org/1999/XSL/Transform' version='2.0'>"
+                + "<xsl:template match='@* | node()'><xsl:copy><xsl:apply-templates select='@* | node()'/></xsl:copy></xsl:template>"
+                + "</xsl:stylesheet>").getBytes(StandardCharsets.UTF_8));
+        pipelineInput.setAttribute("style", style.getPath());
+
+        final TopicMergeModule topicmergemodule = new TopicMergeModule();
+        topicmergemodule.setLogger(new TestUtils.TestLogger());
+        topicmergemodule.setJob(job);
+        topicmergemodule.setXmlUtils(new XMLUtils());
+        topicmergemodule.execute(pipelineInput);
+
+        assertXMLEqual(new InputSource(ditalistfile.toURI().toString()),
+                       new InputSource(tobecomparefile.toURI().toString()));
+        assertEquals(0, temporaryDir.listFiles((dir, name) -> name.endsWith(".temp")).length);
+    }
+
     @After
     public void tearDown() throws IOException {
         TestUtils.forceDelete(tempDir);
@@ -8,20 +8,85 @@
 
 package org.dita.dost.module;
 
-import net.sf.saxon.Configuration;
-import net.sf.saxon.functions.FunctionLibraryList;
-import net.sf.saxon.jaxp.SaxonTransformerFactory;
-import net.sf.saxon.lib.CollationURIResolver;
-import net.sf.saxon.om.StructuredQName;
-import net.sf.saxon.trans.SymbolicName;
+import org.dita.dost.TestUtils;
+import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.pipeline.PipelineHashIO;
+import org.dita.dost.store.StreamStore;
+import org.dita.dost.util.Job;
+import org.dita.dost.util.XMLUtils;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
-import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.*;
 
 public class XsltModuleTest {
 
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
 
-}
\ No newline at end of file
+    private File tempDir;
+    private File style;
+    private XMLUtils xmlUtils;
+    private Job job;
+
+    @Before
+    public void setUp() throws IOException {
+        tempDir = temporaryFolder.newFolder();
+        style = temporaryFolder.newFile("style.xsl");
+        Files.write(style.toPath(), ("<xsl:stylesheet xmlns:xsl='http://www.w3.org/1999/XSL/Transform' version='2.0'>" +
+                "<xsl:param name='FILENAME'/>" +
+                "<xsl:param name='shared'/>" +
+                "<xsl:template match='/'><out file='{$FILENAME}' shared='{$shared}'/></xsl:template>" +
+                "</xsl:stylesheet>").getBytes(UTF_8));
+        xmlUtils = new XMLUtils();
+        job = new Job(tempDir, new StreamStore(tempDir, xmlUtils));
+    }
+
+    @Test
+    public void execute_serial() throws DITAOTException, IOException {
+        execute(false);
+    }
+
+    @Test
+    public void execute_parallel() throws DITAOTException, IOException {
+        execute(true);
+    }
+
+    private void execute(final boolean parallel) throws DITAOTException, IOException {
+        final List<File> includes = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            final File include = new File("topic" + i + ".xml");
+            Files.write(new File(tempDir, include.getPath()).toPath(), "<topic/>".getBytes(UTF_8));
+            includes.add(include);
+        }
+        final XsltModule module = new XsltModule();
+        module.setJob(job);
+        module.setLogger(new TestUtils.TestLogger());
+        module.setXmlUtils(xmlUtils);
+        module.setStyle(new StreamSource(style));
+        module.setIncludes(includes);
+        module.setSorceDir(tempDir);
+        module.setDestinationDir(tempDir);
+        module.setFilenameParam("FILENAME");
+        module.setParam("shared", "value");
+        module.setParallel(parallel);
+
+        module.execute(new PipelineHashIO());
+
+        for (final File include : includes) {
+            final String act = Files.readString(new File(tempDir, include.getPath()).toPath());
+            assertTrue(act, act.contains("file=\"" + include.getName() + "\""));
+            assertTrue(act, act.contains("shared=\"value\""));
+        }
+    }
+}
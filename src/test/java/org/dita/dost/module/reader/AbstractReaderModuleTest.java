@@ -0,0 +1,168 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.module.reader;
+
+import org.apache.commons.io.FileUtils;
+import org.dita.dost.TestUtils;
+import org.dita.dost.module.PipelineExecutor;
+import org.dita.dost.module.TestGenMapAndTopicListModule;
+import org.dita.dost.pipeline.PipelineHashIO;
+import org.dita.dost.store.StreamStore;
+import org.dita.dost.util.Job;
+import org.dita.dost.util.Job.FileInfo;
+import org.dita.dost.util.Job.FileInfoQuery;
+import org.dita.dost.util.XMLUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.dita.dost.util.Constants.*;
+import static org.dita.dost.util.Job.Generate.NOT_GENERATEOUTTER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AbstractReaderModuleTest {
+
+    private static final File resourceDir = new File(TestUtils.getResourceDir(TestGenMapAndTopicListModule.class), "src");
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private PipelineExecutor executor;
+    /** Copy of test resources, so that processing can never modify the resource files. */
+    private File srcDir;
+
+    @Before
+    public void setUp() throws IOException {
+        executor = new PipelineExecutor(4);
+        srcDir = temporaryFolder.newFolder("src");
+        FileUtils.copyDirectory(resourceDir, srcDir);
+    }
+
+    @After
+    public void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    public void parallel_conref() throws Exception {
+        assertSameAsSerial(new File(srcDir, "conref" + File.separator + "main.ditamap"));
+    }
+
+    @Test
+    public void parallel_topics() throws Exception {
+        assertSameAsSerial(new File(srcDir, "maps" + File.separator + "root-map-01.ditamap"));
+    }
+
+    @Test
+    public void inputResources() throws Exception {
+        final File tempDir = temporaryFolder.newFolder();
+        final File resource = new File(srcDir, "maps" + File.separator + "root-map-01.ditamap");
+        final PipelineHashIO input = getInput(new File(srcDir, "conref" + File.separator + "main.ditamap"), tempDir);
+        input.setAttribute(ANT_INVOKER_PARAM_RESOURCES, resource.getAbsolutePath());
+        final Job job = new Job(tempDir, new StreamStore(tempDir, new XMLUtils()));
+        final MapReaderModule module = new MapReaderModule();
+        module.setLogger(new TestUtils.TestLogger());
+        module.setJob(job);
+        module.setXmlUtils(new XMLUtils());
+        module.setExecutor(executor);
+        module.execute(input);
+
+        final Set<URI> exp = job.getFileInfo().stream()
+                .filter(fi -> fi.isInputResource)
+                .map(fi -> fi.uri)
+                .collect(Collectors.toSet());
+        assertTrue(exp.contains(URI.create("maps/root-map-01.ditamap")));
+        assertEquals(exp, job.getFileInfo(FileInfoQuery.INPUT_RESOURCE).stream()
+                .map(fi -> fi.uri)
+                .collect(Collectors.toSet()));
+    }
+
+    private void assertSameAsSerial(final File inputMap) throws Exception {
+        final File serialDir = temporaryFolder.newFolder();
+        final File parallelDir = temporaryFolder.newFolder();
+
+        final Job serial = read(inputMap, serialDir, false);
+        final Job parallel = read(inputMap, parallelDir, true);
+
+        assertEquals(getFileInfos(serial), getFileInfos(parallel));
+        final List<Path> files = listFiles(serialDir);
+        assertEquals(files, listFiles(parallelDir));
+        for (final Path file : files) {
+            assertEquals(file.toString(),
+                    read(serialDir, file),
+                    read(parallelDir, file));
+        }
+    }
+
+    private Job read(final File inputMap, final File tempDir, final boolean parallel) throws Exception {
+        final Job job = new Job(tempDir, new StreamStore(tempDir, new XMLUtils()));
+        for (final AbstractReaderModule module : Arrays.asList(new MapReaderModule(), new TopicReaderModule())) {
+            module.setLogger(new TestUtils.TestLogger());
+            module.setJob(job);
+            module.setXmlUtils(new XMLUtils());
+            module.setParallel(parallel);
+            module.setExecutor(executor);
+            module.execute(getInput(inputMap, tempDir));
+        }
+        return job;
+    }
+
+    private PipelineHashIO getInput(final File inputMap, final File tempDir) {
+        final PipelineHashIO input = new PipelineHashIO();
+        input.setAttribute(ANT_INVOKER_PARAM_INPUTMAP, inputMap.getAbsolutePath());
+        input.setAttribute(ANT_INVOKER_PARAM_BASEDIR, srcDir.getAbsolutePath());
+        input.setAttribute(ANT_INVOKER_EXT_PARAM_INPUTDIR, srcDir.getAbsolutePath());
+        input.setAttribute(ANT_INVOKER_EXT_PARAM_OUTPUTDIR, new File(tempDir, "out").getAbsolutePath());
+        input.setAttribute(ANT_INVOKER_PARAM_TEMPDIR, tempDir.getAbsolutePath());
+        input.setAttribute(ANT_INVOKER_EXT_PARAM_DITADIR, new File("src" + File.separator + "main").getAbsolutePath());
+        input.setAttribute(ANT_INVOKER_EXT_PARAM_VALIDATE, Boolean.FALSE.toString());
+        input.setAttribute(ANT_INVOKER_EXT_PARAM_GENERATECOPYOUTTER, Integer.toString(NOT_GENERATEOUTTER.type));
+        input.setAttribute(ANT_INVOKER_EXT_PARAM_OUTTERCONTROL, "warn");
+        input.setAttribute(ANT_INVOKER_EXT_PARAM_CRAWL, "topic");
+        input.setAttribute(ANT_INVOKER_EXT_PARAM_ONLYTOPICINMAP, Boolean.FALSE.toString());
+        input.setAttribute(ANT_INVOKER_PARAM_PROFILING_ENABLED, Boolean.FALSE.toString());
+        return input;
+    }
+
+    /** Read temporary file with temporary directory paths removed. */
+    private String read(final File tempDir, final Path file) throws IOException {
+        return Files.readString(tempDir.toPath().resolve(file))
+                .replace(tempDir.toURI().toString(), "")
+                .replace(tempDir.getAbsolutePath(), "");
+    }
+
+    private Set<String> getFileInfos(final Job job) {
+        return job.getFileInfo().stream()
+                .map(FileInfo::toString)
+                .collect(Collectors.toSet());
+    }
+
+    private List<Path> listFiles(final File dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir.toPath())) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .map(f -> dir.toPath().relativize(f))
+                    .filter(f -> !f.getFileName().toString().startsWith(".job"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.reader;
+
+import org.dita.dost.writer.ImageMetadataFilter.Dimensions;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class BitmapMetadataReaderTest {
+
+    @Test
+    public void testPng() throws IOException {
+        final Dimensions dimensions = read("img.png");
+        assertEquals("135", dimensions.width);
+        assertEquals("95", dimensions.height);
+        assertEquals("100", dimensions.horizontalDpi);
+        assertEquals("100", dimensions.verticalDpi);
+    }
+
+    @Test
+    public void testJpeg() throws IOException {
+        final Dimensions dimensions = read("img.jpg");
+        assertEquals("135", dimensions.width);
+        assertEquals("95", dimensions.height);
+        assertEquals("100", dimensions.horizontalDpi);
+        assertEquals("100", dimensions.verticalDpi);
+    }
+
+    @Test
+    public void testGif() throws IOException {
+        final Dimensions dimensions = read("img.gif");
+        assertEquals("135", dimensions.width);
+        assertEquals("95", dimensions.height);
+        assertNull(dimensions.horizontalDpi);
+        assertNull(dimensions.verticalDpi);
+    }
+
+    @Test
+    public void testTiff() throws IOException {
+        final Dimensions dimensions = read("img.tiff");
+        assertEquals("135", dimensions.width);
+        assertEquals("95", dimensions.height);
+        assertNull(dimensions.horizontalDpi);
+        assertNull(dimensions.verticalDpi);
+    }
+
+    @Test
+    public void testBmp() throws IOException {
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(135, 95, BufferedImage.TYPE_INT_RGB), "bmp", buf);
+        final Dimensions dimensions = BitmapMetadataReader.read(new ByteArrayInputStream(buf.toByteArray()));
+        assertEquals("135", dimensions.width);
+        assertEquals("95", dimensions.height);
+        assertNull(dimensions.horizontalDpi);
+        assertNull(dimensions.verticalDpi);
+    }
+
+    @Test
+    public void testUnsupported() throws IOException {
+        assertNull(read("img.xxx"));
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        final byte[] png;
+        try (InputStream in = getClass().getResourceAsStream("/ImageMetadataFilterTest/src/img.png")) {
+            png = in.readAllBytes();
+        }
+        assertNull(BitmapMetadataReader.read(new ByteArrayInputStream(Arrays.copyOf(png, 20))));
+        assertNull(BitmapMetadataReader.read(new ByteArrayInputStream(new byte[0])));
+    }
+
+    private Dimensions read(final String name) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/ImageMetadataFilterTest/src/" + name)) {
+            return BitmapMetadataReader.read(in);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.reader;
+
+import org.apache.xerces.impl.dtd.DTDGrammar;
+import org.apache.xerces.impl.dtd.XMLDTDDescription;
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class GrammarPoolManagerTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @After
+    public void tearDown() {
+        GrammarPoolManager.getGrammarPool().clear();
+    }
+
+    @Test
+    public void getGrammarPool_sharedBetweenThreads() throws Exception {
+        final XMLGrammarPool exp = GrammarPoolManager.getGrammarPool();
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final XMLGrammarPool act = executor.submit(GrammarPoolManager::getGrammarPool).get();
+            assertSame(exp, act);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void retrieveGrammar() throws IOException {
+        final File dtd = temporaryFolder.newFile("topic.dtd");
+        final XMLGrammarPool pool = GrammarPoolManager.getGrammarPool();
+        final DTDGrammar exp = new DTDGrammar(null, getDescription(dtd));
+        pool.cacheGrammars(XMLGrammarDescription.XML_DTD, new Grammar[] {exp});
+
+        assertSame(exp, pool.retrieveGrammar(getDescription(dtd)));
+    }
+
+    @Test
+    public void retrieveGrammar_modified() throws IOException {
+        final File dtd = temporaryFolder.newFile("topic.dtd");
+        final XMLGrammarPool pool = GrammarPoolManager.getGrammarPool();
+        pool.cacheGrammars(XMLGrammarDescription.XML_DTD, new Grammar[] {new DTDGrammar(null, getDescription(dtd))});
+        assertTrue(dtd.setLastModified(dtd.lastModified() + 2000));
+
+        assertNull(pool.retrieveGrammar(getDescription(dtd)));
+    }
+
+    private XMLDTDDescription getDescription(final File dtd) {
+        return new XMLDTDDescription("-//OASIS//DTD DITA Topic//EN", "topic.dtd", "file:/foo/abc.xml",
+                dtd.toURI().toString(), "topic");
+    }
+}
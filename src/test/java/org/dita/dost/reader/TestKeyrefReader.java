@@ -534,6 +534,29 @@ public class TestKeyrefReader {
                 act);
     }
 
+    @Test
+    public void testInheritedKeyref() throws DITAOTException {
+        final File filename = new File(srcDir, "inheritedKeyref.ditamap");
+
+        keyrefreader.read(filename.toURI(), readMap(filename));
+        final KeyScope act = keyrefreader.getKeyDefinition();
+
+        assertNull(act.get("alias").href);
+        assertNull(act.get("other").href);
+        assertEquals("root.dita", act.get("root").href.toString());
+        final KeyScope child = act.getChildScope("child");
+        assertEquals("child.dita", child.get("alias").href.toString());
+        assertEquals("child.dita", child.get("other").href.toString());
+        assertEquals("root.dita", child.get("root").href.toString());
+        final KeyScope grandchild = child.getChildScope("grandchild");
+        assertEquals("child.dita", grandchild.get("other").href.toString());
+        assertEquals("root.dita", grandchild.get("local").href.toString());
+        assertEquals(child.keySet().size() + 1, grandchild.keySet().size());
+        final KeyScope sibling = act.getChildScope("sibling");
+        assertNull(sibling.get("alias").href);
+        assertEquals("root.dita", sibling.get("local").href.toString());
+    }
+
     @Test
     public void testRootScope() throws DITAOTException {
         final File filename = new File(srcDir, "rootScope.ditamap");
@@ -0,0 +1,191 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.store;
+
+import org.apache.commons.io.IOUtils;
+import org.dita.dost.util.XMLUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+public class CacheStoreTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private XMLUtils xmlUtils;
+    private File tmpDir;
+
+    @Before
+    public void setUp() throws Exception {
+        xmlUtils = new XMLUtils();
+        tmpDir = temporaryFolder.newFolder();
+    }
+
+    @Test
+    public void writeDocument_unbounded() throws IOException {
+        final CacheStore store = new CacheStore(tmpDir, xmlUtils);
+        final URI first = tmpDir.toURI().resolve("first.xml");
+        store.writeDocument(createDocument("first"), first);
+
+        assertTrue(store.exists(first));
+        assertFalse(new File(first).exists());
+        assertEquals("first", store.getImmutableDocument(first).getDocumentElement().getTagName());
+    }
+
+    @Test
+    public void writeDocument_defaultConfiguration() throws IOException {
+        final Store store = new CacheStoreBuilder().setTempDir(tmpDir).setXmlUtils(xmlUtils)
+                .setProperties(Map.of()).build();
+        final URI first = tmpDir.toURI().resolve("first.xml");
+        final URI second = tmpDir.toURI().resolve("second.xml");
+        store.writeDocument(createDocument("first"), first);
+        store.writeDocument(createDocument("second"), second);
+
+        assertFalse(new File(first).exists());
+        assertEquals(first, store.getImmutableNode(first).getBaseURI());
+        assertEquals("first", store.getImmutableDocument(first).getDocumentElement().getTagName());
+        try (InputStream in = store.getInputStream(second)) {
+            assertTrue(IOUtils.toString(in, UTF_8).contains("<second>"));
+        }
+        assertEquals(0L, store.getMetrics().getTotal(StoreMetrics.Counter.COMPACT));
+        assertEquals(0L, store.getMetrics().getTotal(StoreMetrics.Counter.SPILL));
+    }
+
+    @Test
+    public void writeDocument_spillLeastRecentlyUsed() throws IOException {
+        final CacheStore store = new CacheStore(tmpDir, xmlUtils, 500L);
+        final URI first = tmpDir.toURI().resolve("sub/first.xml");
+        final URI second = tmpDir.toURI().resolve("sub/second.xml");
+        store.writeDocument(createDocument("first"), first);
+        store.writeDocument(createDocument("second"), second);
+
+        assertTrue(new File(first).exists());
+        assertTrue(store.exists(first));
+        assertEquals("first", store.getDocument(first).getDocumentElement().getTagName());
+        assertEquals("second", store.getDocument(second).getDocumentElement().getTagName());
+    }
+
+    @Test
+    public void writeDocument_replaceSpilled() throws IOException {
+        final CacheStore store = new CacheStore(tmpDir, xmlUtils, 500L);
+        final URI first = tmpDir.toURI().resolve("first.xml");
+        final URI second = tmpDir.toURI().resolve("second.xml");
+        store.writeDocument(createDocument("first"), first);
+        store.writeDocument(createDocument("second"), second);
+        assertTrue(new File(first).exists());
+
+        store.delete(second);
+        store.writeDocument(createDocument("replaced"), first);
+
+        assertFalse(new File(first).exists());
+        assertEquals("replaced", store.getDocument(first).getDocumentElement().getTagName());
+    }
+
+    @Test
+    public void writeDocument_compactLeastRecentlyUsed() throws IOException {
+        final CacheStore store = new CacheStore(tmpDir, xmlUtils, 4000L);
+        final URI first = tmpDir.toURI().resolve("first.xml");
+        final URI second = tmpDir.toURI().resolve("second.xml");
+        store.writeDocument(createDocument("first"), first);
+        store.writeDocument(createDocument("second"), second);
+
+        assertFalse(new File(first).exists());
+        assertEquals(first, store.getImmutableNode(first).getBaseURI());
+        assertEquals("first", store.getImmutableDocument(first).getDocumentElement().getTagName());
+        try (InputStream in = store.getInputStream(first)) {
+            assertTrue(IOUtils.toString(in, UTF_8).contains("<first>"));
+        }
+    }
+
+    @Test
+    public void getOutputStream_spill() throws IOException {
+        final CacheStore store = new CacheStore(tmpDir, xmlUtils, 1L);
+        final URI file = tmpDir.toURI().resolve("sub/file.bin");
+        try (OutputStream out = store.getOutputStream(file)) {
+            out.write("content".getBytes(UTF_8));
+        }
+
+        assertTrue(new File(file).exists());
+        try (InputStream in = store.getInputStream(file)) {
+            assertEquals("content", IOUtils.toString(in, UTF_8));
+        }
+    }
+
+    @Test
+    public void concurrentAccess() {
+        final CacheStore store = new CacheStore(tmpDir, xmlUtils, 20_000L);
+        IntStream.range(0, 200).parallel().forEach(i -> {
+            try {
+                final URI src = tmpDir.toURI().resolve("src/topic" + i + ".xml");
+                final URI dst = tmpDir.toURI().resolve("dst/topic" + i + ".xml");
+                store.writeDocument(createDocument("topic" + i), src);
+                assertEquals("topic" + i, store.getImmutableNode(src).children().iterator().next()
+                        .getNodeName().getLocalName());
+                store.move(src, dst);
+                assertFalse(store.exists(src));
+                assertEquals("topic" + i, store.getImmutableDocument(dst).getDocumentElement().getTagName());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        for (int i = 0; i < 200; i++) {
+            final URI dst = tmpDir.toURI().resolve("dst/topic" + i + ".xml");
+            assertTrue(store.exists(dst));
+        }
+    }
+
+    @Test
+    public void parseSize() {
+        assertEquals(100L, CacheStoreBuilder.parseSize("100"));
+        assertEquals(2048L, CacheStoreBuilder.parseSize("2k"));
+        assertEquals(512L * 1024 * 1024, CacheStoreBuilder.parseSize("512M"));
+        assertEquals(2L * 1024 * 1024 * 1024, CacheStoreBuilder.parseSize("2g"));
+        assertEquals(Runtime.getRuntime().maxMemory() / 2, CacheStoreBuilder.parseSize("50%"));
+    }
+
+    @Test
+    public void builder_reused() {
+        final CacheStoreBuilder builder = new CacheStoreBuilder();
+        builder.setTempDir(tmpDir).setXmlUtils(xmlUtils);
+
+        builder.setProperties(Map.of(CacheStoreBuilder.PROPERTY_CACHE_SIZE, "2k"));
+        assertEquals(2048L, ((CacheStore) builder.build()).getMaxWeight());
+
+        builder.setProperties(Map.of());
+        assertEquals(CacheStore.UNBOUNDED, ((CacheStore) builder.build()).getMaxWeight());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseSize_invalid() {
+        CacheStoreBuilder.parseSize("lots");
+    }
+
+    private Document createDocument(final String name) {
+        final Document doc = XMLUtils.getDocumentBuilder().newDocument();
+        doc.appendChild(doc.createElement(name));
+        for (int i = 0; i < 20; i++) {
+            doc.getDocumentElement().appendChild(doc.createElement("child"));
+        }
+        return doc;
+    }
+}
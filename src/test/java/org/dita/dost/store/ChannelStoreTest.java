@@ -0,0 +1,132 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.store;
+
+import org.apache.commons.io.IOUtils;
+import org.dita.dost.exception.DITAOTException;
+import org.dita.dost.util.XMLUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+public class ChannelStoreTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ChannelStore store;
+    private File tmpDir;
+
+    @Before
+    public void setUp() throws Exception {
+        tmpDir = temporaryFolder.newFolder();
+        store = new ChannelStore(tmpDir, new XMLUtils());
+    }
+
+    @Test
+    public void getOutputStream_getInputStream() throws IOException {
+        final URI file = tmpDir.toURI().resolve("sub/small.txt");
+        try (OutputStream out = store.getOutputStream(file)) {
+            out.write("content".getBytes(UTF_8));
+        }
+        try (InputStream in = store.getInputStream(file)) {
+            assertEquals("content", IOUtils.toString(in, UTF_8));
+        }
+    }
+
+    @Test
+    public void getInputStream_mapped() throws IOException {
+        final URI file = tmpDir.toURI().resolve("large.txt");
+        final String content = "x".repeat((int) ChannelStore.MAP_THRESHOLD * 2 + 1);
+        try (OutputStream out = store.getOutputStream(file)) {
+            out.write(content.getBytes(UTF_8));
+        }
+        try (InputStream in = store.getInputStream(file)) {
+            assertEquals(content, IOUtils.toString(in, UTF_8));
+        }
+    }
+
+    @Test
+    public void getOutputStream_replaceMapped() throws IOException {
+        final URI file = tmpDir.toURI().resolve("large.txt");
+        final String content = "x".repeat((int) ChannelStore.MAP_THRESHOLD * 2 + 1);
+        try (OutputStream out = store.getOutputStream(file)) {
+            out.write(content.getBytes(UTF_8));
+        }
+        try (InputStream in = store.getInputStream(file)) {
+            try (OutputStream out = store.getOutputStream(file)) {
+                out.write("short".getBytes(UTF_8));
+            }
+
+            assertEquals(content, IOUtils.toString(in, UTF_8));
+        }
+        assertEquals("short", new String(Files.readAllBytes(new File(file).toPath()), UTF_8));
+        assertArrayEquals(new String[] {"large.txt"}, tmpDir.list());
+    }
+
+    @Test
+    public void copy() throws IOException {
+        final File src = new File(tmpDir, "src.xml");
+        Files.write(src.toPath(), "<src/>".getBytes(UTF_8));
+        final URI dst = tmpDir.toURI().resolve("sub/dst.xml");
+
+        store.copy(src.toURI(), dst);
+
+        assertTrue(src.exists());
+        assertEquals("<src/>", new String(Files.readAllBytes(new File(dst).toPath()), UTF_8));
+    }
+
+    @Test
+    public void move() throws IOException {
+        final File src = new File(tmpDir, "src.xml");
+        Files.write(src.toPath(), "<src/>".getBytes(UTF_8));
+        final File dst = new File(tmpDir, "dst.xml");
+        Files.write(dst.toPath(), "<dst/>".getBytes(UTF_8));
+
+        store.move(src.toURI(), dst.toURI());
+
+        assertFalse(src.exists());
+        assertEquals("<src/>", new String(Files.readAllBytes(dst.toPath()), UTF_8));
+    }
+
+    @Test
+    public void getDocument() throws IOException {
+        final File src = new File(tmpDir, "src.xml");
+        Files.write(src.toPath(), "<src/>".getBytes(UTF_8));
+
+        final Document doc = store.getDocument(src.toURI());
+
+        assertEquals("src", doc.getDocumentElement().getTagName());
+        assertEquals(src.toURI().toString(), doc.getDocumentURI());
+    }
+
+    @Test
+    public void transform() throws IOException, DITAOTException {
+        final File src = new File(tmpDir, "src.xml");
+        Files.write(src.toPath(), "<src/>".getBytes(UTF_8));
+
+        store.transform(src.toURI(), Collections.emptyList());
+
+        assertEquals("src", store.getImmutableNode(src.toURI()).children().iterator().next()
+                .getNodeName().getLocalName());
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.store;
+
+import net.sf.saxon.s9api.SaxonApiException;
+import net.sf.saxon.s9api.XdmNode;
+import net.sf.saxon.trans.XPathException;
+import org.dita.dost.util.XMLUtils;
+import org.junit.Test;
+
+import javax.xml.transform.stream.StreamSource;
+import java.io.StringReader;
+import java.net.URI;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class CompactTreeTest {
+
+    private final XMLUtils xmlUtils = new XMLUtils();
+
+    @Test
+    public void roundTrip() throws SaxonApiException, XPathException {
+        final String xml = "<?xml-model href=\"topic.rng\"?>"
+                + "<!-- comment -->"
+                + "<topic xmlns:ditaarch=\"http://dita.oasis-open.org/architecture/2005/\" id=\"a\" "
+                + "ditaarch:DITAArchVersion=\"1.3\" class=\"- topic/topic \">"
+                + "<title class=\"- topic/title \">Title &amp; &lt;more&gt;</title>"
+                + "<body><p xmlns=\"urn:foo\" a=\"1\">äö 😀<x:q xmlns:x=\"urn:x\" x:b=\"2\"/></p>"
+                + "<p xmlns=\"\"><?pi data?></p></body>"
+                + "</topic>";
+        final URI systemId = URI.create("file:/tmp/topic.dita");
+        final StreamSource source = new StreamSource(new StringReader(xml), systemId.toString());
+        final XdmNode node = xmlUtils.getProcessor().newDocumentBuilder().build(source);
+
+        final ByteBuffer compact = CompactTree.encode(node);
+        final XdmNode act = CompactTree.decode(compact, xmlUtils.getProcessor().getUnderlyingConfiguration(),
+                systemId);
+
+        assertEquals(node.toString(), act.toString());
+        assertEquals(systemId, act.getBaseURI());
+        assertTrue(compact.capacity() < xml.length());
+    }
+
+    @Test
+    public void decodeTwice() throws SaxonApiException, XPathException {
+        final URI systemId = URI.create("file:/tmp/map.ditamap");
+        final StreamSource source = new StreamSource(new StringReader("<map><topicref href='a.dita'/></map>"),
+                systemId.toString());
+        final XdmNode node = xmlUtils.getProcessor().newDocumentBuilder().build(source);
+        final ByteBuffer compact = CompactTree.encode(node);
+
+        final XdmNode first = CompactTree.decode(compact, xmlUtils.getProcessor().getUnderlyingConfiguration(),
+                systemId);
+        final XdmNode second = CompactTree.decode(compact, xmlUtils.getProcessor().getUnderlyingConfiguration(),
+                systemId);
+
+        assertEquals(first.toString(), second.toString());
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.store;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.dita.dost.util.XMLUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.dita.dost.store.StoreMetrics.Counter.*;
+import static org.junit.Assert.*;
+
+public class StoreMetricsTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void stages() {
+        final StoreMetrics metrics = new StoreMetrics();
+        metrics.increment(HIT);
+        metrics.setStage("preprocess");
+        metrics.increment(HIT);
+        metrics.increment(MISS);
+        metrics.add(BYTES_READ, 100);
+        metrics.setStage("topic");
+        metrics.add(BYTES_READ, 10);
+
+        assertEquals(Arrays.asList(StoreMetrics.DEFAULT_STAGE, "preprocess", "topic"), metrics.getStages());
+        assertEquals(1L, metrics.get("preprocess", HIT));
+        assertEquals(1L, metrics.get("preprocess", MISS));
+        assertEquals(0L, metrics.get("missing", MISS));
+        assertEquals(2L, metrics.getTotal(HIT));
+        assertEquals(110L, metrics.getTotal(BYTES_READ));
+        assertEquals(Arrays.asList(
+                "init: hits=1",
+                "preprocess: hits=1, misses=1, bytesRead=100",
+                "topic: bytesRead=10",
+                "total: hits=2, misses=1, bytesRead=110"
+        ), metrics.format());
+    }
+
+    @Test
+    public void disabled() {
+        StoreMetrics.DISABLED.increment(HIT);
+        StoreMetrics.DISABLED.record(PARSE, PARSE_TIME, System.nanoTime());
+
+        assertEquals(0L, StoreMetrics.DISABLED.getTotal(HIT));
+        assertEquals(0L, StoreMetrics.DISABLED.getTotal(PARSE));
+    }
+
+    @Test
+    public void write() throws IOException {
+        final StoreMetrics metrics = new StoreMetrics();
+        metrics.setStage("preprocess");
+        metrics.increment(HIT);
+        final File dst = temporaryFolder.newFile("metrics.json");
+
+        metrics.write(dst);
+
+        final JsonNode json = new ObjectMapper().readTree(dst);
+        assertEquals(1L, json.get("stages").get("preprocess").get("hits").asLong());
+        assertEquals(0L, json.get("stages").get("preprocess").get("misses").asLong());
+        assertEquals(1L, json.get("total").get("hits").asLong());
+    }
+
+    @Test
+    public void cacheStore() throws IOException {
+        final File tmpDir = temporaryFolder.newFolder();
+        final CacheStore store = new CacheStore(tmpDir, new XMLUtils());
+        final StoreMetrics metrics = store.getMetrics();
+        final URI cached = tmpDir.toURI().resolve("cached.xml");
+        final File missing = new File(tmpDir, "missing.xml");
+        Files.write(missing.toPath(), "<missing/>".getBytes(UTF_8));
+        final Document doc = XMLUtils.getDocumentBuilder().newDocument();
+        doc.appendChild(doc.createElement("cached"));
+
+        metrics.setStage("test");
+        store.writeDocument(doc, cached);
+        store.getImmutableNode(cached);
+        store.getImmutableNode(missing.toURI());
+
+        assertEquals(1L, metrics.get("test", HIT));
+        assertEquals(1L, metrics.get("test", MISS));
+        assertEquals(1L, metrics.get("test", PARSE));
+        assertEquals(missing.length(), metrics.get("test", BYTES_READ));
+    }
+
+    @Test
+    public void streamStore() throws IOException {
+        final File tmpDir = temporaryFolder.newFolder();
+        final StreamStore store = new StreamStore(tmpDir, new XMLUtils());
+        final StoreMetrics metrics = store.getMetrics();
+        final URI file = tmpDir.toURI().resolve("file.txt");
+
+        try (OutputStream out = store.getOutputStream(file)) {
+            out.write("content".getBytes(UTF_8));
+        }
+        try (InputStream in = store.getInputStream(file)) {
+            assertEquals(7, in.readAllBytes().length);
+        }
+
+        final List<String> stages = metrics.getStages();
+        assertEquals(Arrays.asList(StoreMetrics.DEFAULT_STAGE), stages);
+        assertEquals(7L, metrics.getTotal(BYTES_WRITTEN));
+        assertEquals(7L, metrics.getTotal(BYTES_READ));
+    }
+
+    @Test
+    public void forProperties() {
+        assertFalse(StoreMetrics.forProperties(Map.of()).isEnabled());
+        assertTrue(StoreMetrics.forProperties(Map.of(StoreMetrics.PROPERTY_METRICS, "true")).isEnabled());
+        assertTrue(StoreMetrics.forProperties(Map.of(StoreMetrics.PROPERTY_METRICS_FILE, "metrics.json")).isEnabled());
+    }
+
+    @Test
+    public void builder_disabledByDefault() throws IOException {
+        final File tmpDir = temporaryFolder.newFolder();
+        final Store store = new StreamStoreBuilder().setTempDir(tmpDir).setXmlUtils(new XMLUtils())
+                .setProperties(Map.of()).build();
+        final URI file = tmpDir.toURI().resolve("file.txt");
+
+        try (OutputStream out = store.getOutputStream(file)) {
+            out.write("content".getBytes(UTF_8));
+        }
+
+        assertFalse(store.getMetrics().isEnabled());
+        assertEquals(0L, store.getMetrics().getTotal(BYTES_WRITTEN));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.util;
+
+import org.apache.xml.resolver.CatalogManager;
+import org.apache.xml.resolver.tools.CatalogResolver;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+public class CatalogUtilsTest {
+
+    private static final String PUBLIC_ID = "-//OASIS//DTD DITA Topic//EN";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @After
+    public void tearDown() {
+        CatalogUtils.setDitaDir(new File("src" + File.separator + "main").getAbsoluteFile());
+    }
+
+    @Test
+    public void getCatalogResolver_sameDitaDir() throws IOException {
+        final File ditaDir = temporaryFolder.newFolder();
+        CatalogUtils.setDitaDir(ditaDir);
+        final CatalogResolver exp = CatalogUtils.getCatalogResolver();
+
+        CatalogUtils.setDitaDir(ditaDir);
+
+        assertSame(exp, CatalogUtils.getCatalogResolver());
+    }
+
+    @Test
+    public void getCatalogResolver_differentDitaDir() throws IOException {
+        CatalogUtils.setDitaDir(temporaryFolder.newFolder());
+        final CatalogResolver exp = CatalogUtils.getCatalogResolver();
+
+        CatalogUtils.setDitaDir(temporaryFolder.newFolder());
+
+        assertNotSame(exp, CatalogUtils.getCatalogResolver());
+    }
+
+    @Test
+    public void getCatalogResolver_clear() throws IOException {
+        CatalogUtils.setDitaDir(temporaryFolder.newFolder());
+        final CatalogResolver exp = CatalogUtils.getCatalogResolver();
+
+        CatalogUtils.clear();
+
+        assertNotSame(exp, CatalogUtils.getCatalogResolver());
+    }
+
+    @Test
+    public void cachingCatalog() throws IOException {
+        final File dir = temporaryFolder.newFolder();
+        final File catalogFile = new File(dir, "catalog.xml");
+        writeCatalog(catalogFile, "topic.dtd");
+        final CachingCatalog catalog = newCatalog(catalogFile);
+
+        final String exp = new File(dir, "topic.dtd").toURI().toString();
+        assertEquals(exp, toFileUri(catalog.resolvePublic(PUBLIC_ID, null)));
+        assertEquals(exp, toFileUri(catalog.resolveURI("urn:topic")));
+        assertNull(catalog.resolveSystem("missing.dtd"));
+
+        writeCatalog(catalogFile, "changed.dtd");
+        assertEquals(exp, toFileUri(catalog.resolvePublic(PUBLIC_ID, null)));
+        assertEquals(exp, toFileUri(catalog.resolveURI("urn:topic")));
+    }
+
+    @Test
+    public void cachingCatalog_systemMissNotCached() throws IOException {
+        final File dir = temporaryFolder.newFolder();
+        final File catalogFile = new File(dir, "catalog.xml");
+        writeCatalog(catalogFile, "topic.dtd");
+        final CachingCatalog catalog = newCatalog(catalogFile);
+        assertNull(catalog.resolveSystem("urn:system"));
+
+        final File otherCatalogFile = new File(dir, "other.xml");
+        Files.write(otherCatalogFile.toPath(), ("<catalog xmlns='urn:oasis:names:tc:entity:xmlns:xml:catalog'>" +
+                "<system systemId='urn:system' uri='system.dtd'/>" +
+                "</catalog>").getBytes(UTF_8));
+        catalog.parseCatalog(otherCatalogFile.toURI().toString());
+
+        assertEquals(new File(dir, "system.dtd").toURI().toString(), toFileUri(catalog.resolveSystem("urn:system")));
+    }
+
+    private CachingCatalog newCatalog(final File catalogFile) throws IOException {
+        final CatalogManager manager = new CatalogManager();
+        manager.setIgnoreMissingProperties(true);
+        manager.setUseStaticCatalog(false);
+        manager.setPreferPublic(true);
+        final CachingCatalog catalog = new CachingCatalog();
+        catalog.setCatalogManager(manager);
+        catalog.setupReaders();
+        catalog.parseCatalog(catalogFile.toURI().toString());
+        return catalog;
+    }
+
+    private void writeCatalog(final File catalogFile, final String dtd) throws IOException {
+        Files.write(catalogFile.toPath(), ("<catalog xmlns='urn:oasis:names:tc:entity:xmlns:xml:catalog'>" +
+                "<public publicId='" + PUBLIC_ID + "' uri='" + dtd + "'/>" +
+                "<uri name='urn:topic' uri='" + dtd + "'/>" +
+                "</catalog>").getBytes(UTF_8));
+    }
+
+    private String toFileUri(final String uri) {
+        return URLUtils.toFile(URLUtils.toURI(uri)).toURI().toString();
+    }
+}
@@ -73,6 +73,23 @@ public class DitaClassTest {
         assertTrue(new DitaClass("- foo/bar baz/qux ").matches("- foo/bar baz/qux "));
     }
 
+    @Test
+    public void testMatchesString_sameAsContains() {
+        final String[] classes = {
+                "- topic/p ", "- topic/p", " - topic/p ", "-  topic/p  ", "- topic/p\t", "-\ttopic/p ",
+                "topic/p ", " topic/p ", "- topic/ph hi-d/b ", "+ topic/p task/p ", "- topic/pre ", ""
+        };
+        final DitaClass[] matchers = {
+                new DitaClass("- topic/p "), new DitaClass("- topic/ph hi-d/b "), new DitaClass("+ topic/p task/p ")
+        };
+        for (final DitaClass matcher : matchers) {
+            for (final String cls : classes) {
+                assertEquals(matcher + " " + cls, cls.contains(matcher.matcher), matcher.matches(cls));
+                assertEquals(matcher + " " + cls, cls.contains(matcher.matcher), matcher.matches(cls));
+            }
+        }
+    }
+
     @Test
     public void testMatchesAttributes() {
         final AttributesImpl atts = new AttributesImpl();
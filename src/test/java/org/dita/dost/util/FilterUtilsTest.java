@@ -392,6 +392,17 @@ public class FilterUtilsTest {
         }
     }
     
+    @Test
+    public void testGetGroups_cached() {
+        final FilterUtils f = new FilterUtils(false, Collections.emptyMap(), null, null);
+
+        final Map<QName, List<String>> exp = f.getGroups("foo group(a b c) bar");
+
+        assertSame(exp, f.getGroups("foo group(a b c) bar"));
+        assertEquals(Collections.emptyMap(), f.getGroups("  "));
+        assertEquals(Collections.singletonMap(null, Arrays.asList("foo", "bar")), f.getGroups(" foo  bar "));
+    }
+
     private Attributes attr(final QName name, final String value) {
         final AttributesImpl res = new AttributesImpl();
         XMLUtils.addOrSetAttribute(res, name, value);
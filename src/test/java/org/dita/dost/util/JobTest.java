@@ -8,22 +8,29 @@
 package org.dita.dost.util;
 
 import org.dita.dost.TestUtils;
+import org.dita.dost.util.Job.FileInfoQuery;
+import org.dita.dost.util.Job.FileInfoQuery.Flag;
+import org.dita.dost.store.CacheStore;
 import org.dita.dost.store.StreamStore;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.function.Predicate;
 
 import static org.dita.dost.util.Constants.INPUT_DIR;
 import static org.dita.dost.util.Constants.INPUT_DIR_URI;
 import static org.dita.dost.util.URLUtils.toURI;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNull;
+import static org.junit.Assert.*;
 
 public final class JobTest {
 
@@ -31,6 +38,9 @@ public final class JobTest {
     private static final File srcDir = new File(resourceDir, "src");
     private static File tempDir;
     private static Job job;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
     
     @BeforeClass
     public static void setUp() throws IOException {
@@ -72,6 +82,203 @@ public final class JobTest {
         assertEquals(new URI("file:/foo/bar"), job.getInputDir());
     }
 
+    @Test
+    public void write_journal() throws IOException {
+        final File dir = temporaryFolder.newFolder();
+        final Job act = new Job(dir, new StreamStore(dir, new XMLUtils()));
+        for (int i = 0; i < 10; i++) {
+            act.add(createFileInfo(dir, i));
+        }
+        act.write();
+        final File journal = new File(dir, ".job.journal");
+        assertFalse(journal.exists());
+        final long snapshot = Files.size(new File(dir, ".job.xml").toPath());
+
+        act.getFileInfo(toURI("topic_1.dita")).hasConref = true;
+        act.remove(act.getFileInfo(toURI("topic_2.dita")));
+        act.add(createFileInfo(dir, 10));
+        act.setProperty("foo", "bar");
+        act.write();
+
+        assertTrue(journal.exists());
+        assertEquals(snapshot, Files.size(new File(dir, ".job.xml").toPath()));
+        assertFalse(act.isStale());
+        final Job exp = new Job(dir, new StreamStore(dir, new XMLUtils()));
+        assertEquals(new HashSet<>(act.getFileInfo()), new HashSet<>(exp.getFileInfo()));
+        assertEquals("bar", exp.getProperty("foo"));
+        assertTrue(exp.getFileInfo(toURI("topic_1.dita")).hasConref);
+        assertNull(exp.getFileInfo(toURI("topic_2.dita")));
+    }
+
+    @Test
+    public void write_journalMemoryStore() throws IOException {
+        final File dir = temporaryFolder.newFolder();
+        final CacheStore store = new CacheStore(dir, new XMLUtils());
+        final Job act = new Job(dir, store);
+        for (int i = 0; i < 10; i++) {
+            act.add(createFileInfo(dir, i));
+        }
+        act.write();
+        act.setProperty("foo", "bar");
+        act.write();
+
+        final URI journal = new File(dir, ".job.journal").toURI();
+        assertTrue(store.exists(journal));
+        assertFalse(new File(journal).exists());
+        final Job exp = new Job(dir, store);
+        assertEquals(new HashSet<>(act.getFileInfo()), new HashSet<>(exp.getFileInfo()));
+        assertEquals("bar", exp.getProperty("foo"));
+    }
+
+    @Test
+    public void write_unchanged() throws IOException {
+        final File dir = temporaryFolder.newFolder();
+        final Job act = new Job(dir, new StreamStore(dir, new XMLUtils()));
+        act.add(createFileInfo(dir, 0));
+        act.write();
+        final File jobFile = new File(dir, ".job.xml");
+        jobFile.setLastModified(jobFile.lastModified() - 2000);
+        final Job reloaded = new Job(dir, new StreamStore(dir, new XMLUtils()));
+        final long lastModified = jobFile.lastModified();
+
+        reloaded.write();
+
+        assertEquals(lastModified, jobFile.lastModified());
+        assertFalse(new File(dir, ".job.journal").exists());
+    }
+
+    @Test
+    public void write_journalCompacted() throws IOException {
+        final File dir = temporaryFolder.newFolder();
+        final Job act = new Job(dir, new StreamStore(dir, new XMLUtils()));
+        act.add(createFileInfo(dir, 0));
+        act.write();
+        final File journal = new File(dir, ".job.journal");
+
+        for (int i = 1; i < 100 && !journal.exists(); i++) {
+            act.add(createFileInfo(dir, i));
+            act.write();
+        }
+        assertTrue(journal.exists());
+        for (int i = 0; i < 100 && journal.exists(); i++) {
+            act.getFileInfo(toURI("topic_0.dita")).hasLink = i % 2 == 0;
+            act.write();
+        }
+
+        assertFalse(journal.exists());
+    }
+
+    @Test
+    public void compact() throws IOException {
+        final File dir = temporaryFolder.newFolder();
+        final Job act = new Job(dir, new StreamStore(dir, new XMLUtils()));
+        for (int i = 0; i < 10; i++) {
+            act.add(createFileInfo(dir, i));
+        }
+        act.write();
+        act.getFileInfo(toURI("topic_1.dita")).hasConref = true;
+        act.write();
+        final File journal = new File(dir, ".job.journal");
+        assertTrue(journal.exists());
+
+        act.compact();
+
+        assertFalse(journal.exists());
+        final Job exp = new Job(dir, new StreamStore(dir, new XMLUtils()));
+        assertEquals(new HashSet<>(act.getFileInfo()), new HashSet<>(exp.getFileInfo()));
+    }
+
+    @Test
+    public void read_journalOfOtherSnapshot() throws IOException {
+        final File dir = temporaryFolder.newFolder();
+        final Job act = new Job(dir, new StreamStore(dir, new XMLUtils()));
+        for (int i = 0; i < 10; i++) {
+            act.add(createFileInfo(dir, i));
+        }
+        act.write();
+        act.setProperty("foo", "bar");
+        act.write();
+        final File journal = new File(dir, ".job.journal");
+        assertTrue(journal.exists());
+        Files.writeString(new File(dir, ".job.xml").toPath(), "<job><files/></job>");
+
+        final Job exp = new Job(dir, new StreamStore(dir, new XMLUtils()));
+
+        assertTrue(exp.getFileInfo().isEmpty());
+        assertNull(exp.getProperty("foo"));
+        assertFalse(journal.exists());
+    }
+
+    @Test
+    public void getFileInfo_query() throws IOException {
+        final File dir = temporaryFolder.newFolder();
+        final Job act = new Job(dir, new StreamStore(dir, new XMLUtils()));
+        final Random random = new Random(42);
+        final String[] formats = {null, "", "dita", "ditamap", "image"};
+        for (int i = 0; i < 500; i++) {
+            act.add(Job.FileInfo.builder()
+                    .uri(toURI("topic_" + i + ".dita"))
+                    .format(formats[random.nextInt(formats.length)])
+                    .isInput(i == 0)
+                    .isInputResource(random.nextInt(10) == 0)
+                    .isResourceOnly(random.nextInt(5) == 0)
+                    .hasKeyref(random.nextBoolean())
+                    .build());
+        }
+        final List<Predicate<Job.FileInfo>> exps = List.of(
+                fi -> fi.isInput,
+                fi -> fi.hasKeyref,
+                fi -> fi.isInputResource && "ditamap".equals(fi.format),
+                fi -> fi.isInput || fi.isInputResource,
+                fi -> fi.format == null || fi.format.isEmpty() || fi.format.equals("dita"),
+                fi -> !fi.isResourceOnly && "dita".equals(fi.format),
+                fi -> true);
+        final List<FileInfoQuery> queries = List.of(
+                FileInfoQuery.INPUT,
+                FileInfoQuery.HAS_KEYREF,
+                FileInfoQuery.INPUT_RESOURCE.and(FileInfoQuery.DITAMAP),
+                FileInfoQuery.INPUT.or(FileInfoQuery.INPUT_RESOURCE),
+                FileInfoQuery.DITA,
+                FileInfoQuery.format("dita").and(FileInfoQuery.flag(Flag.RESOURCE_ONLY, false)),
+                FileInfoQuery.ALL);
+        for (int i = 0; i < queries.size(); i++) {
+            assertEquals(new HashSet<>(act.getFileInfo(exps.get(i))), new HashSet<>(act.getFileInfo(queries.get(i))));
+        }
+    }
+
+    @Test
+    public void getFileInfo_queryUpdated() throws IOException {
+        final File dir = temporaryFolder.newFolder();
+        final Job act = new Job(dir, new StreamStore(dir, new XMLUtils()));
+        for (int i = 0; i < 10; i++) {
+            act.add(createFileInfo(dir, i));
+        }
+        assertTrue(act.getFileInfo(FileInfoQuery.HAS_KEYREF).isEmpty());
+
+        final Job.FileInfo fi = act.getFileInfo(toURI("topic_1.dita"));
+        fi.hasKeyref = true;
+        fi.format = "ditamap";
+        act.add(fi);
+        act.remove(act.getFileInfo(toURI("topic_2.dita")));
+
+        assertEquals(List.of(fi), act.getFileInfo(FileInfoQuery.HAS_KEYREF));
+        assertEquals(List.of(fi), act.getFileInfo(FileInfoQuery.DITAMAP));
+        assertEquals(8, act.getFileInfo(FileInfoQuery.format("dita")).size());
+        assertTrue(act.getFileInfo(FileInfoQuery.HAS_KEYREF.and(FileInfoQuery.format("dita"))).isEmpty());
+
+        act.write();
+        final Job reloaded = new Job(dir, new StreamStore(dir, new XMLUtils()));
+        assertEquals(List.of(fi), reloaded.getFileInfo(FileInfoQuery.HAS_KEYREF));
+    }
+
+    private static Job.FileInfo createFileInfo(final File dir, final int i) {
+        return Job.FileInfo.builder()
+                .src(new File(dir, "src" + File.separator + "topic_" + i + ".dita").toURI())
+                .uri(toURI("topic_" + i + ".dita"))
+                .format("dita")
+                .build();
+    }
+
     @Test
     @Ignore
     public void write_performance_large() throws IOException {
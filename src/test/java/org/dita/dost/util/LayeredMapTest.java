@@ -0,0 +1,84 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.util;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class LayeredMapTest {
+
+    private final Map<String, String> primary = Map.of("a", "primary-a", "b", "primary-b");
+    private final Map<String, String> secondary = Map.of("b", "secondary-b", "c", "secondary-c");
+
+    @Test
+    public void get() {
+        final Map<String, String> act = new LayeredMap<>(primary, secondary);
+
+        assertEquals("primary-a", act.get("a"));
+        assertEquals("primary-b", act.get("b"));
+        assertEquals("secondary-c", act.get("c"));
+        assertNull(act.get("d"));
+        assertTrue(act.containsKey("c"));
+        assertFalse(act.containsKey("d"));
+    }
+
+    @Test
+    public void get_nullValue() {
+        final Map<String, String> nulls = new HashMap<>();
+        nulls.put("b", null);
+
+        final Map<String, String> act = new LayeredMap<>(nulls, secondary);
+
+        assertNull(act.get("b"));
+        assertTrue(act.containsKey("b"));
+    }
+
+    @Test
+    public void equals() {
+        final Map<String, String> exp = Map.of("a", "primary-a", "b", "primary-b", "c", "secondary-c");
+
+        final Map<String, String> act = new LayeredMap<>(primary, secondary);
+
+        assertEquals(exp, act);
+        assertEquals(act, exp);
+        assertEquals(exp.hashCode(), act.hashCode());
+        assertEquals(3, act.size());
+        assertEquals(exp.keySet(), act.keySet());
+    }
+
+    @Test
+    public void iterator_primaryFirst() {
+        final Map<String, String> act = new LayeredMap<>(new TreeMap<>(primary), new TreeMap<>(secondary));
+
+        assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(act.keySet()));
+    }
+
+    @Test
+    public void nested() {
+        final Map<String, String> act = new LayeredMap<>(Map.of("c", "top-c"), new LayeredMap<>(primary, secondary));
+
+        assertEquals("top-c", act.get("c"));
+        assertEquals("primary-b", act.get("b"));
+        assertEquals(3, act.size());
+    }
+
+    @Test
+    public void of_empty() {
+        assertSame(secondary, LayeredMap.of(Collections.emptyMap(), secondary));
+        assertSame(primary, LayeredMap.of(primary, Collections.emptyMap()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void put() {
+        new LayeredMap<>(primary, secondary).put("d", "d");
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+
+package org.dita.dost.util;
+
+import net.sf.saxon.s9api.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.xml.transform.stream.StreamSource;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+public class XsltCacheTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File main;
+    private File imported;
+
+    @Before
+    public void setUp() throws IOException {
+        final File dir = temporaryFolder.newFolder();
+        main = new File(dir, "main.xsl");
+        imported = new File(dir, "imported.xsl");
+        Files.write(main.toPath(), ("<xsl:stylesheet xmlns:xsl='http://www.w3.org/1999/XSL/Transform' version='2.0'>" +
+                "<xsl:import href='imported.xsl'/>" +
+                "</xsl:stylesheet>").getBytes(UTF_8));
+        writeImported("first");
+    }
+
+    @After
+    public void tearDown() {
+        XsltCache.clear();
+    }
+
+    @Test
+    public void compile_sameConfiguration() throws SaxonApiException {
+        final XMLUtils xmlUtils = new XMLUtils();
+
+        final XsltExecutable exp = XsltCache.compile(xmlUtils.getProcessor().newXsltCompiler(), new StreamSource(main));
+        final XsltExecutable act = XsltCache.compile(xmlUtils.getProcessor().newXsltCompiler(), new StreamSource(main));
+
+        assertSame(exp, act);
+        final XdmNode src = xmlUtils.getProcessor().newDocumentBuilder()
+                .build(new StreamSource(new StringReader("<root/>")));
+        assertEquals("first", transform(act, src));
+    }
+
+    @Test
+    public void compile_notSharedBetweenConfigurations() throws SaxonApiException {
+        final XMLUtils first = new XMLUtils();
+        final XMLUtils second = new XMLUtils();
+
+        final XsltExecutable exp = XsltCache.compile(first.getProcessor().newXsltCompiler(), new StreamSource(main));
+        final XsltExecutable act = XsltCache.compile(second.getProcessor().newXsltCompiler(), new StreamSource(main));
+
+        assertNotSame(exp, act);
+        assertSame(second.getProcessor().getUnderlyingConfiguration(),
+                act.getUnderlyingCompiledStylesheet().getConfiguration());
+    }
+
+    @Test
+    public void compile_importModified() throws SaxonApiException, IOException {
+        final XMLUtils xmlUtils = new XMLUtils();
+        final XsltExecutable exp = XsltCache.compile(xmlUtils.getProcessor().newXsltCompiler(), new StreamSource(main));
+        writeImported("second");
+        imported.setLastModified(imported.lastModified() + 2000);
+
+        final XsltExecutable act = XsltCache.compile(xmlUtils.getProcessor().newXsltCompiler(), new StreamSource(main));
+
+        assertNotSame(exp, act);
+        final XdmNode src = xmlUtils.getProcessor().newDocumentBuilder()
+                .build(new StreamSource(new StringReader("<root/>")));
+        assertEquals("second", transform(act, src));
+    }
+
+    @Test
+    public void compile_clear() throws SaxonApiException {
+        final XMLUtils xmlUtils = new XMLUtils();
+        final XsltExecutable exp = XsltCache.compile(xmlUtils.getProcessor().newXsltCompiler(), new StreamSource(main));
+        XsltCache.clear();
+
+        final XsltExecutable act = XsltCache.compile(xmlUtils.getProcessor().newXsltCompiler(), new StreamSource(main));
+
+        assertNotSame(exp, act);
+    }
+
+    @Test
+    public void compile_streamNotCached() throws SaxonApiException, IOException {
+        final XMLUtils xmlUtils = new XMLUtils();
+        final String xsl = Files.readString(imported.toPath());
+        final XsltExecutable exp = XsltCache.compile(xmlUtils.getProcessor().newXsltCompiler(),
+                new StreamSource(new StringReader(xsl), imported.toURI().toString()));
+
+        final XsltExecutable act = XsltCache.compile(xmlUtils.getProcessor().newXsltCompiler(),
+                new StreamSource(new StringReader(xsl), imported.toURI().toString()));
+
+        assertNotSame(exp, act);
+    }
+
+    private void writeImported(final String value) throws IOException {
+        Files.write(imported.toPath(), ("<xsl:stylesheet xmlns:xsl='http://www.w3.org/1999/XSL/Transform' version='2.0'>" +
+                "<xsl:template match='/'><out>" + value + "</out></xsl:template>" +
+                "</xsl:stylesheet>").getBytes(UTF_8));
+    }
+
+    private String transform(final XsltExecutable executable, final XdmNode src) throws SaxonApiException {
+        final XsltTransformer transformer = executable.load();
+        transformer.setInitialContextNode(src);
+        final XdmDestination dst = new XdmDestination();
+        transformer.setDestination(dst);
+        transformer.transform();
+        return dst.getXdmNode().getStringValue();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * This file is part of the DITA Open Toolkit project.
+ *
+ * Copyright 2023 Jarno Elovirta
+ *
+ * See the accompanying LICENSE file for applicable license.
+ */
+package org.dita.dost.writer;
+
+import org.dita.dost.writer.ImageMetadataFilter.Dimensions;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class ImageMetadataCacheTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File cacheFile;
+    private File image;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheFile = new File(temporaryFolder.getRoot(), "cache" + File.separator + "image-metadata.properties");
+        image = temporaryFolder.newFile("img.png");
+        Files.write(image.toPath(), new byte[] {1, 2, 3});
+    }
+
+    @Test
+    public void get() throws IOException {
+        final ImageMetadataCache cache = new ImageMetadataCache(cacheFile);
+        cache.put(image, dimensions("135", "95", "100", null));
+        cache.store();
+
+        final Dimensions act = new ImageMetadataCache(cacheFile).get(image);
+        assertEquals("135", act.width);
+        assertEquals("95", act.height);
+        assertEquals("100", act.horizontalDpi);
+        assertNull(act.verticalDpi);
+    }
+
+    @Test
+    public void get_notCached() {
+        assertNull(new ImageMetadataCache(cacheFile).get(image));
+    }
+
+    @Test
+    public void get_imageChanged() throws IOException {
+        final ImageMetadataCache cache = new ImageMetadataCache(cacheFile);
+        cache.put(image, dimensions("135", "95", null, null));
+        cache.store();
+
+        Files.write(image.toPath(), new byte[] {1, 2, 3, 4});
+
+        assertNull(new ImageMetadataCache(cacheFile).get(image));
+    }
+
+    @Test
+    public void get_imageTouched() throws IOException {
+        final ImageMetadataCache cache = new ImageMetadataCache(cacheFile);
+        cache.put(image, dimensions("135", "95", null, null));
+        cache.store();
+
+        assertTrue(image.setLastModified(image.lastModified() + 2000));
+
+        assertNull(new ImageMetadataCache(cacheFile).get(image));
+    }
+
+    @Test
+    public void store_imageRemoved() throws IOException {
+        final File other = temporaryFolder.newFile("other.png");
+        final ImageMetadataCache cache = new ImageMetadataCache(cacheFile);
+        cache.put(image, dimensions("135", "95", null, null));
+        cache.put(other, dimensions("10", "10", null, null));
+        Files.delete(image.toPath());
+        cache.store();
+
+        final String act = Files.readString(cacheFile.toPath());
+        assertFalse(act.contains("img.png"));
+        assertTrue(act.contains("other.png"));
+    }
+
+    @Test
+    public void store_concurrentCaches() throws IOException {
+        final ImageMetadataCache first = new ImageMetadataCache(cacheFile);
+        final ImageMetadataCache second = new ImageMetadataCache(cacheFile);
+        first.put(image, dimensions("135", "95", null, null));
+        second.put(image, dimensions("10", "10", null, null));
+        first.store();
+        second.store();
+
+        assertEquals("10", new ImageMetadataCache(cacheFile).get(image).width);
+        assertArrayEquals(new String[] {cacheFile.getName()}, cacheFile.getParentFile().list());
+    }
+
+    private static Dimensions dimensions(final String width, final String height,
+                                         final String horizontalDpi, final String verticalDpi) {
+        final Dimensions dimensions = new Dimensions();
+        dimensions.width = width;
+        dimensions.height = height;
+        dimensions.horizontalDpi = horizontalDpi;
+        dimensions.verticalDpi = verticalDpi;
+        return dimensions;
+    }
+}